@@ -0,0 +1,56 @@
+package com.team.ja.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cursor-based page of results.
+ * Use this for endpoints that page with a continuation token instead of a page
+ * number. Pass {@code nextCursor} back to get the following page.
+ *
+ * @param <T> Type of content items
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Cursor-paginated response wrapper")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "List of items in current page")
+    private List<T> content;
+
+    @Schema(description = "Maximum number of items per page", example = "20")
+    private int pageSize;
+
+    @Schema(description = "Opaque token for the next page; absent on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Are there more items after this page?", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Set when some data sources did not answer and the page may be incomplete", example = "true")
+    private Boolean partial;
+
+    @Schema(description = "Data sources (e.g. shards) that did not answer; only set on partial pages")
+    private List<String> unavailableSources;
+
+    /**
+     * Create CursorPageResponse manually.
+     */
+    public static <T> CursorPageResponse<T> of(List<T> content, int pageSize, String nextCursor) {
+        return CursorPageResponse.<T>builder()
+                .content(content)
+                .pageSize(pageSize)
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .build();
+    }
+}
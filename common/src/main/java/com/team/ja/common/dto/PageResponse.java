@@ -53,6 +53,12 @@ public class PageResponse<T> {
     @Schema(description = "Are there pages before this?", example = "false")
     private boolean hasPrevious;
 
+    @Schema(description = "Set when some data sources did not answer and the page may be incomplete", example = "true")
+    private Boolean partial;
+
+    @Schema(description = "Data sources (e.g. shards) that did not answer; only set on partial pages")
+    private List<String> unavailableSources;
+
     /**
      * Create PageResponse from Spring Data Page object.
      * 
@@ -112,7 +112,15 @@ public abstract class BaseEntity implements Persistable<UUID> {
     @PrePersist
     protected void assignIdIfNecessary() {
         if (this.id == null) {
-            this.id = UUID.randomUUID();
+            this.id = generateId();
         }
     }
+
+    /**
+     * Generate a new ID for this entity. Defaults to a random UUID; services may
+     * override it to embed routing information in the ID.
+     */
+    protected UUID generateId() {
+        return UUID.randomUUID();
+    }
 }
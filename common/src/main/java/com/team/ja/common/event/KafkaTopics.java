@@ -117,6 +117,14 @@ public final class KafkaTopics {
      */
     public static final String USER_PROFILE_UPDATE = "user-profile-update";
 
+    /**
+     * Topic for search profile change notices; only the userId is set, the
+     * consumer reloads the profile from the user's shard.
+     * Producer: user-service
+     * Consumer: user-service (to keep the job match index current)
+     */
+    public static final String USER_SEARCH_PROFILE_CHANGED = "user-search-profile-changed";
+
     /**
      * Topic for job post published events.
      * Producer: jm-service
@@ -39,10 +39,10 @@ public class AdminDashboardController {
         // 1. Fetch Total Users
         CompletableFuture<Long> usersFuture = CompletableFuture.supplyAsync(() -> {
             try {
-                // Request page 0 size 1 just to get the totalElements metadata
-                var response = userClient.getAllUsers(0, 1);
+                // Served from user-service's maintained per-shard counters
+                var response = userClient.getUserCounts();
                 if (response.isSuccess() && response.getData() != null) {
-                    return response.getData().getTotalElements();
+                    return extractLongFromMap(response.getData(), "totalUsers");
                 }
                 return 0L;
             } catch (Exception e) {
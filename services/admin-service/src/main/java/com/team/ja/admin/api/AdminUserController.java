@@ -2,6 +2,7 @@ package com.team.ja.admin.api;
 
 import com.team.ja.admin.client.UserClient;
 import com.team.ja.common.dto.ApiResponse;
+import com.team.ja.common.dto.CursorPageResponse;
 import com.team.ja.common.dto.PageResponse;
 import com.team.ja.common.exception.ForbiddenException;
 
@@ -22,11 +23,11 @@ public class AdminUserController {
     private final UserClient userClient;
 
     @GetMapping
-    @Operation(summary = "Get all users", description = "Retrieve all users (paginated)")
-    public ApiResponse<PageResponse<Object>> getAllUsers(
-            @RequestParam(defaultValue = "0") int page,
+    @Operation(summary = "Get all users", description = "Retrieve all users with keyset pagination; pass nextCursor back to get the following page")
+    public ApiResponse<CursorPageResponse<Object>> getAllUsers(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size) {
-        return userClient.getAllUsers(page, size);
+        return userClient.getAllUsersByCursor(cursor, size);
     }
 
     @GetMapping("/search")
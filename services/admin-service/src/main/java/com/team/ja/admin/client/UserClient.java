@@ -1,20 +1,25 @@
 package com.team.ja.admin.client;
 
 import com.team.ja.common.dto.ApiResponse;
+import com.team.ja.common.dto.CursorPageResponse;
 import com.team.ja.common.dto.PageResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
 import java.util.UUID;
 
 @FeignClient(name = "user-service")
 public interface UserClient {
 
-        @GetMapping("/api/v1/users")
-        ApiResponse<PageResponse<Object>> getAllUsers(
-                        @RequestParam("page") int page,
+        @GetMapping("/api/v1/users/cursor")
+        ApiResponse<CursorPageResponse<Object>> getAllUsersByCursor(
+                        @RequestParam(value = "cursor", required = false) String cursor,
                         @RequestParam("size") int size);
 
+        @GetMapping("/api/v1/users/count")
+        ApiResponse<Map<String, Object>> getUserCounts();
+
         @GetMapping("/api/v1/users/search")
         ApiResponse<PageResponse<Object>> searchUsers(
                         @RequestParam(value = "skills", required = false) String skills,
@@ -1,6 +1,7 @@
 package com.team.ja.user.api;
 
 import com.team.ja.common.dto.ApiResponse;
+import com.team.ja.common.exception.ForbiddenException;
 import com.team.ja.user.dto.response.CountryResponse;
 import com.team.ja.user.service.CountryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -68,4 +69,24 @@ public class CountryController {
     ) {
         return ApiResponse.success(countryService.searchCountries(q));
     }
+
+    @PostMapping("/refresh")
+    @Operation(
+        summary = "Refresh countries",
+        description = "Reload country reference data on all instances after it was changed (Admin only)"
+    )
+    public ApiResponse<Void> refreshCountries(
+        @Parameter(description = "User Role") @RequestHeader(
+            value = "X-User-Role",
+            required = false
+        ) String userRole
+    ) {
+        if (!"ADMIN".equals(userRole)) {
+            throw new ForbiddenException(
+                "You are not authorized to access this resource."
+            );
+        }
+        countryService.refreshCountries();
+        return ApiResponse.success("Countries refreshed", null);
+    }
 }
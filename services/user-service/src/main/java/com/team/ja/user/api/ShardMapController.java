@@ -0,0 +1,52 @@
+package com.team.ja.user.api;
+
+import com.team.ja.common.dto.ApiResponse;
+import com.team.ja.common.exception.ForbiddenException;
+import com.team.ja.user.config.sharding.ShardMap;
+import com.team.ja.user.config.sharding.ShardMapService;
+import com.team.ja.user.dto.request.ShardSplitRequest;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for inspecting and changing the country to shard map
+ * (Admin only).
+ */
+@RestController
+@RequestMapping("/api/v1/users/shard-map")
+@RequiredArgsConstructor
+@Tag(name = "Shard map", description = "Country to shard map administration")
+public class ShardMapController {
+
+    private final ShardMapService shardMapService;
+
+    @GetMapping
+    @Operation(summary = "Get shard map", description = "Current country to shard map and its version (Admin only)")
+    public ApiResponse<ShardMap> getShardMap(
+            @Parameter(description = "User Role") @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        adminOnly(userRole);
+        return ApiResponse.success(shardMapService.current());
+    }
+
+    @PostMapping("/splits")
+    @Operation(summary = "Split a country", description = "Spread a country over more shards; existing users are moved in the background (Admin only)")
+    public ApiResponse<ShardMap> startSplit(
+            @Parameter(description = "User Role") @RequestHeader(value = "X-User-Role", required = false) String userRole,
+            @Valid @RequestBody ShardSplitRequest request) {
+        adminOnly(userRole);
+        return ApiResponse.success(
+                "Shard split started",
+                shardMapService.startSplit(request.getCountry(), request.getShards()));
+    }
+
+    private void adminOnly(String userRole) {
+        if (!"ADMIN".equals(userRole)) {
+            throw new ForbiddenException(
+                    "You are not authorized to access this resource.");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.team.ja.user.api;
+
+import com.team.ja.common.dto.ApiResponse;
+import com.team.ja.common.exception.ForbiddenException;
+import com.team.ja.user.dto.request.ShardRebalanceRequest;
+import com.team.ja.user.dto.response.ShardRebalanceJobResponse;
+import com.team.ja.user.service.impl.ShardRebalanceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for bulk shard rebalancing jobs (Admin only).
+ */
+@RestController
+@RequestMapping("/api/v1/users/shard-rebalance")
+@RequiredArgsConstructor
+@Tag(name = "Shard rebalancing", description = "Bulk moves of users between shards")
+public class ShardRebalanceController {
+
+    private final ShardRebalanceService rebalanceService;
+
+    @GetMapping
+    @Operation(summary = "List rebalancing jobs", description = "All rebalancing jobs with their progress (Admin only)")
+    public ApiResponse<List<ShardRebalanceJobResponse>> getJobs(
+            @Parameter(description = "User Role") @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        adminOnly(userRole);
+        return ApiResponse.success(rebalanceService.getJobs());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get rebalancing job", description = "Progress of one rebalancing job (Admin only)")
+    public ApiResponse<ShardRebalanceJobResponse> getJob(
+            @Parameter(description = "Job ID") @PathVariable UUID id,
+            @Parameter(description = "User Role") @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        adminOnly(userRole);
+        return ApiResponse.success(rebalanceService.getJob(id));
+    }
+
+    @PostMapping
+    @Operation(summary = "Start rebalancing job", description = "Move all users of a shard, or of one country on it, to another shard (Admin only)")
+    public ApiResponse<ShardRebalanceJobResponse> start(
+            @Parameter(description = "User Role") @RequestHeader(value = "X-User-Role", required = false) String userRole,
+            @Valid @RequestBody ShardRebalanceRequest request) {
+        adminOnly(userRole);
+        return ApiResponse.success(
+                "Rebalancing job started",
+                rebalanceService.start(request.getSourceShard(), request.getTargetShard(), request.getCountry()));
+    }
+
+    @PostMapping("/{id}/pause")
+    @Operation(summary = "Pause rebalancing job", description = "Stop a job after its current chunk (Admin only)")
+    public ApiResponse<ShardRebalanceJobResponse> pause(
+            @Parameter(description = "Job ID") @PathVariable UUID id,
+            @Parameter(description = "User Role") @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        adminOnly(userRole);
+        return ApiResponse.success("Rebalancing job paused", rebalanceService.pause(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    @Operation(summary = "Resume rebalancing job", description = "Continue a paused, failed or interrupted job from its checkpoint (Admin only)")
+    public ApiResponse<ShardRebalanceJobResponse> resume(
+            @Parameter(description = "Job ID") @PathVariable UUID id,
+            @Parameter(description = "User Role") @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        adminOnly(userRole);
+        return ApiResponse.success("Rebalancing job resumed", rebalanceService.resume(id));
+    }
+
+    private void adminOnly(String userRole) {
+        if (!"ADMIN".equals(userRole)) {
+            throw new ForbiddenException(
+                    "You are not authorized to access this resource.");
+        }
+    }
+}
@@ -1,24 +1,37 @@
 package com.team.ja.user.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.team.ja.common.dto.ApiResponse;
+import com.team.ja.common.dto.CursorPageResponse;
 import com.team.ja.common.dto.PageResponse;
 import com.team.ja.common.exception.ForbiddenException;
 import com.team.ja.user.dto.request.ChangePasswordRequest;
 import com.team.ja.user.dto.request.CreateUserRequest;
 import com.team.ja.user.dto.request.UpdateUserRequest;
+import com.team.ja.user.dto.response.UserCountResponse;
+import com.team.ja.user.dto.response.UserImportResponse;
 import com.team.ja.user.dto.response.UserProfileResponse;
 import com.team.ja.user.dto.response.UserResponse;
 import com.team.ja.user.service.UserService;
+import com.team.ja.user.service.impl.UserImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for User operations.
@@ -42,6 +55,8 @@ import org.springframework.web.multipart.MultipartFile;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final UserImportService userImportService;
 
     @GetMapping("/health")
     @Operation(summary = "Health check", description = "Check if the user service is running")
@@ -61,8 +76,9 @@ public class UserController {
                 userService.createUser(request));
     }
 
+    @Deprecated
     @GetMapping
-    @Operation(summary = "Get all users (paged)", description = "Retrieve all active users with pagination (Admin only in production)")
+    @Operation(summary = "Get all users (paged)", description = "Retrieve all active users with pagination (Admin only in production). Deprecated: deep pages get slower; use /cursor", deprecated = true)
     public ApiResponse<PageResponse<UserResponse>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
@@ -72,6 +88,60 @@ public class UserController {
         return ApiResponse.success("Users retrieved successfully", result);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get all users (cursor)", description = "Retrieve all active users across shards with keyset pagination; pass nextCursor back to get the following page")
+    public ApiResponse<CursorPageResponse<UserResponse>> getAllUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponse<UserResponse> result = userService.getAllUsersByCursor(
+                cursor,
+                size);
+        return ApiResponse.success("Users retrieved successfully", result);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export all users", description = "Stream every active user across all shards as newline-delimited JSON (Admin only)")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "User Role") @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        adminOnly(userRole);
+        StreamingResponseBody body = out -> {
+            OutputStream buffered = new BufferedOutputStream(out);
+            userService.exportActiveUsers(user -> {
+                try {
+                    buffered.write(objectMapper.writeValueAsBytes(user));
+                    buffered.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    @Operation(summary = "Import users", description = "Bulk create users from a CSV (with header row) or newline-delimited JSON stream; existing emails are skipped (Admin only)")
+    public ApiResponse<UserImportResponse> importUsers(
+            @Parameter(description = "User Role") @RequestHeader(value = "X-User-Role", required = false) String userRole,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        adminOnly(userRole);
+        UserImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+        return ApiResponse.success(
+                "Users imported",
+                userImportService.importUsers(request.getInputStream(), format));
+    }
+
+    @GetMapping("/count")
+    @Operation(summary = "Get user counts", description = "Total and active user counts across all shards")
+    public ApiResponse<UserCountResponse> getUserCounts() {
+        return ApiResponse.success(userService.getUserCounts());
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search for users", description = "Search for users based on various criteria with pagination")
     public ApiResponse<PageResponse<UserResponse>> searchUsers(
@@ -6,6 +6,9 @@ import com.team.ja.common.event.SkillCreateEvent;
 import com.team.ja.common.event.UserMigrationEvent;
 import com.team.ja.common.event.UserProfileCreateEvent;
 import com.team.ja.common.event.UserRegisteredEvent;
+import com.team.ja.common.event.UserSearchProfileUpdateEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -19,6 +22,7 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.listener.CommonErrorHandler;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
@@ -58,6 +62,12 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.properties.sasl.jaas.config:}")
     private String saslJaasConfig;
 
+    @Value("${user-migration.consumer.concurrency:3}")
+    private int userMigrationConcurrency;
+
+    @Value("${user-migration.consumer.max-poll-records:200}")
+    private int userMigrationMaxPollRecords;
+
     /**
      * Creates common consumer configuration with SASL/SSL support.
      */
@@ -125,6 +135,24 @@ public class KafkaConsumerConfig {
     public ConcurrentKafkaListenerContainerFactory<String, SkillCreateEvent> skillCreateEventKafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, SkillCreateEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(skillCreateEventConsumerFactory());
+        // Skills are replicated in batches; see SkillCreateConsumer
+        factory.setBatchListener(true);
+        // Replays are harmless (ON CONFLICT DO NOTHING); retry, then leave it to reconciliation
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(2000L, 3)));
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, UserSearchProfileUpdateEvent> searchProfileChangedConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(commonConsumerConfig());
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserSearchProfileUpdateEvent> searchProfileChangedKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, UserSearchProfileUpdateEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(searchProfileChangedConsumerFactory());
+        // Change notices are resolved to shards a batch at a time; see JobMatchIndexConsumer
+        factory.setBatchListener(true);
         return factory;
     }
 
@@ -143,6 +171,8 @@ public class KafkaConsumerConfig {
         // Trust both common events and the DTO package that appears in hosted messages
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.team.ja.common.event,com.team.ja.user.dto.request");
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Migrations are consumed in batches; see UserMigrateConsumer
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, userMigrationMaxPollRecords);
 
         // Add SASL/SSL properties for Confluent Cloud
         addSaslProperties(configProps);
@@ -152,9 +182,15 @@ public class KafkaConsumerConfig {
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, UserMigrationEvent> userMigrationEventKafkaListenerContainerFactory(
-            CommonErrorHandler migrateErrorHandler) {
+            CommonErrorHandler migrateErrorHandler, MeterRegistry meterRegistry) {
+        ConsumerFactory<String, UserMigrationEvent> consumerFactory = userMigrationEventConsumerFactory();
+        // Exposes the client metrics, including records-lag, as kafka.consumer.*
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
         ConcurrentKafkaListenerContainerFactory<String, UserMigrationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(userMigrationEventConsumerFactory());
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(userMigrationConcurrency);
         factory.setCommonErrorHandler(migrateErrorHandler);
         return factory;
     }
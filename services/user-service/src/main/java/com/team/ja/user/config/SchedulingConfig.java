@@ -0,0 +1,13 @@
+package com.team.ja.user.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs in user-service (shard filter rebuilds,
+ * reconciliation jobs, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
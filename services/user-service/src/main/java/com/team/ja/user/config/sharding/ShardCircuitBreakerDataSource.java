@@ -0,0 +1,46 @@
+package com.team.ja.user.config.sharding;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Connection pool of one shard guarded by that shard's circuit breaker.
+ *
+ * While the breaker is not closed, connections are refused at once with a
+ * {@link SQLTransientConnectionException}; otherwise every acquisition is
+ * timed and reported to {@link ShardHealthRegistry}.
+ */
+public class ShardCircuitBreakerDataSource extends DelegatingDataSource {
+
+    private final String shardKey;
+    private final ShardHealthRegistry shardHealth;
+
+    public ShardCircuitBreakerDataSource(String shardKey, DataSource pool, ShardHealthRegistry shardHealth) {
+        super(pool);
+        this.shardKey = shardKey;
+        this.shardHealth = shardHealth;
+        shardHealth.register(shardKey, pool);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!shardHealth.isAvailable(shardKey)) {
+            throw new SQLTransientConnectionException("Circuit for shard " + shardKey + " is "
+                    + shardHealth.getState(shardKey));
+        }
+        long start = System.nanoTime();
+        try {
+            Connection connection = obtainTargetDataSource().getConnection();
+            shardHealth.recordAcquire(shardKey, System.nanoTime() - start, true);
+            return connection;
+        } catch (SQLException e) {
+            shardHealth.recordAcquire(shardKey, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+}
@@ -1,7 +1,28 @@
 package com.team.ja.user.config.sharding;
 
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Shard the current thread's database work is routed to.
+ *
+ * Prefer the scoped forms, which restore whatever was set before and so nest
+ * safely:
+ *
+ * <pre>
+ * try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+ *     userRepository.findById(id);
+ * }
+ * User user = ShardContext.callWithShard(shardKey, () -> userRepository.findById(id).orElseThrow());
+ * </pre>
+ *
+ * The context is thread-bound. Work handed to another thread must be wrapped
+ * with {@link #wrap(Runnable)} / {@link #wrap(Callable)} or submitted through
+ * a {@link ShardContextPropagatingExecutor} to carry the submitter's shard
+ * along.
+ */
 @Slf4j
 public class ShardContext {
 
@@ -9,9 +30,82 @@ public class ShardContext {
 
     private static final ThreadLocal<String> CONTEXT = new ThreadLocal<>();
 
+    /**
+     * Shard binding that restores the previous one on close.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final String previous;
+        private boolean closed;
+
+        private Scope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            restore(previous);
+        }
+    }
+
+    /**
+     * Binds {@code shardKey} to the current thread until the returned scope is
+     * closed.
+     */
+    public static Scope use(String shardKey) {
+        Scope scope = new Scope(CONTEXT.get());
+        setShardKey(shardKey);
+        return scope;
+    }
+
+    public static <T> T callWithShard(String shardKey, Supplier<T> action) {
+        try (Scope scope = use(shardKey)) {
+            return action.get();
+        }
+    }
+
+    public static void runWithShard(String shardKey, Runnable action) {
+        try (Scope scope = use(shardKey)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Captures the current shard so that {@code task} runs with it on
+     * whichever thread executes it.
+     */
+    public static Runnable wrap(Runnable task) {
+        String captured = CONTEXT.get();
+        return () -> {
+            String previous = CONTEXT.get();
+            restore(captured);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        String captured = CONTEXT.get();
+        return () -> {
+            String previous = CONTEXT.get();
+            restore(captured);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
     /**
      * Sets the shard key for the current thread.
-     * 
+     *
      * @param shardKey
      */
     public static void setShardKey(String shardKey) {
@@ -21,17 +115,24 @@ public class ShardContext {
 
     /**
      * Gets the shard key for the current thread.
-     * If not set, returns the default shard key.
-     * 
-     * @return shard key
+     * Returns null if none is set; it is up to the caller to pick a fallback.
+     *
+     * @return shard key, or null
      */
     public static String getShardKey() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * Gets the shard key for the current thread.
+     *
+     * @throws IllegalStateException if no shard key is set
+     */
+    public static String requireShardKey() {
         String shardKey = CONTEXT.get();
         if (shardKey == null) {
-            shardKey = DEFAULT_SHARD;
-            CONTEXT.set(shardKey);
+            throw new IllegalStateException("No shard key is set for the current thread");
         }
-        log.debug("Getting shard key: {}", shardKey);
         return shardKey;
     }
 
@@ -45,10 +146,18 @@ public class ShardContext {
 
     /**
      * Checks if the shard key is set for the current thread.
-     * 
+     *
      * @return true if shard key is set, false otherwise
      */
     public static boolean isShardKeySet() {
         return CONTEXT.get() != null;
     }
-}
\ No newline at end of file
+
+    private static void restore(String shardKey) {
+        if (shardKey == null) {
+            CONTEXT.remove();
+        } else {
+            CONTEXT.set(shardKey);
+        }
+    }
+}
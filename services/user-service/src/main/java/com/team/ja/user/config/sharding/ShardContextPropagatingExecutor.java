@@ -0,0 +1,62 @@
+package com.team.ja.user.config.sharding;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExecutorService that runs every task with the {@link ShardContext} of the
+ * thread that submitted it, and leaves the worker thread's context as it
+ * found it afterwards.
+ *
+ * {@code submit}, {@code invokeAll} and {@code invokeAny} all go through
+ * {@link #execute}, which is called on the submitting thread, so the shard is
+ * captured there.
+ */
+public class ShardContextPropagatingExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+
+    public ShardContextPropagatingExecutor(ExecutorService delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * One virtual thread per task, each starting with the submitter's shard.
+     */
+    public static ShardContextPropagatingExecutor virtualThreadPerTask() {
+        return new ShardContextPropagatingExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(ShardContext.wrap(command));
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -11,12 +11,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
-import com.zaxxer.hikari.HikariDataSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,75 +28,54 @@ import lombok.extern.slf4j.Slf4j;
 public class ShardDatasourceConfig {
 
     private final ShardingProperties shardingProperties;
+    private final ShardHealthRegistry shardHealthRegistry;
+
+    /**
+     * Connection pools of every shard, shared by Flyway and the routing and
+     * replica DataSources.
+     */
+    @Bean(destroyMethod = "close")
+    public ShardPoolRegistry shardPoolRegistry() {
+        log.info("Starting shard datasource configuration");
+        return new ShardPoolRegistry(shardingProperties);
+    }
 
-    @Bean(name = "resolvedDataSources")
-    public Map<Object, Object> resolvedDataSources() {
-        log.info("Building shard datasource map from ShardingProperties");
-
-        Map<Object, Object> targetDatasources = new HashMap<>();
-        Map<String, ShardingProperties.ShardProperties> shards = shardingProperties.getShards();
-
-        if (shards == null || shards.isEmpty()) {
-            throw new IllegalStateException("No shards configured in ShardingProperties");
-        }
-
-        shards.forEach((shardId, shardProps) -> {
-            log.info("Creating HikariDataSource for shard: {}", shardId);
-            targetDatasources.put(shardId, createHikariDataSource(shardProps));
-        });
+    /**
+     * Primary pools wrapped in their shard's circuit breaker. All application
+     * connections to a primary go through these.
+     */
+    @Bean(name = "shardGuardedDataSources")
+    public Map<String, DataSource> shardGuardedDataSources() {
+        Map<String, DataSource> guarded = new HashMap<>();
+        shardPoolRegistry().getPrimaries().forEach((shardId, pool) -> guarded.put(shardId,
+                new ShardCircuitBreakerDataSource(shardId, pool, shardHealthRegistry)));
+        return guarded;
+    }
 
-        return targetDatasources;
+    /**
+     * Read-only pools over each shard's replicas, falling back to the shard's
+     * primary.
+     */
+    @Bean
+    public ShardReplicaDataSource shardReplicaDataSource() {
+        return new ShardReplicaDataSource(shardGuardedDataSources(), shardPoolRegistry().getReplicas(),
+                shardingProperties.getReplica().getMaxLag(), shardingProperties.getDefaultShard());
     }
 
+    /**
+     * Routing DataSource used by JPA and JDBC.
+     *
+     * Writes go to the primary of the shard in ShardContext, through that
+     * shard's circuit breaker. The lazy proxy defers taking a physical
+     * connection until the first statement, by which time the transaction's
+     * read-only flag is known: read-only transactions are then served by
+     * {@link #shardReplicaDataSource()}.
+     */
     @Bean
     @Primary
     public DataSource shardDataSource() {
-
-        log.info("Starting shard datasource configuration");
-
-        if (shardingProperties == null) {
-            throw new IllegalStateException("ShardingProperties bean is not available");
-        }
-
-        Map<String, ShardingProperties.ShardProperties> shards = shardingProperties.getShards();
-
-        if (shards == null || shards.isEmpty()) {
-            throw new IllegalStateException("No shards configured in ShardingProperties.shards");
-        }
-
         ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
-        Map<Object, Object> targetDatasources = new HashMap<>();
-
-        log.info("Configured shard ids: {}", shards.keySet());
-
-        shards.forEach((shardId, shardProps) -> {
-            log.info("Configuring datasource for shard: {}", shardId);
-
-            // Validate required shard properties
-            if (shardProps == null) {
-                throw new IllegalStateException("Shard properties for '" + shardId + "' are missing");
-            }
-            if (shardProps.getUrl() == null || shardProps.getUrl().trim().isEmpty()) {
-                throw new IllegalStateException("Shard '" + shardId + "' has empty url");
-            }
-            if (shardProps.getUsername() == null || shardProps.getUsername().trim().isEmpty()) {
-                log.warn("Shard '{}' does not define username; proceeding but authentication may fail", shardId);
-            }
-
-            HikariDataSource dataSource = null;
-            try {
-                dataSource = createHikariDataSource(shardProps);
-            } catch (Exception ex) {
-                log.error("Failed to create datasource for shard {}: {}", shardId, ex.getMessage(), ex);
-                throw ex;
-            }
-
-            log.info("Datasource configured for shard: {} with URL: {} and poolName: {}",
-                    shardId, shardProps.getUrl(), dataSource.getPoolName());
-
-            targetDatasources.put(shardId, dataSource);
-        });
-
+        Map<Object, Object> targetDatasources = new HashMap<>(shardGuardedDataSources());
         routingDataSource.setTargetDataSources(targetDatasources);
 
         String defaultShardId = shardingProperties.getDefaultShard();
@@ -111,26 +90,10 @@ public class ShardDatasourceConfig {
         routingDataSource.setDefaultTargetDataSource(defaultDataSource);
         routingDataSource.afterPropertiesSet();
 
-        log.info("Shard datasource construction complete. Total shards: {}", targetDatasources.size());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        dataSource.setReadOnlyDataSource(shardReplicaDataSource());
 
-        return routingDataSource;
-    }
-
-    private HikariDataSource createHikariDataSource(ShardingProperties.ShardProperties shardProps) {
-        HikariDataSource dataSource = new HikariDataSource();
-        dataSource.setJdbcUrl(shardProps.getUrl());
-        dataSource.setUsername(shardProps.getUsername());
-        dataSource.setPassword(shardProps.getPassword());
-        dataSource.setDriverClassName(shardProps.getDriverClassName());
-        dataSource.setMaximumPoolSize(shardProps.getMaximumPoolSize());
-        dataSource.setMinimumIdle(shardProps.getMinimumIdle());
-        dataSource.setConnectionTimeout(shardProps.getConnectionTimeout());
-        dataSource.setIdleTimeout(shardProps.getIdleTimeout());
-        dataSource.setMaxLifetime(shardProps.getMaxLifetime());
-
-        log.debug("Created HikariDataSource (poolName={}, maxPool={}, minIdle={}) for URL={}",
-                dataSource.getPoolName(), shardProps.getMaximumPoolSize(), shardProps.getMinimumIdle(),
-                shardProps.getUrl());
+        log.info("Shard datasource construction complete. Total shards: {}", targetDatasources.size());
 
         return dataSource;
     }
@@ -0,0 +1,149 @@
+package com.team.ja.user.config.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process L1 cache of userId -> shard and email -> shard in front of the
+ * Redis shard directory.
+ *
+ * Entries are bounded by size and expire after a TTL. When a mapping is
+ * written or removed, an invalidation is published on a Redis channel so that
+ * every user-service instance drops its local copy. Hit/miss counters are
+ * exported through Micrometer as {@code cache.*} metrics tagged with
+ * {@code cache=shard.directory.userId} and {@code cache=shard.directory.email}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardDirectoryNearCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "user:shard:invalidate";
+
+    private static final String USER_ID_KIND = "id";
+    private static final String EMAIL_KIND = "email";
+    private static final String SEPARATOR = "|";
+
+    private final ShardingProperties shardingProperties;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    // Lets an instance ignore the invalidations it published itself
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private Cache<UUID, String> userIdShards;
+    private Cache<String, String> emailShards;
+
+    @PostConstruct
+    void init() {
+        ShardingProperties.NearCacheProperties props = shardingProperties.getNearCache();
+        userIdShards = Caffeine.newBuilder()
+                .maximumSize(props.getMaximumSize())
+                .expireAfterWrite(props.getTtl())
+                .recordStats()
+                .build();
+        emailShards = Caffeine.newBuilder()
+                .maximumSize(props.getMaximumSize())
+                .expireAfterWrite(props.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdShards, "shard.directory.userId");
+        CaffeineCacheMetrics.monitor(meterRegistry, emailShards, "shard.directory.email");
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+        log.info("Shard directory near-cache enabled={} (maxSize={}, ttl={})",
+                props.isEnabled(), props.getMaximumSize(), props.getTtl());
+    }
+
+    public boolean isEnabled() {
+        return shardingProperties.getNearCache().isEnabled();
+    }
+
+    public String getByUserId(UUID userId) {
+        return isEnabled() ? userIdShards.getIfPresent(userId) : null;
+    }
+
+    public String getByEmail(String email) {
+        return isEnabled() ? emailShards.getIfPresent(email) : null;
+    }
+
+    /**
+     * Stores a mapping read from Redis. No invalidation is broadcast because the
+     * value is the one every instance would read.
+     */
+    public void putUserId(UUID userId, String shardId) {
+        if (isEnabled() && shardId != null) {
+            userIdShards.put(userId, shardId);
+        }
+    }
+
+    public void putEmail(String email, String shardId) {
+        if (isEnabled() && shardId != null) {
+            emailShards.put(email, shardId);
+        }
+    }
+
+    /**
+     * Drops the local entry and tells the other instances to drop theirs.
+     */
+    public void invalidateUserId(UUID userId) {
+        userIdShards.invalidate(userId);
+        publish(USER_ID_KIND, userId.toString());
+    }
+
+    public void invalidateEmail(String email) {
+        emailShards.invalidate(email);
+        publish(EMAIL_KIND, email);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed shard invalidation message: {}", body);
+            return;
+        }
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+
+        try {
+            if (USER_ID_KIND.equals(parts[1])) {
+                userIdShards.invalidate(UUID.fromString(parts[2]));
+            } else if (EMAIL_KIND.equals(parts[1])) {
+                emailShards.invalidate(parts[2]);
+            }
+            log.debug("Applied remote shard invalidation for {} '{}'", parts[1], parts[2]);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring shard invalidation with invalid key: {}", body);
+        }
+    }
+
+    private void publish(String kind, String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + SEPARATOR + kind + SEPARATOR + key);
+        } catch (Exception e) {
+            // Remote copies still expire after the TTL
+            log.error("Failed to publish shard invalidation for {} '{}'", kind, key, e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.team.ja.user.config.sharding;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.team.ja.common.exception.ServiceException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the same query against several shards at once.
+ *
+ * Every shard gets its own virtual thread with its own ShardContext. The
+ * number of shard queries running at the same time across all callers is
+ * bounded by {@code sharding.fan-out.max-concurrency}, so bursts of fan-out
+ * requests cannot take every pooled connection.
+ *
+ * {@link #onShards} fails as a whole if any shard fails or does not answer
+ * within {@code sharding.fan-out.timeout}, so callers never see a silently
+ * partial result. {@link #onShardsAllowingPartial} instead returns whatever
+ * arrived in time and names the shards that did not.
+ *
+ * Shards whose circuit breaker is not closed (see {@link ShardHealthRegistry})
+ * are not queried at all: they fail a fail-fast call immediately and are
+ * reported as unavailable by a partial one. Every shard query's latency and
+ * outcome is reported to the registry.
+ */
+@Slf4j
+@Component
+public class ShardFanOut {
+
+    private final ShardingProperties shardingProperties;
+    private final ShardHealthRegistry shardHealth;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+
+    public ShardFanOut(ShardingProperties shardingProperties, ShardHealthRegistry shardHealth) {
+        this.shardingProperties = shardingProperties;
+        this.shardHealth = shardHealth;
+        this.permits = new Semaphore(shardingProperties.getFanOut().getMaxConcurrency());
+    }
+
+    /**
+     * Result of a fan-out that tolerates failing shards.
+     *
+     * @param results           results of the shards that answered, in request
+     *                          order
+     * @param unavailableShards shards that failed or timed out
+     */
+    public record PartialResult<T>(Map<String, T> results, Set<String> unavailableShards) {
+
+        public boolean isPartial() {
+            return !unavailableShards.isEmpty();
+        }
+    }
+
+    /**
+     * Runs {@code query} on every configured shard.
+     */
+    public <T> Map<String, T> onAllShards(Function<String, T> query) {
+        return onShards(shardingProperties.getShards().keySet(), query);
+    }
+
+    /**
+     * Runs {@code query} on each of {@code shardKeys} and returns the results
+     * keyed by shard, in the order given.
+     */
+    public <T> Map<String, T> onShards(Collection<String> shardKeys, Function<String, T> query) {
+        PartialResult<T> result = run(shardKeys, query, true);
+        return result.results();
+    }
+
+    /**
+     * Runs {@code query} on every configured shard, dropping the shards that
+     * fail or time out instead of failing the call.
+     */
+    public <T> PartialResult<T> onAllShardsAllowingPartial(Function<String, T> query) {
+        return onShardsAllowingPartial(shardingProperties.getShards().keySet(), query);
+    }
+
+    public <T> PartialResult<T> onShardsAllowingPartial(Collection<String> shardKeys, Function<String, T> query) {
+        return run(shardKeys, query, false);
+    }
+
+    private <T> PartialResult<T> run(Collection<String> shardKeys, Function<String, T> query, boolean failFast) {
+        Set<String> unavailable = new LinkedHashSet<>();
+        for (String shardKey : shardKeys) {
+            if (!shardHealth.isAvailable(shardKey)) {
+                log.warn("Skipping shard {}: circuit is {}", shardKey, shardHealth.getState(shardKey));
+                if (failFast) {
+                    throw new ServiceException("Shard " + shardKey + " is unavailable");
+                }
+                unavailable.add(shardKey);
+            }
+        }
+
+        Map<String, Future<T>> futures = new LinkedHashMap<>();
+        for (String shardKey : shardKeys) {
+            if (unavailable.contains(shardKey)) {
+                continue;
+            }
+            futures.put(shardKey, executor.submit(() -> {
+                permits.acquire();
+                long start = System.nanoTime();
+                boolean success = false;
+                try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+                    T result = query.apply(shardKey);
+                    success = true;
+                    return result;
+                } finally {
+                    shardHealth.recordQuery(shardKey, System.nanoTime() - start, success);
+                    permits.release();
+                }
+            }));
+        }
+
+        Duration timeout = shardingProperties.getFanOut().getTimeout();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Map<String, T> results = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Future<T>> entry : futures.entrySet()) {
+                String shardKey = entry.getKey();
+                try {
+                    results.put(shardKey, entry.getValue().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+                } catch (ExecutionException e) {
+                    log.error("Query failed on shard {}", shardKey, e.getCause());
+                    if (failFast) {
+                        throw new ServiceException("Query failed on shard " + shardKey, e.getCause());
+                    }
+                    unavailable.add(shardKey);
+                } catch (TimeoutException e) {
+                    log.error("Query on shard {} timed out after {} ms", shardKey, timeout.toMillis());
+                    if (failFast) {
+                        throw new ServiceException("Query timed out on shard " + shardKey, e);
+                    }
+                    unavailable.add(shardKey);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while querying shards", e);
+        } finally {
+            // No-op for finished shards; stops the rest after a failure or timeout
+            futures.values().forEach(future -> future.cancel(true));
+        }
+        return new PartialResult<>(results, unavailable);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,219 @@
+package com.team.ja.user.config.sharding;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Health of every shard, with one circuit breaker per shard.
+ *
+ * Connection acquisitions and fan-out / lookup queries report their latency
+ * and outcome here. Each shard keeps a sliding window of its last
+ * {@code sharding.health.window-size} calls; failed calls and calls slower
+ * than {@code slow-call-threshold} count against it. Once the bad share of a
+ * full enough window reaches {@code failure-rate-threshold} the breaker opens
+ * and the shard is refused immediately instead of waiting for the pool's
+ * connection timeout.
+ *
+ * After {@code open-duration} the breaker is half-open: requests are still
+ * refused while a background probe validates connections to the shard. The
+ * shard is re-admitted after {@code half-open-probes} consecutive successful
+ * probes and opened again on the first failure.
+ *
+ * Latencies are exported as the {@code shard.connection.acquire} and
+ * {@code shard.query} timers, breaker states as the {@code shard.circuit.state}
+ * gauge (0 closed, 1 half-open, 2 open), all tagged with {@code shard}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardHealthRegistry {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+
+    private final ShardingProperties shardingProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    private final class Breaker {
+        private final String shardKey;
+        private final boolean[] window;
+        private final AtomicBoolean probing = new AtomicBoolean();
+        private final Timer acquireSuccess;
+        private final Timer acquireFailure;
+        private final Timer querySuccess;
+        private final Timer queryFailure;
+
+        private volatile State state = State.CLOSED;
+        private volatile DataSource probeTarget;
+        private int next;
+        private int calls;
+        private int bad;
+        private long openedAt;
+        private int probeSuccesses;
+
+        Breaker(String shardKey) {
+            this.shardKey = shardKey;
+            this.window = new boolean[Math.max(1, props().getWindowSize())];
+            this.acquireSuccess = timer("shard.connection.acquire", "success");
+            this.acquireFailure = timer("shard.connection.acquire", "failure");
+            this.querySuccess = timer("shard.query", "success");
+            this.queryFailure = timer("shard.query", "failure");
+            Gauge.builder("shard.circuit.state", this, b -> b.state.ordinal())
+                    .tag("shard", shardKey)
+                    .register(meterRegistry);
+        }
+
+        private Timer timer(String name, String outcome) {
+            return Timer.builder(name).tag("shard", shardKey).tag("outcome", outcome).register(meterRegistry);
+        }
+
+        synchronized void record(boolean failed) {
+            if (state != State.CLOSED) {
+                return;
+            }
+            if (calls == window.length) {
+                if (window[next]) {
+                    bad--;
+                }
+            } else {
+                calls++;
+            }
+            window[next] = failed;
+            if (failed) {
+                bad++;
+            }
+            next = (next + 1) % window.length;
+
+            if (calls >= props().getMinimumCalls()
+                    && bad * 100 >= props().getFailureRateThreshold() * calls) {
+                open("failure rate " + (bad * 100 / calls) + "% over the last " + calls + " calls");
+            }
+        }
+
+        synchronized void open(String reason) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            probeSuccesses = 0;
+            log.error("Circuit for shard {} opened: {}", shardKey, reason);
+        }
+
+        synchronized boolean startHalfOpen() {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= props().getOpenDuration().toNanos()) {
+                state = State.HALF_OPEN;
+                log.info("Circuit for shard {} half-open; probing", shardKey);
+            }
+            return state == State.HALF_OPEN;
+        }
+
+        synchronized void probeSucceeded() {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (++probeSuccesses >= props().getHalfOpenProbes()) {
+                state = State.CLOSED;
+                calls = 0;
+                bad = 0;
+                next = 0;
+                log.info("Circuit for shard {} closed after {} successful probe(s)", shardKey, probeSuccesses);
+            }
+        }
+    }
+
+    /**
+     * Registers the pool that half-open probes validate connections against.
+     * It must be the raw pool, not one guarded by this registry.
+     */
+    public void register(String shardKey, DataSource probeTarget) {
+        breaker(shardKey).probeTarget = probeTarget;
+    }
+
+    /**
+     * True while the shard's breaker is closed.
+     */
+    public boolean isAvailable(String shardKey) {
+        Breaker breaker = breakers.get(shardKey);
+        return breaker == null || breaker.state == State.CLOSED;
+    }
+
+    public State getState(String shardKey) {
+        Breaker breaker = breakers.get(shardKey);
+        return breaker == null ? State.CLOSED : breaker.state;
+    }
+
+    public void recordAcquire(String shardKey, long nanos, boolean success) {
+        Breaker breaker = breaker(shardKey);
+        (success ? breaker.acquireSuccess : breaker.acquireFailure).record(nanos, TimeUnit.NANOSECONDS);
+        breaker.record(!success || isSlow(nanos));
+    }
+
+    public void recordQuery(String shardKey, long nanos, boolean success) {
+        Breaker breaker = breaker(shardKey);
+        (success ? breaker.querySuccess : breaker.queryFailure).record(nanos, TimeUnit.NANOSECONDS);
+        breaker.record(!success || isSlow(nanos));
+    }
+
+    /**
+     * Moves breakers whose open period has elapsed to half-open and probes
+     * them. Each probe runs on its own virtual thread so an unreachable shard
+     * cannot hold up the scheduler.
+     */
+    @Scheduled(fixedDelayString = "${sharding.health.probe-interval:PT5S}")
+    public void probeOpenShards() {
+        breakers.values().forEach(breaker -> {
+            if (breaker.probeTarget == null || !breaker.startHalfOpen()
+                    || !breaker.probing.compareAndSet(false, true)) {
+                return;
+            }
+            Thread.ofVirtual().name("shard-probe-" + breaker.shardKey).start(() -> {
+                try {
+                    probe(breaker);
+                } finally {
+                    breaker.probing.set(false);
+                }
+            });
+        });
+    }
+
+    private void probe(Breaker breaker) {
+        try (Connection con = breaker.probeTarget.getConnection()) {
+            if (con.isValid(PROBE_TIMEOUT_SECONDS)) {
+                breaker.probeSucceeded();
+                return;
+            }
+            breaker.open("half-open probe got an invalid connection");
+        } catch (Exception e) {
+            breaker.open("half-open probe failed: " + e.getMessage());
+        }
+    }
+
+    private boolean isSlow(long nanos) {
+        return nanos > props().getSlowCallThreshold().toNanos();
+    }
+
+    private Breaker breaker(String shardKey) {
+        return breakers.computeIfAbsent(shardKey, Breaker::new);
+    }
+
+    private ShardingProperties.HealthProperties props() {
+        return shardingProperties.getHealth();
+    }
+}
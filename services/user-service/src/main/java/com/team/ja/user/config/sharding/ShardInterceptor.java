@@ -1,7 +1,7 @@
 package com.team.ja.user.config.sharding;
 
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 import com.team.ja.user.service.impl.ShardLookupService;
 
@@ -10,35 +10,69 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Binds the request's shard to the handling thread for exactly the duration
+ * of the handler.
+ *
+ * The binding is a {@link ShardContext.Scope} kept as a request attribute and
+ * closed when the request completes, or when the handler switches to async
+ * processing and the container thread is released. A container thread can
+ * therefore never carry a shard into the next request, whether Tomcat runs on
+ * pooled platform threads or on virtual threads.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class ShardInterceptor implements HandlerInterceptor {
+public class ShardInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SCOPE_ATTRIBUTE = ShardInterceptor.class.getName() + ".scope";
 
     private final ShardLookupService shardLookupService;
 
     @Override
     public boolean preHandle(HttpServletRequest request,
             HttpServletResponse response, Object handler) throws Exception {
+        if (ShardContext.isShardKeySet()) {
+            log.warn("Thread entered request with stale shard key {}; clearing it", ShardContext.getShardKey());
+            ShardContext.clear();
+        }
+
+        String shardKey;
         if (request.getHeader("X-User-Id") != null) {
-            String shardKey = shardLookupService.findShardIdByUserId(
+            shardKey = shardLookupService.findShardIdByUserId(
                     java.util.UUID.fromString(request.getHeader("X-User-Id")));
-            ShardContext.setShardKey(shardKey);
             log.info("Routed to shard ID: {} based on user ID", shardKey);
         } else {
             log.warn("No X-User-Id header found; cannot determine shard.");
             log.warn("Proceeding without shard context may lead to errors.");
-            ShardContext.setShardKey(ShardContext.DEFAULT_SHARD);
-            log.info("Defaulted to shard ID: {}", ShardContext.DEFAULT_SHARD);
+            shardKey = ShardContext.DEFAULT_SHARD;
+            log.info("Defaulted to shard ID: {}", shardKey);
         }
+        request.setAttribute(SCOPE_ATTRIBUTE, ShardContext.use(shardKey));
         return true;
     }
 
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request,
+            HttpServletResponse response, Object handler) throws Exception {
+        closeScope(request);
+        log.debug("Released shard context of the container thread for async processing.");
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request,
             HttpServletResponse response, Object handler, Exception ex) throws Exception {
-        ShardContext.clear();
+        closeScope(request);
         log.info("Cleared shard context after request completion.");
     }
 
+    private void closeScope(HttpServletRequest request) {
+        Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+        if (scope instanceof ShardContext.Scope shardScope) {
+            shardScope.close();
+        } else {
+            ShardContext.clear();
+        }
+    }
 }
@@ -0,0 +1,242 @@
+package com.team.ja.user.config.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Immutable, versioned assignment of countries to shards.
+ *
+ * A country maps to a {@link Layout}: one or more hash sub-shards. A user's
+ * sub-shard is picked from their id with jump consistent hashing, so
+ * appending a sub-shard to a layout moves only about 1/N of the users and
+ * never reorders the others. Sub-shards must therefore only ever be appended.
+ *
+ * Countries without an entry use the {@code DEFAULT} layout.
+ */
+public record ShardMap(long version, Map<String, Layout> countries) {
+
+    public static final String DEFAULT_COUNTRY = "DEFAULT";
+
+    /**
+     * Sub-shards of one country.
+     *
+     * @param shards         current sub-shards; new users are placed here
+     * @param previousShards sub-shards before an in-progress split, null
+     *                       otherwise. Users placed under the old layout may
+     *                       still live on any of them until the split is
+     *                       finished.
+     */
+    public record Layout(List<String> shards, List<String> previousShards) {
+
+        public Layout {
+            if (shards == null || shards.isEmpty()) {
+                throw new IllegalArgumentException("A layout needs at least one shard");
+            }
+            shards = List.copyOf(shards);
+            previousShards = previousShards == null ? null : List.copyOf(previousShards);
+        }
+
+        public static Layout of(String... shards) {
+            return new Layout(List.of(shards), null);
+        }
+
+        @JsonIgnore
+        public boolean isSplitting() {
+            return previousShards != null;
+        }
+
+        /**
+         * Sub-shard {@code userId} belongs on under the current layout.
+         */
+        public String placement(UUID userId) {
+            return placement(ShardTaggedIds.placementKey(userId));
+        }
+
+        public String placement(long placementKey) {
+            return shards.get(jumpHash(mix(placementKey), shards.size()));
+        }
+
+        /**
+         * Every shard that may hold users of this layout right now.
+         */
+        @JsonIgnore
+        public List<String> readShards() {
+            if (previousShards == null) {
+                return shards;
+            }
+            Set<String> all = new LinkedHashSet<>(shards);
+            all.addAll(previousShards);
+            return new ArrayList<>(all);
+        }
+    }
+
+    public ShardMap {
+        if (!countries.containsKey(DEFAULT_COUNTRY)) {
+            throw new IllegalArgumentException("Shard map must have a " + DEFAULT_COUNTRY + " layout");
+        }
+        Map<String, Layout> normalized = new LinkedHashMap<>();
+        countries.forEach((country, layout) -> normalized.put(country.trim().toUpperCase(), layout));
+        countries = Map.copyOf(normalized);
+    }
+
+    public Layout layoutFor(String countryIso) {
+        if (countryIso == null) {
+            return countries.get(DEFAULT_COUNTRY);
+        }
+        return countries.getOrDefault(countryIso.trim().toUpperCase(), countries.get(DEFAULT_COUNTRY));
+    }
+
+    /**
+     * Shard a user of {@code countryIso} with id {@code userId} is placed on.
+     */
+    public String shardFor(String countryIso, UUID userId) {
+        return layoutFor(countryIso).placement(userId);
+    }
+
+    /**
+     * Shards that have to be read to see every user of {@code countryIso}.
+     */
+    public List<String> readShards(String countryIso) {
+        return layoutFor(countryIso).readShards();
+    }
+
+    /**
+     * Generates an id for a new user of {@code countryIso} and returns it
+     * with the shard the id places the user on. Ids are shard-tagged
+     * whenever the chosen shard has a tag.
+     */
+    public Placement newUser(String countryIso) {
+        Layout layout = layoutFor(countryIso);
+        long randomBits = ShardTaggedIds.randomBits();
+        String shard = layout.placement(randomBits);
+        if (ShardTaggedIds.isTagged(shard)) {
+            return new Placement(ShardTaggedIds.generate(shard, randomBits), shard);
+        }
+        // Untagged shard: draw random ids until one hashes onto it
+        UUID id;
+        do {
+            id = UUID.randomUUID();
+        } while (!layout.placement(id).equals(shard));
+        return new Placement(id, shard);
+    }
+
+    public record Placement(UUID userId, String shard) {
+    }
+
+    /**
+     * Countries whose layout is being split.
+     */
+    @JsonIgnore
+    public Map<String, Layout> splitting() {
+        Map<String, Layout> splitting = new LinkedHashMap<>();
+        countries.forEach((country, layout) -> {
+            if (layout.isSplitting()) {
+                splitting.put(country, layout);
+            }
+        });
+        return splitting;
+    }
+
+    /**
+     * Every shard referenced by any layout.
+     */
+    @JsonIgnore
+    public Set<String> allShards() {
+        Set<String> shards = new LinkedHashSet<>();
+        countries.values().forEach(layout -> shards.addAll(layout.readShards()));
+        return shards;
+    }
+
+    /**
+     * Returns the next version of this map with {@code countryIso} moved to
+     * {@code shards}. The old layout is kept as the split source until
+     * {@link #completeSplit} is called.
+     */
+    public ShardMap withSplit(String countryIso, List<String> shards) {
+        String key = countryIso.trim().toUpperCase();
+        Layout current = layoutFor(key);
+        if (current.isSplitting()) {
+            throw new IllegalStateException("Layout of " + key + " is already being split");
+        }
+        Map<String, Layout> next = new LinkedHashMap<>(countries);
+        next.put(key, new Layout(shards, current.shards()));
+        return new ShardMap(version + 1, next);
+    }
+
+    /**
+     * Countries whose current layout places users on {@code shard}.
+     */
+    public List<String> countriesOn(String shard) {
+        List<String> countryIsos = new ArrayList<>();
+        countries.forEach((country, layout) -> {
+            if (layout.shards().contains(shard)) {
+                countryIsos.add(country);
+            }
+        });
+        return countryIsos;
+    }
+
+    /**
+     * Returns the next version of this map with {@code sourceShard} replaced
+     * by {@code targetShard} in the layouts of {@code countryIsos}. Every
+     * sub-shard keeps its position, so exactly the users placed on the source
+     * are placed on the target now. As with a split, the old layouts stay
+     * readable until {@link #completeSplit} is called for each country.
+     */
+    public ShardMap withRelocation(Collection<String> countryIsos, String sourceShard, String targetShard) {
+        Map<String, Layout> next = new LinkedHashMap<>(countries);
+        for (String countryIso : countryIsos) {
+            String key = countryIso.trim().toUpperCase();
+            Layout current = layoutFor(key);
+            if (current.isSplitting()) {
+                throw new IllegalStateException("Layout of " + key + " is already being split");
+            }
+            if (!current.shards().contains(sourceShard)) {
+                throw new IllegalArgumentException("Layout of " + key + " does not use shard " + sourceShard);
+            }
+            List<String> shards = current.shards().stream()
+                    .map(shard -> shard.equals(sourceShard) ? targetShard : shard)
+                    .toList();
+            next.put(key, new Layout(shards, current.shards()));
+        }
+        return next.equals(countries) ? this : new ShardMap(version + 1, next);
+    }
+
+    public ShardMap completeSplit(String countryIso) {
+        String key = countryIso.trim().toUpperCase();
+        Layout current = countries.get(key);
+        if (current == null || !current.isSplitting()) {
+            return this;
+        }
+        Map<String, Layout> next = new LinkedHashMap<>(countries);
+        next.put(key, new Layout(current.shards(), null));
+        return new ShardMap(version + 1, next);
+    }
+
+    // Lamping & Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm"
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    // SplitMix64 finalizer, spreads low-entropy keys before hashing
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,193 @@
+package com.team.ja.user.config.sharding;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team.ja.common.exception.BadRequestException;
+import com.team.ja.common.exception.ConflictException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the live {@link ShardMap}.
+ *
+ * The map is stored as JSON in Redis and shared by all instances. Every
+ * change bumps its version and is written with a compare-and-set on that
+ * version, then announced on a pub/sub channel so that the other instances
+ * reload it; a periodic reload covers missed messages. Readers always see a
+ * complete snapshot and never a half-applied change.
+ *
+ * When Redis holds no map yet, the initial one is built from
+ * {@code sharding.by-country} on top of the built-in country table and
+ * stored as version 1.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardMapService implements MessageListener {
+
+    public static final String SHARD_MAP_KEY = "user:shard:map";
+    public static final String SHARD_MAP_CHANNEL = "user:shard:map:changed";
+
+    // Writes ARGV[2] only if the stored map's version is ARGV[1] (0 = absent)
+    private static final RedisScript<Long> COMPARE_AND_SET = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) "
+                    + "local version = 0 "
+                    + "if current then version = cjson.decode(current).version end "
+                    + "if tostring(version) ~= ARGV[1] then return 0 end "
+                    + "redis.call('SET', KEYS[1], ARGV[2]) "
+                    + "return 1",
+            Long.class);
+
+    private final ShardingProperties shardingProperties;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    private volatile ShardMap current;
+
+    @PostConstruct
+    void init() {
+        current = initialMap();
+        listenerContainer.addMessageListener(this, new ChannelTopic(SHARD_MAP_CHANNEL));
+        try {
+            ShardMap stored = load();
+            if (stored == null) {
+                compareAndSet(0, current);
+            } else {
+                current = stored;
+            }
+        } catch (Exception e) {
+            log.error("Failed to load shard map from Redis; using the configured map", e);
+        }
+        log.info("Using shard map version {} ({} country layouts)", current.version(), current.countries().size());
+    }
+
+    public ShardMap current() {
+        return current;
+    }
+
+    /**
+     * Starts splitting {@code countryIso} onto {@code shards}. New users of the
+     * country are placed with the new layout immediately; existing ones are
+     * moved by
+     * {@link com.team.ja.user.service.impl.ShardSplitMover}.
+     */
+    public ShardMap startSplit(String countryIso, List<String> shards) {
+        List<String> unknown = shards.stream()
+                .filter(shard -> !shardingProperties.getShards().containsKey(shard))
+                .toList();
+        if (!unknown.isEmpty()) {
+            throw new BadRequestException("Unknown shard(s): " + unknown, "UNKNOWN_SHARD");
+        }
+        ShardMap base = current;
+        List<String> existing = base.layoutFor(countryIso).shards();
+        if (shards.size() < existing.size() || !shards.subList(0, existing.size()).equals(existing)) {
+            throw new BadRequestException("New layout must keep " + existing + " as its leading shards",
+                    "INVALID_SHARD_LAYOUT");
+        }
+        try {
+            return replace(base, base.withSplit(countryIso, shards));
+        } catch (IllegalStateException e) {
+            throw new ConflictException(e.getMessage());
+        }
+    }
+
+    /**
+     * Moves the layouts of {@code countryIsos} from {@code sourceShard} to
+     * {@code targetShard}. New users are placed on the target immediately,
+     * and both layouts stay readable until each country's split is completed.
+     */
+    public ShardMap relocate(List<String> countryIsos, String sourceShard, String targetShard) {
+        ShardMap base = current;
+        try {
+            return replace(base, base.withRelocation(countryIsos, sourceShard, targetShard));
+        } catch (IllegalStateException e) {
+            throw new ConflictException(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage(), "INVALID_SHARD_LAYOUT");
+        }
+    }
+
+    public ShardMap completeSplit(String countryIso) {
+        ShardMap base = current;
+        return replace(base, base.completeSplit(countryIso));
+    }
+
+    /**
+     * Re-reads the map from Redis; picks up changes whose notification was
+     * missed.
+     */
+    @Scheduled(fixedDelayString = "${sharding.map.reload-interval:PT1M}")
+    public void reload() {
+        try {
+            ShardMap stored = load();
+            if (stored != null && stored.version() > current.version()) {
+                log.info("Shard map updated from version {} to {}", current.version(), stored.version());
+                current = stored;
+            }
+        } catch (Exception e) {
+            log.error("Failed to reload shard map", e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        reload();
+    }
+
+    private ShardMap replace(ShardMap base, ShardMap next) {
+        if (next == base) {
+            return base;
+        }
+        if (!compareAndSet(base.version(), next)) {
+            reload();
+            throw new ConflictException("Shard map changed concurrently; now at version " + current.version());
+        }
+        current = next;
+        redisTemplate.convertAndSend(SHARD_MAP_CHANNEL, Long.toString(next.version()));
+        log.info("Published shard map version {}", next.version());
+        return next;
+    }
+
+    private boolean compareAndSet(long expectedVersion, ShardMap next) {
+        try {
+            Long result = redisTemplate.execute(COMPARE_AND_SET, List.of(SHARD_MAP_KEY),
+                    Long.toString(expectedVersion), objectMapper.writeValueAsString(next));
+            return result != null && result == 1;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize shard map", e);
+        }
+    }
+
+    private ShardMap load() throws JsonProcessingException {
+        String json = redisTemplate.opsForValue().get(SHARD_MAP_KEY);
+        return json == null ? null : objectMapper.readValue(json, ShardMap.class);
+    }
+
+    private ShardMap initialMap() {
+        Map<String, ShardMap.Layout> countries = new LinkedHashMap<>();
+        ShardingProperties.defaultCountryShards()
+                .forEach((country, shard) -> countries.put(country, ShardMap.Layout.of(shard)));
+        shardingProperties.getByCountry().forEach((country, shards) -> countries.put(country.trim().toUpperCase(),
+                new ShardMap.Layout(shards, null)));
+        countries.putIfAbsent(ShardMap.DEFAULT_COUNTRY, ShardMap.Layout.of(shardingProperties.getDefaultShard()));
+        return new ShardMap(1, Collections.unmodifiableMap(countries));
+    }
+}
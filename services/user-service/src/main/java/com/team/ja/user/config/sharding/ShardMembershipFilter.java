@@ -0,0 +1,270 @@
+package com.team.ja.user.config.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.team.ja.user.util.BloomFilter;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-shard Bloom filters over user ids and emails.
+ *
+ * Used to narrow cross-shard lookups to the shards that may hold a user and to
+ * answer "does not exist" without touching any database. The filters are built
+ * at startup by streaming each shard and kept current through
+ * {@link #recordUserId} / {@link #recordEmail}, which every create and migrate
+ * path reaches via the shard directory. Additions are broadcast over Redis so
+ * that other instances learn about users they did not create. The broadcast
+ * is fire-and-forget, so callers consult the Redis shard directory before
+ * trusting a "no" from the filter.
+ *
+ * Bloom filters cannot forget entries, so users deleted from a shard (e.g.
+ * after a migration) stay "maybe present" there until the next scheduled
+ * rebuild. Until the first build finishes every shard is a candidate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardMembershipFilter implements MessageListener {
+
+    public static final String ADDITION_CHANNEL = "user:shard:bloom";
+
+    private static final String USER_ID_KIND = "id";
+    private static final String EMAIL_KIND = "email";
+    private static final String SEPARATOR = "|";
+
+    private final ShardingProperties shardingProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile Map<String, ShardFilters> current = Map.of();
+    private volatile Map<String, ShardFilters> building;
+    private volatile boolean ready;
+
+    private record ShardFilters(BloomFilter userIds, BloomFilter emails) {
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(ADDITION_CHANNEL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!shardingProperties.getBloom().isEnabled()) {
+            log.info("Shard membership filters disabled; lookups will probe every shard");
+            return;
+        }
+        Thread.ofVirtual().name("shard-bloom-build").start(this::rebuild);
+    }
+
+    /**
+     * Rebuilds every shard's filters from the database and swaps them in. Users
+     * recorded while the rebuild runs are added to both the old and the new
+     * filters.
+     */
+    @Scheduled(initialDelayString = "${sharding.bloom.rebuild-interval:PT6H}", fixedDelayString = "${sharding.bloom.rebuild-interval:PT6H}")
+    public synchronized void rebuild() {
+        ShardingProperties.BloomProperties props = shardingProperties.getBloom();
+        if (!props.isEnabled()) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        Map<String, ShardFilters> next = new HashMap<>();
+        for (String shardKey : shardingProperties.getShards().keySet()) {
+            next.put(shardKey, new ShardFilters(
+                    new BloomFilter(props.getExpectedInsertions(), props.getFalsePositiveRate()),
+                    new BloomFilter(props.getExpectedInsertions(), props.getFalsePositiveRate())));
+        }
+        building = next;
+
+        for (String shardKey : new ArrayList<>(next.keySet())) {
+            try {
+                long rows = loadShard(shardKey, next.get(shardKey));
+                log.info("Loaded {} users into membership filter for shard {}", rows, shardKey);
+            } catch (Exception e) {
+                // A shard without a filter is always treated as "maybe present"
+                log.error("Failed to build membership filter for shard {}", shardKey, e);
+                next.remove(shardKey);
+            }
+        }
+
+        current = next;
+        building = null;
+        ready = true;
+        log.info("Shard membership filters rebuilt for {} shard(s) in {} ms", next.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    private long loadShard(String shardKey, ShardFilters filters) {
+        try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+            Long rows = transactionTemplate.execute(status -> {
+                long[] count = { 0 };
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("SELECT id, email FROM users");
+                    ps.setFetchSize(shardingProperties.getBloom().getFetchSize());
+                    return ps;
+                }, rs -> {
+                    filters.userIds().put(rs.getObject(1, UUID.class));
+                    filters.emails().put(normalizeEmail(rs.getString(2)));
+                    count[0]++;
+                });
+                return count[0];
+            });
+            return rows != null ? rows : 0;
+        }
+    }
+
+    /**
+     * Returns the shards that may contain {@code userId}, in the given order.
+     */
+    public List<String> candidateShardsForUserId(UUID userId, Collection<String> shardKeys) {
+        return candidates(shardKeys, filters -> filters.userIds().mightContain(userId));
+    }
+
+    /**
+     * Returns the shards that may contain {@code email}, in the given order.
+     */
+    public List<String> candidateShardsForEmail(String email, Collection<String> shardKeys) {
+        String normalized = normalizeEmail(email);
+        return candidates(shardKeys, filters -> filters.emails().mightContain(normalized));
+    }
+
+    public void recordUserId(String shardKey, UUID userId) {
+        addUserId(shardKey, userId);
+        publish(shardKey, USER_ID_KIND, userId.toString());
+    }
+
+    public void recordEmail(String shardKey, String email) {
+        addEmail(shardKey, email);
+        publish(shardKey, EMAIL_KIND, email);
+    }
+
+    /**
+     * Bulk form of {@link #recordUserId} / {@link #recordEmail}; the
+     * notifications to other instances go out in one pipeline.
+     */
+    public void recordAll(String shardKey, Map<UUID, String> emailsByUserId) {
+        emailsByUserId.forEach((userId, email) -> {
+            addUserId(shardKey, userId);
+            addEmail(shardKey, email);
+        });
+        byte[] channel = ADDITION_CHANNEL.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                emailsByUserId.forEach((userId, email) -> {
+                    connection.publish(channel, String.join(SEPARATOR, instanceId, shardKey, USER_ID_KIND,
+                            userId.toString()).getBytes(StandardCharsets.UTF_8));
+                    connection.publish(channel, String.join(SEPARATOR, instanceId, shardKey, EMAIL_KIND, email)
+                            .getBytes(StandardCharsets.UTF_8));
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Failed to publish {} membership addition(s) on shard {}", emailsByUserId.size(), shardKey, e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4 || instanceId.equals(parts[0])) {
+            return;
+        }
+        try {
+            if (USER_ID_KIND.equals(parts[2])) {
+                addUserId(parts[1], UUID.fromString(parts[3]));
+            } else if (EMAIL_KIND.equals(parts[2])) {
+                addEmail(parts[1], parts[3]);
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed membership message: {}", body);
+        }
+    }
+
+    private List<String> candidates(Collection<String> shardKeys, Predicate<ShardFilters> mightContain) {
+        if (!ready) {
+            return new ArrayList<>(shardKeys);
+        }
+        Map<String, ShardFilters> snapshot = current;
+        List<String> result = new ArrayList<>(shardKeys.size());
+        for (String shardKey : shardKeys) {
+            ShardFilters filters = snapshot.get(shardKey);
+            if (filters == null || mightContain.test(filters)) {
+                result.add(shardKey);
+            }
+        }
+        return result;
+    }
+
+    // Read building before current: the swap publishes current first
+    private void addUserId(String shardKey, UUID userId) {
+        Map<String, ShardFilters> pending = building;
+        Map<String, ShardFilters> live = current;
+        if (pending != null && pending.containsKey(shardKey)) {
+            pending.get(shardKey).userIds().put(userId);
+        }
+        if (live.containsKey(shardKey)) {
+            live.get(shardKey).userIds().put(userId);
+        }
+    }
+
+    private void addEmail(String shardKey, String email) {
+        String normalized = normalizeEmail(email);
+        Map<String, ShardFilters> pending = building;
+        Map<String, ShardFilters> live = current;
+        if (pending != null && pending.containsKey(shardKey)) {
+            pending.get(shardKey).emails().put(normalized);
+        }
+        if (live.containsKey(shardKey)) {
+            live.get(shardKey).emails().put(normalized);
+        }
+    }
+
+    private void publish(String shardKey, String kind, String key) {
+        try {
+            redisTemplate.convertAndSend(ADDITION_CHANNEL,
+                    String.join(SEPARATOR, instanceId, shardKey, kind, key));
+        } catch (Exception e) {
+            log.error("Failed to publish membership addition for {} '{}' on shard {}", kind, key, shardKey, e);
+        }
+    }
+
+    private static String normalizeEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,127 @@
+package com.team.ja.user.config.sharding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The one set of connection pools per shard, shared by Flyway, the routing
+ * DataSource and the replica DataSource.
+ *
+ * Pools are created without opening any connection; Hikari starts a pool on
+ * its first {@code getConnection()}. Shards marked {@code lazy} keep no idle
+ * connections ({@code minimumIdle = 0}) and are migrated over a one-off
+ * unpooled connection, so a rarely used shard holds no connections until it
+ * is actually queried and gives them back after {@code idleTimeout}.
+ */
+@Slf4j
+public class ShardPoolRegistry implements AutoCloseable {
+
+    private final Map<String, ShardingProperties.ShardProperties> shards;
+    private final Map<String, HikariDataSource> primaries = new LinkedHashMap<>();
+    private final Map<String, List<HikariDataSource>> replicas = new LinkedHashMap<>();
+
+    public ShardPoolRegistry(ShardingProperties shardingProperties) {
+        this.shards = shardingProperties.getShards();
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalStateException("No shards configured in ShardingProperties.shards");
+        }
+        log.info("Configured shard ids: {}", shards.keySet());
+
+        shards.forEach((shardId, shardProps) -> {
+            // Validate required shard properties
+            if (shardProps == null) {
+                throw new IllegalStateException("Shard properties for '" + shardId + "' are missing");
+            }
+            if (shardProps.getUrl() == null || shardProps.getUrl().trim().isEmpty()) {
+                throw new IllegalStateException("Shard '" + shardId + "' has empty url");
+            }
+            if (shardProps.getUsername() == null || shardProps.getUsername().trim().isEmpty()) {
+                log.warn("Shard '{}' does not define username; proceeding but authentication may fail", shardId);
+            }
+
+            HikariDataSource primary = createPool(shardProps, shardProps.getUrl(), shardId);
+            primaries.put(shardId, primary);
+
+            List<HikariDataSource> shardReplicas = new ArrayList<>();
+            List<String> replicaUrls = shardProps.getReplicaUrls();
+            for (int i = 0; i < replicaUrls.size(); i++) {
+                HikariDataSource replica = createPool(shardProps, replicaUrls.get(i), shardId + "-replica-" + i);
+                replica.setReadOnly(true);
+                shardReplicas.add(replica);
+            }
+            replicas.put(shardId, shardReplicas);
+
+            log.info("Registered pools for shard: {} (URL: {}, replicas: {}, lazy: {})",
+                    shardId, shardProps.getUrl(), shardReplicas.size(), shardProps.isLazy());
+        });
+    }
+
+    /**
+     * Primary pool of every shard, in configuration order.
+     */
+    public Map<String, HikariDataSource> getPrimaries() {
+        return Collections.unmodifiableMap(primaries);
+    }
+
+    /**
+     * Replica pools of every shard; shards without replicas map to an empty
+     * list.
+     */
+    public Map<String, List<HikariDataSource>> getReplicas() {
+        return Collections.unmodifiableMap(replicas);
+    }
+
+    /**
+     * DataSource to run migrations of {@code shardId} with: the shard's pool
+     * if it is eager or already running, otherwise a single unpooled
+     * connection so migrating does not start the pool of a lazy shard.
+     */
+    public DataSource getMigrationDataSource(String shardId) {
+        HikariDataSource primary = primaries.get(shardId);
+        ShardingProperties.ShardProperties shardProps = shards.get(shardId);
+        if (!shardProps.isLazy() || primary.isRunning()) {
+            return primary;
+        }
+        DriverManagerDataSource unpooled = new DriverManagerDataSource(
+                shardProps.getUrl(), shardProps.getUsername(), shardProps.getPassword());
+        unpooled.setDriverClassName(shardProps.getDriverClassName());
+        return unpooled;
+    }
+
+    @Override
+    public void close() {
+        primaries.values().forEach(HikariDataSource::close);
+        replicas.values().forEach(pools -> pools.forEach(HikariDataSource::close));
+    }
+
+    private static HikariDataSource createPool(ShardingProperties.ShardProperties shardProps, String url,
+            String poolName) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(poolName);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(shardProps.getUsername());
+        dataSource.setPassword(shardProps.getPassword());
+        dataSource.setDriverClassName(shardProps.getDriverClassName());
+        dataSource.setMaximumPoolSize(shardProps.getMaximumPoolSize());
+        dataSource.setMinimumIdle(shardProps.isLazy() ? 0 : shardProps.getMinimumIdle());
+        dataSource.setConnectionTimeout(shardProps.getConnectionTimeout());
+        dataSource.setIdleTimeout(shardProps.getIdleTimeout());
+        dataSource.setMaxLifetime(shardProps.getMaxLifetime());
+
+        log.debug("Created HikariDataSource (poolName={}, maxPool={}, minIdle={}) for URL={}",
+                poolName, dataSource.getMaximumPoolSize(), dataSource.getMinimumIdle(), url);
+
+        return dataSource;
+    }
+}
@@ -0,0 +1,37 @@
+package com.team.ja.user.config.sharding;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import com.team.ja.user.dto.response.ShardRebalanceJobResponse;
+import com.team.ja.user.service.impl.ShardRebalanceService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read-only actuator view of bulk rebalancing jobs: status, checkpoint,
+ * users moved and throughput. Jobs are started and paused through the admin
+ * API.
+ */
+@Component
+@Endpoint(id = "shardrebalance")
+@RequiredArgsConstructor
+public class ShardRebalanceEndpoint {
+
+    private final ShardRebalanceService rebalanceService;
+
+    @ReadOperation
+    public List<ShardRebalanceJobResponse> jobs() {
+        return rebalanceService.getJobs();
+    }
+
+    @ReadOperation
+    public ShardRebalanceJobResponse job(@Selector UUID id) {
+        return rebalanceService.getJob(id);
+    }
+}
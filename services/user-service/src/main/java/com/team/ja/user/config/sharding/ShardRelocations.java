@@ -0,0 +1,112 @@
+package com.team.ja.user.config.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Set of shard-tagged user ids that no longer live on the shard encoded in
+ * their id (see {@link ShardTaggedIds}).
+ *
+ * Relocations only happen through user migration and are rare, so the whole
+ * set is kept in memory. It is persisted in a Redis set without expiry, loaded
+ * at startup and kept in sync between instances over pub/sub.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardRelocations implements MessageListener {
+
+    public static final String RELOCATED_SET_KEY = "user:shard:relocated";
+    public static final String RELOCATION_CHANNEL = "user:shard:relocated";
+
+    private static final String ADDED = "+";
+    private static final String REMOVED = "-";
+    private static final String SEPARATOR = "|";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Set<UUID> relocated = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RELOCATION_CHANNEL));
+        try {
+            Set<String> members = redisTemplate.opsForSet().members(RELOCATED_SET_KEY);
+            if (members != null) {
+                members.forEach(id -> relocated.add(UUID.fromString(id)));
+            }
+            log.info("Loaded {} relocated shard-tagged user id(s)", relocated.size());
+        } catch (Exception e) {
+            log.error("Failed to load relocated user ids from Redis", e);
+        }
+    }
+
+    public boolean isRelocated(UUID userId) {
+        return relocated.contains(userId);
+    }
+
+    /**
+     * Records that {@code userId} now lives on {@code shardId}. Only ids whose
+     * tag disagrees with their shard are tracked; moving a user back to the
+     * shard in its tag removes the entry.
+     */
+    public void recordMove(UUID userId, String shardId) {
+        String taggedShard = ShardTaggedIds.decodeShard(userId);
+        if (taggedShard == null) {
+            return;
+        }
+
+        try {
+            if (Objects.equals(taggedShard, shardId)) {
+                relocated.remove(userId);
+                redisTemplate.opsForSet().remove(RELOCATED_SET_KEY, userId.toString());
+                publish(REMOVED, userId);
+            } else {
+                relocated.add(userId);
+                redisTemplate.opsForSet().add(RELOCATED_SET_KEY, userId.toString());
+                publish(ADDED, userId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to record relocation of user {} to shard {}", userId, shardId, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+        try {
+            UUID userId = UUID.fromString(parts[2]);
+            if (ADDED.equals(parts[1])) {
+                relocated.add(userId);
+            } else if (REMOVED.equals(parts[1])) {
+                relocated.remove(userId);
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed relocation message: {}", body);
+        }
+    }
+
+    private void publish(String op, UUID userId) {
+        redisTemplate.convertAndSend(RELOCATION_CHANNEL, String.join(SEPARATOR, instanceId, op, userId.toString()));
+    }
+}
@@ -0,0 +1,175 @@
+package com.team.ja.user.config.sharding;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-only DataSource that routes to a replica of the current shard.
+ *
+ * Among the shard's healthy replicas the one with the fewest outstanding
+ * connections (active + waiting) is picked. When a shard has no replica, all
+ * of its replicas are marked unhealthy, or the chosen replica refuses a
+ * connection, the shard's primary is used instead.
+ *
+ * Replicas are marked unhealthy by {@link #checkHealth} when they cannot be
+ * reached or their replay lag exceeds {@code maxLag}, and healthy again once
+ * they recover.
+ */
+@Slf4j
+public class ShardReplicaDataSource extends AbstractDataSource {
+
+    // 0 when the replica has replayed everything it received; otherwise the
+    // age of the last replayed transaction. Always 0 on a primary.
+    private static final String LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())), 0) END";
+
+    private final Map<String, ? extends DataSource> primaries;
+    private final Map<String, List<Replica>> replicas;
+    private final Duration maxLag;
+    private final String defaultShard;
+
+    static final class Replica {
+        private final HikariDataSource dataSource;
+        private final AtomicBoolean checking = new AtomicBoolean();
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        int outstanding() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+        }
+    }
+
+    public ShardReplicaDataSource(Map<String, ? extends DataSource> primaries,
+            Map<String, List<HikariDataSource>> replicaPools, Duration maxLag, String defaultShard) {
+        this.primaries = primaries;
+        this.replicas = new HashMap<>();
+        replicaPools.forEach((shardKey, pools) -> this.replicas.put(shardKey,
+                pools.stream().map(Replica::new).toList()));
+        this.maxLag = maxLag;
+        this.defaultShard = defaultShard;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Probes every replica's reachability and replay lag. Each probe runs on
+     * its own virtual thread so an unreachable replica cannot delay the others;
+     * a replica whose previous probe is still running is skipped.
+     */
+    public void checkHealth() {
+        replicas.forEach((shardKey, shardReplicas) -> shardReplicas.forEach(replica -> {
+            if (replica.checking.compareAndSet(false, true)) {
+                Thread.ofVirtual().name("replica-health-" + replica.dataSource.getPoolName())
+                        .start(() -> {
+                            try {
+                                probe(shardKey, replica);
+                            } finally {
+                                replica.checking.set(false);
+                            }
+                        });
+            }
+        }));
+    }
+
+    public boolean hasReplicas() {
+        return replicas.values().stream().anyMatch(list -> !list.isEmpty());
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        String shardKey = ShardContext.isShardKeySet() ? ShardContext.getShardKey() : defaultShard;
+        Replica replica = pick(shardKey);
+        if (replica != null) {
+            try {
+                return connector.connect(replica.dataSource);
+            } catch (SQLException e) {
+                replica.healthy = false;
+                log.warn("Replica {} of shard {} refused a connection; marked unhealthy, using primary",
+                        replica.dataSource.getPoolName(), shardKey, e);
+            }
+        }
+
+        DataSource primary = primaries.get(shardKey);
+        if (primary == null) {
+            throw new SQLException("No datasource configured for shard " + shardKey);
+        }
+        return connector.connect(primary);
+    }
+
+    private Replica pick(String shardKey) {
+        List<Replica> shardReplicas = replicas.get(shardKey);
+        if (shardReplicas == null) {
+            return null;
+        }
+        Replica best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        for (Replica replica : shardReplicas) {
+            if (!replica.healthy) {
+                continue;
+            }
+            int outstanding = replica.outstanding();
+            if (outstanding < bestOutstanding) {
+                best = replica;
+                bestOutstanding = outstanding;
+            }
+        }
+        return best;
+    }
+
+    private void probe(String shardKey, Replica replica) {
+        boolean wasHealthy = replica.healthy;
+        try (Connection con = replica.dataSource.getConnection();
+                Statement st = con.createStatement();
+                ResultSet rs = st.executeQuery(LAG_QUERY)) {
+            double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+            boolean healthy = lagSeconds * 1000 <= maxLag.toMillis();
+            replica.healthy = healthy;
+            if (!healthy) {
+                log.warn("Replica {} of shard {} lags by {}s (max {}s); reads go to the primary",
+                        replica.dataSource.getPoolName(), shardKey, lagSeconds, maxLag.toSeconds());
+            } else if (!wasHealthy) {
+                log.info("Replica {} of shard {} is healthy again", replica.dataSource.getPoolName(), shardKey);
+            }
+        } catch (SQLException e) {
+            replica.healthy = false;
+            if (wasHealthy) {
+                log.warn("Replica {} of shard {} is unreachable; reads go to the primary",
+                        replica.dataSource.getPoolName(), shardKey, e);
+            }
+        }
+    }
+}
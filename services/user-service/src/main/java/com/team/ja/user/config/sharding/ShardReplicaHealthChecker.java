@@ -0,0 +1,23 @@
+package com.team.ja.user.config.sharding;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Periodically re-evaluates which shard replicas may serve reads.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShardReplicaHealthChecker {
+
+    private final ShardReplicaDataSource shardReplicaDataSource;
+
+    @Scheduled(fixedDelayString = "${sharding.replica.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        if (shardReplicaDataSource.hasReplicas()) {
+            shardReplicaDataSource.checkHealth();
+        }
+    }
+}
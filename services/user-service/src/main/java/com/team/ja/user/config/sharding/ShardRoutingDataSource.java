@@ -8,11 +8,15 @@ import lombok.extern.slf4j.Slf4j;
 public class ShardRoutingDataSource extends AbstractRoutingDataSource {
 
     // This method is called before each database query to determine which shard's
-    // datasource should be used
+    // datasource should be used. A null key selects the default target datasource.
     @Override
     protected Object determineCurrentLookupKey() {
         String shardKey = ShardContext.getShardKey();
-        log.debug("Routing database operation to shard: {}", shardKey);
+        if (shardKey == null) {
+            log.debug("No shard key set; routing database operation to the default shard");
+        } else {
+            log.debug("Routing database operation to shard: {}", shardKey);
+        }
         return shardKey;
     }
 
@@ -0,0 +1,102 @@
+package com.team.ja.user.config.sharding;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered UUIDs that carry the shard they were created on.
+ *
+ * Layout follows UUIDv7: 48-bit Unix epoch milliseconds, version 7, then 12
+ * bits that would otherwise be random. Those 12 bits hold a 4-bit marker and an
+ * 8-bit shard tag, so the home shard of an id can be read without a directory
+ * lookup. The remaining 62 bits are random.
+ *
+ * Tags are positions in {@link #SHARD_TAGS}; never reorder that list, only
+ * append to it. Random (v4) ids and ids from unknown tags decode to null.
+ *
+ * The tag records the shard an id was created on. Users moved by a migration
+ * keep their id, so callers must check {@link ShardRelocations} before
+ * trusting the decoded shard.
+ */
+public final class ShardTaggedIds {
+
+    private static final List<String> SHARD_TAGS = List.of(
+            "user_shard_vn",
+            "user_shard_sg",
+            "user_shard_oceania",
+            "user_shard_east_asia",
+            "user_shard_north_america",
+            "user_shard_europe",
+            "user_shard_others");
+
+    private static final int VERSION = 7;
+    private static final int MARKER = 0xA;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private ShardTaggedIds() {
+    }
+
+    /**
+     * Creates a new id tagged with {@code shardKey}, or a random UUID when the
+     * shard has no tag.
+     */
+    public static UUID generate(String shardKey) {
+        return generate(shardKey, randomBits());
+    }
+
+    /**
+     * Creates a new id tagged with {@code shardKey} whose random part is
+     * {@code randomBits} (only the low 62 bits are used), or a random UUID
+     * when the shard has no tag.
+     */
+    public static UUID generate(String shardKey, long randomBits) {
+        int tag = SHARD_TAGS.indexOf(shardKey);
+        if (tag < 0) {
+            return UUID.randomUUID();
+        }
+
+        long msb = (System.currentTimeMillis() << 16)
+                | ((long) VERSION << 12)
+                | ((long) MARKER << 8)
+                | tag;
+        long lsb = (randomBits & RANDOM_MASK) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    public static long randomBits() {
+        return ThreadLocalRandom.current().nextLong() & RANDOM_MASK;
+    }
+
+    public static boolean isTagged(String shardKey) {
+        return SHARD_TAGS.contains(shardKey);
+    }
+
+    /**
+     * Hash input for placing {@code id} on a sub-shard. For shard-tagged ids
+     * it is the random part only, so it is known before the tag is chosen
+     * and does not depend on it; for other ids it is derived from all bits.
+     */
+    public static long placementKey(UUID id) {
+        if (decodeShard(id) != null) {
+            return id.getLeastSignificantBits() & RANDOM_MASK;
+        }
+        return id.getMostSignificantBits() * 31 + id.getLeastSignificantBits();
+    }
+
+    /**
+     * Returns the shard encoded in {@code id}, or null if the id is not
+     * shard-tagged.
+     */
+    public static String decodeShard(UUID id) {
+        if (id == null || id.version() != VERSION) {
+            return null;
+        }
+        long msb = id.getMostSignificantBits();
+        if (((msb >>> 8) & 0xF) != MARKER) {
+            return null;
+        }
+        int tag = (int) (msb & 0xFF);
+        return tag < SHARD_TAGS.size() ? SHARD_TAGS.get(tag) : null;
+    }
+}
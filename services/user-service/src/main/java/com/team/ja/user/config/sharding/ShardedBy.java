@@ -0,0 +1,47 @@
+package com.team.ja.user.config.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method on the shard of the user whose id, or whose
+ * search profile id, is passed in the named parameter.
+ *
+ * <pre>
+ * &#64;ShardedBy("userId")
+ * public UserEducationResponse createEducation(UUID userId, CreateUserEducationRequest request)
+ *
+ * &#64;ShardedBy(value = "searchProfileId", key = ShardedBy.Key.SEARCH_PROFILE_ID)
+ * public List&lt;UserSearchProfileSkillResponse&gt; getUserSearchProfileSkills(UUID searchProfileId)
+ * </pre>
+ *
+ * The parameter must be a {@link java.util.UUID}. The shard is resolved
+ * through {@code ShardLookupService}, which remembers it for the rest of the
+ * HTTP request, and bound for the duration of the call, outside any
+ * transaction the method starts. An unknown id fails with
+ * {@code NotFoundException}. Methods that need the key itself read it with
+ * {@link ShardContext#requireShardKey()}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardedBy {
+
+    /**
+     * Name of the parameter holding the id.
+     */
+    String value();
+
+    /**
+     * What the id identifies.
+     */
+    Key key() default Key.USER_ID;
+
+    enum Key {
+        USER_ID,
+        SEARCH_PROFILE_ID
+    }
+}
@@ -0,0 +1,70 @@
+package com.team.ja.user.config.sharding;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.team.ja.common.exception.NotFoundException;
+import com.team.ja.user.service.impl.ShardLookupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Binds the shard for methods annotated with {@link ShardedBy}.
+ *
+ * Ordered ahead of the transaction interceptor, so the shard is already set
+ * when a transaction begins and is restored only after it has completed.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ShardedByAspect {
+
+    private final ShardLookupService shardLookupService;
+
+    @Around("@annotation(shardedBy)")
+    public Object routeToUserShard(ProceedingJoinPoint joinPoint, ShardedBy shardedBy) throws Throwable {
+        UUID id = idArgument(joinPoint, shardedBy.value());
+        String shardKey = switch (shardedBy.key()) {
+            case USER_ID -> shardLookupService.findShardIdByUserId(id);
+            case SEARCH_PROFILE_ID -> shardLookupService.findShardIdBySearchProfileId(id);
+        };
+        if (shardKey == null) {
+            throw switch (shardedBy.key()) {
+                case USER_ID -> new NotFoundException("User", "id", id.toString());
+                case SEARCH_PROFILE_ID -> new NotFoundException("User Search Profile", "id", id.toString());
+            };
+        }
+
+        log.debug("Routing {} to shard {} for {} {}", joinPoint.getSignature().toShortString(), shardKey,
+                shardedBy.key(), id);
+        try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+            return joinPoint.proceed();
+        }
+    }
+
+    private static UUID idArgument(ProceedingJoinPoint joinPoint, String parameterName) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String[] names = ((MethodSignature) joinPoint.getSignature()).getParameterNames();
+        for (int i = 0; names != null && i < names.length; i++) {
+            if (names[i].equals(parameterName)) {
+                if (joinPoint.getArgs()[i] instanceof UUID id) {
+                    return id;
+                }
+                throw new IllegalArgumentException("@ShardedBy parameter '" + parameterName + "' of " + method
+                        + " must be a non-null UUID");
+            }
+        }
+        throw new IllegalStateException("@ShardedBy names unknown parameter '" + parameterName + "' on " + method);
+    }
+}
@@ -2,12 +2,16 @@ package com.team.ja.user.config.sharding;
 
 import lombok.extern.slf4j.Slf4j;
 import org.flywaydb.core.Flyway;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.sql.DataSource;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Configuration
 @Slf4j
@@ -15,46 +19,58 @@ public class ShardedFlywayConfig {
 
     /**
      * This bean manually runs Flyway migrations for every shard.
-     * 
-     * @param resolvedDataSources This is injected from your ShardDatasourceConfig.
-     *                            It contains the map of all 7 shard DataSources.
+     * Shards are migrated in parallel, one virtual thread each; startup fails
+     * if any shard fails to migrate.
+     *
+     * @param shardPoolRegistry The shared shard pools from ShardDatasourceConfig.
      */
     @Bean(name = "migrateAllShards")
-    public Boolean migrateAllShards(@Qualifier("resolvedDataSources") Map<Object, Object> resolvedDataSources) {
-        log.info("Starting Flyway migrations for {} shards...", resolvedDataSources.size());
+    public Boolean migrateAllShards(ShardPoolRegistry shardPoolRegistry) {
+        Map<String, ?> shards = shardPoolRegistry.getPrimaries();
+        log.info("Starting Flyway migrations for {} shards...", shards.size());
 
-        resolvedDataSources.forEach((shardId, dataSourceObj) -> {
-            log.info(">>> Migrating Shard Database: {}", shardId);
+        Map<String, Future<?>> migrations = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            shards.keySet().forEach(shardId -> migrations.put(shardId, executor.submit(
+                    () -> migrateShard(shardId, shardPoolRegistry.getMigrationDataSource(shardId)))));
+        }
 
+        migrations.forEach((shardId, migration) -> {
             try {
-                // Cast the object to a standard DataSource
-                DataSource dataSource = (DataSource) dataSourceObj;
-
-                // Configure Flyway for this specific shard
-                Flyway flyway = Flyway.configure()
-                        .dataSource(dataSource)
-                        .locations("classpath:db/migration")
-                        // creates the flyway history table if it doesn't exist
-                        .baselineOnMigrate(true)
-                        // allows scripts to be run if you accidentally add an older version number
-                        .outOfOrder(true)
-                        .load();
-
-                // Repair first to fix checksum mismatches from modified scripts
-                flyway.repair();
-
-                // Execute the migration
-                flyway.migrate();
-
-                log.info(">>> Successfully migrated Shard: {}", shardId);
-            } catch (Exception e) {
-                log.error("Critical error migrating shard {}: {}", shardId, e.getMessage());
+                migration.get();
+            } catch (ExecutionException e) {
+                log.error("Critical error migrating shard {}: {}", shardId, e.getCause().getMessage());
                 // Rethrowing will stop the application from starting with an invalid schema
-                throw new RuntimeException("Migration failed for shard " + shardId, e);
+                throw new RuntimeException("Migration failed for shard " + shardId, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while migrating shard " + shardId, e);
             }
         });
 
-        log.info("All 7 shard migrations are complete.");
+        log.info("All {} shard migrations are complete.", shards.size());
         return true;
     }
-}
\ No newline at end of file
+
+    private void migrateShard(String shardId, DataSource dataSource) {
+        log.info(">>> Migrating Shard Database: {}", shardId);
+
+        // Configure Flyway for this specific shard
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                // creates the flyway history table if it doesn't exist
+                .baselineOnMigrate(true)
+                // allows scripts to be run if you accidentally add an older version number
+                .outOfOrder(true)
+                .load();
+
+        // Repair first to fix checksum mismatches from modified scripts
+        flyway.repair();
+
+        // Execute the migration
+        flyway.migrate();
+
+        log.info(">>> Successfully migrated Shard: {}", shardId);
+    }
+}
@@ -1,5 +1,7 @@
 package com.team.ja.user.config.sharding;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,11 +21,53 @@ public class ShardingProperties {
     private Map<String, ShardProperties> shards = new HashMap<>();
 
     /**
-     * Map of country ISO codes (upper-case) to shard id.
-     * Example: { "VN":"user_shard_vn", "SG":"user_shard_sg",
-     * "AU":"user_shard_oceania" }
+     * Map of country ISO codes (upper-case) to the hash sub-shards of that
+     * country. Overrides the built-in country table when the shard map is
+     * first created; afterwards the map lives in Redis (see ShardMapService).
+     * Example: { "VN":["user_shard_vn","user_shard_vn_2"], "SG":["user_shard_sg"] }
      */
-    private Map<String, String> byCountry = new HashMap<>();
+    private Map<String, List<String>> byCountry = new HashMap<>();
+
+    /**
+     * Settings for the versioned shard map and background splits.
+     */
+    private MapProperties map = new MapProperties();
+
+    /**
+     * Settings for bulk rebalancing jobs.
+     */
+    private RebalanceProperties rebalance = new RebalanceProperties();
+
+    /**
+     * Settings for the cross-shard lookups performed when the shard directory
+     * misses.
+     */
+    private LookupProperties lookup = new LookupProperties();
+
+    /**
+     * Settings for routing read-only transactions to shard replicas.
+     */
+    private ReplicaProperties replica = new ReplicaProperties();
+
+    /**
+     * Settings for per-shard health tracking and circuit breakers.
+     */
+    private HealthProperties health = new HealthProperties();
+
+    /**
+     * Settings for queries that run on several shards at once.
+     */
+    private FanOutProperties fanOut = new FanOutProperties();
+
+    /**
+     * Settings for the in-process cache in front of the Redis shard directory.
+     */
+    private NearCacheProperties nearCache = new NearCacheProperties();
+
+    /**
+     * Settings for the per-shard user id / email Bloom filters.
+     */
+    private BloomProperties bloom = new BloomProperties();
 
     /**
      * Properties for individual shards.
@@ -40,6 +84,193 @@ public class ShardingProperties {
         private long connectionTimeout = 30000;
         private long idleTimeout = 600000;
         private long maxLifetime = 1800000;
+
+        /**
+         * JDBC URLs of streaming replicas of this shard. Read-only transactions
+         * are served from them; credentials and pool sizes are shared with the
+         * primary.
+         */
+        private List<String> replicaUrls = new ArrayList<>();
+
+        /**
+         * Rarely used shard: keeps no idle connections and is not connected
+         * to until first queried.
+         */
+        private boolean lazy = false;
+    }
+
+    /**
+     * Properties for read-replica routing.
+     */
+    @Data
+    public static class ReplicaProperties {
+        /**
+         * Replicas lagging further behind than this are skipped until they
+         * catch up.
+         */
+        private Duration maxLag = Duration.ofSeconds(5);
+
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Properties for the shard map.
+     */
+    @Data
+    public static class MapProperties {
+        /**
+         * How often the map is re-read from Redis in case a change
+         * notification was missed.
+         */
+        private Duration reloadInterval = Duration.ofMinutes(1);
+
+        /**
+         * Pause between batches of users moved by a split.
+         */
+        private Duration splitInterval = Duration.ofSeconds(10);
+
+        /**
+         * Maximum number of users examined per shard and batch during a split.
+         */
+        private int splitBatchSize = 200;
+    }
+
+    /**
+     * Properties for bulk rebalancing jobs.
+     */
+    @Data
+    public static class RebalanceProperties {
+        /**
+         * Users moved per chunk; each chunk is one transaction on the source
+         * and one on the target shard.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Upper bound on the users moved per second, 0 for no limit.
+         */
+        private int maxUsersPerSecond = 200;
+    }
+
+    /**
+     * Properties for the per-shard circuit breakers.
+     */
+    @Data
+    public static class HealthProperties {
+        /**
+         * Number of most recent calls per shard the failure rate is computed
+         * over.
+         */
+        private int windowSize = 20;
+
+        /**
+         * Calls needed in the window before the breaker may open.
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * Percentage of failed or slow calls that opens the breaker.
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * Calls slower than this count as failed.
+         */
+        private Duration slowCallThreshold = Duration.ofSeconds(2);
+
+        /**
+         * How long an open breaker refuses the shard before probing starts.
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * Consecutive successful probes needed to close a half-open breaker.
+         */
+        private int halfOpenProbes = 3;
+
+        private Duration probeInterval = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Properties for scatter-gather shard lookups.
+     */
+    @Data
+    public static class LookupProperties {
+        /**
+         * Query every shard at the same time instead of one after another.
+         */
+        private boolean parallel = true;
+
+        /**
+         * Maximum time to wait for a single shard to answer a lookup.
+         */
+        private Duration shardTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Resolve shard-tagged user ids from the id itself instead of the
+         * shard directory.
+         */
+        private boolean decodeIdShardTag = true;
+    }
+
+    /**
+     * Properties for cross-shard fan-out queries.
+     */
+    @Data
+    public static class FanOutProperties {
+        /**
+         * Maximum time to wait for all shards to answer.
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+
+        /**
+         * Maximum number of shard queries running at once across all fan-out
+         * calls on this instance.
+         */
+        private int maxConcurrency = 32;
+    }
+
+    /**
+     * Properties for the shard directory near-cache.
+     */
+    @Data
+    public static class NearCacheProperties {
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of entries per key type (userId and email).
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * How long an entry is served locally before Redis is consulted again.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Properties for the shard membership Bloom filters.
+     */
+    @Data
+    public static class BloomProperties {
+        private boolean enabled = true;
+
+        /**
+         * Number of users per shard each filter is sized for.
+         */
+        private long expectedInsertions = 1_000_000;
+
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * JDBC fetch size used while streaming a shard at build time.
+         */
+        private int fetchSize = 5_000;
+
+        /**
+         * How often filters are rebuilt to drop users that left a shard.
+         */
+        private Duration rebuildInterval = Duration.ofHours(6);
     }
 
     public static final String DEFAULT_SHARD = "user_shard_others";
@@ -73,23 +304,12 @@ public class ShardingProperties {
         COUNTRY_TO_SHARD.put("DEFAULT", DEFAULT_SHARD);
     }
 
-    public static String resolveShard(String countryIso) {
-        if (countryIso == null) {
-            return DEFAULT_SHARD;
-        }
-        String key = countryIso.trim().toUpperCase();
-        return COUNTRY_TO_SHARD.getOrDefault(key, DEFAULT_SHARD);
-    }
-
     /**
-     * Gets shard id for a given country ISO code.
+     * Built-in home shard of each country, the seed of the initial shard map.
+     * "DEFAULT" maps countries that are not listed.
      */
-    public String getShardForCountry(String countryIso) {
-        if (countryIso == null) {
-            return defaultShard;
-        }
-        String key = countryIso.trim().toUpperCase();
-        return byCountry.getOrDefault(key, defaultShard);
+    public static Map<String, String> defaultCountryShards() {
+        return Map.copyOf(COUNTRY_TO_SHARD);
     }
 
 }
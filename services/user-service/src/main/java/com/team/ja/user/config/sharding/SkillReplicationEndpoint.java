@@ -0,0 +1,30 @@
+package com.team.ja.user.config.sharding;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.team.ja.user.service.impl.SkillReplicationService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read-only actuator view of skill replication: the creation time of the
+ * newest replicated skill on each shard. A shard whose watermark lags the
+ * others missed a batch and waits for the reconciliation.
+ */
+@Component
+@Endpoint(id = "skillreplication")
+@RequiredArgsConstructor
+public class SkillReplicationEndpoint {
+
+    private final SkillReplicationService skillReplicationService;
+
+    @ReadOperation
+    public Map<String, LocalDateTime> watermarks() {
+        return skillReplicationService.getWatermarks();
+    }
+}
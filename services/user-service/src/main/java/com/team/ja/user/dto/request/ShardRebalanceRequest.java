@@ -0,0 +1,30 @@
+package com.team.ja.user.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for starting a bulk shard rebalancing job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Shard rebalancing request")
+public class ShardRebalanceRequest {
+
+    @NotBlank(message = "Source shard is required")
+    @Schema(description = "Shard users are moved off", example = "user_shard_others")
+    private String sourceShard;
+
+    @NotBlank(message = "Target shard is required")
+    @Schema(description = "Shard users are moved to", example = "user_shard_vn")
+    private String targetShard;
+
+    @Schema(description = "Only move users of this country; all users of the source shard when empty", example = "VN")
+    private String country;
+}
@@ -0,0 +1,29 @@
+package com.team.ja.user.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for spreading a country over more shards.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Shard split request")
+public class ShardSplitRequest {
+
+    @NotBlank(message = "Country is required")
+    @Schema(description = "Country abbreviation, or DEFAULT for countries without their own layout", example = "VN")
+    private String country;
+
+    @NotEmpty(message = "Shards are required")
+    @Schema(description = "New sub-shards; must start with the current ones", example = "[\"user_shard_vn\", \"user_shard_vn_2\"]")
+    private List<String> shards;
+}
@@ -0,0 +1,35 @@
+package com.team.ja.user.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user of a bulk import, as read from an NDJSON line or a CSV record.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportRow {
+
+    private String email;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String phone;
+
+    /**
+     * Country abbreviation, e.g. VN.
+     */
+    private String country;
+
+    private String city;
+
+    private String address;
+
+    private String objectiveSummary;
+}
@@ -0,0 +1,70 @@
+package com.team.ja.user.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State and progress of a bulk shard rebalancing job. Also the checkpoint
+ * the job resumes from.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Bulk shard rebalancing job")
+public class ShardRebalanceJobResponse {
+
+    public enum Status {
+        RUNNING, PAUSED, COMPLETED, FAILED
+    }
+
+    @Schema(description = "Job ID")
+    private UUID id;
+
+    @Schema(description = "Shard users are moved off", example = "user_shard_others")
+    private String sourceShard;
+
+    @Schema(description = "Shard users are moved to", example = "user_shard_vn")
+    private String targetShard;
+
+    @Schema(description = "Only users of this country are moved; all users when empty", example = "VN")
+    private String country;
+
+    @Schema(description = "Country layouts moved from the source to the target shard in the shard map",
+            example = "[\"VN\"]")
+    private List<String> relocatedCountries;
+
+    private Status status;
+
+    @Schema(description = "Last user ID examined; the job continues after it")
+    private UUID lastUserId;
+
+    @Schema(description = "Users moved so far", example = "12000")
+    private long movedUsers;
+
+    @Schema(description = "Rows copied so far over all tables", example = "95000")
+    private long copiedRows;
+
+    @Schema(description = "Chunks completed so far", example = "24")
+    private long chunks;
+
+    @Schema(description = "Time spent moving, excluding pauses", example = "60000")
+    private long elapsedMillis;
+
+    @Schema(description = "Average users moved per second while running", example = "200.0")
+    private double usersPerSecond;
+
+    @Schema(description = "Failure message of a failed job")
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
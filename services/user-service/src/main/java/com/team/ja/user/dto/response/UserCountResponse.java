@@ -0,0 +1,29 @@
+package com.team.ja.user.dto.response;
+
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * User count response DTO.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "User counts across all shards")
+public class UserCountResponse {
+
+    @Schema(description = "Number of users, active or not", example = "1200")
+    private long totalUsers;
+
+    @Schema(description = "Number of active users", example = "1150")
+    private long activeUsers;
+
+    @Schema(description = "Number of active users per shard")
+    private Map<String, Long> activeUsersByShard;
+}
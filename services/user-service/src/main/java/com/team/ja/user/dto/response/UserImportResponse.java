@@ -0,0 +1,39 @@
+package com.team.ja.user.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk user import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Bulk user import result")
+public class UserImportResponse {
+
+    @Schema(description = "Rows read from the input", example = "10000")
+    private long received;
+
+    @Schema(description = "Users created", example = "9950")
+    private long imported;
+
+    @Schema(description = "Rows skipped because a user with the same email exists", example = "40")
+    private long duplicates;
+
+    @Schema(description = "Rows rejected as invalid", example = "10")
+    private long rejected;
+
+    @Schema(description = "Users created per shard")
+    private Map<String, Long> importedByShard;
+
+    @Schema(description = "Reasons for the first rejected rows")
+    private List<String> errors;
+}
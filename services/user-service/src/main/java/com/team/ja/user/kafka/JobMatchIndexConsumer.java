@@ -0,0 +1,107 @@
+package com.team.ja.user.kafka;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import com.team.ja.common.event.KafkaTopics;
+import com.team.ja.common.event.SubscriptionActivateEvent;
+import com.team.ja.common.event.SubscriptionDeactivateEvent;
+import com.team.ja.common.event.UserSearchProfileUpdateEvent;
+import com.team.ja.user.service.UserSearchProfileService;
+import com.team.ja.user.service.impl.JobMatchIndex;
+import com.team.ja.user.service.impl.ShardLookupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the {@link JobMatchIndex} of this instance current.
+ *
+ * Every instance holds its own index, so each one listens in a consumer
+ * group of its own, starting from the latest offset; anything before that is
+ * covered by the index build.
+ *
+ * Search profile changes arrive as notices on the internal change topic that
+ * only name the user. They are consumed in batches: the users of a batch are
+ * resolved to their shards at once, their profiles are reloaded with one
+ * query per shard, and users without an active profile are removed from the
+ * index. Users whose shard could not be reached are left for the next
+ * rebuild.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobMatchIndexConsumer {
+
+    private final JobMatchIndex jobMatchIndex;
+    private final UserSearchProfileService userSearchProfileService;
+    private final ShardLookupService shardLookupService;
+
+    @KafkaListener(topics = KafkaTopics.USER_SEARCH_PROFILE_CHANGED,
+            groupId = "user-job-match-index-#{T(java.util.UUID).randomUUID()}",
+            containerFactory = "searchProfileChangedKafkaListenerContainerFactory",
+            properties = "auto.offset.reset=latest")
+    public void handleSearchProfileChanges(List<UserSearchProfileUpdateEvent> events) {
+        Set<UUID> userIds = events.stream()
+                .map(UserSearchProfileUpdateEvent::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        ShardLookupService.BatchLookupResult lookup;
+        try {
+            lookup = shardLookupService.findShardIdsByUserIds(userIds);
+        } catch (Exception e) {
+            log.error("Failed to resolve the shards of {} user(s); left for the next rebuild", userIds.size(), e);
+            return;
+        }
+
+        Set<UUID> absent = new HashSet<>(userIds);
+        absent.removeAll(lookup.unknown());
+        lookup.byShard().forEach((shardKey, shardUserIds) -> {
+            absent.removeAll(shardUserIds);
+            try {
+                Map<UUID, UserSearchProfileUpdateEvent> profiles = userSearchProfileService
+                        .findActiveSearchProfilesAsEvents(shardKey, shardUserIds);
+                for (UUID userId : shardUserIds) {
+                    UserSearchProfileUpdateEvent profile = profiles.get(userId);
+                    if (profile != null) {
+                        jobMatchIndex.put(shardKey, profile);
+                    } else {
+                        jobMatchIndex.remove(userId);
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Failed to reindex {} search profile(s) on shard {}; left for the next rebuild",
+                        shardUserIds.size(), shardKey, e);
+            }
+        });
+        // Users that exist on no shard have no profile either
+        absent.forEach(jobMatchIndex::remove);
+        if (!lookup.unknown().isEmpty()) {
+            log.warn("Could not reindex {} search profile(s) whose shard was unavailable; left for the next rebuild",
+                    lookup.unknown().size());
+        }
+    }
+
+    @KafkaListener(topics = KafkaTopics.SUBSCRIPTION_ACTIVATE,
+            groupId = "user-job-match-index-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void handleSubscriptionActivate(SubscriptionActivateEvent event) {
+        jobMatchIndex.setPremium(event.getPayerId(), true);
+    }
+
+    @KafkaListener(topics = KafkaTopics.SUBSCRIPTION_DEACTIVATE,
+            groupId = "user-job-match-index-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void handleSubscriptionDeactivate(SubscriptionDeactivateEvent event) {
+        jobMatchIndex.setPremium(event.getPayerId(), false);
+    }
+}
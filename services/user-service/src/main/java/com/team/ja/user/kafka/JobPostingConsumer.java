@@ -11,10 +11,7 @@ import com.team.ja.common.event.JobMatchedEvent;
 import com.team.ja.common.event.JobPostingEvent;
 import com.team.ja.common.event.KafkaTopics;
 import com.team.ja.common.event.UserSearchProfileUpdateEvent;
-import com.team.ja.user.model.User;
-import com.team.ja.user.repository.UserRepository;
-import com.team.ja.user.service.JobMatchingService;
-import com.team.ja.user.service.UserSearchProfileService;
+import com.team.ja.user.service.impl.JobMatchIndex;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,9 +22,9 @@ import lombok.extern.slf4j.Slf4j;
  * Consumes from: jobpost.published, jobpost.skills.changed,
  * jobpost.country.changed
  * 
- * Evaluates each new job posting against all active search profiles
- * and publishes match notifications to notification-service via job-matched
- * topic
+ * Evaluates each new job posting against the active search profiles held in
+ * {@link JobMatchIndex} and publishes match notifications to
+ * notification-service via job-matched topic
  * 
  * Only premium users' search profiles are eligible for job matching
  */
@@ -36,14 +33,12 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class JobPostingConsumer {
 
-    private final JobMatchingService jobMatchingService;
-    private final UserSearchProfileService userSearchProfileService;
-    private final UserRepository userRepository;
+    private final JobMatchIndex jobMatchIndex;
     private final KafkaTemplate<String, JobMatchedEvent> jobMatchedEventKafkaTemplate;
 
     /**
      * Handle new job posting event
-     * Matches job against all active search profiles
+     * Matches job against the indexed search profiles
      * Publishes notifications for matched profiles
      */
     @KafkaListener(topics = KafkaTopics.JOB_POST_PUBLISHED, groupId = "user-jobposting-consumer", containerFactory = "jobPostingEventKafkaListenerContainerFactory")
@@ -51,42 +46,29 @@ public class JobPostingConsumer {
         log.info("Received job posting event: jobId={}, title={}", jobEvent.getJobPostId(), jobEvent.getTitle());
 
         try {
-            // Fetch all active search profiles
-            List<UserSearchProfileUpdateEvent> activeProfiles = userSearchProfileService
-                    .getAllActiveSearchProfilesAsEvents();
-            log.debug("Processing job against {} active search profiles", activeProfiles.size());
+            // Premium users' profiles the job can match, from the in-memory index
+            List<UserSearchProfileUpdateEvent> matchedProfiles = jobMatchIndex.match(jobEvent);
 
             int matchCount = 0;
-            // Evaluate job against each profile
-            for (UserSearchProfileUpdateEvent profile : activeProfiles) {
+            for (UserSearchProfileUpdateEvent profile : matchedProfiles) {
                 try {
-                    // Check if user is premium - only premium users can receive job matches
-                    User user = userRepository.findById(profile.getUserId()).orElse(null);
-                    if (user == null || !user.isPremium()) {
-                        log.debug("Skipping job match for user {} - user not found or not premium",
-                                profile.getUserId());
-                        continue;
-                    }
+                    // Publish match event for notification-service
+                    JobMatchedEvent matchEvent = JobMatchedEvent.builder()
+                            .userId(profile.getUserId())
+                            .jobPostId(jobEvent.getJobPostId())
+                            .jobTitle(jobEvent.getTitle())
+                            .jobCity(jobEvent.getCity())
+                            .jobCountryCode(jobEvent.getCountryCode())
+                            .matchedAt(LocalDateTime.now())
+                            .build();
 
-                    if (jobMatchingService.isMatch(jobEvent, profile)) {
-                        // Publish match event for notification-service
-                        JobMatchedEvent matchEvent = JobMatchedEvent.builder()
-                                .userId(profile.getUserId())
-                                .jobPostId(jobEvent.getJobPostId())
-                                .jobTitle(jobEvent.getTitle())
-                                .jobCity(jobEvent.getCity())
-                                .jobCountryCode(jobEvent.getCountryCode())
-                                .matchedAt(LocalDateTime.now())
-                                .build();
-
-                        jobMatchedEventKafkaTemplate.send(KafkaTopics.JOB_MATCHED, matchEvent.getUserId().toString(),
-                                matchEvent);
-                        matchCount++;
-                        log.info("Job {} matched with profile for premium user {}, sent to notification-service",
-                                jobEvent.getJobPostId(), profile.getUserId());
-                    }
+                    jobMatchedEventKafkaTemplate.send(KafkaTopics.JOB_MATCHED, matchEvent.getUserId().toString(),
+                            matchEvent);
+                    matchCount++;
+                    log.info("Job {} matched with profile for premium user {}, sent to notification-service",
+                            jobEvent.getJobPostId(), profile.getUserId());
                 } catch (Exception e) {
-                    log.error("Error matching job {} with profile for user {}", jobEvent.getJobPostId(),
+                    log.error("Error publishing match of job {} for user {}", jobEvent.getJobPostId(),
                             profile.getUserId(), e);
                     // Continue processing other profiles
                 }
@@ -1,11 +1,23 @@
 package com.team.ja.user.kafka;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Service;
 
 import com.team.ja.common.event.KafkaTopics;
+import com.team.ja.common.event.UserMigrationEvent;
 import com.team.ja.user.service.impl.UserMigrationService;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,20 +27,75 @@ import lombok.extern.slf4j.Slf4j;
 public class UserMigrateConsumer {
 
     private final UserMigrationService userMigrationService;
+    private final MeterRegistry meterRegistry;
 
     /**
-     * Handles incoming user migration events.
+     * Handles a batch of user migration events.
+     *
+     * Events are keyed by user id, so all events of a user arrive in order on
+     * one partition. The batch is cut into rounds holding at most one event
+     * per user: the first event of every user, then the second, and so on.
+     * Rounds run in order and the events of one round are migrated together
+     * (see {@link UserMigrationService#migrateUsers}). Once an event of a user
+     * fails, that user's later events are held back.
+     *
+     * On failure the batch is acknowledged up to the first failed event, and
+     * that event and everything after it are redelivered by the error handler;
+     * events that already took effect are skipped on redelivery because their
+     * users are no longer on the source shard.
      *
-     * @param event The user migration event containing migration details.
+     * @param records The batch of user migration records.
      */
-    @KafkaListener(topics = KafkaTopics.USER_MIGRATION, groupId = "user-migration-consumer")
-    public void handleUserMigration(com.team.ja.common.event.UserMigrationEvent event) {
-        log.info("Received user migration event for userId: {}", event.getUserId());
-        try {
-            userMigrationService.migrateUserData(event);
-            log.info("User data migration completed for userId: {}", event.getUserId());
-        } catch (Exception e) {
-            log.error("Failed to migrate user data for userId: {}: {}", event.getUserId(), e.getMessage());
+    @KafkaListener(topics = KafkaTopics.USER_MIGRATION, groupId = "user-migration-consumer",
+            containerFactory = "userMigrationEventKafkaListenerContainerFactory", batch = "true")
+    public void handleUserMigrations(List<ConsumerRecord<String, UserMigrationEvent>> records) {
+        log.info("Received {} user migration event(s)", records.size());
+
+        List<List<Integer>> rounds = new ArrayList<>();
+        Map<UUID, Integer> eventsPerUser = new HashMap<>();
+        int firstFailed = Integer.MAX_VALUE;
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, UserMigrationEvent> record = records.get(i);
+            meterRegistry.timer("user.migration.lag").record(Duration.ofMillis(Math.max(0, now - record.timestamp())));
+            if (record.value() == null || record.value().getUserId() == null) {
+                // Not deserializable; goes to the dead letter topic
+                firstFailed = Math.min(firstFailed, i);
+                continue;
+            }
+            int round = eventsPerUser.merge(record.value().getUserId(), 1, Integer::sum) - 1;
+            if (round == rounds.size()) {
+                rounds.add(new ArrayList<>());
+            }
+            rounds.get(round).add(i);
+        }
+
+        Map<UUID, Integer> failedAt = new HashMap<>();
+        for (List<Integer> round : rounds) {
+            List<UserMigrationEvent> events = new ArrayList<>();
+            Map<UUID, Integer> indexes = new HashMap<>();
+            for (int index : round) {
+                UserMigrationEvent event = records.get(index).value();
+                if (failedAt.containsKey(event.getUserId())) {
+                    continue;
+                }
+                events.add(event);
+                indexes.put(event.getUserId(), index);
+            }
+
+            Set<UUID> failed = userMigrationService.migrateUsers(events);
+            failed.forEach(userId -> failedAt.put(userId, indexes.get(userId)));
+            meterRegistry.counter("user.migration.events", "outcome", "migrated").increment(events.size() - failed.size());
+            meterRegistry.counter("user.migration.events", "outcome", "failed").increment(failed.size());
+        }
+
+        for (int index : failedAt.values()) {
+            firstFailed = Math.min(firstFailed, index);
+        }
+        if (firstFailed != Integer.MAX_VALUE) {
+            throw new BatchListenerFailedException("User migration failed for " + failedAt.size() + " user(s)",
+                    firstFailed);
         }
+        log.info("Migrated {} user migration event(s)", records.size());
     }
 }
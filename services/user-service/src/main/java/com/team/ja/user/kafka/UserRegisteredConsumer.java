@@ -4,11 +4,9 @@ import com.team.ja.common.event.KafkaTopics;
 import com.team.ja.common.event.UserProfileCreateEvent;
 import com.team.ja.common.event.UserRegisteredEvent;
 import com.team.ja.user.config.sharding.ShardContext;
-import com.team.ja.user.config.sharding.ShardingProperties;
-import com.team.ja.user.model.Country;
+import com.team.ja.user.config.sharding.ShardMapService;
 import com.team.ja.user.model.User;
 import com.team.ja.user.model.UserSearchProfile;
-import com.team.ja.user.repository.CountryRepository;
 import com.team.ja.user.repository.UserRepository;
 import com.team.ja.user.repository.UserSearchProfileRepository;
 
@@ -32,6 +30,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserRegisteredConsumer {
 
         private final com.team.ja.user.service.impl.UserProfileRegistrationService registrationService;
+        private final ShardMapService shardMapService;
 
         /**
          * Handle user registered event.
@@ -45,20 +44,17 @@ public class UserRegisteredConsumer {
                 log.info("Received user-registered event for userId: {} (Country: {})",
                                 event.getUserId(), event.getCountryAbbreviation());
 
-                String shardKey = ShardingProperties.resolveShard(event.getCountryAbbreviation());
+                String shardKey = shardMapService.current().shardFor(event.getCountryAbbreviation(),
+                                event.getUserId());
 
-                ShardContext.setShardKey(shardKey);
-                log.info("Consumer routing thread to shard: {}", shardKey);
-
-                try {
+                try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+                        log.info("Consumer routing thread to shard: {}", shardKey);
                         registrationService.saveProfileInShard(event, shardKey);
                         log.info("User profile created successfully for userId: {} in shard: {}", event.getUserId(), shardKey);
                 } catch (Exception e) {
                         log.error("Failed to sync user to shard {}: {}", shardKey, e.getMessage(), e);
                         // Rethrow to allow Kafka to retry the message
                         throw e;
-                } finally {
-                        ShardContext.clear();
                 }
         }
 
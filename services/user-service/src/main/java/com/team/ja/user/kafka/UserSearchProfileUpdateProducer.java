@@ -0,0 +1,92 @@
+package com.team.ja.user.kafka;
+
+import com.team.ja.common.event.KafkaTopics;
+import com.team.ja.common.event.UserSearchProfileUpdateEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Kafka producer for search profile update events.
+ *
+ * Full profiles go to {@link KafkaTopics#USER_PROFILE_UPDATE}, which other
+ * services consume. Every change, including ones that have no full profile to
+ * publish such as a deactivation, also sends a notice that only names the
+ * user to the internal {@link KafkaTopics#USER_SEARCH_PROFILE_CHANGED} topic;
+ * its consumers reload the profile from the user's shard.
+ *
+ * Events are only sent once the change is committed; an event sent from
+ * inside the transaction could be handled before the change is visible, or
+ * for a change that is rolled back. Events are keyed by user, so the events of
+ * one user are consumed in order.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserSearchProfileUpdateProducer {
+
+    private final KafkaTemplate<String, UserSearchProfileUpdateEvent> userSearchProfileUpdateKafkaTemplate;
+
+    /**
+     * Publishes the full profile {@code event}, and a change notice for its
+     * user, after the current transaction commits, or right away outside of
+     * one. Nothing is sent if the transaction rolls back.
+     *
+     * @param event The search profile update event to send.
+     */
+    public void sendAfterCommit(UserSearchProfileUpdateEvent event) {
+        afterCommit(() -> {
+            send(KafkaTopics.USER_PROFILE_UPDATE, event);
+            send(KafkaTopics.USER_SEARCH_PROFILE_CHANGED, changeNotice(event.getUserId()));
+        });
+    }
+
+    /**
+     * Publishes only a change notice for {@code userId} after the current
+     * transaction commits.
+     *
+     * @param userId The user whose search profile changed.
+     */
+    public void sendChangedAfterCommit(UUID userId) {
+        afterCommit(() -> send(KafkaTopics.USER_SEARCH_PROFILE_CHANGED, changeNotice(userId)));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static UserSearchProfileUpdateEvent changeNotice(UUID userId) {
+        return UserSearchProfileUpdateEvent.builder().userId(userId).build();
+    }
+
+    private void send(String topic, UserSearchProfileUpdateEvent event) {
+        userSearchProfileUpdateKafkaTemplate
+                .send(topic, event.getUserId().toString(), event)
+                .whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        log.info("Sent UserSearchProfileUpdateEvent for user {} to {} [partition: {}, offset: {}]",
+                                event.getUserId(),
+                                topic,
+                                result.getRecordMetadata().partition(),
+                                result.getRecordMetadata().offset());
+                    } else {
+                        log.error("Failed to send UserSearchProfileUpdateEvent for user {} to {}", event.getUserId(),
+                                topic, ex);
+                    }
+                });
+    }
+}
@@ -30,20 +30,18 @@ public class UserSubscriptionConsumer {
 
             // Determine the shard for the user
             String shardKey = shardLookupService.findShardIdByUserId(event.getPayerId());
-            ShardContext.setShardKey(shardKey);
-
-            // Update user subscription status in user profile
-            User user = userRepository.findById(event.getPayerId()).orElseThrow(() -> {
-                log.warn("User with ID: {} not found for subscription update", event.getPayerId());
-                return new IllegalArgumentException("User not found");
-            });
-            user.setPremium(true);
-            userRepository.save(user);
-            log.info("Updated user subscription status for user ID: {}", event.getPayerId());
+            try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+                // Update user subscription status in user profile
+                User user = userRepository.findById(event.getPayerId()).orElseThrow(() -> {
+                    log.warn("User with ID: {} not found for subscription update", event.getPayerId());
+                    return new IllegalArgumentException("User not found");
+                });
+                user.setPremium(true);
+                userRepository.save(user);
+                log.info("Updated user subscription status for user ID: {}", event.getPayerId());
+            }
         } catch (Exception e) {
             log.error("Error processing subscription activate event for user ID: {}", event.getPayerId(), e);
-        } finally {
-            ShardContext.clear();
         }
     }
 
@@ -51,11 +49,9 @@ public class UserSubscriptionConsumer {
     public void handleSubscriptionDeactivateEvent(SubscriptionDeactivateEvent event) {
         log.info("Received subscription deactivate event for user subscription processing: {}", event);
 
-        try {
-            // Determine the shard for the user
-            String shardKey = shardLookupService.findShardIdByUserId(event.getPayerId());
-            ShardContext.setShardKey(shardKey);
-
+        // Determine the shard for the user
+        String shardKey = shardLookupService.findShardIdByUserId(event.getPayerId());
+        try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
             // Update user subscription status in user profile
             User user = userRepository.findById(event.getPayerId()).orElseThrow(() -> {
                 log.warn("User with ID: {} not found for subscription update", event.getPayerId());
@@ -64,8 +60,6 @@ public class UserSubscriptionConsumer {
             user.setPremium(false);
             userRepository.save(user);
             log.info("Updated user subscription status for user ID: {}", event.getPayerId());
-        } finally {
-            ShardContext.clear();
         }
     }
 
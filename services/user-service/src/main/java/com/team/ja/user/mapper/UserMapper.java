@@ -24,7 +24,7 @@ public abstract class UserMapper {
     @Mapping(target = "avatarUrl", source = "avatarUrl")
     @Mapping(target = "address", source = "address")
     @Mapping(target = "city", source = "city")
-    @Mapping(target = "country", ignore = true) // Set manually in service via CountryMapper
+    @Mapping(target = "country", ignore = true) // Set manually in service via CountryRegistry
     @Mapping(target = "skills", expression = "java(mapSkills(user.getUserSkills()))")
     @Mapping(target = "education", source = "education")
     @Mapping(target = "workExperience", source = "workExperience")
@@ -14,7 +14,7 @@ import java.util.List;
 public interface UserWorkExperienceMapper {
 
     @Mapping(target = "employmentTypeDisplayName", expression = "java(experience.getEmploymentType() != null ? experience.getEmploymentType().getDisplayName() : null)")
-    @Mapping(target = "country", ignore = true) // Set manually in service via CountryMapper
+    @Mapping(target = "country", ignore = true) // Set manually in service via CountryRegistry
     UserWorkExperienceResponse toResponse(UserWorkExperience experience);
 
     List<UserWorkExperienceResponse> toResponseList(List<UserWorkExperience> experienceList);
@@ -1,6 +1,8 @@
 package com.team.ja.user.model;
 
 import com.team.ja.common.entity.BaseEntity;
+import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.config.sharding.ShardTaggedIds;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -128,4 +130,16 @@ public class User extends BaseEntity {
     public void markProfileUpdated() {
         this.profileUpdatedAt = LocalDateTime.now();
     }
+
+    /**
+     * Generated user IDs carry the shard they are created on, so the shard can
+     * be resolved from the ID alone. See {@link ShardTaggedIds}.
+     */
+    @Override
+    protected UUID generateId() {
+        if (!ShardContext.isShardKeySet()) {
+            return super.generateId();
+        }
+        return ShardTaggedIds.generate(ShardContext.getShardKey());
+    }
 }
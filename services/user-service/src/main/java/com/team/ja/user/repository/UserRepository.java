@@ -1,12 +1,18 @@
 package com.team.ja.user.repository;
 
 import com.team.ja.user.model.User;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -20,6 +26,56 @@ public interface UserRepository
 
         boolean existsByEmail(String email);
 
+        long countByIsActiveTrue();
+
+        @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+        List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+        /**
+         * First keyset page of active users in (created_at, id) order.
+         */
+        @Query(value = "SELECT * FROM users WHERE is_active = TRUE "
+                        + "ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+        List<User> findActiveFirstPage(@Param("limit") int limit);
+
+        /**
+         * Next keyset page of active users strictly after (createdAt, id).
+         */
+        @Query(value = "SELECT * FROM users WHERE is_active = TRUE "
+                        + "AND (created_at, id) > (:createdAt, :id) "
+                        + "ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+        List<User> findActivePageAfter(
+                        @Param("createdAt") LocalDateTime createdAt,
+                        @Param("id") UUID id,
+                        @Param("limit") int limit);
+
+        /**
+         * Id and country of the users after {@code afterId} in id order; used
+         * to walk a shard in batches when its users are redistributed.
+         */
+        @Query(value = "SELECT id AS id, country_id AS countryId FROM users "
+                        + "WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+        List<UserPlacementView> findPlacementsAfter(
+                        @Param("afterId") UUID afterId,
+                        @Param("limit") int limit);
+
+        interface UserPlacementView {
+                UUID getId();
+
+                UUID getCountryId();
+        }
+
+        /**
+         * Streams active users through a server-side cursor. Must be consumed
+         * inside a transaction and closed by the caller.
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("SELECT u FROM User u WHERE u.isActive = true")
+        Stream<User> streamActiveUsers();
+
         @Query(value = "SELECT * FROM users WHERE fts_document @@ websearch_to_tsquery('english', :query)", nativeQuery = true)
         List<User> findByFts(@Param("query") String query);
 
@@ -1,5 +1,6 @@
 package com.team.ja.user.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,4 +21,6 @@ public interface UserSearchProfileRepository extends JpaRepository<UserSearchPro
 
     List<UserSearchProfile> findByIsActiveTrue();
 
+    List<UserSearchProfile> findByUserIdInAndIsActiveTrue(Collection<UUID> userIds);
+
 }
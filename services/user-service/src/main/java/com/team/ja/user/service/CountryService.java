@@ -26,4 +26,9 @@ public interface CountryService {
      * Search countries by name or abbreviation.
      */
     List<CountryResponse> searchCountries(String query);
+
+    /**
+     * Reload the country reference data on every instance.
+     */
+    void refreshCountries();
 }
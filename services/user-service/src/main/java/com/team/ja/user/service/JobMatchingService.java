@@ -1,22 +1,27 @@
 package com.team.ja.user.service;
 
 import java.math.BigDecimal;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import com.team.ja.common.enumeration.EmploymentType;
 import com.team.ja.common.event.JobPostingEvent;
 import com.team.ja.common.event.UserSearchProfileUpdateEvent;
-import com.team.ja.user.util.EmploymentTypeValidator;
 import com.team.ja.user.util.SalaryRangeValidator;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
  * Service for evaluating if a job posting matches a search profile.
- * 
+ *
  * Matching rules:
  * 1. Country: Must match or profile has no country restriction
  * 2. Employment Type: Must match or apply default logic (if no FT/PT selected,
@@ -28,66 +33,232 @@ import org.springframework.stereotype.Service;
  * jobs
  * 6. Job Title: If profile has specific job titles, job title must match
  * (partial match)
+ *
+ * Profiles and jobs are compiled once into {@link CompiledProfile} and
+ * {@link CompiledJob}: employment types as a bitmask, skill ids as sorted
+ * primitive arrays, job titles lower-cased and salaries as longs scaled to
+ * cents. Comparing compiled forms allocates nothing, and
+ * {@link #matchAll(CompiledJob, CompiledProfile[])} evaluates chunks of
+ * profiles in parallel.
  */
 @Slf4j
 @Service
 public class JobMatchingService {
 
+    private static final int SALARY_SCALE = 2;
+    private static final long DEFAULT_EMPLOYMENT_TYPES = bit(EmploymentType.FULL_TIME) | bit(EmploymentType.PART_TIME);
+    private static final String[] NONE = new String[0];
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public JobMatchingService(@Value("${job-matching.parallelism:0}") int parallelism,
+            @Value("${job-matching.chunk-size:2048}") int chunkSize) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * A search profile prepared for matching.
+     */
+    public static final class CompiledProfile {
+        private final String country;
+        private final long employmentTypes;
+        private final String[] otherEmploymentTypes;
+        private final Salary salary;
+        private final boolean anySkill;
+        private final long[] skills;
+        private final boolean nullSkill;
+        private final boolean requiresFresher;
+        private final boolean anyJobTitle;
+        private final String[] jobTitles;
+
+        private CompiledProfile(UserSearchProfileUpdateEvent profile) {
+            this.country = isEmpty(profile.getCountryAbbreviation()) ? null : profile.getCountryAbbreviation();
+            if (profile.getEmploymentTypes() == null || profile.getEmploymentTypes().isEmpty()) {
+                this.employmentTypes = DEFAULT_EMPLOYMENT_TYPES;
+                this.otherEmploymentTypes = NONE;
+            } else {
+                this.employmentTypes = employmentTypeMask(profile.getEmploymentTypes());
+                this.otherEmploymentTypes = otherEmploymentTypes(profile.getEmploymentTypes());
+            }
+            this.salary = new Salary(profile.getMinSalary() != null ? profile.getMinSalary() : BigDecimal.ZERO,
+                    profile.getMaxSalary());
+            this.anySkill = profile.getSkillIds() == null || profile.getSkillIds().isEmpty();
+            this.skills = anySkill ? new long[0] : sortedSkillIds(profile.getSkillIds());
+            this.nullSkill = !anySkill && containsNull(profile.getSkillIds());
+            this.requiresFresher = Boolean.TRUE.equals(profile.getIsFresher());
+            this.anyJobTitle = profile.getJobTitles() == null || profile.getJobTitles().isEmpty();
+            this.jobTitles = anyJobTitle ? NONE
+                    : profile.getJobTitles().stream()
+                            .filter(title -> !isEmpty(title))
+                            .map(String::toLowerCase)
+                            .toArray(String[]::new);
+        }
+    }
+
+    /**
+     * A job posting prepared for matching.
+     */
+    public static final class CompiledJob {
+        private final UUID jobPostId;
+        private final String country;
+        private final boolean hasEmploymentTypes;
+        private final long employmentTypes;
+        private final String[] otherEmploymentTypes;
+        private final Salary salary;
+        private final boolean hasSkills;
+        private final long[] skills;
+        private final boolean nullSkill;
+        private final boolean fresher;
+        private final String title;
+
+        private CompiledJob(JobPostingEvent job) {
+            this.jobPostId = job.getJobPostId();
+            this.country = isEmpty(job.getCountryCode()) ? null : job.getCountryCode();
+            this.hasEmploymentTypes = job.getEmploymentTypes() != null && !job.getEmploymentTypes().isEmpty();
+            this.employmentTypes = hasEmploymentTypes ? employmentTypeMask(job.getEmploymentTypes()) : 0L;
+            this.otherEmploymentTypes = hasEmploymentTypes ? otherEmploymentTypes(job.getEmploymentTypes()) : NONE;
+            this.salary = new Salary(job.getSalaryMin(), job.getSalaryMax());
+            this.hasSkills = job.getRequiredSkillIds() != null && !job.getRequiredSkillIds().isEmpty();
+            this.skills = hasSkills ? sortedSkillIds(job.getRequiredSkillIds()) : new long[0];
+            this.nullSkill = hasSkills && containsNull(job.getRequiredSkillIds());
+            this.fresher = Boolean.TRUE.equals(job.getFresher());
+            this.title = isEmpty(job.getTitle()) ? null : job.getTitle().toLowerCase();
+        }
+
+        public UUID getJobPostId() {
+            return jobPostId;
+        }
+    }
+
+    /**
+     * Salary bounds as longs scaled to cents. {@code exact} is false when a
+     * bound has more decimals or does not fit; such salaries are compared as
+     * {@link BigDecimal}.
+     */
+    private static final class Salary {
+        final BigDecimal min;
+        final BigDecimal max;
+        final boolean hasMin;
+        final boolean hasMax;
+        final long scaledMin;
+        final long scaledMax;
+        final boolean exact;
+
+        Salary(BigDecimal min, BigDecimal max) {
+            this.min = min;
+            this.max = max;
+            this.hasMin = min != null;
+            this.hasMax = max != null;
+            this.scaledMin = hasMin ? scaled(min) : 0L;
+            this.scaledMax = hasMax ? scaled(max) : 0L;
+            this.exact = (!hasMin || fitsScaled(min)) && (!hasMax || fitsScaled(max));
+        }
+    }
+
+    public CompiledProfile compile(UserSearchProfileUpdateEvent profile) {
+        return new CompiledProfile(profile);
+    }
+
+    public CompiledJob compile(JobPostingEvent job) {
+        return new CompiledJob(job);
+    }
+
     /**
      * Evaluates if a job posting matches a search profile based on all criteria.
-     * 
+     *
      * @param jobEvent     the job posting event
      * @param profileEvent the user's search profile
      * @return true if job matches all profile criteria, false otherwise
      */
     public boolean isMatch(JobPostingEvent jobEvent, UserSearchProfileUpdateEvent profileEvent) {
-        log.debug("Evaluating match for job {} against profile {}", jobEvent.getJobPostId(),
-                profileEvent.getUserId());
-
-        // Check country
-        if (!isCountryMatch(jobEvent, profileEvent)) {
-            log.debug("Country mismatch for job {} and profile {}", jobEvent.getJobPostId(),
-                    profileEvent.getUserId());
-            return false;
+        boolean match = isMatch(compile(jobEvent), compile(profileEvent));
+        if (match) {
+            log.info("Job {} matches profile {}", jobEvent.getJobPostId(), profileEvent.getUserId());
+        } else {
+            log.debug("Job {} does not match profile {}", jobEvent.getJobPostId(), profileEvent.getUserId());
         }
+        return match;
+    }
 
-        // Check employment type
-        if (!isEmploymentTypeMatch(jobEvent, profileEvent)) {
-            log.debug("Employment type mismatch for job {} and profile {}", jobEvent.getJobPostId(),
-                    profileEvent.getUserId());
-            return false;
-        }
+    /**
+     * Evaluates a compiled job against a compiled profile; allocates nothing.
+     */
+    public boolean isMatch(CompiledJob job, CompiledProfile profile) {
+        return isCountryMatch(job, profile)
+                && isEmploymentTypeMatch(job, profile)
+                && isSalaryMatch(job, profile)
+                && isSkillMatch(job, profile)
+                && isFresherMatch(job, profile)
+                && isJobTitleMatch(job, profile);
+    }
 
-        // Check salary range
-        if (!isSalaryMatch(jobEvent, profileEvent)) {
-            log.debug("Salary mismatch for job {} and profile {}", jobEvent.getJobPostId(),
-                    profileEvent.getUserId());
-            return false;
+    /**
+     * Indexes into {@code profiles} of the profiles {@code job} matches, in
+     * ascending order. More than one chunk of profiles is evaluated in
+     * parallel.
+     */
+    public int[] matchAll(CompiledJob job, CompiledProfile[] profiles) {
+        boolean[] matched = new boolean[profiles.length];
+        MatchTask task = new MatchTask(job, profiles, matched, 0, profiles.length);
+        if (profiles.length <= chunkSize) {
+            task.compute();
+        } else {
+            pool.invoke(task);
         }
 
-        // Check skills
-        if (!isSkillMatch(jobEvent, profileEvent)) {
-            log.debug("Skill mismatch for job {} and profile {}", jobEvent.getJobPostId(),
-                    profileEvent.getUserId());
-            return false;
+        int count = 0;
+        for (boolean match : matched) {
+            if (match) {
+                count++;
+            }
         }
-
-        // Check fresher requirement
-        if (!isFresherMatch(jobEvent, profileEvent)) {
-            log.debug("Fresher requirement mismatch for job {} and profile {}", jobEvent.getJobPostId(),
-                    profileEvent.getUserId());
-            return false;
+        int[] indexes = new int[count];
+        for (int i = 0, n = 0; n < count; i++) {
+            if (matched[i]) {
+                indexes[n++] = i;
+            }
         }
+        return indexes;
+    }
 
-        // Check job title
-        if (!isJobTitleMatch(jobEvent, profileEvent)) {
-            log.debug("Job title mismatch for job {} and profile {}", jobEvent.getJobPostId(),
-                    profileEvent.getUserId());
-            return false;
+    /**
+     * Splits the profiles in halves until a half fits in one chunk; each task
+     * writes only its own range of {@code matched}.
+     */
+    private final class MatchTask extends RecursiveAction {
+        private final CompiledJob job;
+        private final CompiledProfile[] profiles;
+        private final boolean[] matched;
+        private final int from;
+        private final int to;
+
+        MatchTask(CompiledJob job, CompiledProfile[] profiles, boolean[] matched, int from, int to) {
+            this.job = job;
+            this.profiles = profiles;
+            this.matched = matched;
+            this.from = from;
+            this.to = to;
         }
 
-        log.info("Job {} matches profile {}", jobEvent.getJobPostId(), profileEvent.getUserId());
-        return true;
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    matched[i] = isMatch(job, profiles[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MatchTask(job, profiles, matched, from, mid),
+                    new MatchTask(job, profiles, matched, mid, to));
+        }
     }
 
     /**
@@ -96,23 +267,23 @@ public class JobMatchingService {
      * - Profile has no country restriction (null)
      * - Profile country matches job country
      */
-    private boolean isCountryMatch(JobPostingEvent jobEvent, UserSearchProfileUpdateEvent profileEvent) {
+    private static boolean isCountryMatch(CompiledJob job, CompiledProfile profile) {
         // If profile has no country restriction, match any country
-        if (profileEvent.getCountryAbbreviation() == null || profileEvent.getCountryAbbreviation().isEmpty()) {
+        if (profile.country == null) {
             return true;
         }
 
         // If job has no country, don't match (be strict)
-        if (jobEvent.getCountryCode() == null || jobEvent.getCountryCode().isEmpty()) {
+        if (job.country == null) {
             return false;
         }
 
-        return profileEvent.getCountryAbbreviation().equalsIgnoreCase(jobEvent.getCountryCode());
+        return profile.country.equalsIgnoreCase(job.country);
     }
 
     /**
      * Check if employment type matches.
-     * 
+     *
      * Logic:
      * - If job has employment types that overlap with profile's preferences, it's a
      * match
@@ -120,21 +291,21 @@ public class JobMatchingService {
      * normalization),
      * it defaults to accepting both FULL_TIME and PART_TIME
      */
-    private boolean isEmploymentTypeMatch(JobPostingEvent jobEvent, UserSearchProfileUpdateEvent profileEvent) {
-        if (jobEvent.getEmploymentTypes() == null || jobEvent.getEmploymentTypes().isEmpty()) {
+    private static boolean isEmploymentTypeMatch(CompiledJob job, CompiledProfile profile) {
+        if (!job.hasEmploymentTypes) {
             return false;
         }
 
-        if (profileEvent.getEmploymentTypes() == null || profileEvent.getEmploymentTypes().isEmpty()) {
-            // Default: accept FULL_TIME and PART_TIME
-            return jobEvent.getEmploymentTypes().contains("FULL_TIME")
-                    || jobEvent.getEmploymentTypes().contains("PART_TIME");
+        if ((job.employmentTypes & profile.employmentTypes) != 0) {
+            return true;
         }
 
-        // Check for overlap
-        for (String jobType : jobEvent.getEmploymentTypes()) {
-            if (profileEvent.getEmploymentTypes().contains(jobType)) {
-                return true;
+        // Values that are not an EmploymentType only match the same value
+        for (String jobType : job.otherEmploymentTypes) {
+            for (String profileType : profile.otherEmploymentTypes) {
+                if (Objects.equals(jobType, profileType)) {
+                    return true;
+                }
             }
         }
 
@@ -143,43 +314,77 @@ public class JobMatchingService {
 
     /**
      * Check if salary is within range.
-     * 
+     *
      * Logic:
      * - If job has undeclared salary (null min and max), include it
      * - Otherwise check if job salary overlaps with profile's expected range
+     *
+     * Same rules as {@link SalaryRangeValidator#isSalaryInRange}, on the scaled
+     * bounds.
      */
-    private boolean isSalaryMatch(JobPostingEvent jobEvent, UserSearchProfileUpdateEvent profileEvent) {
-        return SalaryRangeValidator.isSalaryInRange(jobEvent.getSalaryMin(), jobEvent.getSalaryMax(),
-                profileEvent.getMinSalary() != null ? profileEvent.getMinSalary() : BigDecimal.ZERO,
-                profileEvent.getMaxSalary());
+    private static boolean isSalaryMatch(CompiledJob job, CompiledProfile profile) {
+        Salary jobSalary = job.salary;
+        Salary profileSalary = profile.salary;
+        if (!jobSalary.exact || !profileSalary.exact) {
+            return SalaryRangeValidator.isSalaryInRange(jobSalary.min, jobSalary.max, profileSalary.min,
+                    profileSalary.max);
+        }
+
+        // If job has undeclared salary, include it
+        if ((!jobSalary.hasMin || jobSalary.scaledMin <= 0) && !jobSalary.hasMax) {
+            return true;
+        }
+
+        // If job has no minimum but has maximum, check against profile's minimum
+        if (!jobSalary.hasMin) {
+            return jobSalary.scaledMax >= profileSalary.scaledMin;
+        }
+
+        // Job has a minimum; check against profile's range
+        if (profileSalary.hasMax) {
+            return jobSalary.scaledMin <= profileSalary.scaledMax
+                    && (!jobSalary.hasMax || jobSalary.scaledMax >= profileSalary.scaledMin);
+        }
+        return jobSalary.scaledMin <= profileSalary.scaledMin
+                || (jobSalary.hasMax && jobSalary.scaledMax >= profileSalary.scaledMin);
     }
 
     /**
      * Check if skills match.
-     * 
+     *
      * Logic:
      * - If profile has no skill requirements, match any job
      * - If profile has skills, job must have at least one overlapping skill
      */
-    private boolean isSkillMatch(JobPostingEvent jobEvent, UserSearchProfileUpdateEvent profileEvent) {
+    private static boolean isSkillMatch(CompiledJob job, CompiledProfile profile) {
         // If profile has no skill requirements, match
-        if (profileEvent.getSkillIds() == null || profileEvent.getSkillIds().isEmpty()) {
+        if (profile.anySkill) {
             return true;
         }
 
         // If job has no skills, don't match (profile requires skills)
-        if (jobEvent.getRequiredSkillIds() == null || jobEvent.getRequiredSkillIds().isEmpty()) {
+        if (!job.hasSkills) {
             return false;
         }
 
-        // Check for skill overlap
-        Set<UUID> jobSkills = new HashSet<>(jobEvent.getRequiredSkillIds());
-        Set<UUID> profileSkills = new HashSet<>(profileEvent.getSkillIds());
-
-        for (UUID skillId : profileSkills) {
-            if (jobSkills.contains(skillId)) {
+        // Check for skill overlap: merge the two sorted id arrays
+        if (job.nullSkill && profile.nullSkill) {
+            return true;
+        }
+        long[] a = job.skills;
+        long[] b = profile.skills;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            int cmp = compareSkillIds(a, i, b, j);
+            if (cmp == 0) {
                 return true;
             }
+            if (cmp < 0) {
+                i += 2;
+            } else {
+                j += 2;
+            }
         }
 
         return false;
@@ -187,58 +392,113 @@ public class JobMatchingService {
 
     /**
      * Check if fresher requirement matches.
-     * 
+     *
      * Logic:
      * - If profile requires fresher jobs (is_fresher = true), job must be
      * fresher-friendly
      * - If profile doesn't care about fresher status, match any job
      */
-    private boolean isFresherMatch(JobPostingEvent jobEvent, UserSearchProfileUpdateEvent profileEvent) {
-        // If profile doesn't specify fresher requirement, match any job
-        if (profileEvent.getIsFresher() == null || !profileEvent.getIsFresher()) {
-            return true;
-        }
-
-        // Profile requires fresher jobs
-        if (jobEvent.getFresher() == null) {
-            return false; // Uncertain, don't match
-        }
-
-        return jobEvent.getFresher();
+    private static boolean isFresherMatch(CompiledJob job, CompiledProfile profile) {
+        return !profile.requiresFresher || job.fresher;
     }
 
     /**
      * Check if job title matches.
-     * 
+     *
      * Logic:
      * - If profile has no specific job title requirements, match any job
      * - If profile has job titles, job title must contain or partially match at
      * least one
      */
-    private boolean isJobTitleMatch(JobPostingEvent jobEvent, UserSearchProfileUpdateEvent profileEvent) {
+    private static boolean isJobTitleMatch(CompiledJob job, CompiledProfile profile) {
         // If profile has no specific job title requirements, match
-        if (profileEvent.getJobTitles() == null || profileEvent.getJobTitles().isEmpty()) {
+        if (profile.anyJobTitle) {
             return true;
         }
 
         // If job has no title, don't match
-        if (jobEvent.getTitle() == null || jobEvent.getTitle().isEmpty()) {
+        if (job.title == null) {
             return false;
         }
 
-        String jobTitle = jobEvent.getTitle().toLowerCase();
+        // Case-insensitive partial match; both sides are lower-cased already
+        for (String desiredTitle : profile.jobTitles) {
+            if (job.title.contains(desiredTitle)) {
+                return true;
+            }
+        }
 
-        // Check if job title contains or matches any of the profile's desired job
-        // titles
-        for (String desiredTitle : profileEvent.getJobTitles()) {
-            if (desiredTitle != null && !desiredTitle.isEmpty()) {
-                // Case-insensitive partial match
-                if (jobTitle.contains(desiredTitle.toLowerCase())) {
-                    return true;
-                }
+        return false;
+    }
+
+    private static long bit(EmploymentType type) {
+        return 1L << type.ordinal();
+    }
+
+    private static long employmentTypeMask(List<String> types) {
+        long mask = 0L;
+        for (EmploymentType type : EmploymentType.values()) {
+            if (types.contains(type.name())) {
+                mask |= bit(type);
             }
         }
+        return mask;
+    }
 
+    private static String[] otherEmploymentTypes(List<String> types) {
+        return types.stream()
+                .filter(type -> Arrays.stream(EmploymentType.values()).noneMatch(known -> known.name().equals(type)))
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Skill ids as (most, least significant bits) pairs in ascending order,
+     * without duplicates and nulls.
+     */
+    private static long[] sortedSkillIds(Collection<UUID> ids) {
+        UUID[] sorted = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted((x, y) -> {
+                    int cmp = Long.compare(x.getMostSignificantBits(), y.getMostSignificantBits());
+                    return cmp != 0 ? cmp : Long.compare(x.getLeastSignificantBits(), y.getLeastSignificantBits());
+                })
+                .toArray(UUID[]::new);
+        long[] pairs = new long[sorted.length * 2];
+        for (int i = 0; i < sorted.length; i++) {
+            pairs[2 * i] = sorted[i].getMostSignificantBits();
+            pairs[2 * i + 1] = sorted[i].getLeastSignificantBits();
+        }
+        return pairs;
+    }
+
+    // Not List.contains(null), which immutable lists reject
+    private static boolean containsNull(Collection<UUID> ids) {
+        for (UUID id : ids) {
+            if (id == null) {
+                return true;
+            }
+        }
         return false;
     }
+
+    private static int compareSkillIds(long[] a, int i, long[] b, int j) {
+        int cmp = Long.compare(a[i], b[j]);
+        return cmp != 0 ? cmp : Long.compare(a[i + 1], b[j + 1]);
+    }
+
+    private static boolean fitsScaled(BigDecimal amount) {
+        BigDecimal stripped = amount.stripTrailingZeros();
+        return stripped.scale() <= SALARY_SCALE
+                && stripped.movePointRight(SALARY_SCALE).toBigInteger().bitLength() < Long.SIZE;
+    }
+
+    private static long scaled(BigDecimal amount) {
+        return fitsScaled(amount) ? amount.movePointRight(SALARY_SCALE).longValue() : 0L;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
 }
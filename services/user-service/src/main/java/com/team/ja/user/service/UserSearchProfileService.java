@@ -1,6 +1,8 @@
 package com.team.ja.user.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import com.team.ja.common.event.UserSearchProfileUpdateEvent;
@@ -24,9 +26,11 @@ public interface UserSearchProfileService {
     List<UserSearchProfileResponse> getAllActiveSearchProfiles();
 
     /**
-     * Get all active search profiles as UserSearchProfileUpdateEvent objects
-     * Used by job matching consumer to evaluate matching
+     * Get the active search profiles of users on one shard as
+     * UserSearchProfileUpdateEvents, keyed by user; users without an active
+     * profile are left out
      */
-    List<UserSearchProfileUpdateEvent> getAllActiveSearchProfilesAsEvents();
+    Map<UUID, UserSearchProfileUpdateEvent> findActiveSearchProfilesAsEvents(String shardKey,
+            Collection<UUID> userIds);
 
 }
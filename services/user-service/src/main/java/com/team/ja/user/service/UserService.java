@@ -1,13 +1,16 @@
 package com.team.ja.user.service;
 
+import com.team.ja.common.dto.CursorPageResponse;
 import com.team.ja.common.dto.PageResponse;
 import com.team.ja.user.dto.request.ChangePasswordRequest;
 import com.team.ja.user.dto.request.CreateUserRequest;
 import com.team.ja.user.dto.request.UpdateUserRequest;
+import com.team.ja.user.dto.response.UserCountResponse;
 import com.team.ja.user.dto.response.UserProfileResponse;
 import com.team.ja.user.dto.response.UserResponse;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Service interface for User operations.
@@ -83,8 +86,45 @@ public interface UserService {
      */
     List<UserResponse> getAllUsers();
 
+    /**
+     * Get active users from all shards by page number.
+     *
+     * @deprecated Every page counts and walks the shards from the start, so
+     *             deep pages get slower. Kept only for existing clients of the
+     *             page-numbered {@code GET /api/v1/users}; use
+     *             {@link #getAllUsersByCursor(String, int)} instead.
+     */
+    @Deprecated
     PageResponse<UserResponse> getAllUsersPaged(int page, int size);
 
+    /**
+     * Stream every active user on every shard to {@code consumer}, one at a
+     * time, without holding more than one fetch batch in memory.
+     *
+     * @param consumer Receives each user
+     * @return Number of users exported
+     */
+    long exportActiveUsers(Consumer<UserResponse> consumer);
+
+    /**
+     * Get active users from all shards in (createdAt, id) order, one page at a
+     * time. The cost of a page does not depend on how deep it is.
+     *
+     * @param cursor Continuation token from the previous page, or null for the
+     *               first page
+     * @param size   Page size
+     * @return Page of users with the token for the next page
+     */
+    CursorPageResponse<UserResponse> getAllUsersByCursor(String cursor, int size);
+
+    /**
+     * Get total and active user counts across all shards from the maintained
+     * per-shard counters.
+     *
+     * @return User counts
+     */
+    UserCountResponse getUserCounts();
+
     /**
      * Search for users based on criteria.
      *
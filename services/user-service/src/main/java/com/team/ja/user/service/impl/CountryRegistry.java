@@ -0,0 +1,216 @@
+package com.team.ja.user.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.dto.response.CountryResponse;
+import com.team.ja.user.model.Country;
+import com.team.ja.user.repository.CountryRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory copy of the countries table.
+ *
+ * Countries are reference data with the same ids on every shard and change
+ * only by migration, so the table is loaded once into an immutable snapshot
+ * indexed by id, by abbreviation and by name prefix. Lookups never touch the
+ * database. The snapshot is replaced as a whole on a schedule, and on every
+ * instance when {@link #requestRefresh()} announces a change on the pub/sub
+ * channel.
+ *
+ * The first lookup loads the table if the instance has not done so yet.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CountryRegistry implements MessageListener {
+
+    public static final String REFRESH_CHANNEL = "user:country:refresh";
+
+    private final CountryRepository countryRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * A country as held by the registry.
+     */
+    public record CountryEntry(UUID id, String name, String abbreviation, boolean active) {
+
+        public CountryResponse toResponse() {
+            return CountryResponse.builder()
+                    .id(id.toString())
+                    .name(name)
+                    .abbreviation(abbreviation)
+                    .build();
+        }
+    }
+
+    /**
+     * @param byId           every country
+     * @param byAbbreviation every country, keyed by upper-case abbreviation
+     * @param active         active countries ordered by name
+     * @param byPrefix       active countries keyed by each lower-case word of
+     *                       their name and by their abbreviation; a prefix
+     *                       query is a range scan
+     */
+    private record Snapshot(Map<UUID, CountryEntry> byId, Map<String, CountryEntry> byAbbreviation,
+            List<CountryEntry> active, TreeMap<String, List<CountryEntry>> byPrefix) {
+
+        static Snapshot of(List<Country> countries) {
+            Map<UUID, CountryEntry> byId = new HashMap<>();
+            Map<String, CountryEntry> byAbbreviation = new HashMap<>();
+            List<CountryEntry> active = new ArrayList<>();
+            TreeMap<String, List<CountryEntry>> byPrefix = new TreeMap<>();
+            countries.stream()
+                    .map(country -> new CountryEntry(country.getId(), country.getName(), country.getAbbreviation(),
+                            country.isActive()))
+                    .sorted(Comparator.comparing(CountryEntry::name))
+                    .forEach(entry -> {
+                        byId.put(entry.id(), entry);
+                        byAbbreviation.put(entry.abbreviation().toUpperCase(Locale.ROOT), entry);
+                        if (!entry.active()) {
+                            return;
+                        }
+                        active.add(entry);
+                        for (String word : entry.name().toLowerCase(Locale.ROOT).split("[\\s\\-,.()]+")) {
+                            if (!word.isEmpty()) {
+                                byPrefix.computeIfAbsent(word, key -> new ArrayList<>()).add(entry);
+                            }
+                        }
+                        byPrefix.computeIfAbsent(entry.abbreviation().toLowerCase(Locale.ROOT),
+                                key -> new ArrayList<>()).add(entry);
+                    });
+            byPrefix.replaceAll((key, entries) -> List.copyOf(entries));
+            return new Snapshot(Map.copyOf(byId), Map.copyOf(byAbbreviation), List.copyOf(active), byPrefix);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(REFRESH_CHANNEL));
+    }
+
+    public Optional<CountryEntry> findById(UUID id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    public Optional<CountryEntry> findActiveById(UUID id) {
+        return findById(id).filter(CountryEntry::active);
+    }
+
+    public Optional<CountryEntry> findByAbbreviation(String abbreviation) {
+        return abbreviation == null
+                ? Optional.empty()
+                : Optional.ofNullable(snapshot().byAbbreviation().get(abbreviation.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    public Optional<CountryEntry> findActiveByAbbreviation(String abbreviation) {
+        return findByAbbreviation(abbreviation).filter(CountryEntry::active);
+    }
+
+    /**
+     * Abbreviation of the country with {@code id}, or null.
+     */
+    public String abbreviationOf(UUID id) {
+        return findById(id).map(CountryEntry::abbreviation).orElse(null);
+    }
+
+    /**
+     * Active countries ordered by name.
+     */
+    public List<CountryEntry> findActive() {
+        return snapshot().active();
+    }
+
+    /**
+     * Active countries with a name word or abbreviation starting with the
+     * first word of {@code query}, ordered by name. A query of several words
+     * also has to occur in the name as a whole, so "united st" finds the
+     * United States. A blank query returns every active country.
+     */
+    public List<CountryEntry> search(String query) {
+        String normalized = query == null ? "" : query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        Snapshot current = snapshot();
+        if (normalized.isEmpty()) {
+            return current.active();
+        }
+        int space = normalized.indexOf(' ');
+        String prefix = space < 0 ? normalized : normalized.substring(0, space);
+        Set<CountryEntry> matches = new LinkedHashSet<>();
+        current.byPrefix().subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values()
+                .forEach(matches::addAll);
+        return matches.stream()
+                .filter(entry -> space < 0 || entry.name().toLowerCase(Locale.ROOT).contains(normalized))
+                .sorted(Comparator.comparing(CountryEntry::name))
+                .toList();
+    }
+
+    /**
+     * Reloads the countries on every instance.
+     */
+    public void requestRefresh() {
+        refresh();
+        redisTemplate.convertAndSend(REFRESH_CHANNEL, "refresh");
+    }
+
+    @Scheduled(fixedDelayString = "${country-registry.refresh-interval:PT1H}",
+            initialDelayString = "${country-registry.refresh-interval:PT1H}")
+    public void refresh() {
+        try {
+            snapshot = load();
+        } catch (Exception e) {
+            log.error("Failed to refresh the country registry; keeping the previous snapshot", e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        refresh();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        // Countries are identical on every shard
+        Snapshot loaded = Snapshot.of(ShardContext.callWithShard(ShardContext.DEFAULT_SHARD, countryRepository::findAll));
+        log.info("Loaded {} countries ({} active) into the country registry", loaded.byId().size(),
+                loaded.active().size());
+        return loaded;
+    }
+}
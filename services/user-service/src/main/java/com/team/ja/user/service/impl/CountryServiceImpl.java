@@ -2,16 +2,12 @@ package com.team.ja.user.service.impl;
 
 import com.team.ja.common.exception.NotFoundException;
 import com.team.ja.user.dto.response.CountryResponse;
-import com.team.ja.user.mapper.CountryMapper;
-import com.team.ja.user.model.Country;
-import com.team.ja.user.repository.CountryRepository;
 import com.team.ja.user.service.CountryService;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implementation of CountryService.
@@ -19,59 +15,51 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class CountryServiceImpl implements CountryService {
 
-        private final CountryRepository countryRepository;
-        private final CountryMapper countryMapper;
+        private final CountryRegistry countryRegistry;
 
         @Override
         public List<CountryResponse> getAllCountries() {
 
                 log.info("Fetching all active countries");
-                List<Country> countries = countryRepository.findByIsActiveTrueOrderByNameAsc();
+                List<CountryRegistry.CountryEntry> countries = countryRegistry.findActive();
                 log.debug(
-                                "Found {} active countries from repository.",
+                                "Found {} active countries in registry.",
                                 countries.size());
-                return countryMapper.toResponseList(countries);
+                return countries.stream().map(CountryRegistry.CountryEntry::toResponse).toList();
         }
 
         @Override
         public CountryResponse getCountryById(UUID id) {
                 log.info("Fetching country by id={}", id);
-                Country country = countryRepository
+                return countryRegistry
                                 .findById(id)
+                                .map(CountryRegistry.CountryEntry::toResponse)
                                 .orElseThrow(() -> new NotFoundException("Country", "id", id.toString()));
-                return countryMapper.toResponse(country);
         }
 
         @Override
         public CountryResponse getCountryByAbbreviation(String abbreviation) {
                 log.info("Fetching country by abbreviation={}", abbreviation);
-                Country country = countryRepository
-                                .findByAbbreviationIgnoreCase(abbreviation)
+                return countryRegistry
+                                .findByAbbreviation(abbreviation)
+                                .map(CountryRegistry.CountryEntry::toResponse)
                                 .orElseThrow(() -> new NotFoundException("Country", "abbreviation", abbreviation));
-                return countryMapper.toResponse(country);
         }
 
         @Override
         public List<CountryResponse> searchCountries(String query) {
                 log.info("Searching countries by query='{}'", query);
-                // simple in-memory filtering across active countries by name or abbreviation
-                String q = query == null ? "" : query.trim().toLowerCase();
-                List<Country> countries = countryRepository.findByIsActiveTrueOrderByNameAsc();
-                List<Country> filtered = countries
-                                .stream()
-                                .filter(
-                                                c -> q.isEmpty() ||
-                                                                (c.getName() != null &&
-                                                                                c.getName().toLowerCase().contains(q))
-                                                                ||
-                                                                (c.getAbbreviation() != null &&
-                                                                                c.getAbbreviation().toLowerCase()
-                                                                                                .contains(q)))
-                                .toList();
-                log.debug("Search '{}' matched {} countries.", q, filtered.size());
-                return countryMapper.toResponseList(filtered);
+                // prefix match on any word of the name or on the abbreviation
+                List<CountryRegistry.CountryEntry> matches = countryRegistry.search(query);
+                log.debug("Search '{}' matched {} countries.", query, matches.size());
+                return matches.stream().map(CountryRegistry.CountryEntry::toResponse).toList();
+        }
+
+        @Override
+        public void refreshCountries() {
+                log.info("Refreshing country registry on all instances");
+                countryRegistry.requestRefresh();
         }
 }
@@ -0,0 +1,625 @@
+package com.team.ja.user.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.team.ja.common.event.JobPostingEvent;
+import com.team.ja.common.event.UserSearchProfileUpdateEvent;
+import com.team.ja.user.config.sharding.ShardFanOut;
+import com.team.ja.user.config.sharding.ShardFanOut.PartialResult;
+import com.team.ja.user.service.JobMatchingService;
+import com.team.ja.user.service.JobMatchingService.CompiledJob;
+import com.team.ja.user.service.JobMatchingService.CompiledProfile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index of the active search profiles of premium users, for
+ * matching incoming job posts.
+ *
+ * Every profile gets a slot, and each matching criterion keeps a
+ * {@link BitSet} of slots per value: country, employment type, skill id,
+ * whether fresher jobs are required, power-of-two bands of the expected
+ * minimum and maximum salary, and desired job title. A job intersects the
+ * postings of its own values to get the candidate profiles, and only those
+ * are checked with {@link JobMatchingService}, which stays the single
+ * definition of a match, against the profiles compiled when they were
+ * indexed. The salary bands only rule out profiles that can not match, so
+ * the final check still decides on the exact amounts.
+ *
+ * The desired titles contained in a job's title are found in one pass of a
+ * {@link JobTitleAutomaton} over all indexed titles, which is rebuilt before
+ * the next match once profiles added new titles.
+ *
+ * Every profile also belongs to the posting of its user's shard, so a job is
+ * evaluated shard by shard, all shards at once, with per-shard timing and
+ * candidate and match counts ({@code job.matching.*}). The shard is the one
+ * the user was on when the profile was last indexed: a user moved to another
+ * shard stays in the old shard's posting until a profile change notice for
+ * the user arrives after the move, or the next rebuild. Matching is not
+ * affected, only which shard's batch and meters the profile counts towards.
+ *
+ * The index is built from all shards on first use, with one query per table
+ * and shard, and rebuilt on a schedule. A shard that can not be read keeps
+ * its profiles from the previous build, or has none until the next one. In
+ * between, single profiles and premium flags are updated by
+ * {@link com.team.ja.user.kafka.JobMatchIndexConsumer}. Updates that arrive
+ * while the index is being loaded are applied to the current postings and
+ * replayed onto the loaded ones before they replace them, so none is lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobMatchIndex {
+
+    private static final List<String> DEFAULT_EMPLOYMENT_TYPES = List.of("FULL_TIME", "PART_TIME");
+    private static final BigDecimal MAX_BANDED_SALARY = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final JobMatchingService jobMatchingService;
+    private final ShardFanOut shardFanOut;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings;
+    // Updates since the running load started, or null; guarded by lock
+    private List<Consumer<Postings>> pending;
+
+    /**
+     * Mutable postings; guarded by {@link #lock}.
+     */
+    private static final class Postings {
+        final List<UserSearchProfileUpdateEvent> profiles = new ArrayList<>();
+        final List<CompiledProfile> compiled = new ArrayList<>();
+        final Map<UUID, Integer> slots = new HashMap<>();
+        final List<Integer> freeSlots = new ArrayList<>();
+
+        final BitSet live = new BitSet();
+        final Map<String, BitSet> byShard = new HashMap<>();
+        final BitSet premium = new BitSet();
+        final BitSet anyCountry = new BitSet();
+        final Map<String, BitSet> byCountry = new HashMap<>();
+        final Map<String, BitSet> byEmploymentType = new HashMap<>();
+        final BitSet anySkill = new BitSet();
+        final Map<UUID, BitSet> bySkill = new HashMap<>();
+        final BitSet fresherOnly = new BitSet();
+        final BitSet[] byMinSalaryBand = newBands();
+        final BitSet[] byMaxSalaryBand = newBands();
+        final BitSet unboundedMaxSalary = new BitSet();
+        final BitSet anyJobTitle = new BitSet();
+        final Map<String, BitSet> byJobTitle = new HashMap<>();
+        // Over the keys of byJobTitle; rebuilt before matching once titles were added
+        JobTitleAutomaton titleAutomaton = JobTitleAutomaton.empty();
+        BitSet[] titlePostings = new BitSet[0];
+        volatile boolean titlesChanged;
+
+        final Set<UUID> premiumUsers = new HashSet<>();
+
+        void put(String shardKey, UserSearchProfileUpdateEvent profile, CompiledProfile compiledProfile) {
+            remove(profile.getUserId());
+            int slot = freeSlots.isEmpty() ? profiles.size() : freeSlots.remove(freeSlots.size() - 1);
+            if (slot == profiles.size()) {
+                profiles.add(profile);
+                compiled.add(compiledProfile);
+            } else {
+                profiles.set(slot, profile);
+                compiled.set(slot, compiledProfile);
+            }
+            slots.put(profile.getUserId(), slot);
+            live.set(slot);
+            posting(byShard, shardKey).set(slot);
+            if (premiumUsers.contains(profile.getUserId())) {
+                premium.set(slot);
+            }
+
+            if (isBlank(profile.getCountryAbbreviation())) {
+                anyCountry.set(slot);
+            } else {
+                posting(byCountry, normalize(profile.getCountryAbbreviation())).set(slot);
+            }
+            List<String> employmentTypes = profile.getEmploymentTypes() == null || profile.getEmploymentTypes().isEmpty()
+                    ? DEFAULT_EMPLOYMENT_TYPES
+                    : profile.getEmploymentTypes();
+            employmentTypes.forEach(type -> posting(byEmploymentType, type).set(slot));
+            if (profile.getSkillIds() == null || profile.getSkillIds().isEmpty()) {
+                anySkill.set(slot);
+            } else {
+                profile.getSkillIds().forEach(skillId -> posting(bySkill, skillId).set(slot));
+            }
+            if (Boolean.TRUE.equals(profile.getIsFresher())) {
+                fresherOnly.set(slot);
+            }
+            byMinSalaryBand[band(profile.getMinSalary())].set(slot);
+            if (profile.getMaxSalary() == null) {
+                unboundedMaxSalary.set(slot);
+            } else {
+                byMaxSalaryBand[band(profile.getMaxSalary())].set(slot);
+            }
+            if (profile.getJobTitles() == null || profile.getJobTitles().isEmpty()) {
+                anyJobTitle.set(slot);
+            } else {
+                for (String title : profile.getJobTitles()) {
+                    if (!isBlank(title)) {
+                        BitSet posting = byJobTitle.get(title.toLowerCase());
+                        if (posting == null) {
+                            posting = new BitSet();
+                            byJobTitle.put(title.toLowerCase(), posting);
+                            titlesChanged = true;
+                        }
+                        posting.set(slot);
+                    }
+                }
+            }
+        }
+
+        void remove(UUID userId) {
+            Integer slot = slots.remove(userId);
+            if (slot == null) {
+                return;
+            }
+            profiles.set(slot, null);
+            compiled.set(slot, null);
+            freeSlots.add(slot);
+            for (BitSet set : List.of(live, premium, anyCountry, anySkill, fresherOnly, unboundedMaxSalary,
+                    anyJobTitle)) {
+                set.clear(slot);
+            }
+            byShard.values().forEach(set -> set.clear(slot));
+            byCountry.values().forEach(set -> set.clear(slot));
+            byEmploymentType.values().forEach(set -> set.clear(slot));
+            bySkill.values().forEach(set -> set.clear(slot));
+            byJobTitle.values().forEach(set -> set.clear(slot));
+            for (int band = 0; band < byMinSalaryBand.length; band++) {
+                byMinSalaryBand[band].clear(slot);
+                byMaxSalaryBand[band].clear(slot);
+            }
+        }
+
+        void setPremium(UUID userId, boolean isPremium) {
+            if (isPremium) {
+                premiumUsers.add(userId);
+            } else {
+                premiumUsers.remove(userId);
+            }
+            Integer slot = slots.get(userId);
+            if (slot != null) {
+                premium.set(slot, isPremium);
+            }
+        }
+
+        /**
+         * Builds a new title automaton over the current titles, dropping the
+         * ones no profile uses any more.
+         */
+        void rebuildTitleAutomaton() {
+            byJobTitle.values().removeIf(BitSet::isEmpty);
+            List<String> titles = new ArrayList<>(byJobTitle.keySet());
+            BitSet[] postingsById = new BitSet[titles.size()];
+            for (int id = 0; id < postingsById.length; id++) {
+                postingsById[id] = byJobTitle.get(titles.get(id));
+            }
+            titleAutomaton = JobTitleAutomaton.of(titles);
+            titlePostings = postingsById;
+            titlesChanged = false;
+        }
+
+        BitSet candidates(JobPostingEvent job) {
+            BitSet result = (BitSet) live.clone();
+            result.and(premium);
+
+            BitSet country = (BitSet) anyCountry.clone();
+            if (!isBlank(job.getCountryCode())) {
+                or(country, byCountry.get(normalize(job.getCountryCode())));
+            }
+            result.and(country);
+
+            BitSet employment = new BitSet();
+            if (job.getEmploymentTypes() != null) {
+                job.getEmploymentTypes().forEach(type -> or(employment, byEmploymentType.get(type)));
+            }
+            result.and(employment);
+
+            BitSet skills = (BitSet) anySkill.clone();
+            if (job.getRequiredSkillIds() != null) {
+                job.getRequiredSkillIds().forEach(skillId -> or(skills, bySkill.get(skillId)));
+            }
+            result.and(skills);
+
+            if (!Boolean.TRUE.equals(job.getFresher())) {
+                result.andNot(fresherOnly);
+            }
+
+            // Every desired title the job title contains, in one pass
+            BitSet titles = (BitSet) anyJobTitle.clone();
+            if (!isBlank(job.getTitle())) {
+                titleAutomaton.forEachMatch(job.getTitle().toLowerCase(), id -> titles.or(titlePostings[id]));
+            }
+            result.and(titles);
+
+            BigDecimal jobMin = job.getSalaryMin();
+            BigDecimal jobMax = job.getSalaryMax();
+            if ((jobMin == null || jobMin.signum() <= 0) && jobMax == null) {
+                return result; // undeclared salary matches every range
+            }
+            if (jobMin == null) {
+                // The job's maximum must reach the profile's minimum
+                BitSet salary = new BitSet();
+                for (int band = 0; band <= band(jobMax); band++) {
+                    salary.or(byMinSalaryBand[band]);
+                }
+                result.and(salary);
+            } else {
+                // A bounded profile maximum must reach the job's minimum
+                BitSet salary = (BitSet) unboundedMaxSalary.clone();
+                for (int band = band(jobMin); band < byMaxSalaryBand.length; band++) {
+                    salary.or(byMaxSalaryBand[band]);
+                }
+                result.and(salary);
+            }
+            return result;
+        }
+
+        private static <K> BitSet posting(Map<K, BitSet> postings, K key) {
+            return postings.computeIfAbsent(key, k -> new BitSet());
+        }
+
+        private static void or(BitSet target, BitSet source) {
+            if (source != null) {
+                target.or(source);
+            }
+        }
+
+        private static BitSet[] newBands() {
+            BitSet[] bands = new BitSet[Long.SIZE + 1];
+            for (int i = 0; i < bands.length; i++) {
+                bands[i] = new BitSet();
+            }
+            return bands;
+        }
+    }
+
+    /**
+     * Candidates of one shard for one job.
+     */
+    private record ShardBatch(String shardKey, UserSearchProfileUpdateEvent[] profiles,
+            CompiledProfile[] compiled, int indexed) {
+    }
+
+    /**
+     * Profiles of premium users that {@code job} matches, on every shard.
+     *
+     * The candidates are split by shard and every shard's batch is evaluated
+     * concurrently; the batches share the matcher's ForkJoin pool, so the
+     * slowest shard is not left to a single core.
+     */
+    public List<UserSearchProfileUpdateEvent> match(JobPostingEvent job) {
+        ensureBuilt();
+        refreshTitleAutomaton();
+        List<ShardBatch> batches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet candidates = postings.candidates(job);
+            postings.byShard.forEach((shardKey, shardSlots) -> {
+                BitSet slots = (BitSet) candidates.clone();
+                slots.and(shardSlots);
+                UserSearchProfileUpdateEvent[] profiles = new UserSearchProfileUpdateEvent[slots.cardinality()];
+                CompiledProfile[] compiled = new CompiledProfile[profiles.length];
+                int n = 0;
+                for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                    profiles[n] = postings.profiles.get(slot);
+                    compiled[n++] = postings.compiled.get(slot);
+                }
+                batches.add(new ShardBatch(shardKey, profiles, compiled, shardSlots.cardinality()));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        CompiledJob compiledJob = jobMatchingService.compile(job);
+        List<Future<List<UserSearchProfileUpdateEvent>>> futures = new ArrayList<>(batches.size());
+        for (ShardBatch batch : batches) {
+            futures.add(executor.submit(() -> matchShard(job, compiledJob, batch)));
+        }
+        List<UserSearchProfileUpdateEvent> matches = new ArrayList<>();
+        for (Future<List<UserSearchProfileUpdateEvent>> future : futures) {
+            try {
+                matches.addAll(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while matching job " + job.getJobPostId(), e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to match job " + job.getJobPostId(), e.getCause());
+            }
+        }
+        return matches;
+    }
+
+    private List<UserSearchProfileUpdateEvent> matchShard(JobPostingEvent job, CompiledJob compiledJob,
+            ShardBatch batch) {
+        long start = System.nanoTime();
+        int[] matched = jobMatchingService.matchAll(compiledJob, batch.compiled());
+        List<UserSearchProfileUpdateEvent> matches = new ArrayList<>(matched.length);
+        for (int index : matched) {
+            matches.add(batch.profiles()[index]);
+        }
+
+        meterRegistry.timer("job.matching.shard", "shard", batch.shardKey())
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("job.matching.candidates", "shard", batch.shardKey()).increment(batch.profiles().length);
+        meterRegistry.counter("job.matching.matches", "shard", batch.shardKey()).increment(matches.size());
+        log.debug("Job {} on shard {}: {} candidate(s) of {} profile(s), {} match(es)", job.getJobPostId(),
+                batch.shardKey(), batch.profiles().length, batch.indexed(), matches.size());
+        return matches;
+    }
+
+    /**
+     * Replaces the indexed profile of {@code profile}'s user, who lives on
+     * {@code shardKey}.
+     */
+    public void put(String shardKey, UserSearchProfileUpdateEvent profile) {
+        CompiledProfile compiledProfile = jobMatchingService.compile(profile);
+        update(current -> current.put(shardKey, profile, compiledProfile));
+    }
+
+    public void remove(UUID userId) {
+        update(current -> current.remove(userId));
+    }
+
+    public void setPremium(UUID userId, boolean premium) {
+        update(current -> current.setPremium(userId, premium));
+    }
+
+    @Scheduled(initialDelayString = "${job-matching.index.rebuild-interval:PT30M}", fixedDelayString = "${job-matching.index.rebuild-interval:PT30M}")
+    public synchronized void rebuild() {
+        try {
+            build();
+        } catch (Exception e) {
+            log.error("Failed to rebuild the job matching index; keeping the current one", e);
+        }
+    }
+
+    private void ensureBuilt() {
+        if (isBuilt()) {
+            return;
+        }
+        synchronized (this) {
+            if (!isBuilt()) {
+                build();
+            }
+        }
+    }
+
+    /**
+     * Loads new postings and swaps them in with the updates made during the
+     * load replayed; the caller holds the monitor.
+     */
+    private void build() {
+        write(current -> pending = new ArrayList<>());
+        try {
+            Postings built = load();
+            write(current -> {
+                pending.forEach(update -> update.accept(built));
+                postings = built;
+            });
+        } finally {
+            write(current -> pending = null);
+        }
+    }
+
+    /**
+     * Applies {@code update} to the current postings, and records it for the
+     * running load if there is one. Before the first load neither exists, and
+     * the load reads the change from the shard.
+     */
+    private void update(Consumer<Postings> update) {
+        write(current -> {
+            if (current != null) {
+                update.accept(current);
+            }
+            if (pending != null) {
+                pending.add(update);
+            }
+        });
+    }
+
+    private void refreshTitleAutomaton() {
+        lock.readLock().lock();
+        try {
+            if (!postings.titlesChanged) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        write(current -> {
+            if (current.titlesChanged) {
+                current.rebuildTitleAutomaton();
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return postings != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Postings> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(postings);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the postings from every reachable shard. The profiles of a shard
+     * that can not be read are carried over from the current postings, if
+     * any, and refreshed by the next rebuild.
+     */
+    private Postings load() {
+        PartialResult<List<UserSearchProfileUpdateEvent>> profiles = shardFanOut
+                .onAllShardsAllowingPartial(shardKey -> loadShard());
+        PartialResult<List<UUID>> premiumUsers = shardFanOut.onAllShardsAllowingPartial(shardKey -> jdbcTemplate
+                .queryForList("SELECT id FROM users WHERE is_premium = TRUE AND is_active = TRUE", UUID.class));
+        Set<String> unavailable = new HashSet<>(profiles.unavailableShards());
+        unavailable.addAll(premiumUsers.unavailableShards());
+
+        Postings built = new Postings();
+        premiumUsers.results().forEach((shardKey, users) -> {
+            if (!unavailable.contains(shardKey)) {
+                built.premiumUsers.addAll(users);
+            }
+        });
+        profiles.results().forEach((shardKey, shardProfiles) -> {
+            if (!unavailable.contains(shardKey)) {
+                shardProfiles.forEach(profile -> built.put(shardKey, profile, jobMatchingService.compile(profile)));
+            }
+        });
+        int carriedOver = carryOver(built, unavailable);
+        built.rebuildTitleAutomaton();
+        if (unavailable.isEmpty()) {
+            log.info("Indexed {} active search profile(s) on {} shard(s), {} premium user(s) for job matching",
+                    built.slots.size(), profiles.results().size(), built.premiumUsers.size());
+        } else {
+            log.warn("Indexed {} active search profile(s), {} premium user(s) for job matching without shard(s) {}; "
+                    + "kept {} profile(s) of the previous index for them", built.slots.size(),
+                    built.premiumUsers.size(), unavailable, carriedOver);
+        }
+        return built;
+    }
+
+    /**
+     * Copies the profiles on {@code shardKeys}, and the premium flags of their
+     * users, from the current postings into {@code built}.
+     */
+    private int carryOver(Postings built, Set<String> shardKeys) {
+        if (shardKeys.isEmpty()) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            if (postings == null) {
+                return 0;
+            }
+            int carried = 0;
+            for (String shardKey : shardKeys) {
+                BitSet slots = postings.byShard.get(shardKey);
+                if (slots == null) {
+                    continue;
+                }
+                for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                    UserSearchProfileUpdateEvent profile = postings.profiles.get(slot);
+                    if (postings.premiumUsers.contains(profile.getUserId())) {
+                        built.premiumUsers.add(profile.getUserId());
+                    }
+                    built.put(shardKey, profile, postings.compiled.get(slot));
+                    carried++;
+                }
+            }
+            return carried;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active search profiles of the current shard, with one query per table
+     * instead of three per profile.
+     */
+    private List<UserSearchProfileUpdateEvent> loadShard() {
+        Map<UUID, UserSearchProfileUpdateEvent> byProfileId = new HashMap<>();
+        jdbcTemplate.query("SELECT id, user_id, country_abbreviation, education_level, salary_min, salary_max, "
+                + "is_fresher FROM users_search_profiles WHERE is_active = TRUE", rs -> {
+                    byProfileId.put(rs.getObject("id", UUID.class), UserSearchProfileUpdateEvent.builder()
+                            .userId(rs.getObject("user_id", UUID.class))
+                            .countryAbbreviation(rs.getString("country_abbreviation"))
+                            .educationLevel(rs.getString("education_level"))
+                            .minSalary(rs.getBigDecimal("salary_min"))
+                            .maxSalary(rs.getBigDecimal("salary_max"))
+                            .isFresher(rs.getObject("is_fresher", Boolean.class))
+                            .skillIds(new ArrayList<>())
+                            .employmentTypes(new ArrayList<>())
+                            .jobTitles(new ArrayList<>())
+                            .build());
+                });
+        jdbcTemplate.query("SELECT user_search_profile_id, skill_id FROM user_search_profile_skills "
+                + "WHERE is_active = TRUE", rs -> {
+                    UserSearchProfileUpdateEvent profile = byProfileId
+                            .get(rs.getObject("user_search_profile_id", UUID.class));
+                    if (profile != null) {
+                        profile.getSkillIds().add(rs.getObject("skill_id", UUID.class));
+                    }
+                });
+        jdbcTemplate.query("SELECT user_search_profile_id, employment_type "
+                + "FROM user_search_profile_employment_statuses WHERE is_active = TRUE", rs -> {
+                    UserSearchProfileUpdateEvent profile = byProfileId
+                            .get(rs.getObject("user_search_profile_id", UUID.class));
+                    if (profile != null) {
+                        profile.getEmploymentTypes().add(rs.getString("employment_type"));
+                    }
+                });
+        jdbcTemplate.query("SELECT user_search_profile_id, job_title FROM user_search_profile_job_titles "
+                + "WHERE is_active = TRUE", rs -> {
+                    UserSearchProfileUpdateEvent profile = byProfileId
+                            .get(rs.getObject("user_search_profile_id", UUID.class));
+                    if (profile != null) {
+                        profile.getJobTitles().add(rs.getString("job_title"));
+                    }
+                });
+        return new ArrayList<>(byProfileId.values());
+    }
+
+    private static int band(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            return 0;
+        }
+        if (amount.compareTo(MAX_BANDED_SALARY) > 0) {
+            return Long.SIZE; // longValue() would wrap around
+        }
+        long value = amount.longValue();
+        return value <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,148 @@
+package com.team.ja.user.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable Aho-Corasick automaton over a set of job title patterns.
+ *
+ * One pass over a text reports every pattern it contains, however many
+ * patterns there are. Patterns are matched as given, so callers lower-case
+ * patterns and text alike. Changes to the pattern set build a new automaton.
+ */
+public final class JobTitleAutomaton {
+
+    private static final JobTitleAutomaton EMPTY = of(List.of());
+
+    private final String[] patterns;
+    // Goto function: per state, the sorted transition characters and targets
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    // Pattern ending at the state, or -1
+    private final int[] output;
+    // Nearest state on the failure chain with an output, or -1
+    private final int[] dictionary;
+
+    private JobTitleAutomaton(String[] patterns, char[][] keys, int[][] targets, int[] fail, int[] output,
+            int[] dictionary) {
+        this.patterns = patterns;
+        this.keys = keys;
+        this.targets = targets;
+        this.fail = fail;
+        this.output = output;
+        this.dictionary = dictionary;
+    }
+
+    public static JobTitleAutomaton empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the automaton; pattern ids are indexes into {@code patterns}.
+     * Empty patterns are never reported.
+     */
+    public static JobTitleAutomaton of(List<String> patterns) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(-1);
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id);
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = trie.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    outputs.add(-1);
+                    trie.get(state).put(pattern.charAt(i), next);
+                }
+                state = next;
+            }
+            outputs.set(state, id);
+        }
+
+        int states = trie.size();
+        char[][] keys = new char[states][];
+        int[][] targets = new int[states][];
+        int[] output = new int[states];
+        for (int state = 0; state < states; state++) {
+            TreeMap<Character, Integer> edges = trie.get(state);
+            keys[state] = new char[edges.size()];
+            targets[state] = new int[edges.size()];
+            int n = 0;
+            for (var edge : edges.entrySet()) {
+                keys[state][n] = edge.getKey();
+                targets[state][n++] = edge.getValue();
+            }
+            output[state] = outputs.get(state);
+        }
+
+        // Failure and dictionary links, breadth first
+        int[] fail = new int[states];
+        int[] dictionary = new int[states];
+        Arrays.fill(dictionary, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < keys[state].length; i++) {
+                char c = keys[state][i];
+                int child = targets[state][i];
+                int link = fail[state];
+                while (link != 0 && next(keys, targets, link, c) < 0) {
+                    link = fail[link];
+                }
+                int target = next(keys, targets, link, c);
+                fail[child] = target >= 0 ? target : 0;
+                dictionary[child] = output[fail[child]] >= 0 ? fail[child] : dictionary[fail[child]];
+                queue.add(child);
+            }
+        }
+        return new JobTitleAutomaton(patterns.toArray(String[]::new), keys, targets, fail, output, dictionary);
+    }
+
+    public int size() {
+        return patterns.length;
+    }
+
+    public String pattern(int id) {
+        return patterns[id];
+    }
+
+    /**
+     * Reports the id of every pattern contained in {@code text}, once per
+     * occurrence.
+     */
+    public void forEachMatch(String text, IntConsumer patternId) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int target = next(keys, targets, state, c);
+            while (target < 0 && state != 0) {
+                state = fail[state];
+                target = next(keys, targets, state, c);
+            }
+            state = target >= 0 ? target : 0;
+            for (int match = output[state] >= 0 ? state : dictionary[state]; match >= 0; match = dictionary[match]) {
+                patternId.accept(output[match]);
+            }
+        }
+    }
+
+    private static int next(char[][] keys, int[][] targets, int state, char c) {
+        int index = Arrays.binarySearch(keys[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+}
@@ -0,0 +1,174 @@
+package com.team.ja.user.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.team.ja.user.config.sharding.ShardContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves a set of users and all of their rows from one shard to another in a
+ * single pass.
+ *
+ * Rows are copied verbatim, table by table, with one batched
+ * {@code INSERT ... ON CONFLICT DO NOTHING} per table, so a chunk that was
+ * already copied before a crash is simply copied again. The users' rows on
+ * the source are locked ({@code FOR UPDATE}) for the duration of the move,
+ * which holds back concurrent updates and child inserts until the users have
+ * left. Order of the steps matches {@link UserMigrationService}: copy, flip
+ * the directory, delete from the source.
+ *
+ * Countries and skills are reference data with the same ids on every shard
+ * and are not copied.
+ */
+@Slf4j
+@Component
+public class ShardBulkMover {
+
+    // Parent tables first; children reference them
+    private static final List<String> USER_TABLES = List.of(
+            "user_education",
+            "user_work_experience",
+            "user_skills",
+            "user_portfolio_items",
+            "users_search_profiles");
+    private static final List<String> SEARCH_PROFILE_TABLES = List.of(
+            "user_search_profile_skills",
+            "user_search_profile_job_titles",
+            "user_search_profile_employment_statuses");
+
+    private static final ColumnMapRowMapper ROW_MAPPER = new ColumnMapRowMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate targetTransactionTemplate;
+    private final ShardLookupService shardLookupService;
+    private final UserCountService userCountService;
+
+    public ShardBulkMover(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            ShardLookupService shardLookupService, UserCountService userCountService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.targetTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.targetTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shardLookupService = shardLookupService;
+        this.userCountService = userCountService;
+    }
+
+    /**
+     * Outcome of one move.
+     *
+     * @param moved  users that were moved; ids no longer on the source are
+     *               skipped
+     * @param active how many of them are active
+     * @param rows   rows copied over all tables
+     */
+    public record MoveResult(int moved, int active, int rows) {
+    }
+
+    public MoveResult move(String sourceShard, String targetShard, Collection<UUID> userIds) {
+        return move(sourceShard, targetShard, userIds, null);
+    }
+
+    /**
+     * Moves {@code userIds} and sets their country to {@code countryId} on
+     * the target, unless it is null.
+     */
+    public MoveResult move(String sourceShard, String targetShard, Collection<UUID> userIds, UUID countryId) {
+        if (userIds.isEmpty() || sourceShard.equals(targetShard)) {
+            return new MoveResult(0, 0, 0);
+        }
+
+        try (ShardContext.Scope scope = ShardContext.use(sourceShard)) {
+            return transactionTemplate.execute(status -> {
+                List<Map<String, Object>> users = jdbcTemplate.query(
+                        "SELECT * FROM users WHERE id = ANY(?) ORDER BY id FOR UPDATE",
+                        uuidArray(userIds), ROW_MAPPER);
+                if (users.isEmpty()) {
+                    return new MoveResult(0, 0, 0);
+                }
+                List<UUID> ids = users.stream().map(row -> (UUID) row.get("id")).toList();
+
+                Map<String, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+                rows.put("users", users);
+                for (String table : USER_TABLES) {
+                    rows.put(table, jdbcTemplate.query("SELECT * FROM " + table + " WHERE user_id = ANY(?)",
+                            uuidArray(ids), ROW_MAPPER));
+                }
+                for (String table : SEARCH_PROFILE_TABLES) {
+                    rows.put(table, jdbcTemplate.query("SELECT * FROM " + table
+                            + " WHERE user_search_profile_id IN (SELECT id FROM users_search_profiles WHERE user_id = ANY(?))",
+                            uuidArray(ids), ROW_MAPPER));
+                }
+
+                int copied;
+                try (ShardContext.Scope target = ShardContext.use(targetShard)) {
+                    copied = targetTransactionTemplate.execute(targetStatus -> {
+                        int inserted = insertRows(rows);
+                        if (countryId != null) {
+                            jdbcTemplate.update("UPDATE users SET country_id = ? WHERE id = ANY(?)", ps -> {
+                                ps.setObject(1, countryId);
+                                ps.setArray(2, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+                            });
+                        }
+                        return inserted;
+                    });
+                }
+
+                Map<UUID, String> emails = new LinkedHashMap<>();
+                int active = 0;
+                for (Map<String, Object> user : users) {
+                    emails.put((UUID) user.get("id"), (String) user.get("email"));
+                    if (Boolean.TRUE.equals(user.get("is_active"))) {
+                        active++;
+                    }
+                }
+                shardLookupService.updateUserShardMappings(emails, targetShard);
+
+                // Children go with the users through ON DELETE CASCADE
+                jdbcTemplate.update("DELETE FROM users WHERE id = ANY(?)", uuidArray(ids));
+                userCountService.recordMoved(sourceShard, targetShard, users.size(), active);
+
+                log.info("Moved {} user(s) ({} rows) from shard {} to shard {}",
+                        users.size(), copied, sourceShard, targetShard);
+                return new MoveResult(users.size(), active, copied);
+            });
+        }
+    }
+
+    private int insertRows(Map<String, List<Map<String, Object>>> rowsByTable) {
+        int copied = 0;
+        for (Map.Entry<String, List<Map<String, Object>>> entry : rowsByTable.entrySet()) {
+            List<Map<String, Object>> rows = entry.getValue();
+            if (rows.isEmpty()) {
+                continue;
+            }
+            List<String> columns = new ArrayList<>(rows.get(0).keySet());
+            String sql = "INSERT INTO " + entry.getKey() + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", columns.stream().map(column -> "?").toList())
+                    + ") ON CONFLICT DO NOTHING";
+            List<Object[]> batch = rows.stream()
+                    .map(row -> columns.stream().map(row::get).toArray())
+                    .toList();
+            jdbcTemplate.batchUpdate(sql, batch);
+            copied += rows.size();
+        }
+        return copied;
+    }
+
+    private static PreparedStatementSetter uuidArray(Collection<UUID> ids) {
+        return ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+    }
+}
@@ -1,25 +1,54 @@
 package com.team.ja.user.service.impl;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import com.team.ja.common.exception.ServiceException;
 import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.config.sharding.ShardContextPropagatingExecutor;
+import com.team.ja.user.config.sharding.ShardDirectoryNearCache;
+import com.team.ja.user.config.sharding.ShardHealthRegistry;
+import com.team.ja.user.config.sharding.ShardMapService;
+import com.team.ja.user.config.sharding.ShardMembershipFilter;
+import com.team.ja.user.config.sharding.ShardRelocations;
+import com.team.ja.user.config.sharding.ShardTaggedIds;
 import com.team.ja.user.config.sharding.ShardingProperties;
 import com.team.ja.user.model.User;
 import com.team.ja.user.model.UserSearchProfile;
-import com.team.ja.user.model.Country;
-import com.team.ja.user.repository.CountryRepository;
 import com.team.ja.user.repository.UserRepository;
 import com.team.ja.user.repository.UserSearchProfileRepository;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,34 +60,87 @@ public class ShardLookupService {
     private final RedisTemplate<String, String> redisTemplate;
     private final ShardingProperties shardingProperties;
     private final UserRepository userRepository;
-    private final CountryRepository countryRepository;
+    private final CountryRegistry countryRegistry;
     private final UserSearchProfileRepository userSearchProfileRepository;
+    private final ShardDirectoryNearCache nearCache;
+    private final ShardMembershipFilter membershipFilter;
+    private final ShardRelocations relocations;
+    private final ShardHealthRegistry shardHealth;
+    private final ShardMapService shardMapService;
 
     private static final Duration CACHE_TTL = Duration.ofDays(30);
     private static final String USER_ID_SHARD_PREFIX = "user:shard:userId:";
     private static final String USER_EMAIL_SHARD_PREFIX = "user:shard:email:";
+    private static final String REQUEST_SHARDS_ATTRIBUTE = ShardLookupService.class.getName() + ".requestShards";
 
-    private final ExecutorService executorService = Executors.newFixedThreadPool(10);
+    // Upper bound on the size of a single WHERE id IN (...) probe
+    private static final int BATCH_PROBE_SIZE = 1000;
+
+    // Background directory updates; tasks start with the caller's shard context
+    private final ExecutorService executorService = ShardContextPropagatingExecutor.virtualThreadPerTask();
+
+    // Scatter-gather probes are short blocking JDBC calls, one per shard
+    private final ExecutorService scatterGatherExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     /**
      * Looks up the shard ID for a given user ID.
-     * First checks the Redis cache, if not found, queries the database and updates
-     * the cache.
+     * Within an HTTP request every user is resolved at most once; later calls
+     * for the same user return the remembered shard.
+     * Shard-tagged IDs of users that never moved are resolved from the ID itself.
+     * Otherwise checks the Redis cache, if not found, queries the database and
+     * updates the cache.
      */
     public String findShardIdByUserId(UUID userId) {
+        Map<UUID, String> requestShards = requestShards();
+        String memoized = requestShards != null ? requestShards.get(userId) : null;
+        if (memoized != null) {
+            return memoized;
+        }
+
+        String shardId = resolveShardIdByUserId(userId);
+        if (requestShards != null && shardId != null) {
+            requestShards.put(userId, shardId);
+        }
+        return shardId;
+    }
+
+    private String resolveShardIdByUserId(UUID userId) {
+        String taggedShard = decodeShardTag(userId);
+        if (taggedShard != null) {
+            return taggedShard;
+        }
+
         String cacheKey = getCachedShard(userId);
 
         if (cacheKey != null) {
             return cacheKey;
         }
 
-        String foundShard = scattergatherLookupById(userId);
+        String foundShard = scattergatherLookupById(userId).shardKey();
         if (foundShard != null) {
             cachedUserIdShard(userId, foundShard);
         }
         return foundShard;
     }
 
+    /**
+     * Shards resolved so far in the current HTTP request, or null outside of
+     * one.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<UUID, String> requestShards() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object shards = attributes.getAttribute(REQUEST_SHARDS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (shards == null) {
+            shards = new HashMap<UUID, String>();
+            attributes.setAttribute(REQUEST_SHARDS_ATTRIBUTE, shards, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<UUID, String>) shards;
+    }
+
     public String findShardIdBySearchProfileId(UUID searchProfileId) {
         String cacheKey = getCachedShard(searchProfileId);
 
@@ -66,7 +148,7 @@ public class ShardLookupService {
             return cacheKey;
         }
 
-        String foundShard = scattergatherLookupBySearchProfileId(searchProfileId);
+        String foundShard = scattergatherLookupBySearchProfileId(searchProfileId).shardKey();
         if (foundShard != null) {
             cachedUserIdShard(searchProfileId, foundShard);
         }
@@ -74,17 +156,17 @@ public class ShardLookupService {
     }
 
     /**
-     * Determines the target Shard ID for a specific country UUID.
+     * Determines the target Shard ID of a user living in a specific country UUID.
      * This is used by the UserService to see if a migration is required.
      */
-    public String getShardIdByCountryId(UUID countryId) {
-        Country country = countryRepository.findById(countryId)
+    public String getShardIdByCountryId(UUID countryId, UUID userId) {
+        CountryRegistry.CountryEntry country = countryRegistry.findById(countryId)
                 .orElseThrow(() -> new IllegalArgumentException("Country ID not found: " + countryId));
 
-        String abbreviation = country.getAbbreviation(); // e.g., "VN"
-        String shardId = ShardingProperties.resolveShard(abbreviation);
+        String abbreviation = country.abbreviation(); // e.g., "VN"
+        String shardId = shardMapService.current().shardFor(abbreviation, userId);
 
-        log.debug("Country {} ({}) maps to shard: {}", country.getName(), abbreviation, shardId);
+        log.debug("Country {} ({}) maps to shard: {}", country.name(), abbreviation, shardId);
         return shardId;
     }
 
@@ -93,20 +175,31 @@ public class ShardLookupService {
      * This is the "Point of No Return" in the migration process.
      */
     public void updateUserShardMapping(UUID userId, String targetShardId) {
+        relocations.recordMove(userId, targetShardId);
         cachedUserIdShard(userId, targetShardId);
 
-        ShardContext.setShardKey(targetShardId);
-        try {
+        try (ShardContext.Scope scope = ShardContext.use(targetShardId)) {
             userRepository.findById(userId).ifPresent(user -> {
                 cachedUserEmailShard(user.getEmail(), targetShardId);
                 log.info("Updated global lookup for User {} and Email {} to Shard {}",
                         userId, user.getEmail(), targetShardId);
             });
-        } finally {
-            ShardContext.clear();
         }
     }
 
+    /**
+     * Bulk form of {@link #updateUserShardMapping} for users whose emails are
+     * already known, so no row has to be read back from the target shard.
+     */
+    public void updateUserShardMappings(Map<UUID, String> emailsByUserId, String targetShardId) {
+        emailsByUserId.forEach((userId, email) -> {
+            relocations.recordMove(userId, targetShardId);
+            cachedUserIdShard(userId, targetShardId);
+            cachedUserEmailShard(email, targetShardId);
+        });
+        log.info("Updated global lookup for {} user(s) to Shard {}", emailsByUserId.size(), targetShardId);
+    }
+
     /**
      * Looks up the shard ID for a given user email.
      * First checks the Redis cache, if not found, queries the database and updates
@@ -119,13 +212,102 @@ public class ShardLookupService {
         if (cacheKey != null) {
             return cacheKey;
         }
-        String foundShard = scattergatherLookupByEmail(email);
+        String foundShard = scattergatherLookupByEmail(email).shardKey();
         if (foundShard != null) {
             cachedUserEmailShard(email, foundShard);
         }
         return foundShard;
     }
 
+    /**
+     * Shards of many users, grouped by shard. Ids in {@code unknown} were not
+     * found, but a shard that may hold them could not be probed; ids in
+     * neither are on no shard.
+     */
+    public record BatchLookupResult(Map<String, List<UUID>> byShard, Set<UUID> unknown) {
+    }
+
+    /**
+     * Resolves the shards of many users at once and groups the ids by shard.
+     *
+     * Tagged ids and near-cache hits are resolved locally, the rest with a
+     * single Redis MGET. Remaining misses are probed with one
+     * {@code WHERE id IN (...)} query per candidate shard, all shards in
+     * parallel, and the results are written back to the directory. Ids that
+     * exist on no shard are left out of the result; ids that were not found
+     * while a candidate shard was skipped, failed or timed out are reported
+     * as unknown, as a single lookup reports {@code UNKNOWN}.
+     *
+     * Callers can run one query per entry of the returned map instead of one
+     * per user.
+     */
+    public BatchLookupResult findShardIdsByUserIds(Collection<UUID> userIds) {
+        Map<String, List<UUID>> byShard = new LinkedHashMap<>();
+        List<UUID> unresolved = new ArrayList<>();
+        Map<UUID, String> requestShards = requestShards();
+
+        for (UUID userId : new LinkedHashSet<>(userIds)) {
+            String shardId = requestShards != null ? requestShards.get(userId) : null;
+            if (shardId == null) {
+                shardId = decodeShardTag(userId);
+            }
+            if (shardId == null) {
+                shardId = nearCache.getByUserId(userId);
+            }
+            if (shardId != null) {
+                byShard.computeIfAbsent(shardId, k -> new ArrayList<>()).add(userId);
+            } else {
+                unresolved.add(userId);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return new BatchLookupResult(byShard, Set.of());
+        }
+
+        List<String> cacheKeys = unresolved.stream().map(id -> USER_ID_SHARD_PREFIX + id).toList();
+        List<String> cached = redisTemplate.opsForValue().multiGet(cacheKeys);
+        List<UUID> misses = new ArrayList<>();
+        for (int i = 0; i < unresolved.size(); i++) {
+            UUID userId = unresolved.get(i);
+            String shardId = cached != null ? cached.get(i) : null;
+            if (shardId != null) {
+                nearCache.putUserId(userId, shardId);
+                if (requestShards != null) {
+                    requestShards.put(userId, shardId);
+                }
+                byShard.computeIfAbsent(shardId, k -> new ArrayList<>()).add(userId);
+            } else {
+                misses.add(userId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return new BatchLookupResult(byShard, Set.of());
+        }
+
+        Set<String> unprobed = new LinkedHashSet<>();
+        Map<String, List<UUID>> found = batchScatterGather(misses, unprobed);
+        Set<UUID> resolved = new HashSet<>();
+        found.forEach((shardId, ids) -> {
+            ids.forEach(id -> cachedUserIdShard(id, shardId));
+            resolved.addAll(ids);
+            byShard.computeIfAbsent(shardId, k -> new ArrayList<>()).addAll(ids);
+        });
+        Set<UUID> unknown = new LinkedHashSet<>();
+        if (!unprobed.isEmpty()) {
+            List<String> unprobedShards = new ArrayList<>(unprobed);
+            for (UUID userId : misses) {
+                if (!resolved.contains(userId)
+                        && !membershipFilter.candidateShardsForUserId(userId, unprobedShards).isEmpty()) {
+                    unknown.add(userId);
+                }
+            }
+            log.warn("{} user id(s) could not be resolved; shard(s) {} could not be probed", unknown.size(),
+                    unprobed);
+        }
+        log.debug("Resolved {} of {} user id(s) by scatter-gather", resolved.size(), misses.size());
+        return new BatchLookupResult(byShard, unknown);
+    }
+
     public Optional<User> getUserById(UUID userId) {
         String shardId = findShardIdByUserId(userId);
         if (shardId == null) {
@@ -133,11 +315,8 @@ public class ShardLookupService {
             return Optional.empty();
         }
 
-        ShardContext.setShardKey(shardId);
-        try {
+        try (ShardContext.Scope scope = ShardContext.use(shardId)) {
             return userRepository.findById(userId);
-        } finally {
-            ShardContext.clear();
         }
     }
 
@@ -148,11 +327,8 @@ public class ShardLookupService {
             return Optional.empty();
         }
 
-        ShardContext.setShardKey(shardId);
-        try {
+        try (ShardContext.Scope scope = ShardContext.use(shardId)) {
             return userSearchProfileRepository.findByIdAndIsActiveTrue(searchProfileId);
-        } finally {
-            ShardContext.clear();
         }
     }
 
@@ -163,83 +339,292 @@ public class ShardLookupService {
             return Optional.empty();
         }
 
-        ShardContext.setShardKey(shardId);
-        try {
+        try (ShardContext.Scope scope = ShardContext.use(shardId)) {
             return userRepository.findByEmailAndIsActiveTrue(email);
-        } finally {
-            ShardContext.clear();
         }
     }
 
-    private String scattergatherLookupById(UUID userId) {
-        List<String> shardKeys = new ArrayList<>(shardingProperties.getShards().keySet());
+    /**
+     * Outcome of probing shards for a key. A key is only {@code ABSENT} when
+     * every candidate shard answered; if one was skipped, failed or timed out
+     * the outcome is {@code UNKNOWN}.
+     */
+    enum Outcome {
+        FOUND, ABSENT, UNKNOWN
+    }
+
+    record LookupResult(Outcome outcome, String shardKey) {
+
+        static final LookupResult ABSENT = new LookupResult(Outcome.ABSENT, null);
+        static final LookupResult UNKNOWN = new LookupResult(Outcome.UNKNOWN, null);
+
+        static LookupResult found(String shardKey) {
+            return new LookupResult(Outcome.FOUND, shardKey);
+        }
+    }
+
+    private LookupResult scattergatherLookupById(UUID userId) {
+        List<String> candidates = membershipFilter.candidateShardsForUserId(userId, allShardKeys());
+        LookupResult result = scatterGather(candidates, "user ID", userId, () -> userRepository.existsById(userId));
+        logMiss(result, "User ID", userId);
+        return result;
+    }
+
+    private LookupResult scattergatherLookupBySearchProfileId(UUID searchProfileId) {
+        LookupResult result = scatterGather(allShardKeys(), "search profile ID", searchProfileId,
+                () -> userSearchProfileRepository.existsById(searchProfileId));
+        logMiss(result, "Search profile ID", searchProfileId);
+        return result;
+    }
+
+    private LookupResult scattergatherLookupByEmail(String email) {
+        List<String> candidates = membershipFilter.candidateShardsForEmail(email, allShardKeys());
+        LookupResult result = scatterGather(candidates, "user email", email,
+                () -> userRepository.findByEmailAndIsActiveTrue(email).isPresent());
+        logMiss(result, "User email", email);
+        return result;
+    }
+
+    private static void logMiss(LookupResult result, String label, Object key) {
+        if (result.outcome() == Outcome.ABSENT) {
+            log.warn("{}: {} not found in any shard", label, key);
+        } else if (result.outcome() == Outcome.UNKNOWN) {
+            log.warn("{}: {} not found in the shards that answered; some could not be probed", label, key);
+        }
+    }
+
+    /**
+     * Runs {@code probe} against each of {@code shardKeys} and returns the first
+     * shard for which it answers true. Without a hit the key is
+     * {@code ABSENT} if every candidate shard answered and {@code UNKNOWN}
+     * otherwise. An empty shard list is {@code ABSENT} without touching any
+     * database.
+     *
+     * In parallel mode each shard is probed on its own virtual thread with its
+     * own ShardContext. The first positive answer wins; probes that have not
+     * started yet are cancelled, and probes still running when the shard
+     * timeout expires are interrupted. Probes already in flight when a hit
+     * arrives are left to finish so their pooled connections are returned
+     * cleanly; their results are discarded.
+     *
+     * Shards with an open circuit are skipped, exactly as if their probe had
+     * failed.
+     */
+    private LookupResult scatterGather(List<String> candidates, String label, Object key, BooleanSupplier probe) {
+        if (candidates.isEmpty()) {
+            log.debug("No candidate shard may contain {} {}", label, key);
+            return LookupResult.ABSENT;
+        }
+        List<String> shardKeys = availableShards(candidates);
+        boolean complete = shardKeys.size() == candidates.size();
+        if (shardKeys.isEmpty()) {
+            return LookupResult.UNKNOWN;
+        }
+
+        if (!shardingProperties.getLookup().isParallel() || shardKeys.size() == 1) {
+            for (String shardKey : shardKeys) {
+                Outcome outcome = probeShard(shardKey, label, key, probe);
+                if (outcome == Outcome.FOUND) {
+                    return LookupResult.found(shardKey);
+                }
+                complete &= outcome == Outcome.ABSENT;
+            }
+            return complete ? LookupResult.ABSENT : LookupResult.UNKNOWN;
+        }
 
+        CompletionService<LookupResult> completionService = new ExecutorCompletionService<>(scatterGatherExecutor);
+        List<Future<LookupResult>> futures = new ArrayList<>(shardKeys.size());
         for (String shardKey : shardKeys) {
-            try {
-                ShardContext.setShardKey(shardKey);
-                boolean exists = userRepository.existsById(userId);
-                if (exists) {
-                    log.info("Found user ID: {} in shard: {}", userId, shardKey);
-                    return shardKey;
+            futures.add(completionService.submit(() -> switch (probeShard(shardKey, label, key, probe)) {
+                case FOUND -> LookupResult.found(shardKey);
+                case ABSENT -> LookupResult.ABSENT;
+                case UNKNOWN -> LookupResult.UNKNOWN;
+            }));
+        }
+
+        Duration shardTimeout = shardingProperties.getLookup().getShardTimeout();
+        long deadline = System.nanoTime() + shardTimeout.toNanos();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                long remaining = deadline - System.nanoTime();
+                Future<LookupResult> completed = remaining > 0
+                        ? completionService.poll(remaining, TimeUnit.NANOSECONDS)
+                        : null;
+                if (completed == null) {
+                    log.warn("Lookup for {} {} timed out after {} ms with {} shard(s) still pending",
+                            label, key, shardTimeout.toMillis(), futures.size() - i);
+                    futures.forEach(future -> future.cancel(true));
+                    return LookupResult.UNKNOWN;
+                }
+                try {
+                    LookupResult result = completed.get();
+                    if (result.outcome() == Outcome.FOUND) {
+                        return result;
+                    }
+                    complete &= result.outcome() == Outcome.ABSENT;
+                } catch (ExecutionException e) {
+                    log.error("Shard probe failed for {} {}", label, key, e.getCause());
+                    complete = false;
                 }
-            } catch (Exception e) {
-                log.error("Error querying shard: {} for user ID: {}", shardKey, userId, e);
-            } finally {
-                ShardContext.clear();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            return LookupResult.UNKNOWN;
+        } finally {
+            futures.forEach(future -> future.cancel(false));
         }
-        log.warn("User ID: {} not found in any shard", userId);
-        return null;
+        return complete ? LookupResult.ABSENT : LookupResult.UNKNOWN;
     }
 
-    private String scattergatherLookupBySearchProfileId(UUID searchProfileId) {
-        List<String> shardKeys = new ArrayList<>(shardingProperties.getShards().keySet());
+    /**
+     * Asks every shard which of {@code userIds} it holds. Each shard only gets
+     * the ids its membership filter may contain; shards run in parallel on
+     * virtual threads and share the per-shard timeout.
+     */
+    /**
+     * Probes {@code userIds} on their candidate shards. Shards that were
+     * skipped, failed or timed out are added to {@code unprobed}.
+     */
+    private Map<String, List<UUID>> batchScatterGather(List<UUID> userIds, Set<String> unprobed) {
+        Map<String, List<UUID>> probes = new LinkedHashMap<>();
+        List<String> allShards = allShardKeys();
+        List<String> shardKeys = availableShards(allShards);
+        allShards.stream().filter(shardKey -> !shardKeys.contains(shardKey)).forEach(unprobed::add);
+        for (UUID userId : userIds) {
+            for (String shardKey : membershipFilter.candidateShardsForUserId(userId, shardKeys)) {
+                probes.computeIfAbsent(shardKey, k -> new ArrayList<>()).add(userId);
+            }
+        }
+
+        List<Callable<List<UUID>>> tasks = new ArrayList<>(probes.size());
+        List<String> taskShards = new ArrayList<>(probes.size());
+        probes.forEach((shardKey, ids) -> {
+            taskShards.add(shardKey);
+            tasks.add(() -> probeShardBatch(shardKey, ids));
+        });
 
-        for (String shardKey : shardKeys) {
-            try {
-                ShardContext.setShardKey(shardKey);
-                boolean exists = userSearchProfileRepository.existsById(searchProfileId);
-                if (exists) {
-                    log.info("Found search profile ID: {} in shard: {}", searchProfileId, shardKey);
-                    return shardKey;
+        Map<String, List<UUID>> found = new LinkedHashMap<>();
+        Set<UUID> seen = new LinkedHashSet<>();
+        if (!shardingProperties.getLookup().isParallel()) {
+            probes.forEach((shardKey, ids) -> {
+                try {
+                    for (UUID id : probeShardBatch(shardKey, ids)) {
+                        if (seen.add(id)) {
+                            found.computeIfAbsent(shardKey, k -> new ArrayList<>()).add(id);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.error("Batch shard probe failed on shard {}", shardKey, e);
+                    unprobed.add(shardKey);
+                }
+            });
+            return found;
+        }
+
+        try {
+            List<Future<List<UUID>>> futures = scatterGatherExecutor.invokeAll(tasks,
+                    shardingProperties.getLookup().getShardTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            for (int i = 0; i < futures.size(); i++) {
+                String shardKey = taskShards.get(i);
+                try {
+                    for (UUID id : futures.get(i).get()) {
+                        if (seen.add(id)) {
+                            found.computeIfAbsent(shardKey, k -> new ArrayList<>()).add(id);
+                        }
+                    }
+                } catch (ExecutionException e) {
+                    log.error("Batch shard probe failed on shard {}", shardKey, e.getCause());
+                    unprobed.add(shardKey);
+                } catch (CancellationException e) {
+                    log.warn("Batch shard probe on shard {} timed out", shardKey);
+                    unprobed.add(shardKey);
                 }
-            } catch (Exception e) {
-                log.error("Error querying shard: {} for search profile ID: {}", shardKey, searchProfileId, e);
-            } finally {
-                ShardContext.clear();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unprobed.addAll(taskShards);
         }
-        log.warn("Search profile ID: {} not found in any shard", searchProfileId);
-        return null;
+        return found;
     }
 
-    private String scattergatherLookupByEmail(String email) {
-        List<String> shardKeys = new ArrayList<>(shardingProperties.getShards().keySet());
+    private List<UUID> probeShardBatch(String shardKey, List<UUID> userIds) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+            List<UUID> existing = new ArrayList<>();
+            for (int from = 0; from < userIds.size(); from += BATCH_PROBE_SIZE) {
+                existing.addAll(userRepository.findExistingIds(
+                        userIds.subList(from, Math.min(from + BATCH_PROBE_SIZE, userIds.size()))));
+            }
+            success = true;
+            return existing;
+        } finally {
+            shardHealth.recordQuery(shardKey, System.nanoTime() - start, success);
+        }
+    }
 
-        for (String shardKey : shardKeys) {
-            try {
-                ShardContext.setShardKey(shardKey);
-                Optional<User> userOpt = userRepository.findByEmailAndIsActiveTrue(email);
-                if (userOpt.isPresent()) {
-                    log.info("Found user email: {} in shard: {}", email, shardKey);
-                    return shardKey;
-                }
-            } catch (Exception e) {
-                log.error("Error querying shard: {} for user email: {}", shardKey, email, e);
-            } finally {
-                ShardContext.clear();
+    private String decodeShardTag(UUID userId) {
+        if (!shardingProperties.getLookup().isDecodeIdShardTag()) {
+            return null;
+        }
+        String shardKey = ShardTaggedIds.decodeShard(userId);
+        if (shardKey == null
+                || !shardingProperties.getShards().containsKey(shardKey)
+                || relocations.isRelocated(userId)) {
+            return null;
+        }
+        return shardKey;
+    }
+
+    private List<String> allShardKeys() {
+        return new ArrayList<>(shardingProperties.getShards().keySet());
+    }
+
+    private List<String> availableShards(List<String> shardKeys) {
+        List<String> available = shardKeys.stream().filter(shardHealth::isAvailable).toList();
+        if (available.size() < shardKeys.size()) {
+            log.warn("Skipping shard(s) with an open circuit: {}",
+                    shardKeys.stream().filter(shardKey -> !shardHealth.isAvailable(shardKey)).toList());
+        }
+        return available;
+    }
+
+    private Outcome probeShard(String shardKey, String label, Object key, BooleanSupplier probe) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+            boolean found = probe.getAsBoolean();
+            success = true;
+            if (found) {
+                log.info("Found {}: {} in shard: {}", label, key, shardKey);
+                return Outcome.FOUND;
             }
+            return Outcome.ABSENT;
+        } catch (Exception e) {
+            log.error("Error querying shard: {} for {}: {}", shardKey, label, key, e);
+            return Outcome.UNKNOWN;
+        } finally {
+            shardHealth.recordQuery(shardKey, System.nanoTime() - start, success);
         }
-        log.warn("User email: {} not found in any shard", email);
-        return null;
     }
 
+    @PreDestroy
+    void shutdownExecutors() {
+        scatterGatherExecutor.shutdownNow();
+        executorService.shutdown();
+    }
+
+    /**
+     * Whether a user with {@code userId} exists on any shard.
+     *
+     * @throws ServiceException if the user was not found and a shard that
+     *                          may hold it could not be probed
+     */
     public boolean userIdExistsInAnyShard(UUID userId) {
         String cacheShard = getCachedShard(userId);
         if (cacheShard != null) {
-
-            ShardContext.setShardKey(cacheShard);
-            try {
+            try (ShardContext.Scope scope = ShardContext.use(cacheShard)) {
                 boolean exists = userRepository.existsById(userId);
                 if (!exists) {
                     log.warn("User Id '{}' not found in shard '{}'", userId, cacheShard);
@@ -247,20 +632,22 @@ public class ShardLookupService {
                     return false;
                 }
                 return true;
-            } finally {
-                ShardContext.clear();
             }
         }
 
-        return scattergatherLookupById(userId) != null;
+        return exists(scattergatherLookupById(userId), "user ID");
     }
 
+    /**
+     * Whether an active user with {@code email} exists on any shard.
+     *
+     * @throws ServiceException if the user was not found and a shard that
+     *                          may hold it could not be probed
+     */
     public boolean userEmailExistsInAnyShard(String email) {
         String cacheShard = getCachedShardEmail(email);
         if (cacheShard != null) {
-
-            ShardContext.setShardKey(cacheShard);
-            try {
+            try (ShardContext.Scope scope = ShardContext.use(cacheShard)) {
                 Optional<User> userOpt = userRepository.findByEmailAndIsActiveTrue(email);
                 if (userOpt.isEmpty()) {
                     log.warn("User email '{}' not found in shard '{}'", email, cacheShard);
@@ -268,45 +655,123 @@ public class ShardLookupService {
                     return false;
                 }
                 return true;
-            } finally {
-                ShardContext.clear();
             }
         }
 
-        return scattergatherLookupByEmail(email) != null;
+        return exists(scattergatherLookupByEmail(email), "user email");
+    }
+
+    // Existence checks fail closed: a miss on a partial probe is not an answer
+    private static boolean exists(LookupResult result, String label) {
+        if (result.outcome() == Outcome.UNKNOWN) {
+            throw new ServiceException("Could not check whether the " + label + " exists: shard(s) unavailable",
+                    "SHARD_UNAVAILABLE", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return result.outcome() == Outcome.FOUND;
     }
 
     public void cachedUserIdShard(UUID userId, String shardId) {
+        Map<UUID, String> requestShards = requestShards();
+        if (requestShards != null) {
+            requestShards.put(userId, shardId);
+        }
         String cacheKey = USER_ID_SHARD_PREFIX + userId;
         redisTemplate.opsForValue().set(cacheKey, shardId, CACHE_TTL);
+        nearCache.invalidateUserId(userId);
+        nearCache.putUserId(userId, shardId);
+        membershipFilter.recordUserId(shardId, userId);
         log.info("Cached shard ID '{}' for user ID '{}'", shardId, userId);
     }
 
+    /**
+     * Records the shard of many new users at once. The Redis writes are sent
+     * in one pipeline instead of a round trip per key.
+     */
+    public void cacheUserShards(Map<UUID, String> emailsByUserId, String shardId) {
+        byte[] shard = shardId.getBytes(StandardCharsets.UTF_8);
+        Expiration ttl = Expiration.from(CACHE_TTL);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            emailsByUserId.forEach((userId, email) -> {
+                connection.stringCommands().set((USER_ID_SHARD_PREFIX + userId).getBytes(StandardCharsets.UTF_8),
+                        shard, ttl, SetOption.upsert());
+                connection.stringCommands().set((USER_EMAIL_SHARD_PREFIX + email).getBytes(StandardCharsets.UTF_8),
+                        shard, ttl, SetOption.upsert());
+            });
+            return null;
+        });
+        emailsByUserId.forEach((userId, email) -> {
+            nearCache.putUserId(userId, shardId);
+            nearCache.putEmail(email, shardId);
+        });
+        membershipFilter.recordAll(shardId, emailsByUserId);
+        log.info("Cached shard ID '{}' for {} user(s)", shardId, emailsByUserId.size());
+    }
+
     public void cachedUserEmailShard(String email, String shardId) {
         String cacheKey = USER_EMAIL_SHARD_PREFIX + email;
         redisTemplate.opsForValue().set(cacheKey, shardId, CACHE_TTL);
+        nearCache.invalidateEmail(email);
+        nearCache.putEmail(email, shardId);
+        membershipFilter.recordEmail(shardId, email);
         log.info("Cached shard ID '{}' for user email '{}'", shardId, email);
     }
 
+    /**
+     * Directory shards of many emails with a single Redis MGET; emails without
+     * an entry are left out.
+     */
+    public Map<String, String> getCachedShardsByEmail(Collection<String> emails) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(emails));
+        List<String> cached = redisTemplate.opsForValue()
+                .multiGet(distinct.stream().map(email -> USER_EMAIL_SHARD_PREFIX + email).toList());
+        Map<String, String> shards = new HashMap<>();
+        for (int i = 0; cached != null && i < distinct.size(); i++) {
+            if (cached.get(i) != null) {
+                shards.put(distinct.get(i), cached.get(i));
+            }
+        }
+        return shards;
+    }
+
     public String getCachedShard(UUID userId) {
+        String shardId = nearCache.getByUserId(userId);
+        if (shardId != null) {
+            return shardId;
+        }
+
         String cacheKey = USER_ID_SHARD_PREFIX + userId;
-        return redisTemplate.opsForValue().get(cacheKey);
+        shardId = redisTemplate.opsForValue().get(cacheKey);
+        nearCache.putUserId(userId, shardId);
+        return shardId;
     }
 
     public String getCachedShardEmail(String email) {
+        String shardId = nearCache.getByEmail(email);
+        if (shardId != null) {
+            return shardId;
+        }
+
         String cacheKey = USER_EMAIL_SHARD_PREFIX + email;
-        return redisTemplate.opsForValue().get(cacheKey);
+        shardId = redisTemplate.opsForValue().get(cacheKey);
+        nearCache.putEmail(email, shardId);
+        return shardId;
     }
 
     public void invalidateCache(UUID userId) {
+        Map<UUID, String> requestShards = requestShards();
+        if (requestShards != null) {
+            requestShards.remove(userId);
+        }
         String cacheKey = USER_ID_SHARD_PREFIX + userId;
         redisTemplate.delete(cacheKey);
+        nearCache.invalidateUserId(userId);
         log.info("Invalidated cache for user ID '{}'", userId);
     }
 
     public void invalidateCacheEmail(String email) {
         String cacheKey = USER_EMAIL_SHARD_PREFIX + email;
         redisTemplate.delete(cacheKey);
+        nearCache.invalidateEmail(email);
         log.info("Invalidated cache for user email '{}'", email);
     }
 
@@ -315,9 +780,8 @@ public class ShardLookupService {
             try {
                 String currentShard = getCachedShard(userId);
 
-                Country country = countryRepository.findById(newCountryId).orElse(null);
-
-                String expectedShard = ShardingProperties.resolveShard(country.getAbbreviation());
+                String expectedShard = shardMapService.current()
+                        .shardFor(countryRegistry.abbreviationOf(newCountryId), userId);
 
                 if (currentShard != null && !currentShard.equals(expectedShard)) {
                     invalidateCache(userId);
@@ -0,0 +1,336 @@
+package com.team.ja.user.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team.ja.common.exception.BadRequestException;
+import com.team.ja.common.exception.ConflictException;
+import com.team.ja.common.exception.NotFoundException;
+import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.config.sharding.ShardMapService;
+import com.team.ja.user.config.sharding.ShardingProperties;
+import com.team.ja.user.dto.response.ShardRebalanceJobResponse;
+import com.team.ja.user.dto.response.ShardRebalanceJobResponse.Status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk online rebalancing: moves every user of a source shard, or every user
+ * of one country on it, to a target shard while the service keeps serving.
+ *
+ * Users are moved in chunks of {@code sharding.rebalance.chunk-size} through
+ * {@link ShardBulkMover}, paced to {@code sharding.rebalance.max-users-per-second}.
+ * After every chunk the job's state is checkpointed in Redis, so a paused,
+ * failed or interrupted job continues where it stopped when it is resumed.
+ * One job runs at a time across all instances, guarded by a Redis lock.
+ *
+ * Starting a job first publishes a shard map version that replaces the
+ * source by the target in the layout of the country, or of every country the
+ * source shard serves. From then on new users are placed on the target,
+ * users edited during the job migrate towards it, and reads cover both
+ * shards. The old layouts stay readable until the job has completed; then
+ * {@link ShardSplitMover} sweeps up users that were still created on the
+ * source and completes the relocation in the map.
+ *
+ * Progress is available from {@link #getJobs()} (also served by the
+ * {@code shardrebalance} actuator endpoint) and as the
+ * {@code shard.rebalance.users} / {@code shard.rebalance.chunk} meters.
+ */
+@Slf4j
+@Service
+public class ShardRebalanceService {
+
+    static final String JOB_KEY_PREFIX = "user:shard:rebalance:job:";
+    static final String JOBS_KEY = "user:shard:rebalance:jobs";
+    static final String LOCK_KEY = "user:shard:rebalance:lock";
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final Duration LOCK_TTL = Duration.ofMinutes(5);
+
+    private final ShardingProperties shardingProperties;
+    private final ShardMapService shardMapService;
+    private final ShardBulkMover bulkMover;
+    private final CountryRegistry countryRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Timer chunkTimer;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardRebalanceService(ShardingProperties shardingProperties, ShardMapService shardMapService,
+            ShardBulkMover bulkMover, CountryRegistry countryRegistry, JdbcTemplate jdbcTemplate,
+            RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.shardingProperties = shardingProperties;
+        this.shardMapService = shardMapService;
+        this.bulkMover = bulkMover;
+        this.countryRegistry = countryRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.chunkTimer = Timer.builder("shard.rebalance.chunk")
+                .description("Time to move one chunk of users between shards")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Running jobs stay RUNNING in Redis and can be resumed once the lock expires
+        executor.shutdownNow();
+    }
+
+    public ShardRebalanceJobResponse start(String sourceShard, String targetShard, String country) {
+        for (String shard : List.of(sourceShard, targetShard)) {
+            if (!shardingProperties.getShards().containsKey(shard)) {
+                throw new BadRequestException("Unknown shard: " + shard, "UNKNOWN_SHARD");
+            }
+        }
+        if (sourceShard.equals(targetShard)) {
+            throw new BadRequestException("Source and target shard must differ", "SAME_SHARD");
+        }
+        String countryIso = country == null || country.isBlank() ? null : country.trim().toUpperCase();
+        if (countryIso != null) {
+            countryId(countryIso);
+        }
+        List<String> relocated = countryIso != null
+                ? List.of(countryIso)
+                : shardMapService.current().countriesOn(sourceShard);
+
+        LocalDateTime now = LocalDateTime.now();
+        ShardRebalanceJobResponse job = ShardRebalanceJobResponse.builder()
+                .id(UUID.randomUUID())
+                .sourceShard(sourceShard)
+                .targetShard(targetShard)
+                .country(countryIso)
+                .relocatedCountries(relocated)
+                .status(Status.RUNNING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        lock(job);
+        try {
+            shardMapService.relocate(relocated, sourceShard, targetShard);
+        } catch (RuntimeException e) {
+            unlock(job);
+            throw e;
+        }
+        launch(job);
+        redisTemplate.opsForSet().add(JOBS_KEY, job.getId().toString());
+        log.info("Started rebalancing job {}: {} users of {} -> {}", job.getId(),
+                countryIso == null ? "all" : countryIso, sourceShard, targetShard);
+        return job;
+    }
+
+    public ShardRebalanceJobResponse resume(UUID jobId) {
+        ShardRebalanceJobResponse job = getJob(jobId);
+        if (job.getStatus() == Status.COMPLETED) {
+            throw new ConflictException("Rebalancing job " + jobId + " is already completed");
+        }
+        job.setStatus(Status.RUNNING);
+        job.setError(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        lock(job);
+        launch(job);
+        log.info("Resumed rebalancing job {} after user {}", jobId, job.getLastUserId());
+        return job;
+    }
+
+    /**
+     * Stops the job after its current chunk; it can be resumed later.
+     */
+    public ShardRebalanceJobResponse pause(UUID jobId) {
+        ShardRebalanceJobResponse job = getJob(jobId);
+        if (job.getStatus() != Status.RUNNING) {
+            throw new ConflictException("Rebalancing job " + jobId + " is not running");
+        }
+        job.setStatus(Status.PAUSED);
+        job.setUpdatedAt(LocalDateTime.now());
+        save(job);
+        return job;
+    }
+
+    public ShardRebalanceJobResponse getJob(UUID jobId) {
+        ShardRebalanceJobResponse job = load(jobId);
+        if (job == null) {
+            throw new NotFoundException("Rebalancing job", "id", jobId.toString());
+        }
+        return job;
+    }
+
+    public List<ShardRebalanceJobResponse> getJobs() {
+        Set<String> ids = redisTemplate.opsForSet().members(JOBS_KEY);
+        List<ShardRebalanceJobResponse> jobs = new ArrayList<>();
+        if (ids != null) {
+            ids.stream()
+                    .map(id -> load(UUID.fromString(id)))
+                    .filter(Objects::nonNull)
+                    .forEach(jobs::add);
+        }
+        jobs.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
+        return jobs;
+    }
+
+    /**
+     * Countries whose relocation is owned by a job that has not completed
+     * yet; {@link ShardSplitMover} leaves them alone.
+     */
+    public Set<String> relocatingCountries() {
+        Set<String> countries = new HashSet<>();
+        getJobs().stream()
+                .filter(job -> job.getStatus() != Status.COMPLETED && job.getRelocatedCountries() != null)
+                .forEach(job -> countries.addAll(job.getRelocatedCountries()));
+        return countries;
+    }
+
+    private void lock(ShardRebalanceJobResponse job) {
+        String owner = job.getId().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, owner, LOCK_TTL))) {
+            throw new ConflictException("Rebalancing job " + redisTemplate.opsForValue().get(LOCK_KEY)
+                    + " is already running");
+        }
+    }
+
+    private void unlock(ShardRebalanceJobResponse job) {
+        if (job.getId().toString().equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    // Requires the lock
+    private void launch(ShardRebalanceJobResponse job) {
+        save(job);
+        executor.execute(() -> run(job));
+    }
+
+    private void run(ShardRebalanceJobResponse job) {
+        int chunkSize = shardingProperties.getRebalance().getChunkSize();
+        int maxUsersPerSecond = shardingProperties.getRebalance().getMaxUsersPerSecond();
+        Counter movedCounter = Counter.builder("shard.rebalance.users")
+                .description("Users moved by rebalancing jobs")
+                .tag("source", job.getSourceShard())
+                .tag("target", job.getTargetShard())
+                .register(meterRegistry);
+        UUID countryId = job.getCountry() == null ? null : countryId(job.getCountry());
+
+        try {
+            while (true) {
+                ShardRebalanceJobResponse stored = load(job.getId());
+                if (stored == null || stored.getStatus() != Status.RUNNING) {
+                    log.info("Rebalancing job {} paused after user {}", job.getId(), job.getLastUserId());
+                    return;
+                }
+                redisTemplate.expire(LOCK_KEY, LOCK_TTL);
+
+                UUID after = job.getLastUserId() == null ? FIRST_ID : job.getLastUserId();
+                List<UUID> ids = nextChunk(job.getSourceShard(), countryId, after, chunkSize);
+                if (ids.isEmpty()) {
+                    job.setStatus(Status.COMPLETED);
+                    log.info("Rebalancing job {} completed: {} user(s) moved from {} to {}", job.getId(),
+                            job.getMovedUsers(), job.getSourceShard(), job.getTargetShard());
+                    return;
+                }
+
+                long chunkStart = System.nanoTime();
+                ShardBulkMover.MoveResult result = chunkTimer.record(
+                        () -> bulkMover.move(job.getSourceShard(), job.getTargetShard(), ids));
+                movedCounter.increment(result.moved());
+
+                // Pace the job to the configured rate
+                long spent = System.nanoTime() - chunkStart;
+                if (maxUsersPerSecond > 0) {
+                    long budget = TimeUnit.SECONDS.toNanos(ids.size()) / maxUsersPerSecond;
+                    if (budget > spent) {
+                        TimeUnit.NANOSECONDS.sleep(budget - spent);
+                        spent = budget;
+                    }
+                }
+
+                job.setLastUserId(ids.get(ids.size() - 1));
+                job.setMovedUsers(job.getMovedUsers() + result.moved());
+                job.setCopiedRows(job.getCopiedRows() + result.rows());
+                job.setChunks(job.getChunks() + 1);
+                job.setElapsedMillis(job.getElapsedMillis() + TimeUnit.NANOSECONDS.toMillis(spent));
+                job.setUsersPerSecond(job.getElapsedMillis() == 0 ? 0
+                        : job.getMovedUsers() * 1000.0 / job.getElapsedMillis());
+                checkpoint(job);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Rebalancing job {} interrupted after user {}", job.getId(), job.getLastUserId());
+        } catch (Exception e) {
+            log.error("Rebalancing job {} failed after user {}", job.getId(), job.getLastUserId(), e);
+            job.setStatus(Status.FAILED);
+            job.setError(e.getMessage());
+        } finally {
+            if (job.getStatus() != Status.RUNNING) {
+                checkpoint(job);
+            }
+            unlock(job);
+        }
+    }
+
+    private List<UUID> nextChunk(String sourceShard, UUID countryId, UUID after, int limit) {
+        return ShardContext.callWithShard(sourceShard, () -> countryId == null
+                ? jdbcTemplate.queryForList("SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                        UUID.class, after, limit)
+                : jdbcTemplate.queryForList(
+                        "SELECT id FROM users WHERE id > ? AND country_id = ? ORDER BY id LIMIT ?",
+                        UUID.class, after, countryId, limit));
+    }
+
+    // Saves progress without overriding a pause requested in the meantime
+    private void checkpoint(ShardRebalanceJobResponse job) {
+        ShardRebalanceJobResponse stored = load(job.getId());
+        if (stored != null && stored.getStatus() == Status.PAUSED && job.getStatus() == Status.RUNNING) {
+            job.setStatus(Status.PAUSED);
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        save(job);
+    }
+
+    private UUID countryId(String countryIso) {
+        return countryRegistry.findByAbbreviation(countryIso)
+                .map(CountryRegistry.CountryEntry::id)
+                .orElseThrow(() -> new NotFoundException("Country", "abbreviation", countryIso));
+    }
+
+    private void save(ShardRebalanceJobResponse job) {
+        try {
+            redisTemplate.opsForValue().set(JOB_KEY_PREFIX + job.getId(), objectMapper.writeValueAsString(job));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize rebalancing job " + job.getId(), e);
+        }
+    }
+
+    private ShardRebalanceJobResponse load(UUID jobId) {
+        String json = redisTemplate.opsForValue().get(JOB_KEY_PREFIX + jobId);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, ShardRebalanceJobResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read rebalancing job " + jobId, e);
+        }
+    }
+}
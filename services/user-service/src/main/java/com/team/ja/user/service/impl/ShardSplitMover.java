@@ -0,0 +1,162 @@
+package com.team.ja.user.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.config.sharding.ShardMap;
+import com.team.ja.user.config.sharding.ShardMapService;
+import com.team.ja.user.config.sharding.ShardingProperties;
+import com.team.ja.user.repository.UserRepository;
+import com.team.ja.user.repository.UserRepository.UserPlacementView;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves existing users of a country whose layout is being split onto the
+ * sub-shard the new layout places them on.
+ *
+ * Each run examines one batch per source shard, walking the shard in id order
+ * from a cursor kept in Redis so that progress survives restarts and is shared
+ * between instances; a Redis lock makes sure only one instance moves users at
+ * a time. Users are moved with {@link ShardBulkMover}, which also flips their
+ * directory entries. Once every source shard has been walked to the end,
+ * the split is completed and the old layout is dropped from the map.
+ *
+ * Layouts relocated by a {@link ShardRebalanceService} job are left to that
+ * job until it has completed; the mover then sweeps up the users still on
+ * the old layout and completes the relocation the same way.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardSplitMover {
+
+    static final String LOCK_KEY = "user:shard:split:lock";
+    static final String CURSOR_KEY_PREFIX = "user:shard:split:cursor:";
+
+    private static final String DONE = "done";
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final Duration LOCK_TTL = Duration.ofMinutes(5);
+
+    private final ShardMapService shardMapService;
+    private final ShardingProperties shardingProperties;
+    private final UserRepository userRepository;
+    private final CountryRegistry countryRegistry;
+    private final ShardBulkMover bulkMover;
+    private final ShardRebalanceService shardRebalanceService;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Scheduled(fixedDelayString = "${sharding.map.split-interval:PT10S}")
+    public void moveBatch() {
+        ShardMap map = shardMapService.current();
+        if (map.splitting().isEmpty()) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, instanceId, LOCK_TTL))) {
+            return;
+        }
+        try {
+            Set<String> relocating = shardRebalanceService.relocatingCountries();
+            map.splitting().forEach((country, layout) -> {
+                if (!relocating.contains(country)) {
+                    moveBatch(map, country, layout);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Shard split batch failed", e);
+        } finally {
+            if (instanceId.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                redisTemplate.delete(LOCK_KEY);
+            }
+        }
+    }
+
+    private void moveBatch(ShardMap map, String country, ShardMap.Layout layout) {
+        String cursorKey = CURSOR_KEY_PREFIX + country;
+        boolean finished = true;
+        for (String shard : layout.readShards()) {
+            Object cursor = redisTemplate.opsForHash().get(cursorKey, shard);
+            if (DONE.equals(cursor)) {
+                continue;
+            }
+            UUID after = cursor == null ? FIRST_ID : UUID.fromString(cursor.toString());
+            String next = moveShardBatch(map, country, layout, shard, after);
+            redisTemplate.opsForHash().put(cursorKey, shard, next);
+            finished &= DONE.equals(next);
+        }
+
+        if (finished) {
+            shardMapService.completeSplit(country);
+            redisTemplate.delete(cursorKey);
+            log.info("Split of {} onto {} completed", country, layout.shards());
+        }
+    }
+
+    /**
+     * Moves the misplaced users among the next batch of {@code shard} and
+     * returns the new cursor, or {@code "done"} when the shard is exhausted.
+     * Misplaced users are moved together per target shard; when a move fails
+     * the cursor is not advanced and the batch is retried on the next run.
+     */
+    private String moveShardBatch(ShardMap map, String country, ShardMap.Layout layout, String shard, UUID after) {
+        int batchSize = shardingProperties.getMap().getSplitBatchSize();
+        List<UserPlacementView> batch = ShardContext.callWithShard(shard,
+                () -> userRepository.findPlacementsAfter(after, batchSize));
+        if (batch.isEmpty()) {
+            return DONE;
+        }
+        Map<UUID, String> countryIsos = new HashMap<>();
+
+        Map<String, List<UUID>> misplaced = new HashMap<>();
+        for (UserPlacementView user : batch) {
+            String iso = user.getCountryId() == null ? null
+                    : countryIsos.computeIfAbsent(user.getCountryId(), countryRegistry::abbreviationOf);
+            if (belongsToSplit(map, country, iso)) {
+                String target = layout.placement(user.getId());
+                if (!target.equals(shard)) {
+                    misplaced.computeIfAbsent(target, t -> new ArrayList<>()).add(user.getId());
+                }
+            }
+        }
+
+        int moved = 0;
+        for (Map.Entry<String, List<UUID>> entry : misplaced.entrySet()) {
+            try {
+                moved += bulkMover.move(shard, entry.getKey(), entry.getValue()).moved();
+            } catch (Exception e) {
+                // Users already moved are gone from the shard, the rest are retried
+                log.error("Failed to move {} user(s) from {} to {} during split of {}",
+                        entry.getValue().size(), shard, entry.getKey(), country, e);
+                return after.toString();
+            }
+        }
+
+        if (moved > 0) {
+            log.info("Split of {}: moved {} user(s) off shard {}", country, moved, shard);
+        }
+        return batch.size() < batchSize ? DONE : batch.get(batch.size() - 1).getId().toString();
+    }
+
+    // A user follows the split layout if that layout is the one their country resolves to
+    private boolean belongsToSplit(ShardMap map, String country, String iso) {
+        if (ShardMap.DEFAULT_COUNTRY.equals(country)) {
+            return iso == null || !map.countries().containsKey(iso.trim().toUpperCase());
+        }
+        return iso != null && Objects.equals(country, iso.trim().toUpperCase());
+    }
+
+}
@@ -0,0 +1,341 @@
+package com.team.ja.user.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.dto.response.SkillResponse;
+import com.team.ja.user.model.Skill;
+import com.team.ja.user.repository.SkillRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory autocomplete index over the active skills.
+ *
+ * Skills are replicated to every shard, so the index is built from the
+ * default shard into an immutable snapshot: the skills sorted by normalized
+ * name, where a prefix query is a binary-searched range, and trigram
+ * postings for infix queries. Candidates are ranked by global usage count
+ * from {@link SkillUsageService}, which is refreshed on a schedule.
+ *
+ * Skills created on any instance are added through {@link #add}, which
+ * announces them on a pub/sub channel so that every instance indexes them;
+ * a periodic rebuild covers missed messages.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SkillIndex implements MessageListener {
+
+    public static final String SKILL_CREATED_CHANNEL = "user:skill:created";
+
+    private static final int GRAM = 3;
+
+    private final SkillRepository skillRepository;
+    private final SkillUsageService skillUsageService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+    private volatile Map<UUID, Long> usageCounts = Map.of();
+
+    /**
+     * An indexed skill.
+     */
+    public record SkillEntry(UUID id, String name, String normalizedName) {
+    }
+
+    /**
+     * @param sorted   skills ordered by normalized name
+     * @param byId     skills by id
+     * @param trigrams ordinals into {@code sorted} of the skills containing
+     *                 each trigram, ascending
+     */
+    private record Snapshot(SkillEntry[] sorted, Map<UUID, SkillEntry> byId, Map<String, int[]> trigrams) {
+
+        static Snapshot of(Iterable<SkillEntry> skills) {
+            Map<UUID, SkillEntry> byId = new HashMap<>();
+            skills.forEach(skill -> byId.put(skill.id(), skill));
+            SkillEntry[] sorted = byId.values().stream()
+                    .sorted(Comparator.comparing(SkillEntry::normalizedName))
+                    .toArray(SkillEntry[]::new);
+
+            Map<String, List<Integer>> postings = new HashMap<>();
+            for (int i = 0; i < sorted.length; i++) {
+                for (String gram : gramsOf(sorted[i].normalizedName())) {
+                    List<Integer> list = postings.computeIfAbsent(gram, key -> new ArrayList<>());
+                    if (list.isEmpty() || list.get(list.size() - 1) != i) {
+                        list.add(i);
+                    }
+                }
+            }
+            Map<String, int[]> trigrams = new HashMap<>();
+            postings.forEach((gram, list) -> trigrams.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+            return new Snapshot(sorted, Map.copyOf(byId), Map.copyOf(trigrams));
+        }
+
+        List<SkillEntry> entries() {
+            return Arrays.asList(sorted);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(SKILL_CREATED_CHANNEL));
+    }
+
+    public Optional<SkillEntry> findById(UUID id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    /**
+     * Every active skill, most used first.
+     */
+    public List<SkillResponse> findAll() {
+        return rank(snapshot().entries());
+    }
+
+    /**
+     * Active skills whose name contains {@code query}, case-insensitively,
+     * most used first.
+     */
+    public List<SkillResponse> search(String query) {
+        String q = normalize(query);
+        Snapshot current = snapshot();
+        if (q.isEmpty()) {
+            return rank(current.entries());
+        }
+
+        Set<SkillEntry> matches = new LinkedHashSet<>();
+        // Prefix matches: a contiguous range of the sorted names
+        SkillEntry[] sorted = current.sorted();
+        for (int i = lowerBound(sorted, q); i < sorted.length && sorted[i].normalizedName().startsWith(q); i++) {
+            matches.add(sorted[i]);
+        }
+
+        // Infix matches: candidates share every trigram of the query
+        if (q.length() < GRAM) {
+            for (SkillEntry skill : sorted) {
+                if (skill.normalizedName().contains(q)) {
+                    matches.add(skill);
+                }
+            }
+        } else {
+            for (int ordinal : candidates(current, q)) {
+                if (sorted[ordinal].normalizedName().contains(q)) {
+                    matches.add(sorted[ordinal]);
+                }
+            }
+        }
+        return rank(matches);
+    }
+
+    /**
+     * The {@code limit} most used skills; served from the global usage
+     * counts without touching the database.
+     */
+    public List<SkillResponse> popular(int limit) {
+        Map<UUID, SkillEntry> byId = snapshot().byId();
+        List<SkillResponse> popular = new ArrayList<>();
+        skillUsageService.getTopUsageCounts(limit).forEach((id, count) -> {
+            SkillEntry skill = byId.get(id);
+            if (skill != null) {
+                popular.add(toResponse(skill, count));
+            }
+        });
+        if (popular.size() < limit) {
+            // Fewer used skills than asked for; fill up with unused ones
+            Set<UUID> seen = new HashSet<>();
+            popular.forEach(skill -> seen.add(UUID.fromString(skill.getId())));
+            snapshot().entries().stream()
+                    .filter(skill -> !seen.contains(skill.id()))
+                    .limit(limit - popular.size())
+                    .forEach(skill -> popular.add(toResponse(skill, 0)));
+        }
+        return popular;
+    }
+
+    /**
+     * Indexes a newly created skill on every instance.
+     */
+    public void add(SkillEntry skill) {
+        addLocally(skill);
+        try {
+            redisTemplate.convertAndSend(SKILL_CREATED_CHANNEL, objectMapper.writeValueAsString(skill));
+        } catch (Exception e) {
+            log.warn("Failed to announce skill {}; other instances pick it up with the next rebuild", skill.id(), e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            addLocally(objectMapper.readValue(message.getBody(), SkillEntry.class));
+        } catch (Exception e) {
+            log.error("Failed to index announced skill", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${skill-index.refresh-interval:PT10M}",
+            initialDelayString = "${skill-index.refresh-interval:PT10M}")
+    public void rebuild() {
+        try {
+            snapshot = load();
+        } catch (Exception e) {
+            log.error("Failed to rebuild the skill index; keeping the previous snapshot", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${skill-index.usage-refresh-interval:PT30S}")
+    public void refreshUsage() {
+        try {
+            usageCounts = Map.copyOf(skillUsageService.getUsageCounts());
+        } catch (Exception e) {
+            log.error("Failed to refresh skill usage counts", e);
+        }
+    }
+
+    private synchronized void addLocally(SkillEntry skill) {
+        Snapshot current = snapshot();
+        if (current.byId().containsKey(skill.id())) {
+            return;
+        }
+        List<SkillEntry> skills = new ArrayList<>(current.entries());
+        skills.add(skill);
+        snapshot = Snapshot.of(skills);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                    refreshUsage();
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        List<Skill> skills = ShardContext.callWithShard(ShardContext.DEFAULT_SHARD,
+                skillRepository::findByIsActiveTrueOrderByUsageCountDesc);
+        Snapshot loaded = Snapshot.of(skills.stream()
+                .map(skill -> new SkillEntry(skill.getId(), skill.getName(),
+                        skill.getNormalizedName() != null ? skill.getNormalizedName() : normalize(skill.getName())))
+                .toList());
+        log.info("Indexed {} skill(s)", loaded.sorted().length);
+        return loaded;
+    }
+
+    private List<SkillResponse> rank(Iterable<SkillEntry> skills) {
+        Map<UUID, Long> usage = usageCounts;
+        List<SkillEntry> ranked = new ArrayList<>();
+        skills.forEach(ranked::add);
+        ranked.sort(Comparator.<SkillEntry>comparingLong(skill -> usage.getOrDefault(skill.id(), 0L)).reversed()
+                .thenComparing(SkillEntry::normalizedName));
+        return ranked.stream()
+                .map(skill -> toResponse(skill, usage.getOrDefault(skill.id(), 0L)))
+                .toList();
+    }
+
+    /**
+     * Ordinals of the skills that contain every trigram of {@code q}: the
+     * intersection of its postings, starting from the shortest.
+     */
+    private static int[] candidates(Snapshot snapshot, String q) {
+        List<int[]> lists = new ArrayList<>();
+        for (String gram : gramsOf(q)) {
+            int[] postings = snapshot.trigrams().get(gram);
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                out[n++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int lowerBound(SkillEntry[] sorted, String prefix) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].normalizedName().compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static SkillResponse toResponse(SkillEntry skill, long usageCount) {
+        return SkillResponse.builder()
+                .id(skill.id().toString())
+                .name(skill.name())
+                .usageCount((int) usageCount)
+                .build();
+    }
+}
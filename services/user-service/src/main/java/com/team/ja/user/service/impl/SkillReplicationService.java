@@ -0,0 +1,195 @@
+package com.team.ja.user.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.team.ja.common.event.SkillCreateEvent;
+import com.team.ja.user.config.sharding.ShardFanOut;
+import com.team.ja.user.config.sharding.ShardingProperties;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replicates the skills table to every shard.
+ *
+ * Skills keep the same id on every shard. A batch of created skills is
+ * written to all configured shards in parallel, with one
+ * {@code INSERT ... SELECT FROM unnest(...) ON CONFLICT DO NOTHING} per
+ * shard, so replaying a batch is harmless. After a shard applied a batch its
+ * watermark, the creation time of the newest skill it holds from the events,
+ * is advanced in a Redis hash.
+ *
+ * A shard that is down or fails is skipped rather than holding back the
+ * others; the scheduled reconciliation finds the skills each shard is missing
+ * compared to the union of all shards with a set-difference query and copies
+ * them over. Shards that are unreachable during a reconciliation are left
+ * for the next run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SkillReplicationService {
+
+    public static final String WATERMARK_KEY = "user:skill:replication:watermark";
+    private static final String RECONCILE_LOCK_KEY = "user:skill:replication:lock";
+    private static final Duration RECONCILE_LOCK_TTL = Duration.ofMinutes(10);
+
+    private static final String INSERT_SKILLS = "INSERT INTO skills "
+            + "(id, name, normalized_name, usage_count, is_active, created_at, updated_at) "
+            + "SELECT s.id, s.name, s.normalized_name, 0, TRUE, LOCALTIMESTAMP, LOCALTIMESTAMP "
+            + "FROM unnest(?::uuid[], ?::varchar[], ?::varchar[]) AS s(id, name, normalized_name) "
+            + "ON CONFLICT DO NOTHING";
+
+    private static final String MISSING_SKILLS = "SELECT u.id FROM unnest(?::uuid[]) AS u(id) "
+            + "EXCEPT SELECT id FROM skills";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ShardFanOut shardFanOut;
+    private final ShardingProperties shardingProperties;
+
+    private record SkillRow(UUID id, String name, String normalizedName) {
+    }
+
+    /**
+     * Writes {@code events} to every shard.
+     *
+     * @return shards that could not be written; the reconciliation repairs
+     *         them
+     */
+    public Set<String> replicate(List<SkillCreateEvent> events) {
+        Map<UUID, SkillRow> skills = new LinkedHashMap<>();
+        LocalDateTime newest = null;
+        for (SkillCreateEvent event : events) {
+            skills.putIfAbsent(event.getSkillId(),
+                    new SkillRow(event.getSkillId(), event.getName(), event.getNormalizedName()));
+            if (event.getCreatedAt() != null && (newest == null || event.getCreatedAt().isAfter(newest))) {
+                newest = event.getCreatedAt();
+            }
+        }
+        if (skills.isEmpty()) {
+            return Set.of();
+        }
+
+        ShardFanOut.PartialResult<Integer> result = shardFanOut.onShardsAllowingPartial(
+                shardingProperties.getShards().keySet(), shardKey -> insert(skills.values()));
+        if (newest != null) {
+            advanceWatermarks(result.results().keySet(), newest);
+        }
+        log.info("Replicated {} skill(s) to {} shard(s); inserted {}", skills.size(), result.results().size(),
+                result.results());
+        if (result.isPartial()) {
+            log.warn("Skill replication skipped shard(s) {}; left for reconciliation", result.unavailableShards());
+        }
+        return result.unavailableShards();
+    }
+
+    /**
+     * Replication watermark of every shard that has one; exposed through the
+     * {@code skillreplication} actuator endpoint.
+     */
+    public Map<String, LocalDateTime> getWatermarks() {
+        Map<String, LocalDateTime> watermarks = new LinkedHashMap<>();
+        redisTemplate.<String, String>opsForHash().entries(WATERMARK_KEY)
+                .forEach((shardKey, value) -> watermarks.put(shardKey, LocalDateTime.parse(value)));
+        return watermarks;
+    }
+
+    /**
+     * Copies every skill that exists on some shard to the shards that lack
+     * it.
+     */
+    @Scheduled(initialDelayString = "${skill-replication.reconcile-interval:PT15M}", fixedDelayString = "${skill-replication.reconcile-interval:PT15M}")
+    public void reconcile() {
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(RECONCILE_LOCK_KEY, "1", RECONCILE_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+        try {
+            Map<UUID, SkillRow> union = new LinkedHashMap<>();
+            ShardFanOut.PartialResult<List<SkillRow>> loaded = shardFanOut.onAllShardsAllowingPartial(
+                    shardKey -> jdbcTemplate.query(
+                            "SELECT id, name, normalized_name FROM skills WHERE is_active = TRUE",
+                            (rs, rowNum) -> new SkillRow(rs.getObject("id", UUID.class), rs.getString("name"),
+                                    rs.getString("normalized_name"))));
+            loaded.results().values().forEach(rows -> rows.forEach(row -> union.putIfAbsent(row.id(), row)));
+            if (loaded.isPartial()) {
+                log.warn("Skill reconciliation skipped unavailable shard(s) {}", loaded.unavailableShards());
+            }
+            if (union.isEmpty()) {
+                return;
+            }
+
+            UUID[] ids = union.keySet().toArray(UUID[]::new);
+            ShardFanOut.PartialResult<Integer> result = shardFanOut.onShardsAllowingPartial(
+                    loaded.results().keySet(), shardKey -> {
+                        List<UUID> missing = jdbcTemplate.query(MISSING_SKILLS,
+                                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)),
+                                (rs, rowNum) -> rs.getObject(1, UUID.class));
+                        return missing.isEmpty() ? 0 : insert(missing.stream().map(union::get).toList());
+                    });
+            if (result.isPartial()) {
+                log.warn("Skill reconciliation could not repair shard(s) {}", result.unavailableShards());
+            }
+            Map<String, Integer> repaired = result.results();
+            repaired.forEach((shardKey, count) -> {
+                if (count > 0) {
+                    log.warn("Reconciliation copied {} missing skill(s) to shard {}", count, shardKey);
+                }
+            });
+            log.info("Reconciled {} skill(s) across {} shard(s)", union.size(), repaired.size());
+        } catch (Exception e) {
+            log.error("Failed to reconcile skills across shards", e);
+        } finally {
+            redisTemplate.delete(RECONCILE_LOCK_KEY);
+        }
+    }
+
+    // Runs on the shard of the current ShardContext
+    private int insert(Collection<SkillRow> skills) {
+        List<UUID> ids = new ArrayList<>(skills.size());
+        List<String> names = new ArrayList<>(skills.size());
+        List<String> normalizedNames = new ArrayList<>(skills.size());
+        for (SkillRow skill : skills) {
+            ids.add(skill.id());
+            names.add(skill.name());
+            normalizedNames.add(skill.normalizedName());
+        }
+        return jdbcTemplate.update(INSERT_SKILLS, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", names.toArray()));
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar", normalizedNames.toArray()));
+        });
+    }
+
+    private void advanceWatermarks(Collection<String> shardKeys, LocalDateTime newest) {
+        try {
+            Map<String, String> current = redisTemplate.<String, String>opsForHash().entries(WATERMARK_KEY);
+            Map<String, String> advanced = new LinkedHashMap<>();
+            for (String shardKey : shardKeys) {
+                String previous = current.get(shardKey);
+                if (previous == null || LocalDateTime.parse(previous).isBefore(newest)) {
+                    advanced.put(shardKey, newest.toString());
+                }
+            }
+            if (!advanced.isEmpty()) {
+                redisTemplate.opsForHash().putAll(WATERMARK_KEY, advanced);
+            }
+        } catch (Exception e) {
+            log.error("Failed to advance skill replication watermarks", e);
+        }
+    }
+}
@@ -1,26 +1,25 @@
 package com.team.ja.user.service.impl;
 
 import com.team.ja.common.enumeration.EmploymentType;
-import com.team.ja.common.event.KafkaTopics;
 import com.team.ja.common.event.SkillCreateEvent;
 import com.team.ja.common.event.UserProfileUpdatedEvent;
 import com.team.ja.common.event.UserSearchProfileUpdateEvent;
 import com.team.ja.common.exception.ConflictException;
 import com.team.ja.common.exception.NotFoundException;
 import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.config.sharding.ShardedBy;
 import com.team.ja.user.dto.response.SkillResponse;
 import com.team.ja.user.dto.response.UserSearchProfileSkillResponse;
 import com.team.ja.user.kafka.SkillCreateProducer;
 import com.team.ja.user.kafka.UserProfileUpdatedProducer;
+import com.team.ja.user.kafka.UserSearchProfileUpdateProducer;
 import com.team.ja.user.mapper.SkillMapper;
-import com.team.ja.user.model.Country;
 import com.team.ja.user.model.Skill;
 import com.team.ja.user.model.User;
 import com.team.ja.user.model.UserEducation;
 import com.team.ja.user.model.UserSearchProfile;
 import com.team.ja.user.model.UserSearchProfileSkill;
 import com.team.ja.user.model.UserSkill;
-import com.team.ja.user.repository.CountryRepository;
 import com.team.ja.user.repository.SkillRepository;
 import com.team.ja.user.repository.UserEducationRepository;
 import com.team.ja.user.repository.UserRepository;
@@ -33,7 +32,6 @@ import com.team.ja.user.service.SkillService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -52,17 +50,20 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class SkillServiceImpl implements SkillService {
 
+    private static final int POPULAR_SKILLS = 20;
+
     private final SkillRepository skillRepository;
+    private final SkillIndex skillIndex;
+    private final SkillUsageService skillUsageService;
 
     private final UserProfileUpdatedProducer profileUpdatedProducer;
     private final SkillMapper skillMapper;
     private final SkillCreateProducer skillCreateProducer;
     private final UserSearchProfileSkillRepository userSearchProfileSkillRepository;
-    private final ShardLookupService shardLookupService;
-    private final KafkaTemplate<String, UserSearchProfileUpdateEvent> userSearchProfileUpdateKafkaTemplate;
+    private final UserSearchProfileUpdateProducer userSearchProfileUpdateProducer;
 
     // For getting Kafka for JM
-    private final CountryRepository countryRepository;
+    private final CountryRegistry countryRegistry;
     private final UserSkillRepository userSkillRepository;
     private final UserRepository userRepository;
     private final UserSearchProfileEmploymentRepository userSearchProfileEmploymentRepository;
@@ -73,33 +74,13 @@ public class SkillServiceImpl implements SkillService {
     @Override
     public List<SkillResponse> getAllSkills() {
         log.info("Fetching all active skills");
-        
-        // Skills are reference data replicated across all shards
-        // Use default shard to query skills
-        ShardContext.setShardKey(ShardContext.DEFAULT_SHARD);
-        
-        try {
-            List<Skill> skills = skillRepository.findByIsActiveTrueOrderByUsageCountDesc();
-            return skillMapper.toResponseList(skills);
-        } finally {
-            ShardContext.clear();
-        }
+        return skillIndex.findAll();
     }
 
     @Override
     public List<SkillResponse> getPopularSkills() {
         log.info("Fetching popular skills");
-        
-        // Skills are reference data replicated across all shards
-        // Use default shard to query skills
-        ShardContext.setShardKey(ShardContext.DEFAULT_SHARD);
-        
-        try {
-            List<Skill> skills = skillRepository.findTop20ByIsActiveTrueOrderByUsageCountDesc();
-            return skillMapper.toResponseList(skills);
-        } finally {
-            ShardContext.clear();
-        }
+        return skillIndex.popular(POPULAR_SKILLS);
     }
 
     @Override
@@ -110,16 +91,7 @@ public class SkillServiceImpl implements SkillService {
             return getPopularSkills();
         }
         
-        // Skills are reference data replicated across all shards
-        // Use default shard to query skills
-        ShardContext.setShardKey(ShardContext.DEFAULT_SHARD);
-        
-        try {
-            List<Skill> skills = skillRepository.searchByName(query.trim());
-            return skillMapper.toResponseList(skills);
-        } finally {
-            ShardContext.clear();
-        }
+        return skillIndex.search(query);
     }
 
     @Override
@@ -128,232 +100,57 @@ public class SkillServiceImpl implements SkillService {
         
         // Skills are reference data replicated across all shards
         // Use default shard to query skills
-        ShardContext.setShardKey(ShardContext.DEFAULT_SHARD);
-        
-        try {
+        try (ShardContext.Scope scope = ShardContext.use(ShardContext.DEFAULT_SHARD)) {
             Skill skill = skillRepository.findById(id)
                     .filter(Skill::isActive)
                     .orElseThrow(() -> new NotFoundException("Skill", "id", id.toString()));
             return skillMapper.toResponse(skill);
-        } finally {
-            ShardContext.clear();
         }
     }
 
     @Override
     @Transactional
+    @ShardedBy("userId")
     public List<SkillResponse> addSkillsToUser(UUID userId, List<UUID> skillIds) {
         log.info("Adding {} skills to user {}", skillIds.size(), userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-        try {
-            validateUserExists(userId);
-
-            List<Skill> skills = skillRepository.findByIdInAndIsActiveTrue(skillIds);
-            if (skills.size() != skillIds.size()) {
-                throw new NotFoundException("One or more skills not found or are inactive.");
-            }
-
-            boolean skillsChanged = false;
-            // Find all existing skill relations for this user, active or not
-            List<UserSkill> existingUserSkills = userSkillRepository.findByUserId(userId);
-
-            for (Skill skillToAdd : skills) {
-                UserSkill existingRelation = existingUserSkills.stream()
-                        .filter(us -> us.getSkillId().equals(skillToAdd.getId()))
-                        .findFirst()
-                        .orElse(null);
-
-                if (existingRelation == null) {
-                    // This is a brand new skill for the user
-                    skillsChanged = true;
-                    UserSkill newUserSkill = UserSkill.builder().userId(userId).skillId(skillToAdd.getId()).build();
-                    userSkillRepository.save(newUserSkill);
-                    skillToAdd.setUsageCount(skillToAdd.getUsageCount() + 1);
-                } else if (!existingRelation.isActive()) {
-                    // The user had this skill before, but it was inactive
-                    skillsChanged = true;
-                    existingRelation.activate();
-                    userSkillRepository.save(existingRelation);
-                    skillToAdd.setUsageCount(skillToAdd.getUsageCount() + 1);
-                }
-                // If the relation exists and is already active, do nothing.
+        String shardKey = ShardContext.requireShardKey();
+        validateUserExists(userId);
 
-            }
-
-            skillRepository.saveAll(skills);
-
-            if (skillsChanged) {
-                log.info("Skills changed for user {}. Publishing event.", userId);
-                List<UUID> allUserSkillIds = userSkillRepository.findByUserIdAndIsActiveTrue(userId)
-                        .stream()
-                        .map(UserSkill::getSkillId)
-                        .collect(Collectors.toList());
-
-                UserProfileUpdatedEvent event = UserProfileUpdatedEvent.builder()
-                        .userId(userId)
-                        .updateType(UserProfileUpdatedEvent.UpdateType.SKILLS)
-                        .skillIds(allUserSkillIds)
-                        .build();
-                profileUpdatedProducer.sendProfileUpdatedEvent(event);
-
-                Optional<User> user = userRepository.findById(userId);
-                String countryAbbreviation = null;
-                if (user.isPresent() && user.get().getCountryId() != null) {
-                    countryAbbreviation = countryRepository.findById(user.get().getCountryId())
-                            .map(c -> c.getAbbreviation())
-                            .orElse(null);
-                }
-                List<UserEducation> educationLevel = userEducationRepository
-                        .findByUserIdOrderByEducationLevelRankDesc(userId);
-
-                Optional<UserSearchProfile> userSearchProfile = userSearchProfileRepository.findByUserId(userId);
-
-                List<EmploymentType> employmentTypes = userSearchProfileEmploymentRepository
-                        .findByUserSearchProfileIdAndIsActiveTrue(
-                                userSearchProfile.isPresent() ? userSearchProfile.get().getId() : null)
-                        .stream()
-                        .map(ute -> ute.getEmploymentType())
-                        .collect(Collectors.toList());
-
-                List<String> jobTitles = userSearchProfileJobTitleRepository
-                        .findByUserSearchProfileIdAndIsActiveTrue(
-                                userSearchProfile.isPresent() ? userSearchProfile.get().getId() : null)
-                        .stream()
-                        .map(utj -> utj.getJobTitle())
-                        .collect(Collectors.toList());
-                log.info("Preparing to send UserSearchProfileUpdateEvent for user {}", userId);
-
-                UserSearchProfileUpdateEvent searchProfileEvent = UserSearchProfileUpdateEvent.builder()
-                        .userId(userId)
-                        .countryAbbreviation(countryAbbreviation)
-                        .educationLevel(educationLevel.isEmpty() ? null
-                                : educationLevel.get(0).getEducationLevel().name())
-                        .employmentTypes(employmentTypes.stream()
-                                .map(EmploymentType::name)
-                                .collect(Collectors.toList()))
-                        .minSalary(userSearchProfile.isPresent() ? userSearchProfile.get().getSalaryMin() : null)
-                        .maxSalary(userSearchProfile.isPresent() ? userSearchProfile.get().getSalaryMax() : null)
-                        .jobTitles(jobTitles)
-                        .skillIds(allUserSkillIds)
-                        .build();
-
-                userSearchProfileUpdateKafkaTemplate.send(KafkaTopics.USER_PROFILE_UPDATE, searchProfileEvent)
-                        .whenComplete((result, ex) -> {
-                            if (ex == null) {
-                                log.info("Sent UserSearchProfileUpdateEvent for user {} [partition: {}, offset: {}]",
-                                        userId,
-                                        result.getRecordMetadata().partition(),
-                                        result.getRecordMetadata().offset());
-                            } else {
-                                log.error("Failed to send UserSearchProfileUpdateEvent for user {}", userId, ex);
-                            }
-                        });
-
-                userRepository.findById(userId).ifPresent(User::markProfileUpdated);
-            }
-
-            log.info("Finished adding skills to user {}", userId);
-            userSkillRepository.flush();
-            return getUserSkillsInternal(userId);
-
-        } finally {
-            ShardContext.clear();
+        List<Skill> skills = skillRepository.findByIdInAndIsActiveTrue(skillIds);
+        if (skills.size() != skillIds.size()) {
+            throw new NotFoundException("One or more skills not found or are inactive.");
         }
-    }
-
-    @Override
-    @Transactional
-    public List<UserSearchProfileSkillResponse> addSkillToUserSearchProfile(List<UUID> skillIds,
-            UUID searchProfileId, UUID userId) {
-        log.info("Adding {} skills to user {}", skillIds.size(), userId);
-
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
-        try {
-            // validateSearchProfileExists(searchProfileId);
-
-            List<Skill> skills = skillRepository.findByIdInAndIsActiveTrue(skillIds);
-            if (skills.size() != skillIds.size()) {
-                throw new NotFoundException("One or more skills not found or are inactive.");
-            }
-
-            boolean skillsChanged = false;
-            // Find all existing skill relations for this user, active or not
-            List<UserSearchProfileSkill> existingUserSkills = userSearchProfileSkillRepository
-                    .findByUserSearchProfileId(searchProfileId);
-
-            for (Skill skillToAdd : skills) {
-                UserSearchProfileSkill existingRelation = existingUserSkills.stream()
-                        .filter(us -> us.getSkillId().equals(skillToAdd.getId()))
-                        .findFirst()
-                        .orElse(null);
-
-                if (existingRelation == null) {
-                    // This is a brand new skill for the user
-                    skillsChanged = true;
-                    UserSearchProfileSkill newUserSkill = UserSearchProfileSkill.builder()
-                            .userSearchProfileId(searchProfileId)
-                            .skillId(skillToAdd.getId()).build();
-                    userSearchProfileSkillRepository.save(newUserSkill);
-                    skillToAdd.setUsageCount(skillToAdd.getUsageCount() + 1);
-                } else if (!existingRelation.isActive()) {
-                    // The user had this skill before, but it was inactive
-                    skillsChanged = true;
-                    existingRelation.activate();
-                    userSearchProfileSkillRepository.save(existingRelation);
-                    skillToAdd.setUsageCount(skillToAdd.getUsageCount() + 1);
-                }
-                // If the relation exists and is already active, do nothing.
-            }
-
-            skillRepository.saveAll(skills);
-
-            if (skillsChanged) {
-                log.info("Skills changed for user search profile {}. Publishing event.", searchProfileId);
-                List<UUID> allUserSearchProfileSkillIds = userSearchProfileSkillRepository
-                        .findByUserSearchProfileIdAndIsActiveTrue(searchProfileId)
-                        .stream()
-                        .map(UserSearchProfileSkill::getSkillId)
-                        .collect(Collectors.toList());
 
+        boolean skillsChanged = false;
+        // Find all existing skill relations for this user, active or not
+        List<UserSkill> existingUserSkills = userSkillRepository.findByUserId(userId);
+
+        for (Skill skillToAdd : skills) {
+            UserSkill existingRelation = existingUserSkills.stream()
+                    .filter(us -> us.getSkillId().equals(skillToAdd.getId()))
+                    .findFirst()
+                    .orElse(null);
+
+            if (existingRelation == null) {
+                // This is a brand new skill for the user
+                skillsChanged = true;
+                UserSkill newUserSkill = UserSkill.builder().userId(userId).skillId(skillToAdd.getId()).build();
+                userSkillRepository.save(newUserSkill);
+                skillUsageService.recordAdded(shardKey, skillToAdd.getId());
+            } else if (!existingRelation.isActive()) {
+                // The user had this skill before, but it was inactive
+                skillsChanged = true;
+                existingRelation.activate();
+                userSkillRepository.save(existingRelation);
+                skillUsageService.recordAdded(shardKey, skillToAdd.getId());
             }
+            // If the relation exists and is already active, do nothing.
 
-            log.info("Finished adding skills to user search profile {}", searchProfileId);
-            return getUserSearchProfileSkills(searchProfileId);
-        } finally {
-            ShardContext.clear();
         }
 
-    }
-
-    @Override
-    @Transactional
-    public void removeSkillFromUser(UUID userId, UUID skillId) {
-        log.info("Removing skill {} from user {}", skillId, userId);
-
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
-        try {
-
-            UserSkill userSkill = userSkillRepository.findByUserIdAndSkillIdAndIsActiveTrue(userId, skillId)
-                    .orElseThrow(() -> new NotFoundException("User does not have this skill"));
-
-            userSkill.deactivate();
-            userSkillRepository.save(userSkill);
-
-            // Decrement usage count
-            skillRepository.findById(skillId).ifPresent(skill -> {
-                if (skill.getUsageCount() > 0) {
-                    skill.setUsageCount(skill.getUsageCount() - 1);
-                    skillRepository.save(skill);
-                }
-            });
-
-            log.info("Removed skill {} from user {}. Publishing event.", skillId, userId);
+        if (skillsChanged) {
+            log.info("Skills changed for user {}. Publishing event.", userId);
             List<UUID> allUserSkillIds = userSkillRepository.findByUserIdAndIsActiveTrue(userId)
                     .stream()
                     .map(UserSkill::getSkillId)
@@ -369,9 +166,7 @@ public class SkillServiceImpl implements SkillService {
             Optional<User> user = userRepository.findById(userId);
             String countryAbbreviation = null;
             if (user.isPresent() && user.get().getCountryId() != null) {
-                countryAbbreviation = countryRepository.findById(user.get().getCountryId())
-                        .map(c -> c.getAbbreviation())
-                        .orElse(null);
+                countryAbbreviation = countryRegistry.abbreviationOf(user.get().getCountryId());
             }
             List<UserEducation> educationLevel = userEducationRepository
                     .findByUserIdOrderByEducationLevelRankDesc(userId);
@@ -391,6 +186,7 @@ public class SkillServiceImpl implements SkillService {
                     .stream()
                     .map(utj -> utj.getJobTitle())
                     .collect(Collectors.toList());
+            log.info("Preparing to send UserSearchProfileUpdateEvent for user {}", userId);
 
             UserSearchProfileUpdateEvent searchProfileEvent = UserSearchProfileUpdateEvent.builder()
                     .userId(userId)
@@ -406,76 +202,167 @@ public class SkillServiceImpl implements SkillService {
                     .skillIds(allUserSkillIds)
                     .build();
 
-            userSearchProfileUpdateKafkaTemplate.send(KafkaTopics.USER_PROFILE_UPDATE, searchProfileEvent)
-                    .whenComplete((result, ex) -> {
-                        if (ex == null) {
-                            log.info("Sent UserSearchProfileUpdateEvent for user {} [partition: {}, offset: {}]",
-                                    userId,
-                                    result.getRecordMetadata().partition(),
-                                    result.getRecordMetadata().offset());
-                        } else {
-                            log.error("Failed to send UserSearchProfileUpdateEvent for user {}", userId, ex);
-                        }
-                    });
-
-            // Mark user profile as updated
+            userSearchProfileUpdateProducer.sendAfterCommit(searchProfileEvent);
+
             userRepository.findById(userId).ifPresent(User::markProfileUpdated);
-        } finally {
-            ShardContext.clear();
         }
+
+        log.info("Finished adding skills to user {}", userId);
+        userSkillRepository.flush();
+        return getUserSkillsInternal(userId);
     }
 
     @Override
     @Transactional
-    public void removeSkillFromUserSearchProfile(UUID skillId, UUID searchProfileId) {
-        log.info("Removing skill {} from search profile {}", skillId, searchProfileId);
+    @ShardedBy("userId")
+    public List<UserSearchProfileSkillResponse> addSkillToUserSearchProfile(List<UUID> skillIds,
+            UUID searchProfileId, UUID userId) {
+        log.info("Adding {} skills to user {}", skillIds.size(), userId);
 
-        String shardKey = shardLookupService.findShardIdBySearchProfileId(searchProfileId);
-        ShardContext.setShardKey(shardKey);
+        String shardKey = ShardContext.requireShardKey();
+        // validateSearchProfileExists(searchProfileId);
 
-        try {
+        List<Skill> skills = skillRepository.findByIdInAndIsActiveTrue(skillIds);
+        if (skills.size() != skillIds.size()) {
+            throw new NotFoundException("One or more skills not found or are inactive.");
+        }
 
-            UserSearchProfileSkill userSkill = userSearchProfileSkillRepository
-                    .findByUserSearchProfileIdAndSkillIdAndIsActiveTrue(searchProfileId, skillId)
-                    .orElseThrow(() -> new NotFoundException("User does not have this skill in search profile"));
+        boolean skillsChanged = false;
+        // Find all existing skill relations for this user, active or not
+        List<UserSearchProfileSkill> existingUserSkills = userSearchProfileSkillRepository
+                .findByUserSearchProfileId(searchProfileId);
+
+        for (Skill skillToAdd : skills) {
+            UserSearchProfileSkill existingRelation = existingUserSkills.stream()
+                    .filter(us -> us.getSkillId().equals(skillToAdd.getId()))
+                    .findFirst()
+                    .orElse(null);
+
+            if (existingRelation == null) {
+                // This is a brand new skill for the user
+                skillsChanged = true;
+                UserSearchProfileSkill newUserSkill = UserSearchProfileSkill.builder()
+                        .userSearchProfileId(searchProfileId)
+                        .skillId(skillToAdd.getId()).build();
+                userSearchProfileSkillRepository.save(newUserSkill);
+                skillUsageService.recordAdded(shardKey, skillToAdd.getId());
+            } else if (!existingRelation.isActive()) {
+                // The user had this skill before, but it was inactive
+                skillsChanged = true;
+                existingRelation.activate();
+                userSearchProfileSkillRepository.save(existingRelation);
+                skillUsageService.recordAdded(shardKey, skillToAdd.getId());
+            }
+            // If the relation exists and is already active, do nothing.
+        }
 
-            userSkill.deactivate();
-            userSearchProfileSkillRepository.save(userSkill);
+        if (skillsChanged) {
+            log.info("Skills changed for user search profile {}. Publishing event.", searchProfileId);
+            userSearchProfileUpdateProducer.sendChangedAfterCommit(userId);
+        }
 
-            // Decrement usage count
-            skillRepository.findById(skillId).ifPresent(skill -> {
-                if (skill.getUsageCount() > 0) {
-                    skill.setUsageCount(skill.getUsageCount() - 1);
-                    skillRepository.save(skill);
-                }
-            });
-            log.info("Removed skill {} from search profile {}. Publishing event.", skillId, searchProfileId);
-            List<UUID> allUserSearchProfileSkillIds = userSearchProfileSkillRepository
-                    .findByUserSearchProfileIdAndIsActiveTrue(searchProfileId)
-                    .stream()
-                    .map(UserSearchProfileSkill::getSkillId)
-                    .collect(Collectors.toList());
+        log.info("Finished adding skills to user search profile {}", searchProfileId);
+        return getUserSearchProfileSkills(searchProfileId);
+    }
+
+    @Override
+    @Transactional
+    @ShardedBy("userId")
+    public void removeSkillFromUser(UUID userId, UUID skillId) {
+        log.info("Removing skill {} from user {}", skillId, userId);
+
+        String shardKey = ShardContext.requireShardKey();
+        UserSkill userSkill = userSkillRepository.findByUserIdAndSkillIdAndIsActiveTrue(userId, skillId)
+                .orElseThrow(() -> new NotFoundException("User does not have this skill"));
+
+        userSkill.deactivate();
+        userSkillRepository.save(userSkill);
 
-            // TODO: Add event publishing for search profile skill removal if needed
+        skillUsageService.recordRemoved(shardKey, skillId);
 
-        } finally {
-            ShardContext.clear();
+        log.info("Removed skill {} from user {}. Publishing event.", skillId, userId);
+        List<UUID> allUserSkillIds = userSkillRepository.findByUserIdAndIsActiveTrue(userId)
+                .stream()
+                .map(UserSkill::getSkillId)
+                .collect(Collectors.toList());
+
+        UserProfileUpdatedEvent event = UserProfileUpdatedEvent.builder()
+                .userId(userId)
+                .updateType(UserProfileUpdatedEvent.UpdateType.SKILLS)
+                .skillIds(allUserSkillIds)
+                .build();
+        profileUpdatedProducer.sendProfileUpdatedEvent(event);
+
+        Optional<User> user = userRepository.findById(userId);
+        String countryAbbreviation = null;
+        if (user.isPresent() && user.get().getCountryId() != null) {
+            countryAbbreviation = countryRegistry.abbreviationOf(user.get().getCountryId());
         }
+        List<UserEducation> educationLevel = userEducationRepository
+                .findByUserIdOrderByEducationLevelRankDesc(userId);
+
+        Optional<UserSearchProfile> userSearchProfile = userSearchProfileRepository.findByUserId(userId);
+
+        List<EmploymentType> employmentTypes = userSearchProfileEmploymentRepository
+                .findByUserSearchProfileIdAndIsActiveTrue(
+                        userSearchProfile.isPresent() ? userSearchProfile.get().getId() : null)
+                .stream()
+                .map(ute -> ute.getEmploymentType())
+                .collect(Collectors.toList());
+
+        List<String> jobTitles = userSearchProfileJobTitleRepository
+                .findByUserSearchProfileIdAndIsActiveTrue(
+                        userSearchProfile.isPresent() ? userSearchProfile.get().getId() : null)
+                .stream()
+                .map(utj -> utj.getJobTitle())
+                .collect(Collectors.toList());
+
+        UserSearchProfileUpdateEvent searchProfileEvent = UserSearchProfileUpdateEvent.builder()
+                .userId(userId)
+                .countryAbbreviation(countryAbbreviation)
+                .educationLevel(educationLevel.isEmpty() ? null
+                        : educationLevel.get(0).getEducationLevel().name())
+                .employmentTypes(employmentTypes.stream()
+                        .map(EmploymentType::name)
+                        .collect(Collectors.toList()))
+                .minSalary(userSearchProfile.isPresent() ? userSearchProfile.get().getSalaryMin() : null)
+                .maxSalary(userSearchProfile.isPresent() ? userSearchProfile.get().getSalaryMax() : null)
+                .jobTitles(jobTitles)
+                .skillIds(allUserSkillIds)
+                .build();
+
+        userSearchProfileUpdateProducer.sendAfterCommit(searchProfileEvent);
+
+        // Mark user profile as updated
+        userRepository.findById(userId).ifPresent(User::markProfileUpdated);
+    }
+
+    @Override
+    @Transactional
+    @ShardedBy(value = "searchProfileId", key = ShardedBy.Key.SEARCH_PROFILE_ID)
+    public void removeSkillFromUserSearchProfile(UUID skillId, UUID searchProfileId) {
+        log.info("Removing skill {} from search profile {}", skillId, searchProfileId);
 
+        String shardKey = ShardContext.requireShardKey();
+        UserSearchProfileSkill userSkill = userSearchProfileSkillRepository
+                .findByUserSearchProfileIdAndSkillIdAndIsActiveTrue(searchProfileId, skillId)
+                .orElseThrow(() -> new NotFoundException("User does not have this skill in search profile"));
+
+        userSkill.deactivate();
+        userSearchProfileSkillRepository.save(userSkill);
+
+        skillUsageService.recordRemoved(shardKey, skillId);
+        log.info("Removed skill {} from search profile {}. Publishing event.", skillId, searchProfileId);
+        userSearchProfileRepository.findByIdAndIsActiveTrue(searchProfileId)
+                .ifPresent(profile -> userSearchProfileUpdateProducer.sendChangedAfterCommit(profile.getUserId()));
     }
 
     @Override
+    @ShardedBy("userId")
     public List<SkillResponse> getUserSkills(UUID userId) {
         log.info("Fetching skills for user: {}", userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
-        try {
-            return getUserSkillsInternal(userId);
-        } finally {
-            ShardContext.clear();
-        }
+        return getUserSkillsInternal(userId);
     }
 
     private List<SkillResponse> getUserSkillsInternal(UUID userId) {
@@ -491,27 +378,20 @@ public class SkillServiceImpl implements SkillService {
     }
 
     @Override
+    @ShardedBy(value = "searchProfileId", key = ShardedBy.Key.SEARCH_PROFILE_ID)
     public List<UserSearchProfileSkillResponse> getUserSearchProfileSkills(UUID searchProfileId) {
         log.info("Fetching search profile skills for search profile: {}", searchProfileId);
 
-        String shardKey = shardLookupService.findShardIdBySearchProfileId(searchProfileId);
-        ShardContext.setShardKey(shardKey);
-
-        try {
-
-            List<UserSearchProfileSkill> userSkills = userSearchProfileSkillRepository
-                    .findByUserSearchProfileIdAndIsActiveTrue(searchProfileId);
-            List<UUID> skillIds = userSkills.stream().map(UserSearchProfileSkill::getSkillId).toList();
+        List<UserSearchProfileSkill> userSkills = userSearchProfileSkillRepository
+                .findByUserSearchProfileIdAndIsActiveTrue(searchProfileId);
+        List<UUID> skillIds = userSkills.stream().map(UserSearchProfileSkill::getSkillId).toList();
 
-            if (skillIds.isEmpty()) {
-                return List.of();
-            }
-
-            List<Skill> skills = skillRepository.findByIdInAndIsActiveTrue(skillIds);
-            return skillMapper.toUserSearchProfileSkillResponseList(skills);
-        } finally {
-            ShardContext.clear();
+        if (skillIds.isEmpty()) {
+            return List.of();
         }
+
+        List<Skill> skills = skillRepository.findByIdInAndIsActiveTrue(skillIds);
+        return skillMapper.toUserSearchProfileSkillResponseList(skills);
     }
 
     @Override
@@ -0,0 +1,252 @@
+package com.team.ja.user.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.config.sharding.ShardFanOut;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Skill usage counters.
+ *
+ * Adding or removing a skill used to rewrite the {@code skills} row of the
+ * user's shard, so every profile edit touching a popular skill queued on the
+ * same row lock. Usage changes are now added to an in-memory {@link LongAdder}
+ * per shard and skill after the owning transaction commits, and a scheduled
+ * flush writes the accumulated deltas of each shard with one
+ * {@code UPDATE ... FROM unnest(...)} statement. A flush that fails is
+ * retried with the next one.
+ *
+ * The global count of every skill is kept in a Redis sorted set, incremented
+ * by each flush and periodically rebuilt from the sum over all shards, so
+ * the most used skills are read without touching the database. Reads seed
+ * the set from the shards only until a build has completed once; after that
+ * an empty set means no skill is in use.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SkillUsageService {
+
+    public static final String USAGE_KEY = "user:skill:usage";
+    private static final String USAGE_REBUILD_KEY = "user:skill:usage:rebuild";
+    // Written by every build; increments alone never mark the counts as seeded
+    private static final String SEEDED_KEY = "user:skill:usage:seeded";
+    private static final String SEED_LOCK_KEY = "user:skill:usage:lock";
+    private static final Duration SEED_LOCK_TTL = Duration.ofMinutes(5);
+
+    private static final String FLUSH_SQL = "UPDATE skills s SET usage_count = GREATEST(s.usage_count + d.delta, 0) "
+            + "FROM unnest(?::uuid[], ?::int[]) AS d(id, delta) WHERE s.id = d.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ShardFanOut shardFanOut;
+
+    /**
+     * Changes recorded for one skill on one shard. {@code flushed} is only
+     * touched by the flush, which runs one at a time; increments that race
+     * with a flush are picked up by the next one.
+     */
+    private static final class Counter {
+        final LongAdder total = new LongAdder();
+        long flushed;
+    }
+
+    private final Map<String, Map<UUID, Counter>> counters = new ConcurrentHashMap<>();
+
+    public void recordAdded(String shardKey, UUID skillId) {
+        record(shardKey, skillId, 1);
+    }
+
+    public void recordRemoved(String shardKey, UUID skillId) {
+        record(shardKey, skillId, -1);
+    }
+
+    private void record(String shardKey, UUID skillId, long delta) {
+        afterCommit(() -> counters.computeIfAbsent(shardKey, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(skillId, key -> new Counter())
+                .total.add(delta));
+    }
+
+    /**
+     * Global usage count of every skill that has one, highest first. Seeds
+     * the counts from the shards if they were never built.
+     */
+    public Map<UUID, Long> getUsageCounts() {
+        return toCounts(usageTuples(-1));
+    }
+
+    /**
+     * The {@code limit} most used skills with their global usage count,
+     * highest first.
+     */
+    public Map<UUID, Long> getTopUsageCounts(int limit) {
+        return toCounts(usageTuples(limit - 1));
+    }
+
+    private Set<TypedTuple<String>> usageTuples(long end) {
+        Set<TypedTuple<String>> tuples = redisTemplate.opsForZSet().reverseRangeWithScores(USAGE_KEY, 0, end);
+        if ((tuples == null || tuples.isEmpty()) && !Boolean.TRUE.equals(redisTemplate.hasKey(SEEDED_KEY))
+                && seed()) {
+            tuples = redisTemplate.opsForZSet().reverseRangeWithScores(USAGE_KEY, 0, end);
+        }
+        return tuples == null ? Set.of() : tuples;
+    }
+
+    @Scheduled(fixedDelayString = "${skill-usage.flush-interval:PT5S}")
+    public synchronized void flush() {
+        counters.forEach(this::flushShard);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushShard(String shardKey, Map<UUID, Counter> shardCounters) {
+        Map<Counter, Long> pending = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        List<Integer> deltas = new ArrayList<>();
+        shardCounters.forEach((skillId, counter) -> {
+            long total = counter.total.sum();
+            long delta = total - counter.flushed;
+            if (delta != 0) {
+                pending.put(counter, total);
+                ids.add(skillId);
+                deltas.add((int) delta);
+            }
+        });
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+            jdbcTemplate.update(FLUSH_SQL, ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+                ps.setArray(2, ps.getConnection().createArrayOf("int4", deltas.toArray()));
+            });
+        } catch (Exception e) {
+            log.error("Failed to flush {} skill usage change(s) to shard {}; retrying with the next flush",
+                    ids.size(), shardKey, e);
+            return;
+        }
+        pending.forEach((counter, total) -> counter.flushed = total);
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                byte[] key = USAGE_KEY.getBytes(StandardCharsets.UTF_8);
+                for (int i = 0; i < ids.size(); i++) {
+                    connection.zSetCommands().zIncrBy(key, deltas.get(i),
+                            ids.get(i).toString().getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // The next rebuild corrects the global counts
+            log.error("Failed to update global skill usage for {} skill(s)", ids.size(), e);
+        }
+        log.debug("Flushed {} skill usage change(s) to shard {}", ids.size(), shardKey);
+    }
+
+    /**
+     * Rebuilds the global counts from the sum of {@code usage_count} over all
+     * shards. Changes not flushed yet by other instances are missed until
+     * the next rebuild.
+     */
+    @Scheduled(initialDelayString = "${skill-usage.rebuild-interval:PT1H}", fixedDelayString = "${skill-usage.rebuild-interval:PT1H}")
+    public void rebuild() {
+        try {
+            int skills = rebuildFromShards();
+            log.info("Rebuilt global usage counts of {} skill(s)", skills);
+        } catch (Exception e) {
+            log.error("Failed to rebuild global skill usage counts", e);
+        }
+    }
+
+    private boolean seed() {
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(SEED_LOCK_KEY, "1", SEED_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            return false;
+        }
+        try {
+            return rebuildFromShards() > 0;
+        } finally {
+            redisTemplate.delete(SEED_LOCK_KEY);
+        }
+    }
+
+    private int rebuildFromShards() {
+        Map<String, List<Map<String, Object>>> rows = shardFanOut.onAllShards(shardKey -> jdbcTemplate
+                .queryForList("SELECT id, usage_count FROM skills WHERE is_active = TRUE AND usage_count > 0"));
+        Map<UUID, Long> totals = new HashMap<>();
+        rows.values().forEach(shardRows -> shardRows.forEach(row -> totals.merge((UUID) row.get("id"),
+                ((Number) row.get("usage_count")).longValue(), Long::sum)));
+        if (totals.isEmpty()) {
+            redisTemplate.delete(USAGE_KEY);
+            redisTemplate.opsForValue().set(SEEDED_KEY, "1");
+            return 0;
+        }
+
+        // Built aside and swapped in, so readers never see a partial set
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] rebuildKey = USAGE_REBUILD_KEY.getBytes(StandardCharsets.UTF_8);
+            connection.keyCommands().del(rebuildKey);
+            Set<Tuple> tuples = new HashSet<>();
+            totals.forEach((id, total) -> tuples.add(Tuple.of(id.toString().getBytes(StandardCharsets.UTF_8),
+                    total.doubleValue())));
+            connection.zSetCommands().zAdd(rebuildKey, tuples);
+            connection.keyCommands().rename(rebuildKey, USAGE_KEY.getBytes(StandardCharsets.UTF_8));
+            connection.stringCommands().set(SEEDED_KEY.getBytes(StandardCharsets.UTF_8),
+                    "1".getBytes(StandardCharsets.UTF_8));
+            return null;
+        });
+        return totals.size();
+    }
+
+    private static Map<UUID, Long> toCounts(Set<TypedTuple<String>> tuples) {
+        Map<UUID, Long> counts = new LinkedHashMap<>();
+        for (TypedTuple<String> tuple : tuples) {
+            if (tuple.getValue() != null && tuple.getScore() != null) {
+                counts.put(UUID.fromString(tuple.getValue()), tuple.getScore().longValue());
+            }
+        }
+        return counts;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
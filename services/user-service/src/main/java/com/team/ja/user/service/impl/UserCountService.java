@@ -0,0 +1,176 @@
+package com.team.ja.user.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.team.ja.user.config.sharding.ShardFanOut;
+import com.team.ja.user.config.sharding.ShardingProperties;
+import com.team.ja.user.dto.response.UserCountResponse;
+import com.team.ja.user.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-shard total/active user counters.
+ *
+ * Counters live in one Redis hash ({@code <shard>:total}, {@code <shard>:active})
+ * shared by all instances and are adjusted with HINCRBY after the owning
+ * transaction commits. Reading the totals is a single HGETALL. A scheduled
+ * reconcile overwrites the counters with COUNT(*) from each shard to correct
+ * any drift (e.g. a crash between commit and increment).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserCountService {
+
+    private static final String COUNTS_KEY = "user:counts";
+    private static final String TOTAL_SUFFIX = ":total";
+    private static final String ACTIVE_SUFFIX = ":active";
+
+    // Written by every full count; increments alone never make a shard trusted
+    private static final String SEEDED_SUFFIX = ":seeded";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ShardingProperties shardingProperties;
+    private final ShardFanOut shardFanOut;
+    private final UserRepository userRepository;
+
+    public record ShardCount(long total, long active) {
+    }
+
+    public void recordCreated(String shardKey) {
+        recordCreated(shardKey, 1);
+    }
+
+    public void recordCreated(String shardKey, long count) {
+        afterCommit(() -> {
+            increment(shardKey, TOTAL_SUFFIX, count);
+            increment(shardKey, ACTIVE_SUFFIX, count);
+        });
+    }
+
+    public void recordDeactivated(String shardKey) {
+        afterCommit(() -> increment(shardKey, ACTIVE_SUFFIX, -1));
+    }
+
+    public void recordReactivated(String shardKey) {
+        afterCommit(() -> increment(shardKey, ACTIVE_SUFFIX, 1));
+    }
+
+    public void recordMoved(String sourceShardKey, String targetShardKey, boolean active) {
+        recordMoved(sourceShardKey, targetShardKey, 1, active ? 1 : 0);
+    }
+
+    public void recordMoved(String sourceShardKey, String targetShardKey, long total, long active) {
+        afterCommit(() -> {
+            increment(sourceShardKey, TOTAL_SUFFIX, -total);
+            increment(targetShardKey, TOTAL_SUFFIX, total);
+            if (active > 0) {
+                increment(sourceShardKey, ACTIVE_SUFFIX, -active);
+                increment(targetShardKey, ACTIVE_SUFFIX, active);
+            }
+        });
+    }
+
+    /**
+     * Returns the counters of every configured shard. Shards that have no
+     * counters yet (fresh Redis) are counted from the database once.
+     */
+    public Map<String, ShardCount> getShardCounts() {
+        Map<Object, Object> raw = redisTemplate.opsForHash().entries(COUNTS_KEY);
+
+        Map<String, ShardCount> counts = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String shardKey : shardingProperties.getShards().keySet()) {
+            Object total = raw.get(shardKey + TOTAL_SUFFIX);
+            Object active = raw.get(shardKey + ACTIVE_SUFFIX);
+            if (total == null || active == null || !raw.containsKey(shardKey + SEEDED_SUFFIX)) {
+                missing.add(shardKey);
+            } else {
+                counts.put(shardKey, new ShardCount(Long.parseLong(total.toString()),
+                        Long.parseLong(active.toString())));
+            }
+        }
+        if (!missing.isEmpty()) {
+            counts.putAll(countAndStore(missing));
+        }
+        return counts;
+    }
+
+    public UserCountResponse getUserCounts() {
+        Map<String, ShardCount> counts = getShardCounts();
+        Map<String, Long> activeByShard = new LinkedHashMap<>();
+        long total = 0;
+        long active = 0;
+        for (Map.Entry<String, ShardCount> entry : counts.entrySet()) {
+            total += entry.getValue().total();
+            active += entry.getValue().active();
+            activeByShard.put(entry.getKey(), entry.getValue().active());
+        }
+        return UserCountResponse.builder()
+                .totalUsers(total)
+                .activeUsers(active)
+                .activeUsersByShard(activeByShard)
+                .build();
+    }
+
+    /**
+     * Overwrites the counters with exact counts from every shard.
+     */
+    @Scheduled(initialDelayString = "${sharding.counters.reconcile-interval:PT15M}", fixedDelayString = "${sharding.counters.reconcile-interval:PT15M}")
+    public void reconcile() {
+        try {
+            Map<String, ShardCount> counts = countAndStore(shardingProperties.getShards().keySet());
+            log.info("Reconciled user counters for {} shard(s)", counts.size());
+        } catch (Exception e) {
+            log.error("Failed to reconcile user counters", e);
+        }
+    }
+
+    private Map<String, ShardCount> countAndStore(Collection<String> shardKeys) {
+        Map<String, ShardCount> counts = shardFanOut.onShards(shardKeys,
+                shardKey -> new ShardCount(userRepository.count(), userRepository.countByIsActiveTrue()));
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        counts.forEach((shardKey, count) -> {
+            fields.put(shardKey + TOTAL_SUFFIX, Long.toString(count.total()));
+            fields.put(shardKey + ACTIVE_SUFFIX, Long.toString(count.active()));
+            fields.put(shardKey + SEEDED_SUFFIX, "1");
+        });
+        redisTemplate.opsForHash().putAll(COUNTS_KEY, fields);
+        return counts;
+    }
+
+    private void increment(String shardKey, String suffix, long delta) {
+        try {
+            redisTemplate.opsForHash().increment(COUNTS_KEY, shardKey + suffix, delta);
+        } catch (Exception e) {
+            // The next reconcile corrects the counter
+            log.error("Failed to update user counter {}{}", shardKey, suffix, e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
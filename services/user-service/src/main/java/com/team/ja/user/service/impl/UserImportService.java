@@ -0,0 +1,418 @@
+package com.team.ja.user.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team.ja.common.exception.BadRequestException;
+import com.team.ja.user.config.sharding.ShardMap;
+import com.team.ja.user.config.sharding.ShardMapService;
+import com.team.ja.user.config.sharding.ShardMembershipFilter;
+import com.team.ja.user.dto.request.UserImportRow;
+import com.team.ja.user.dto.response.UserImportResponse;
+import com.team.ja.user.util.CsvRecordReader;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk creation of users from a CSV or NDJSON stream, for onboarding partner
+ * data.
+ *
+ * The input is read one row at a time. Each valid row is placed with the
+ * shard map like a user created through the API, and rows are buffered per
+ * shard. A full buffer is loaded in one transaction: rows are streamed into a
+ * temporary table with {@code COPY} over the shard's own pool, then moved into
+ * {@code users} with a single {@code INSERT ... SELECT} that also computes
+ * {@code fts_document} for the whole chunk and skips emails that already
+ * exist. The shard directory entries of the new users are written to Redis
+ * in one pipeline per chunk.
+ *
+ * Chunks commit independently; a failed chunk is reported and the import
+ * goes on with the rest.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String CREATE_STAGING = "CREATE TEMP TABLE user_import_staging ("
+            + "id UUID, email VARCHAR(255), first_name VARCHAR(255), last_name VARCHAR(255), phone VARCHAR(50), "
+            + "country_id UUID, city VARCHAR(100), address VARCHAR(255), objective_summary TEXT) ON COMMIT DROP";
+
+    private static final String COPY_STAGING = "COPY user_import_staging (id, email, first_name, last_name, phone, "
+            + "country_id, city, address, objective_summary) FROM STDIN WITH (FORMAT csv)";
+
+    // Same document as update_users_fts_document(), computed for the whole chunk
+    private static final String INSERT_FROM_STAGING = "INSERT INTO users (id, email, first_name, last_name, phone, "
+            + "country_id, city, address, objective_summary, fts_document, is_active, is_premium, created_at, updated_at) "
+            + "SELECT DISTINCT ON (email) id, email, first_name, last_name, phone, country_id, city, address, "
+            + "objective_summary, "
+            + "setweight(to_tsvector('english', coalesce(first_name, '')), 'A') || "
+            + "setweight(to_tsvector('english', coalesce(last_name, '')), 'A') || "
+            + "setweight(to_tsvector('english', coalesce(address, '')), 'B') || "
+            + "setweight(to_tsvector('english', coalesce(city, '')), 'B') || "
+            + "setweight(to_tsvector('english', coalesce(objective_summary, '')), 'B'), "
+            + "TRUE, FALSE, LOCALTIMESTAMP, LOCALTIMESTAMP "
+            + "FROM user_import_staging ORDER BY email "
+            + "ON CONFLICT DO NOTHING RETURNING id, email";
+
+    private final ShardMapService shardMapService;
+    private final Map<String, DataSource> shardDataSources;
+    private final ShardMembershipFilter membershipFilter;
+    private final ShardLookupService shardLookupService;
+    private final UserCountService userCountService;
+    private final CountryRegistry countryRegistry;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public UserImportService(ShardMapService shardMapService,
+            @Qualifier("shardGuardedDataSources") Map<String, DataSource> shardDataSources,
+            ShardMembershipFilter membershipFilter, ShardLookupService shardLookupService,
+            UserCountService userCountService, CountryRegistry countryRegistry, ObjectMapper objectMapper,
+            @Value("${user-import.chunk-size:5000}") int chunkSize) {
+        this.shardMapService = shardMapService;
+        this.shardDataSources = shardDataSources;
+        this.membershipFilter = membershipFilter;
+        this.shardLookupService = shardLookupService;
+        this.userCountService = userCountService;
+        this.countryRegistry = countryRegistry;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    private record PendingUser(UUID id, UserImportRow row, UUID countryId) {
+    }
+
+    private static final class Progress {
+        long received;
+        long imported;
+        long duplicates;
+        long rejected;
+        final Map<String, Long> importedByShard = new TreeMap<>();
+        final List<String> errors = new ArrayList<>();
+
+        void reject(String error) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    public UserImportResponse importUsers(InputStream input, Format format) throws IOException {
+        Map<String, UUID> countryIds = loadCountryIds();
+        ShardMap shardMap = shardMapService.current();
+        Progress progress = new Progress();
+        Map<String, List<PendingUser>> partitions = new HashMap<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowReader rows = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+        long rowNumber = 0;
+        UserImportRow row;
+        while ((row = rows.next(++rowNumber, progress)) != RowReader.END) {
+            if (row == null) {
+                continue;
+            }
+            progress.received++;
+            String error = validate(row, countryIds);
+            if (error != null) {
+                progress.reject("Row " + rowNumber + ": " + error);
+                continue;
+            }
+
+            String countryIso = row.getCountry() == null ? null : row.getCountry().toUpperCase(Locale.ROOT);
+            ShardMap.Placement placement = shardMap.newUser(countryIso);
+            List<PendingUser> partition = partitions.computeIfAbsent(placement.shard(), shard -> new ArrayList<>());
+            partition.add(new PendingUser(placement.userId(), row,
+                    countryIso == null ? null : countryIds.get(countryIso)));
+            if (partition.size() >= chunkSize) {
+                flush(placement.shard(), partition, progress);
+                partition.clear();
+            }
+        }
+        partitions.forEach((shard, partition) -> flush(shard, partition, progress));
+
+        log.info("Imported {} of {} user(s): {} duplicate(s), {} rejected", progress.imported, progress.received,
+                progress.duplicates, progress.rejected);
+        return UserImportResponse.builder()
+                .received(progress.received)
+                .imported(progress.imported)
+                .duplicates(progress.duplicates)
+                .rejected(progress.rejected)
+                .importedByShard(progress.importedByShard)
+                .errors(progress.errors)
+                .build();
+    }
+
+    private void flush(String shard, List<PendingUser> users, Progress progress) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> existing = emailsOnOtherShards(shard, users);
+            List<PendingUser> fresh = users.stream()
+                    .filter(user -> !existing.contains(user.row().getEmail()))
+                    .toList();
+            Map<UUID, String> inserted = fresh.isEmpty() ? Map.of() : copyIntoShard(shard, fresh);
+
+            if (!inserted.isEmpty()) {
+                shardLookupService.cacheUserShards(inserted, shard);
+                userCountService.recordCreated(shard, inserted.size());
+            }
+            progress.imported += inserted.size();
+            progress.duplicates += users.size() - inserted.size();
+            progress.importedByShard.merge(shard, (long) inserted.size(), Long::sum);
+            log.info("Imported {} of {} user(s) into shard {}", inserted.size(), users.size(), shard);
+        } catch (Exception e) {
+            log.error("Failed to import {} user(s) into shard {}", users.size(), shard, e);
+            progress.rejected += users.size();
+            if (progress.errors.size() < MAX_REPORTED_ERRORS) {
+                progress.errors.add(users.size() + " user(s) for shard " + shard + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private Map<UUID, String> copyIntoShard(String shard, List<PendingUser> users) throws SQLException, IOException {
+        try (Connection connection = shardDataSources.get(shard).getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_STAGING);
+                }
+                connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_STAGING, new StringReader(toCsv(users)));
+
+                Map<UUID, String> inserted = new LinkedHashMap<>();
+                try (Statement statement = connection.createStatement();
+                        ResultSet rs = statement.executeQuery(INSERT_FROM_STAGING)) {
+                    while (rs.next()) {
+                        inserted.put(rs.getObject(1, UUID.class), rs.getString(2));
+                    }
+                }
+                connection.commit();
+                return inserted;
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Emails of {@code users} that already belong to a user on another shard.
+     * Only shards whose membership filter may contain an email are queried,
+     * once per shard for the whole chunk.
+     */
+    private Set<String> emailsOnOtherShards(String shard, List<PendingUser> users) throws SQLException {
+        List<String> otherShards = shardDataSources.keySet().stream()
+                .filter(other -> !other.equals(shard))
+                .toList();
+        // Filter additions reach other instances over pub/sub and may be lost,
+        // so a filter miss is only trusted once the directory misses too
+        Map<String, String> directory = shardLookupService.getCachedShardsByEmail(
+                users.stream().map(user -> user.row().getEmail()).toList());
+        Map<String, List<String>> candidates = new HashMap<>();
+        for (PendingUser user : users) {
+            String email = user.row().getEmail();
+            Set<String> shards = new LinkedHashSet<>(membershipFilter.candidateShardsForEmail(email, otherShards));
+            String directoryShard = directory.get(email);
+            if (directoryShard != null && otherShards.contains(directoryShard)) {
+                shards.add(directoryShard);
+            }
+            shards.forEach(candidate -> candidates.computeIfAbsent(candidate, s -> new ArrayList<>()).add(email));
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (Map.Entry<String, List<String>> entry : candidates.entrySet()) {
+            try (Connection connection = shardDataSources.get(entry.getKey()).getConnection();
+                    PreparedStatement statement = connection
+                            .prepareStatement("SELECT email FROM users WHERE email = ANY(?)")) {
+                statement.setArray(1, connection.createArrayOf("varchar", entry.getValue().toArray()));
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        existing.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static String toCsv(List<PendingUser> users) {
+        StringBuilder csv = new StringBuilder(users.size() * 256);
+        for (PendingUser user : users) {
+            UserImportRow row = user.row();
+            appendCsv(csv, user.id().toString()).append(',');
+            appendCsv(csv, row.getEmail()).append(',');
+            appendCsv(csv, row.getFirstName()).append(',');
+            appendCsv(csv, row.getLastName()).append(',');
+            appendCsv(csv, row.getPhone()).append(',');
+            appendCsv(csv, user.countryId() == null ? null : user.countryId().toString()).append(',');
+            appendCsv(csv, row.getCity()).append(',');
+            appendCsv(csv, row.getAddress()).append(',');
+            appendCsv(csv, row.getObjectiveSummary()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    // Unquoted empty is NULL in COPY's CSV format, so every value is quoted
+    private static StringBuilder appendCsv(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private String validate(UserImportRow row, Map<String, UUID> countryIds) {
+        if (row.getEmail() == null || !row.getEmail().contains("@")) {
+            return "a valid email is required";
+        }
+        if (row.getFirstName() == null || row.getLastName() == null) {
+            return "first name and last name are required";
+        }
+        if (row.getEmail().length() > 255 || row.getFirstName().length() > 255 || row.getLastName().length() > 255) {
+            return "email and names must not exceed 255 characters";
+        }
+        if ((row.getPhone() != null && row.getPhone().length() > 50)
+                || (row.getCity() != null && row.getCity().length() > 100)
+                || (row.getAddress() != null && row.getAddress().length() > 255)) {
+            return "phone, city or address is too long";
+        }
+        if (row.getCountry() != null && !countryIds.containsKey(row.getCountry().toUpperCase(Locale.ROOT))) {
+            return "unknown country " + row.getCountry();
+        }
+        return null;
+    }
+
+    private Map<String, UUID> loadCountryIds() {
+        Map<String, UUID> countryIds = new HashMap<>();
+        countryRegistry.findActive()
+                .forEach(country -> countryIds.put(country.abbreviation().toUpperCase(Locale.ROOT), country.id()));
+        return countryIds;
+    }
+
+    /**
+     * Source of import rows. {@link #next} returns the next row, null for a
+     * row that was rejected (and recorded in the progress) or blank, and
+     * {@link #END} at the end of the input.
+     */
+    @FunctionalInterface
+    private interface RowReader {
+        UserImportRow END = new UserImportRow();
+
+        UserImportRow next(long rowNumber, Progress progress) throws IOException;
+    }
+
+    private RowReader ndjsonRows(BufferedReader reader) {
+        return (rowNumber, progress) -> {
+            String line = reader.readLine();
+            if (line == null) {
+                return RowReader.END;
+            }
+            if (line.isBlank()) {
+                return null;
+            }
+            try {
+                return normalize(objectMapper.readValue(line, UserImportRow.class));
+            } catch (JsonProcessingException e) {
+                progress.received++;
+                progress.reject("Row " + rowNumber + ": not a valid JSON object");
+                return null;
+            }
+        };
+    }
+
+    private RowReader csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new BadRequestException("CSV input must start with a header row", "INVALID_IMPORT");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replaceAll("[_\\-\\s]", "").toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("email")) {
+            throw new BadRequestException("CSV header must contain an email column", "INVALID_IMPORT");
+        }
+
+        return (rowNumber, progress) -> {
+            List<String> fields = csv.next();
+            if (fields == null) {
+                return RowReader.END;
+            }
+            if (fields.stream().allMatch(String::isBlank)) {
+                return null;
+            }
+            return normalize(UserImportRow.builder()
+                    .email(field(fields, columns, "email"))
+                    .firstName(field(fields, columns, "firstname"))
+                    .lastName(field(fields, columns, "lastname"))
+                    .phone(field(fields, columns, "phone"))
+                    .country(field(fields, columns, "country"))
+                    .city(field(fields, columns, "city"))
+                    .address(field(fields, columns, "address"))
+                    .objectiveSummary(field(fields, columns, "objectivesummary"))
+                    .build());
+        };
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    // Trims every value and turns blanks into nulls
+    private static UserImportRow normalize(UserImportRow row) {
+        row.setEmail(trimToNull(row.getEmail()));
+        row.setFirstName(trimToNull(row.getFirstName()));
+        row.setLastName(trimToNull(row.getLastName()));
+        row.setPhone(trimToNull(row.getPhone()));
+        row.setCountry(trimToNull(row.getCountry()));
+        row.setCity(trimToNull(row.getCity()));
+        row.setAddress(trimToNull(row.getAddress()));
+        row.setObjectiveSummary(trimToNull(row.getObjectiveSummary()));
+        return row;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
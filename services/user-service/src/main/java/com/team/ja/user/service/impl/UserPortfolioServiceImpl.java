@@ -7,7 +7,7 @@ import com.team.ja.common.exception.UnsupportedFileTypeException;
 import com.team.ja.common.exception.ForbiddenException;
 import com.team.ja.common.exception.NotFoundException;
 import com.team.ja.user.config.S3FileService;
-import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.config.sharding.ShardedBy;
 import com.team.ja.user.dto.response.UserPortfolioItemResponse;
 import com.team.ja.user.mapper.UserPortfolioItemMapper;
 import com.team.ja.user.model.User;
@@ -35,25 +35,22 @@ public class UserPortfolioServiceImpl implements UserPortfolioService {
     private final UserPortfolioItemRepository portfolioItemRepository;
     private final S3FileService s3FileService;
     private final UserPortfolioItemMapper portfolioItemMapper;
-    private final ShardLookupService shardLookupService;
 
     private static final List<String> SUPPORTED_MEDIA_TYPES = List.of("image/jpeg", "image/png", "image/gif",
             "video/mp4");
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10 MB
 
     @Override
+    @ShardedBy("userId")
     public UserPortfolioItemResponse uploadItem(UUID userId, MultipartFile file, String description) {
         log.info("Uploading portfolio item for user {}", userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
+        try {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
 
-        validateFile(file);
+            validateFile(file);
 
-        try {
             String fileUrl = s3FileService.uploadFile(file, "portfolio/" + userId);
 
             UserPortfolioItem item = UserPortfolioItem.builder()
@@ -69,51 +66,37 @@ public class UserPortfolioServiceImpl implements UserPortfolioService {
         } catch (IOException e) {
             log.error("Failed to upload portfolio item for user {}: {}", userId, e.getMessage());
             throw new StorageException("Could not store file. Please try again.", e);
-        } finally {
-            ShardContext.clear();
         }
     }
 
     @Override
+    @ShardedBy("userId")
     public void deleteItem(UUID userId, UUID itemId) {
         log.info("Deleting portfolio item {} for user {}", itemId, userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
+        UserPortfolioItem item = portfolioItemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Portfolio item", "id", itemId.toString()));
 
-        try {
-            UserPortfolioItem item = portfolioItemRepository.findById(itemId)
-                    .orElseThrow(() -> new NotFoundException("Portfolio item", "id", itemId.toString()));
-
-            if (!item.getUser().getId().equals(userId)) {
-                throw new ForbiddenException("You are not authorized to delete this portfolio item.");
-            }
-
-            s3FileService.deleteFile(item.getFileUrl());
-            portfolioItemRepository.delete(item);
-            log.info("Successfully deleted portfolio item {}", itemId);
-        } finally {
-            ShardContext.clear();
+        if (!item.getUser().getId().equals(userId)) {
+            throw new ForbiddenException("You are not authorized to delete this portfolio item.");
         }
+
+        s3FileService.deleteFile(item.getFileUrl());
+        portfolioItemRepository.delete(item);
+        log.info("Successfully deleted portfolio item {}", itemId);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @ShardedBy("userId")
     public List<UserPortfolioItemResponse> getItemsForUser(UUID userId) {
         log.info("Fetching portfolio items for user {}", userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
-        try {
-            if (!userRepository.existsById(userId)) {
-                throw new NotFoundException("User", "id", userId.toString());
-            }
-            List<UserPortfolioItem> items = portfolioItemRepository.findByUserId(userId);
-            return portfolioItemMapper.toResponseList(items);
-        } finally {
-            ShardContext.clear();
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User", "id", userId.toString());
         }
+        List<UserPortfolioItem> items = portfolioItemRepository.findByUserId(userId);
+        return portfolioItemMapper.toResponseList(items);
     }
 
     private void validateFile(MultipartFile file) {
@@ -3,10 +3,8 @@ package com.team.ja.user.service.impl;
 import com.team.ja.common.event.KafkaTopics;
 import com.team.ja.common.event.UserProfileCreateEvent;
 import com.team.ja.common.event.UserRegisteredEvent;
-import com.team.ja.user.model.Country;
 import com.team.ja.user.model.User;
 import com.team.ja.user.model.UserSearchProfile;
-import com.team.ja.user.repository.CountryRepository;
 import com.team.ja.user.repository.UserRepository;
 import com.team.ja.user.repository.UserSearchProfileRepository;
 import lombok.RequiredArgsConstructor;
@@ -22,10 +20,11 @@ import java.util.UUID;
 public class UserProfileRegistrationService {
 
     private final UserRepository userRepository;
-    private final CountryRepository countryRepository;
+    private final CountryRegistry countryRegistry;
     private final UserSearchProfileRepository userSearchProfileRepository;
     private final KafkaTemplate<String, UserProfileCreateEvent> kafkaTemplate;
     private final ShardLookupService shardLookupService;
+    private final UserCountService userCountService;
 
     @Transactional
     public void saveProfileInShard(UserRegisteredEvent event, String shardKey) {
@@ -38,8 +37,8 @@ public class UserProfileRegistrationService {
         String countryCode = event.getCountryAbbreviation();
 
         if (countryCode != null && !countryCode.isBlank()) {
-            countryId = countryRepository.findByAbbreviationIgnoreCase(countryCode)
-                    .map(Country::getId).orElse(null);
+            countryId = countryRegistry.findByAbbreviation(countryCode)
+                    .map(CountryRegistry.CountryEntry::id).orElse(null);
         }
 
         User user = User.builder()
@@ -58,6 +57,7 @@ public class UserProfileRegistrationService {
         // Cache the shard location for this user immediately
         shardLookupService.cachedUserIdShard(user.getId(), shardKey);
         shardLookupService.cachedUserEmailShard(user.getEmail(), shardKey);
+        userCountService.recordCreated(shardKey);
         
         log.info("User saved for userId: {}", event.getUserId());
 
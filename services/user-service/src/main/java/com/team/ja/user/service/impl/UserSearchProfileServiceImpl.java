@@ -1,6 +1,8 @@
 package com.team.ja.user.service.impl;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -14,13 +16,15 @@ import com.team.ja.common.event.KafkaTopics;
 import com.team.ja.common.event.UserProfileCreateEvent;
 import com.team.ja.common.event.UserSearchProfileUpdateEvent;
 import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.config.sharding.ShardedBy;
+import com.team.ja.user.config.sharding.ShardFanOut;
 import com.team.ja.user.dto.request.CreateSearchProfile;
 import com.team.ja.user.dto.request.UpdateSearchProfile;
 import com.team.ja.user.dto.response.UserSearchProfileEmploymentResponse;
 import com.team.ja.user.dto.response.UserSearchProfileJobTitleResponse;
 import com.team.ja.user.dto.response.UserSearchProfileResponse;
 import com.team.ja.user.dto.response.UserSearchProfileSkillResponse;
-import com.team.ja.user.model.Country;
+import com.team.ja.user.kafka.UserSearchProfileUpdateProducer;
 import com.team.ja.user.model.User;
 import com.team.ja.user.model.UserEducation;
 import com.team.ja.user.model.UserSearchProfile;
@@ -28,7 +32,6 @@ import com.team.ja.user.model.UserSearchProfileEmploymentStatus;
 import com.team.ja.user.model.UserSearchProfileJobTitle;
 import com.team.ja.user.model.UserSearchProfileSkill;
 import com.team.ja.user.model.UserSkill;
-import com.team.ja.user.repository.CountryRepository;
 import com.team.ja.user.repository.UserEducationRepository;
 import com.team.ja.user.repository.UserRepository;
 import com.team.ja.user.repository.UserSearchProfileEmploymentRepository;
@@ -49,12 +52,12 @@ import lombok.extern.slf4j.Slf4j;
 public class UserSearchProfileServiceImpl implements UserSearchProfileService {
 
         private final UserSearchProfileRepository userSearchProfileRepository;
-        private final CountryRepository countryRepository;
-        private final ShardLookupService shardLookupService;
+        private final CountryRegistry countryRegistry;
+        private final ShardFanOut shardFanOut;
         private final UserSearchProfileSkillRepository userSearchProfileSkillRepository;
         private final UserSearchProfileEmploymentRepository userSearchProfileEmploymentRepository;
         private final UserSearchProfileJobTitleRepository userSearchProfileJobTitleRepository;
-        private final KafkaTemplate<String, UserSearchProfileUpdateEvent> userSearchProfileUpdateKafkaTemplate;
+        private final UserSearchProfileUpdateProducer userSearchProfileUpdateProducer;
         private final KafkaTemplate<String, UserProfileCreateEvent> userProfileCreateKafkaTemplate;
 
         // For getting Kafka for JM
@@ -64,6 +67,7 @@ public class UserSearchProfileServiceImpl implements UserSearchProfileService {
 
         @Override
         @Transactional
+        @ShardedBy("userId")
         public UserSearchProfileResponse createUserSearchProfile(CreateSearchProfile request, UUID userId) {
 
                 log.info("Creating user search profile with request: {} for user: {}", request, userId);
@@ -75,7 +79,7 @@ public class UserSearchProfileServiceImpl implements UserSearchProfileService {
                 }
 
                 if (request.getCountryAbbreviation() != null) {
-                        countryRepository.findByAbbreviationIgnoreCaseAndIsActiveTrue(request.getCountryAbbreviation())
+                        countryRegistry.findActiveByAbbreviation(request.getCountryAbbreviation())
                                         .orElseThrow(
                                                         () -> new IllegalArgumentException(
                                                                         "Country with abbreviation "
@@ -83,323 +87,284 @@ public class UserSearchProfileServiceImpl implements UserSearchProfileService {
                                                                                         + " does not exist or is inactive."));
                 }
 
-                // Get shard key to store the user search profile in the correct database shard
-                String shardKey = shardLookupService.findShardIdByUserId(userId);
-                log.info("Determined shard key: {} for user ID: {}", shardKey, userId);
-                ShardContext.setShardKey(shardKey);
+                UserSearchProfile userSearchProfile = UserSearchProfile.builder()
+                                .userId(userId)
+                                .salaryMin(request.getSalaryMin())
+                                .salaryMax(request.getSalaryMax())
+                                .isFresher(false)
+                                .countryAbbreviation(request.getCountryAbbreviation())
+                                .educationLevel(request.getEducationLevel())
+                                .build();
 
-                try {
-                        UserSearchProfile userSearchProfile = UserSearchProfile.builder()
-                                        .userId(userId)
-                                        .salaryMin(request.getSalaryMin())
-                                        .salaryMax(request.getSalaryMax())
-                                        .isFresher(false)
-                                        .countryAbbreviation(request.getCountryAbbreviation())
-                                        .educationLevel(request.getEducationLevel())
-                                        .build();
+                UserSearchProfile savedProfile = userSearchProfileRepository.save(userSearchProfile);
 
-                        UserSearchProfile savedProfile = userSearchProfileRepository.save(userSearchProfile);
+                UserSearchProfile searchProfile = userSearchProfileRepository.findByUserId(userId)
+                                .orElseThrow(
+                                                () -> new IllegalArgumentException(
+                                                                "User search profile not found for user ID: "
+                                                                                + userId));
 
-                        UserSearchProfile searchProfile = userSearchProfileRepository.findByUserId(userId)
-                                        .orElseThrow(
-                                                        () -> new IllegalArgumentException(
-                                                                        "User search profile not found for user ID: "
-                                                                                        + userId));
-
-                        UserSearchProfile profile = userSearchProfileRepository.findById(searchProfile.getId())
-                                        .orElse(null);
-
-                        Optional<User> user = userRepository.findById(profile.getUserId());
-                        String countryAbbreviation = null;
-                        if (user.isPresent() && user.get().getCountryId() != null) {
-                                countryAbbreviation = countryRepository.findById(user.get().getCountryId())
-                                                .map(c -> c.getAbbreviation())
-                                                .orElse(null);
-                        }
-                        List<UserEducation> educationLevel = userEducationRepository
-                                        .findByUserIdOrderByEducationLevelRankDesc(profile.getUserId());
-
-                        List<EmploymentType> employmentTypes = userSearchProfileEmploymentRepository
-                                        .findByUserSearchProfileIdAndIsActiveTrue(profile.getId())
-                                        .stream()
-                                        .map(ute -> ute.getEmploymentType())
-                                        .collect(Collectors.toList());
-
-                        List<String> jobTitles = userSearchProfileJobTitleRepository
-                                        .findByUserSearchProfileIdAndIsActiveTrue(userSearchProfile.getId())
-                                        .stream()
-                                        .map(utj -> utj.getJobTitle())
-                                        .collect(Collectors.toList());
-
-                        List<UserSkill> allUserSkillIds = userSkillRepository
-                                        .findByUserIdAndIsActiveTrue(userSearchProfile.getUserId());
-
-                        UserProfileCreateEvent profileCreateEvent = UserProfileCreateEvent.builder()
-                                        .userId(userId)
-                                        .countryAbbreviation(request.getCountryAbbreviation())
-                                        .educationLevel(
-                                                        request.getEducationLevel() != null
-                                                                        ? request.getEducationLevel().name()
-                                                                        : null)
-                                        .skillIds(allUserSkillIds.stream()
-                                                        .map(UserSkill::getId)
-                                                        .collect(Collectors.toList()))
-                                        .minSalary(request.getSalaryMin())
-                                        .maxSalary(request.getSalaryMax())
-                                        .employmentTypes(profile.getEmploymentStatus().stream()
-                                                        .map(UserSearchProfileEmploymentStatus::getEmploymentType)
-                                                        .map(EmploymentType::name)
-                                                        .collect(Collectors.toList()))
-                                        .jobTitles(profile.getJobTitle().stream()
-                                                        .map(UserSearchProfileJobTitle::getJobTitle)
-                                                        .collect(Collectors.toList()))
-                                        .isFresher(false)
-                                        .build();
-
-                        userProfileCreateKafkaTemplate.send(KafkaTopics.USER_PROFILE_CREATE, profileCreateEvent)
-                                        .whenComplete((result, ex) -> {
-                                                if (ex == null) {
-                                                        log.info("Sent UserProfileCreateEvent for user {} [partition: {}, offset: {}]",
-                                                                        profile.getUserId(),
-                                                                        result.getRecordMetadata().partition(),
-                                                                        result.getRecordMetadata().offset());
-                                                } else {
-                                                        log.error("Failed to send UserProfileCreateEvent for user {}",
-                                                                        profile.getUserId(), ex);
-                                                }
-                                        });
-
-                        log.info("User search profile saved: {}", savedProfile);
-
-                } finally {
-                        ShardContext.clear();
+                UserSearchProfile profile = userSearchProfileRepository.findById(searchProfile.getId())
+                                .orElse(null);
+
+                Optional<User> user = userRepository.findById(profile.getUserId());
+                String countryAbbreviation = null;
+                if (user.isPresent() && user.get().getCountryId() != null) {
+                        countryAbbreviation = countryRegistry.abbreviationOf(user.get().getCountryId());
                 }
+                List<UserEducation> educationLevel = userEducationRepository
+                                .findByUserIdOrderByEducationLevelRankDesc(profile.getUserId());
+
+                List<EmploymentType> employmentTypes = userSearchProfileEmploymentRepository
+                                .findByUserSearchProfileIdAndIsActiveTrue(profile.getId())
+                                .stream()
+                                .map(ute -> ute.getEmploymentType())
+                                .collect(Collectors.toList());
+
+                List<String> jobTitles = userSearchProfileJobTitleRepository
+                                .findByUserSearchProfileIdAndIsActiveTrue(userSearchProfile.getId())
+                                .stream()
+                                .map(utj -> utj.getJobTitle())
+                                .collect(Collectors.toList());
+
+                List<UserSkill> allUserSkillIds = userSkillRepository
+                                .findByUserIdAndIsActiveTrue(userSearchProfile.getUserId());
+
+                UserProfileCreateEvent profileCreateEvent = UserProfileCreateEvent.builder()
+                                .userId(userId)
+                                .countryAbbreviation(request.getCountryAbbreviation())
+                                .educationLevel(
+                                                request.getEducationLevel() != null
+                                                                ? request.getEducationLevel().name()
+                                                                : null)
+                                .skillIds(allUserSkillIds.stream()
+                                                .map(UserSkill::getId)
+                                                .collect(Collectors.toList()))
+                                .minSalary(request.getSalaryMin())
+                                .maxSalary(request.getSalaryMax())
+                                .employmentTypes(profile.getEmploymentStatus().stream()
+                                                .map(UserSearchProfileEmploymentStatus::getEmploymentType)
+                                                .map(EmploymentType::name)
+                                                .collect(Collectors.toList()))
+                                .jobTitles(profile.getJobTitle().stream()
+                                                .map(UserSearchProfileJobTitle::getJobTitle)
+                                                .collect(Collectors.toList()))
+                                .isFresher(false)
+                                .build();
+
+                userProfileCreateKafkaTemplate.send(KafkaTopics.USER_PROFILE_CREATE, profileCreateEvent)
+                                .whenComplete((result, ex) -> {
+                                        if (ex == null) {
+                                                log.info("Sent UserProfileCreateEvent for user {} [partition: {}, offset: {}]",
+                                                                profile.getUserId(),
+                                                                result.getRecordMetadata().partition(),
+                                                                result.getRecordMetadata().offset());
+                                        } else {
+                                                log.error("Failed to send UserProfileCreateEvent for user {}",
+                                                                profile.getUserId(), ex);
+                                        }
+                                });
+
+                userSearchProfileUpdateProducer.sendChangedAfterCommit(userId);
+                log.info("User search profile saved: {}", savedProfile);
 
                 return getUserSearchProfileByUserId(userId);
 
         }
 
         @Override
+        @ShardedBy("userId")
         public UserSearchProfileResponse getUserSearchProfileByUserId(UUID userId) {
                 log.info("Retrieving user search profile for user ID: {}", userId);
 
-                String shardKey = shardLookupService.findShardIdByUserId(userId);
-                log.info("Determined shard key: {} for user ID: {}", shardKey, userId);
-                ShardContext.setShardKey(shardKey);
+                UserSearchProfile profile = userSearchProfileRepository.findByUserId(userId)
+                                .orElseThrow(
+                                                () -> new IllegalArgumentException(
+                                                                "User search profile not found for user ID: "
+                                                                                + userId));
+
+                log.info("Retrieved user search profile: {}", profile);
+                List<UserSearchProfileSkill> skill = userSearchProfileSkillRepository
+                                .findByUserSearchProfileIdAndIsActiveTrue(profile.getId());
+                List<UserSearchProfileEmploymentStatus> employment = userSearchProfileEmploymentRepository
+                                .findByUserSearchProfileIdAndIsActiveTrue(profile.getId());
+                List<UserSearchProfileJobTitle> jobTitles = userSearchProfileJobTitleRepository
+                                .findByUserSearchProfileIdAndIsActiveTrue(profile.getId());
+
+                List<UserSearchProfileSkillResponse> skillResponses = skill.stream().map(s -> {
+                        UserSearchProfileSkillResponse skillResponse = new UserSearchProfileSkillResponse();
+                        skillResponse.setSkillName(s.getSkill().getNormalizedName());
+                        skillResponse.setSkillId(s.getSkill().getId());
+                        return skillResponse;
+                }).toList();
+
+                List<UserSearchProfileEmploymentResponse> employmentResponses = employment.stream().map(e -> {
+                        UserSearchProfileEmploymentResponse employmentResponse = new UserSearchProfileEmploymentResponse();
+                        employmentResponse.setEmploymentTypeId(e.getId());
+                        employmentResponse.setEmploymentType(e.getEmploymentType());
+                        return employmentResponse;
+                }).toList();
+
+                List<UserSearchProfileJobTitleResponse> jobTitleResponses = jobTitles.stream().map(j -> {
+                        UserSearchProfileJobTitleResponse jobTitleResponse = new UserSearchProfileJobTitleResponse();
+                        jobTitleResponse.setJobTitle(j.getJobTitle());
+                        jobTitleResponse.setJobTitleId(j.getId());
+                        return jobTitleResponse;
+                }).toList();
+
+                UserSearchProfileResponse response = UserSearchProfileResponse.builder()
+                                .searchProfileId(profile.getId())
+                                .userId(profile.getUserId())
+                                .salaryMin(profile.getSalaryMin())
+                                .salaryMax(profile.getSalaryMax())
+                                .countryAbbreviation(profile.getCountryAbbreviation())
+                                .isFresher(profile.getIsFresher())
+                                .educationLevel(profile.getEducationLevel())
+                                .skills(skillResponses)
+                                .employments(employmentResponses)
+                                .jobTitles(jobTitleResponses)
+                                .build();
 
-                try {
-                        UserSearchProfile profile = userSearchProfileRepository.findByUserId(userId)
-                                        .orElseThrow(
-                                                        () -> new IllegalArgumentException(
-                                                                        "User search profile not found for user ID: "
-                                                                                        + userId));
-
-                        log.info("Retrieved user search profile: {}", profile);
-                        List<UserSearchProfileSkill> skill = userSearchProfileSkillRepository
-                                        .findByUserSearchProfileIdAndIsActiveTrue(profile.getId());
-                        List<UserSearchProfileEmploymentStatus> employment = userSearchProfileEmploymentRepository
-                                        .findByUserSearchProfileIdAndIsActiveTrue(profile.getId());
-                        List<UserSearchProfileJobTitle> jobTitles = userSearchProfileJobTitleRepository
-                                        .findByUserSearchProfileIdAndIsActiveTrue(profile.getId());
-
-                        List<UserSearchProfileSkillResponse> skillResponses = skill.stream().map(s -> {
-                                UserSearchProfileSkillResponse skillResponse = new UserSearchProfileSkillResponse();
-                                skillResponse.setSkillName(s.getSkill().getNormalizedName());
-                                skillResponse.setSkillId(s.getSkill().getId());
-                                return skillResponse;
-                        }).toList();
-
-                        List<UserSearchProfileEmploymentResponse> employmentResponses = employment.stream().map(e -> {
-                                UserSearchProfileEmploymentResponse employmentResponse = new UserSearchProfileEmploymentResponse();
-                                employmentResponse.setEmploymentTypeId(e.getId());
-                                employmentResponse.setEmploymentType(e.getEmploymentType());
-                                return employmentResponse;
-                        }).toList();
-
-                        List<UserSearchProfileJobTitleResponse> jobTitleResponses = jobTitles.stream().map(j -> {
-                                UserSearchProfileJobTitleResponse jobTitleResponse = new UserSearchProfileJobTitleResponse();
-                                jobTitleResponse.setJobTitle(j.getJobTitle());
-                                jobTitleResponse.setJobTitleId(j.getId());
-                                return jobTitleResponse;
-                        }).toList();
-
-                        UserSearchProfileResponse response = UserSearchProfileResponse.builder()
-                                        .searchProfileId(profile.getId())
-                                        .userId(profile.getUserId())
-                                        .salaryMin(profile.getSalaryMin())
-                                        .salaryMax(profile.getSalaryMax())
-                                        .countryAbbreviation(profile.getCountryAbbreviation())
-                                        .isFresher(profile.getIsFresher())
-                                        .educationLevel(profile.getEducationLevel())
-                                        .skills(skillResponses)
-                                        .employments(employmentResponses)
-                                        .jobTitles(jobTitleResponses)
-                                        .build();
-
-                        return response;
-                } finally {
-                        ShardContext.clear();
-                }
+                return response;
         }
 
         @Override
+        @ShardedBy("userId")
         public UserSearchProfileResponse updateUserSearchProfile(UUID userId, UpdateSearchProfile request) {
                 log.info("Updating user search profile for user ID: {} with request: {}", userId, request);
 
-                // Get shard key to update the user search profile in the correct database shard
-                String shardKey = shardLookupService.findShardIdByUserId(userId);
-                log.info("Determined shard key: {} for user ID: {}", shardKey, userId);
-                ShardContext.setShardKey(shardKey);
+                UserSearchProfile existingProfile = userSearchProfileRepository.findByUserId(userId)
+                                .orElseThrow(
+                                                () -> new IllegalArgumentException(
+                                                                "User search profile not found for user ID: "
+                                                                                + userId));
 
-                try {
-                        UserSearchProfile existingProfile = userSearchProfileRepository.findByUserId(userId)
+                if (request.getCountryAbbreviation() != null) {
+                        countryRegistry
+                                        .findActiveByAbbreviation(request.getCountryAbbreviation())
                                         .orElseThrow(
                                                         () -> new IllegalArgumentException(
-                                                                        "User search profile not found for user ID: "
-                                                                                        + userId));
-
-                        if (request.getCountryAbbreviation() != null) {
-                                countryRepository
-                                                .findByAbbreviationIgnoreCaseAndIsActiveTrue(
-                                                                request.getCountryAbbreviation())
-                                                .orElseThrow(
-                                                                () -> new IllegalArgumentException(
-                                                                                "Country with abbreviation "
-                                                                                                + request.getCountryAbbreviation()
-                                                                                                + " does not exist or is inactive."));
-                        }
+                                                                        "Country with abbreviation "
+                                                                                        + request.getCountryAbbreviation()
+                                                                                        + " does not exist or is inactive."));
+                }
 
-                        if (request.getSalaryMin() != null && request.getSalaryMax() != null) {
-                                if (request.getSalaryMin().compareTo(request.getSalaryMax()) > 0) {
-                                        throw new IllegalArgumentException(
-                                                        "Minimum salary cannot be greater than maximum salary.");
-                                }
+                if (request.getSalaryMin() != null && request.getSalaryMax() != null) {
+                        if (request.getSalaryMin().compareTo(request.getSalaryMax()) > 0) {
+                                throw new IllegalArgumentException(
+                                                "Minimum salary cannot be greater than maximum salary.");
                         }
+                }
 
-                        if (request.getSalaryMin() != null) {
-                                existingProfile.setSalaryMin(request.getSalaryMin());
+                if (request.getSalaryMin() != null) {
+                        existingProfile.setSalaryMin(request.getSalaryMin());
 
-                        }
-                        if (request.getSalaryMax() != null) {
-                                existingProfile.setSalaryMax(request.getSalaryMax());
-                        }
-
-                        if (request.getCountryAbbreviation() != null) {
-                                existingProfile.setCountryAbbreviation(request.getCountryAbbreviation());
-                        }
-                        if (request.getEducationLevel() != null) {
-                                existingProfile.setEducationLevel(request.getEducationLevel());
-                        }
+                }
+                if (request.getSalaryMax() != null) {
+                        existingProfile.setSalaryMax(request.getSalaryMax());
+                }
 
-                        if (request.getIsFresher() != null && request.getIsFresher()) {
-                                existingProfile.setIsFresher(true);
-                        }
+                if (request.getCountryAbbreviation() != null) {
+                        existingProfile.setCountryAbbreviation(request.getCountryAbbreviation());
+                }
+                if (request.getEducationLevel() != null) {
+                        existingProfile.setEducationLevel(request.getEducationLevel());
+                }
 
-                        if (request.getIsFresher() != null) {
-                                existingProfile.setIsFresher(request.getIsFresher());
-                        }
+                if (request.getIsFresher() != null && request.getIsFresher()) {
+                        existingProfile.setIsFresher(true);
+                }
 
-                        UserSearchProfile updatedProfile = userSearchProfileRepository.save(existingProfile);
-                        log.info("Updated user search profile: {}", updatedProfile);
-
-                        Optional<User> user = userRepository.findById(updatedProfile.getUserId());
-                        Optional<Country> countryAbbreviation = countryRepository
-                                        .findByAbbreviationIgnoreCaseAndIsActiveTrue(request.getCountryAbbreviation());
-                        List<UserEducation> educationLevel = userEducationRepository
-                                        .findByUserIdOrderByEducationLevelRankDesc(updatedProfile.getUserId());
-
-                        List<EmploymentType> employmentTypes = userSearchProfileEmploymentRepository
-                                        .findByUserSearchProfileIdAndIsActiveTrue(updatedProfile.getId())
-                                        .stream()
-                                        .map(ute -> ute.getEmploymentType())
-                                        .collect(Collectors.toList());
-
-                        List<String> jobTitles = userSearchProfileJobTitleRepository
-                                        .findByUserSearchProfileIdAndIsActiveTrue(updatedProfile.getId())
-                                        .stream()
-                                        .map(utj -> utj.getJobTitle())
-                                        .collect(Collectors.toList());
-
-                        List<UserSkill> allUserSkillIds = userSkillRepository
-                                        .findByUserIdAndIsActiveTrue(updatedProfile.getUserId());
-
-                        UserSearchProfileUpdateEvent searchProfileEvent = UserSearchProfileUpdateEvent.builder()
-                                        .userId(updatedProfile.getUserId())
-                                        .countryAbbreviation(countryAbbreviation.toString())
-                                        .educationLevel(educationLevel.isEmpty() ? null
-                                                        : educationLevel.get(0).getEducationLevel().name())
-                                        .employmentTypes(employmentTypes.stream()
-                                                        .map(EmploymentType::name)
-                                                        .collect(Collectors.toList()))
-                                        .minSalary(updatedProfile.getSalaryMin())
-                                        .maxSalary(updatedProfile.getSalaryMax())
-                                        .jobTitles(jobTitles)
-                                        .skillIds(allUserSkillIds.stream()
-                                                        .map(UserSkill::getId)
-                                                        .collect(Collectors.toList()))
-                                        .isFresher(updatedProfile.getIsFresher())
-                                        .build();
-                        userSearchProfileUpdateKafkaTemplate.send(KafkaTopics.USER_PROFILE_UPDATE, searchProfileEvent)
-                                        .whenComplete((result, ex) -> {
-                                                if (ex == null) {
-                                                        log.info("Sent UserSearchProfileUpdateEvent for user {} [partition: {}, offset: {}]",
-                                                                        updatedProfile.getUserId(),
-                                                                        result.getRecordMetadata().partition(),
-                                                                        result.getRecordMetadata().offset());
-                                                } else {
-                                                        log.error("Failed to send UserSearchProfileUpdateEvent for user {}",
-                                                                        updatedProfile.getUserId(), ex);
-                                                }
-                                        });
-                        return getUserSearchProfileByUserId(userId);
-
-                } finally {
-                        ShardContext.clear();
+                if (request.getIsFresher() != null) {
+                        existingProfile.setIsFresher(request.getIsFresher());
                 }
+
+                UserSearchProfile updatedProfile = userSearchProfileRepository.save(existingProfile);
+                log.info("Updated user search profile: {}", updatedProfile);
+
+                Optional<User> user = userRepository.findById(updatedProfile.getUserId());
+                String countryAbbreviation = countryRegistry
+                                .findActiveByAbbreviation(request.getCountryAbbreviation())
+                                .map(CountryRegistry.CountryEntry::abbreviation)
+                                .orElse(null);
+                List<UserEducation> educationLevel = userEducationRepository
+                                .findByUserIdOrderByEducationLevelRankDesc(updatedProfile.getUserId());
+
+                List<EmploymentType> employmentTypes = userSearchProfileEmploymentRepository
+                                .findByUserSearchProfileIdAndIsActiveTrue(updatedProfile.getId())
+                                .stream()
+                                .map(ute -> ute.getEmploymentType())
+                                .collect(Collectors.toList());
+
+                List<String> jobTitles = userSearchProfileJobTitleRepository
+                                .findByUserSearchProfileIdAndIsActiveTrue(updatedProfile.getId())
+                                .stream()
+                                .map(utj -> utj.getJobTitle())
+                                .collect(Collectors.toList());
+
+                List<UserSkill> allUserSkillIds = userSkillRepository
+                                .findByUserIdAndIsActiveTrue(updatedProfile.getUserId());
+
+                UserSearchProfileUpdateEvent searchProfileEvent = UserSearchProfileUpdateEvent.builder()
+                                .userId(updatedProfile.getUserId())
+                                .countryAbbreviation(countryAbbreviation)
+                                .educationLevel(educationLevel.isEmpty() ? null
+                                                : educationLevel.get(0).getEducationLevel().name())
+                                .employmentTypes(employmentTypes.stream()
+                                                .map(EmploymentType::name)
+                                                .collect(Collectors.toList()))
+                                .minSalary(updatedProfile.getSalaryMin())
+                                .maxSalary(updatedProfile.getSalaryMax())
+                                .jobTitles(jobTitles)
+                                .skillIds(allUserSkillIds.stream()
+                                                .map(UserSkill::getId)
+                                                .collect(Collectors.toList()))
+                                .isFresher(updatedProfile.getIsFresher())
+                                .build();
+                userSearchProfileUpdateProducer.sendAfterCommit(searchProfileEvent);
+                return getUserSearchProfileByUserId(userId);
         }
 
         @Override
+        @ShardedBy("userId")
         public void deactivateUserSearchProfile(UUID userId) {
                 log.info("Deactivating user search profile for user ID: {}", userId);
 
-                String shardKey = shardLookupService.findShardIdByUserId(userId);
-                log.info("Determined shard key: {} for user ID: {}", shardKey, userId);
-                ShardContext.setShardKey(shardKey);
-
-                try {
-                        UserSearchProfile existingProfile = userSearchProfileRepository.findByUserId(userId)
-                                        .orElseThrow(
-                                                        () -> new IllegalArgumentException(
-                                                                        "User search profile not found for user ID: "
-                                                                                        + userId));
+                UserSearchProfile existingProfile = userSearchProfileRepository.findByUserId(userId)
+                                .orElseThrow(
+                                                () -> new IllegalArgumentException(
+                                                                "User search profile not found for user ID: "
+                                                                                + userId));
 
-                        existingProfile.setActive(false);
-                        userSearchProfileRepository.save(existingProfile);
+                existingProfile.setActive(false);
+                userSearchProfileRepository.save(existingProfile);
 
-                        // TODO: Publish event for search profile deactivation notification
+                userSearchProfileUpdateProducer.sendChangedAfterCommit(userId);
 
-                        log.info("Deactivated user search profile for user ID: {}", userId);
-                } finally {
-                        ShardContext.clear();
-                }
+                log.info("Deactivated user search profile for user ID: {}", userId);
         }
 
         @Override
+        @Transactional(Transactional.TxType.NOT_SUPPORTED)
         public List<UserSearchProfileResponse> getAllActiveSearchProfiles() {
                 log.info("Fetching all active search profiles for API");
-                List<UserSearchProfile> activeProfiles = userSearchProfileRepository.findByIsActiveTrue();
-                return activeProfiles.stream()
+                // Profiles live on their users' shards; each shard is read in parallel
+                return shardFanOut.onAllShards(shardKey -> userSearchProfileRepository.findByIsActiveTrue().stream()
                                 .map(this::convertToResponse)
+                                .toList())
+                                .values().stream()
+                                .flatMap(List::stream)
                                 .collect(Collectors.toList());
         }
 
         @Override
-        public List<UserSearchProfileUpdateEvent> getAllActiveSearchProfilesAsEvents() {
-                log.info("Fetching all active search profiles as events for job matching");
-                List<UserSearchProfile> activeProfiles = userSearchProfileRepository.findByIsActiveTrue();
-                return activeProfiles.stream()
-                                .map(this::convertToEvent)
-                                .collect(Collectors.toList());
+        public Map<UUID, UserSearchProfileUpdateEvent> findActiveSearchProfilesAsEvents(String shardKey,
+                        Collection<UUID> userIds) {
+                try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+                        return userSearchProfileRepository.findByUserIdInAndIsActiveTrue(userIds).stream()
+                                        .collect(Collectors.toMap(UserSearchProfile::getUserId, this::convertToEvent,
+                                                        (first, second) -> first));
+                }
         }
 
         /**
@@ -1,5 +1,6 @@
 package com.team.ja.user.service.impl;
 
+import com.team.ja.common.dto.CursorPageResponse;
 import com.team.ja.common.dto.PageResponse;
 import com.team.ja.common.enumeration.EducationLevel;
 import com.team.ja.common.enumeration.EmploymentType;
@@ -12,17 +13,22 @@ import com.team.ja.common.exception.ConflictException;
 import com.team.ja.common.exception.NotFoundException;
 import com.team.ja.user.config.S3FileService;
 import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.config.sharding.ShardedBy;
+import com.team.ja.user.config.sharding.ShardFanOut;
+import com.team.ja.user.config.sharding.ShardMap;
+import com.team.ja.user.config.sharding.ShardMapService;
 import com.team.ja.user.config.sharding.ShardingProperties;
 import com.team.ja.user.dto.request.ChangePasswordRequest;
 import com.team.ja.user.dto.request.CreateUserRequest;
 import com.team.ja.user.dto.request.UpdateUserRequest;
 import com.team.ja.user.dto.response.SkillResponse;
+import com.team.ja.user.dto.response.UserCountResponse;
 import com.team.ja.user.dto.response.UserEducationResponse;
 import com.team.ja.user.dto.response.UserProfileResponse;
 import com.team.ja.user.dto.response.UserResponse;
 import com.team.ja.user.dto.response.UserWorkExperienceResponse;
 import com.team.ja.user.kafka.UserProfileUpdatedProducer;
-import com.team.ja.user.mapper.CountryMapper;
+import com.team.ja.user.kafka.UserSearchProfileUpdateProducer;
 import com.team.ja.user.mapper.SkillMapper;
 import com.team.ja.user.mapper.UserEducationMapper;
 import com.team.ja.user.mapper.UserMapper;
@@ -33,8 +39,6 @@ import com.team.ja.user.model.UserEducation;
 import com.team.ja.user.model.UserSearchProfile;
 import com.team.ja.user.model.UserSkill;
 import com.team.ja.user.model.UserWorkExperience;
-import com.team.ja.user.model.Country;
-import com.team.ja.user.repository.CountryRepository;
 import com.team.ja.user.repository.SkillRepository;
 import com.team.ja.user.repository.UserEducationRepository;
 import com.team.ja.user.repository.UserRepository;
@@ -46,20 +50,28 @@ import com.team.ja.user.repository.UserWorkExperienceRepository;
 import com.team.ja.user.repository.specification.UserSpecification;
 import com.team.ja.user.service.AuthServiceClient;
 import com.team.ja.user.service.UserService;
+import com.team.ja.user.util.UserKeysetCursor;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Comparator;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.imageio.ImageIO;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.imgscalr.Scalr;
@@ -67,10 +79,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -87,7 +103,7 @@ public class UserServiceImpl implements UserService {
     private final UserWorkExperienceRepository userWorkExperienceRepository;
     private final UserSkillRepository userSkillRepository;
     private final SkillRepository skillRepository;
-    private final CountryRepository countryRepository;
+    private final CountryRegistry countryRegistry;
     private final S3FileService s3FileService;
     private final UserProfileUpdatedProducer profileUpdatedProducer;
 
@@ -95,13 +111,17 @@ public class UserServiceImpl implements UserService {
     private final UserEducationMapper userEducationMapper;
     private final UserWorkExperienceMapper userWorkExperienceMapper;
     private final SkillMapper skillMapper;
-    private final CountryMapper countryMapper;
     private final ShardingProperties shardingProperties;
     private final ShardLookupService shardLookupService;
+    private final ShardMapService shardMapService;
+    private final ShardFanOut shardFanOut;
+    private final UserCountService userCountService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
     private final AuthServiceClient authServiceClient;
 
     private final KafkaTemplate<String, UserMigrationEvent> userMigrationEventKafkaTemplate;
-    private final KafkaTemplate<String, UserSearchProfileUpdateEvent> userSearchProfileUpdateKafkaTemplate;
+    private final UserSearchProfileUpdateProducer userSearchProfileUpdateProducer;
 
     // For getting Kafka for JM
     private final UserSearchProfileEmploymentRepository userSearchProfileEmploymentRepository;
@@ -109,6 +129,9 @@ public class UserServiceImpl implements UserService {
     private final UserSearchProfileJobTitleRepository userSearchProfileJobTitleRepository;
 
     private static final int AVATAR_SIZE = 256;
+
+    // Stable order shared by every shard so per-shard top-N lists merge correctly
+    private static final Sort SEARCH_ORDER = Sort.by("createdAt", "id");
     private static final List<String> SUPPORTED_IMAGE_TYPES = List.of(
             "image/jpeg",
             "image/png",
@@ -124,21 +147,22 @@ public class UserServiceImpl implements UserService {
                     "User with email " + request.getEmail() + " already exists");
         }
 
+        String countryIso = null;
         if (request.getCountryId() != null) {
-            countryRepository
+            countryIso = countryRegistry
                     .findById(request.getCountryId())
                     .orElseThrow(() -> new NotFoundException(
                             "Country",
                             "id",
-                            request.getCountryId().toString()));
+                            request.getCountryId().toString()))
+                    .abbreviation();
         }
 
-        String country = request.getCountryId().toString();
-        String shardkey = ShardingProperties.resolveShard(country);
-        ShardContext.setShardKey(shardkey);
-
-        try {
+        ShardMap.Placement placement = shardMapService.current().newUser(countryIso);
+        String shardkey = placement.shard();
+        try (ShardContext.Scope scope = ShardContext.use(shardkey)) {
             User user = User.builder()
+                    .id(placement.userId())
                     .email(request.getEmail())
                     .firstName(request.getFirstName())
                     .lastName(request.getLastName())
@@ -151,196 +175,176 @@ public class UserServiceImpl implements UserService {
             log.info("Created user with ID: {}", savedUser.getId());
 
             shardLookupService.cachedUserIdShard(user.getId(), shardkey);
+            shardLookupService.cachedUserEmailShard(user.getEmail(), shardkey);
+            userCountService.recordCreated(shardkey);
 
             return mapUserWithCountry(savedUser);
-        } finally {
-            ShardContext.clear();
         }
     }
 
     @Override
     @Transactional
+    @ShardedBy("userId")
     public UserResponse updateUser(UUID userId, UpdateUserRequest request) {
         log.info("Updating user with ID: {}", userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
+        String shardKey = ShardContext.requireShardKey();
+        User user = userRepository
+                .findById(userId)
+                .filter(User::isActive)
+                .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
 
-        try {
-            User user = userRepository
-                    .findById(userId)
-                    .filter(User::isActive)
-                    .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
+        UUID oldCountryId = user.getCountryId();
+
+        // Update fields if provided
+        if (request.getFirstName() != null)
+            user.setFirstName(
+                    request.getFirstName());
+        if (request.getLastName() != null)
+            user.setLastName(
+                    request.getLastName());
+        if (request.getPhone() != null)
+            user.setPhone(request.getPhone());
+        if (request.getCountryAbbreviation() != null) {
+            CountryRegistry.CountryEntry country = countryRegistry
+                    .findActiveByAbbreviation(request.getCountryAbbreviation())
+                    .orElseThrow(() -> new NotFoundException(
+                            "Country",
+                            "abbreviation",
+                            request.getCountryAbbreviation()));
+
+            // user.setCountryId(request.getCountryId());
+            // Perform moving to new shard in background after commit
+            String targetShard = shardMapService.current().shardFor(country.abbreviation(), userId);
+            if (targetShard.equals(shardKey)) {
+                log.info("User {} country updated to same shard {}, no migration needed.", userId, targetShard);
+            } else {
+                log.info("User {} country updated, scheduling migration from shard {} to {}.", userId,
+                        shardKey, targetShard);
 
-            UUID oldCountryId = user.getCountryId();
-
-            // Update fields if provided
-            if (request.getFirstName() != null)
-                user.setFirstName(
-                        request.getFirstName());
-            if (request.getLastName() != null)
-                user.setLastName(
-                        request.getLastName());
-            if (request.getPhone() != null)
-                user.setPhone(request.getPhone());
-            if (request.getCountryAbbreviation() != null) {
-                Country country = countryRepository
-                        .findByAbbreviationIgnoreCaseAndIsActiveTrue(request.getCountryAbbreviation())
-                        .orElseThrow(() -> new NotFoundException(
-                                "Country",
-                                "abbreviation",
-                                request.getCountryAbbreviation()));
-
-                // user.setCountryId(request.getCountryId());
-                // Perform moving to new shard in background after commit
-                String targetShard = ShardingProperties.resolveShard(country.getAbbreviation());
-                if (targetShard.equals(ShardContext.getShardKey())) {
-                    log.info("User {} country updated to same shard {}, no migration needed.", userId, targetShard);
-                } else {
-                    log.info("User {} country updated, scheduling migration from shard {} to {}.", userId,
-                            ShardContext.getShardKey(), targetShard);
-
-                    UserMigrationEvent migrationEvent = UserMigrationEvent.builder()
-                            .userId(userId)
-                            .sourceShardId(shardKey)
-                            .targetShardId(targetShard)
-                            .newCountryAbbreviation(request.getCountryAbbreviation())
-                            .build();
-
-                    userMigrationEventKafkaTemplate.send(KafkaTopics.USER_MIGRATION, migrationEvent)
-                            .whenComplete((result, ex) -> {
-                                if (ex == null) {
-                                    log.info("Sent UserMigrationEvent for user {} [partition: {}, offset: {}]",
-                                            userId,
-                                            result.getRecordMetadata().partition(),
-                                            result.getRecordMetadata().offset());
-                                } else {
-                                    log.error("Failed to send UserMigrationEvent for user {}", userId, ex);
-                                }
-                            });
-
-                    log.info("Published user migration event for user {} to shard {}.", userId, targetShard);
-
-                    String countryAbbreviation = null;
-                    if (user != null && user.getCountryId() != null) {
-                        countryAbbreviation = countryRepository.findById(user.getCountryId())
-                                .map(c -> c.getAbbreviation())
-                                .orElse(null);
-                    }
-                    List<UserEducation> educationLevel = userEducationRepository
-                            .findByUserIdOrderByEducationLevelRankDesc(userId);
-
-                    Optional<UserSearchProfile> userSearchProfile = userSearchProfileRepository.findByUserId(userId);
-
-                    List<EmploymentType> employmentTypes = userSearchProfileEmploymentRepository
-                            .findByUserSearchProfileIdAndIsActiveTrue(
-                                    userSearchProfile.isPresent() ? userSearchProfile.get().getId() : null)
-                            .stream()
-                            .map(ute -> ute.getEmploymentType())
-                            .collect(Collectors.toList());
-
-                    List<String> jobTitles = userSearchProfileJobTitleRepository
-                            .findByUserSearchProfileIdAndIsActiveTrue(
-                                    userSearchProfile.isPresent() ? userSearchProfile.get().getId() : null)
-                            .stream()
-                            .map(utj -> utj.getJobTitle())
-                            .collect(Collectors.toList());
-
-                    List<UserSkill> allUserSkillIds = userSkillRepository.findByUserIdAndIsActiveTrue(userId);
-
-                    UserSearchProfileUpdateEvent searchProfileEvent = UserSearchProfileUpdateEvent.builder()
-                            .userId(userId)
-                            .countryAbbreviation(countryAbbreviation)
-                            .educationLevel(educationLevel.isEmpty() ? null
-                                    : educationLevel.get(0).getEducationLevel().name())
-                            .employmentTypes(employmentTypes.stream()
-                                    .map(EmploymentType::name)
-                                    .collect(Collectors.toList()))
-                            .minSalary(userSearchProfile.isPresent() ? userSearchProfile.get().getSalaryMin() : null)
-                            .maxSalary(userSearchProfile.isPresent() ? userSearchProfile.get().getSalaryMax() : null)
-                            .jobTitles(jobTitles)
-                            .skillIds(allUserSkillIds.stream()
-                                    .map(UserSkill::getSkillId)
-                                    .collect(Collectors.toList()))
-                            .build();
-                    userSearchProfileUpdateKafkaTemplate.send(KafkaTopics.USER_PROFILE_UPDATE, searchProfileEvent)
-                            .whenComplete((result, ex) -> {
-                                if (ex == null) {
-                                    log.info(
-                                            "Sent UserSearchProfileUpdateEvent for user {} [partition: {}, offset: {}]",
-                                            userId,
-                                            result.getRecordMetadata().partition(),
-                                            result.getRecordMetadata().offset());
-                                } else {
-                                    log.error("Failed to send UserSearchProfileUpdateEvent for user {}", userId, ex);
-                                }
-                            });
+                UserMigrationEvent migrationEvent = UserMigrationEvent.builder()
+                        .userId(userId)
+                        .sourceShardId(shardKey)
+                        .targetShardId(targetShard)
+                        .newCountryAbbreviation(request.getCountryAbbreviation())
+                        .build();
+
+                userMigrationEventKafkaTemplate.send(KafkaTopics.USER_MIGRATION, userId.toString(), migrationEvent)
+                        .whenComplete((result, ex) -> {
+                            if (ex == null) {
+                                log.info("Sent UserMigrationEvent for user {} [partition: {}, offset: {}]",
+                                        userId,
+                                        result.getRecordMetadata().partition(),
+                                        result.getRecordMetadata().offset());
+                            } else {
+                                log.error("Failed to send UserMigrationEvent for user {}", userId, ex);
+                            }
+                        });
+
+                log.info("Published user migration event for user {} to shard {}.", userId, targetShard);
+
+                String countryAbbreviation = null;
+                if (user != null && user.getCountryId() != null) {
+                    countryAbbreviation = countryRegistry.abbreviationOf(user.getCountryId());
                 }
+                List<UserEducation> educationLevel = userEducationRepository
+                        .findByUserIdOrderByEducationLevelRankDesc(userId);
 
-                Country newCountry = countryRepository
-                        .findByAbbreviationIgnoreCaseAndIsActiveTrue(request.getCountryAbbreviation())
-                        .orElseThrow(() -> new NotFoundException(
-                                "Country",
-                                "abbreviation",
-                                request.getCountryAbbreviation()));
+                Optional<UserSearchProfile> userSearchProfile = userSearchProfileRepository.findByUserId(userId);
 
-                user.setCountryId(newCountry.getId());
-            }
-            if (request.getAddress() != null)
-                user.setAddress(request.getAddress());
-            if (request.getCity() != null)
-                user.setCity(request.getCity());
-            if (request.getObjectiveSummary() != null)
-                user.setObjectiveSummary(
-                        request.getObjectiveSummary());
+                List<EmploymentType> employmentTypes = userSearchProfileEmploymentRepository
+                        .findByUserSearchProfileIdAndIsActiveTrue(
+                                userSearchProfile.isPresent() ? userSearchProfile.get().getId() : null)
+                        .stream()
+                        .map(ute -> ute.getEmploymentType())
+                        .collect(Collectors.toList());
 
-            user.markProfileUpdated();
-            User savedUser = userRepository.save(user);
+                List<String> jobTitles = userSearchProfileJobTitleRepository
+                        .findByUserSearchProfileIdAndIsActiveTrue(
+                                userSearchProfile.isPresent() ? userSearchProfile.get().getId() : null)
+                        .stream()
+                        .map(utj -> utj.getJobTitle())
+                        .collect(Collectors.toList());
 
-            // Check if country has changed and publish event
-            if (!Objects.equals(oldCountryId, savedUser.getCountryId())) {
-                log.info(
-                        "User {} country changed from {} to {}. Publishing event.",
-                        userId,
-                        oldCountryId,
-                        savedUser.getCountryId());
-                UserProfileUpdatedEvent event = UserProfileUpdatedEvent.builder()
+                List<UserSkill> allUserSkillIds = userSkillRepository.findByUserIdAndIsActiveTrue(userId);
+
+                UserSearchProfileUpdateEvent searchProfileEvent = UserSearchProfileUpdateEvent.builder()
                         .userId(userId)
-                        .updateType(UserProfileUpdatedEvent.UpdateType.COUNTRY)
-                        .countryId(savedUser.getCountryId())
+                        .countryAbbreviation(countryAbbreviation)
+                        .educationLevel(educationLevel.isEmpty() ? null
+                                : educationLevel.get(0).getEducationLevel().name())
+                        .employmentTypes(employmentTypes.stream()
+                                .map(EmploymentType::name)
+                                .collect(Collectors.toList()))
+                        .minSalary(userSearchProfile.isPresent() ? userSearchProfile.get().getSalaryMin() : null)
+                        .maxSalary(userSearchProfile.isPresent() ? userSearchProfile.get().getSalaryMax() : null)
+                        .jobTitles(jobTitles)
+                        .skillIds(allUserSkillIds.stream()
+                                .map(UserSkill::getSkillId)
+                                .collect(Collectors.toList()))
                         .build();
-                profileUpdatedProducer.sendProfileUpdatedEvent(event);
+                userSearchProfileUpdateProducer.sendAfterCommit(searchProfileEvent);
             }
 
-            log.info("Updated user with ID: {}", savedUser.getId());
-            return mapUserWithCountry(savedUser);
-        } finally {
-            ShardContext.clear();
+            CountryRegistry.CountryEntry newCountry = countryRegistry
+                    .findActiveByAbbreviation(request.getCountryAbbreviation())
+                    .orElseThrow(() -> new NotFoundException(
+                            "Country",
+                            "abbreviation",
+                            request.getCountryAbbreviation()));
+
+            user.setCountryId(newCountry.id());
+        }
+        if (request.getAddress() != null)
+            user.setAddress(request.getAddress());
+        if (request.getCity() != null)
+            user.setCity(request.getCity());
+        if (request.getObjectiveSummary() != null)
+            user.setObjectiveSummary(
+                    request.getObjectiveSummary());
+
+        user.markProfileUpdated();
+        User savedUser = userRepository.save(user);
+
+        // Check if country has changed and publish event
+        if (!Objects.equals(oldCountryId, savedUser.getCountryId())) {
+            log.info(
+                    "User {} country changed from {} to {}. Publishing event.",
+                    userId,
+                    oldCountryId,
+                    savedUser.getCountryId());
+            UserProfileUpdatedEvent event = UserProfileUpdatedEvent.builder()
+                    .userId(userId)
+                    .updateType(UserProfileUpdatedEvent.UpdateType.COUNTRY)
+                    .countryId(savedUser.getCountryId())
+                    .build();
+            profileUpdatedProducer.sendProfileUpdatedEvent(event);
         }
+
+        log.info("Updated user with ID: {}", savedUser.getId());
+        return mapUserWithCountry(savedUser);
     }
 
     @Override
     @Transactional
+    @ShardedBy("userId")
     public UserResponse uploadAvatar(UUID userId, MultipartFile file) {
         log.info("Uploading avatar for user {}", userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
-        User user = userRepository
-                .findById(userId)
-                .filter(User::isActive)
-                .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
+        try {
+            User user = userRepository
+                    .findById(userId)
+                    .filter(User::isActive)
+                    .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
 
-        if (file.isEmpty())
-            throw new BadRequestException(
-                    "File cannot be empty.");
-        if (!SUPPORTED_IMAGE_TYPES.contains(file.getContentType())) {
-            throw new BadRequestException(
-                    "Unsupported image type. Please upload a JPEG, PNG, or GIF.");
-        }
+            if (file.isEmpty())
+                throw new BadRequestException(
+                        "File cannot be empty.");
+            if (!SUPPORTED_IMAGE_TYPES.contains(file.getContentType())) {
+                throw new BadRequestException(
+                        "Unsupported image type. Please upload a JPEG, PNG, or GIF.");
+            }
 
-        try {
             BufferedImage originalImage = ImageIO.read(file.getInputStream());
             BufferedImage resizedImage = Scalr.resize(
                     originalImage,
@@ -377,27 +381,19 @@ public class UserServiceImpl implements UserService {
         } catch (IOException e) {
             log.error("Failed to process image for user {}", userId, e);
             throw new BadRequestException("Could not process image file.");
-        } finally {
-            ShardContext.clear();
         }
     }
 
     @Override
+    @ShardedBy("id")
     public UserResponse getUserById(UUID id) {
         log.info("Fetching user by ID: {}", id);
 
-        String shardKey = shardLookupService.findShardIdByUserId(id);
-        ShardContext.setShardKey(shardKey);
-
-        try {
-            User user = userRepository
-                    .findById(id)
-                    .filter(User::isActive)
-                    .orElseThrow(() -> new NotFoundException("User", "id", id.toString()));
-            return mapUserWithCountry(user);
-        } finally {
-            ShardContext.clear();
-        }
+        User user = userRepository
+                .findById(id)
+                .filter(User::isActive)
+                .orElseThrow(() -> new NotFoundException("User", "id", id.toString()));
+        return mapUserWithCountry(user);
     }
 
     @Override
@@ -405,64 +401,54 @@ public class UserServiceImpl implements UserService {
         log.info("Fetching user by email: {}", email);
 
         String shardKey = shardLookupService.findShardByUserEmail(email);
-        ShardContext.setShardKey(shardKey);
-
-        try {
+        try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
             User user = userRepository
                     .findByEmailAndIsActiveTrue(email)
                     .orElseThrow(() -> new NotFoundException("User", "email", email));
             return mapUserWithCountry(user);
-        } finally {
-            ShardContext.clear();
         }
     }
 
     @Override
+    @ShardedBy("userId")
     public UserProfileResponse getUserProfile(UUID userId) {
         log.info("Fetching complete profile for user: {}", userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
-        try {
-            User user = userRepository
-                    .findById(userId)
-                    .filter(User::isActive)
-                    .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
-
-            List<UserEducation> education = userEducationRepository.findByUserIdAndIsActiveTrueOrderByStartAtDesc(
-                    userId);
-            List<UserWorkExperience> workExperience = userWorkExperienceRepository
-                    .findByUserIdAndIsActiveTrueOrderByStartAtDesc(
-                            userId);
-            List<UserSkill> userSkills = userSkillRepository.findByUserIdAndIsActiveTrue(userId);
-            List<UUID> skillIds = userSkills
-                    .stream()
-                    .map(UserSkill::getSkillId)
-                    .toList();
-            List<Skill> skills = skillIds.isEmpty()
-                    ? List.of()
-                    : skillRepository.findByIdInAndIsActiveTrue(skillIds);
-
-            List<UserEducationResponse> educationResponses = education
-                    .stream()
-                    .map(userEducationMapper::toResponse)
-                    .toList();
-            List<UserWorkExperienceResponse> workExpResponses = workExperience
-                    .stream()
-                    .map(this::mapWorkExperienceWithCountry)
-                    .toList();
-            List<SkillResponse> skillResponses = skillMapper.toResponseList(skills);
+        User user = userRepository
+                .findById(userId)
+                .filter(User::isActive)
+                .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
 
-            return UserProfileResponse.builder()
-                    .user(mapUserWithCountry(user))
-                    .education(educationResponses)
-                    .workExperience(workExpResponses)
-                    .skills(skillResponses)
-                    .build();
-        } finally {
-            ShardContext.clear();
-        }
+        List<UserEducation> education = userEducationRepository.findByUserIdAndIsActiveTrueOrderByStartAtDesc(
+                userId);
+        List<UserWorkExperience> workExperience = userWorkExperienceRepository
+                .findByUserIdAndIsActiveTrueOrderByStartAtDesc(
+                        userId);
+        List<UserSkill> userSkills = userSkillRepository.findByUserIdAndIsActiveTrue(userId);
+        List<UUID> skillIds = userSkills
+                .stream()
+                .map(UserSkill::getSkillId)
+                .toList();
+        List<Skill> skills = skillIds.isEmpty()
+                ? List.of()
+                : skillRepository.findByIdInAndIsActiveTrue(skillIds);
+
+        List<UserEducationResponse> educationResponses = education
+                .stream()
+                .map(userEducationMapper::toResponse)
+                .toList();
+        List<UserWorkExperienceResponse> workExpResponses = workExperience
+                .stream()
+                .map(this::mapWorkExperienceWithCountry)
+                .toList();
+        List<SkillResponse> skillResponses = skillMapper.toResponseList(skills);
+
+        return UserProfileResponse.builder()
+                .user(mapUserWithCountry(user))
+                .education(educationResponses)
+                .workExperience(workExpResponses)
+                .skills(skillResponses)
+                .build();
     }
 
     /**
@@ -474,22 +460,20 @@ public class UserServiceImpl implements UserService {
         log.info("Fetching all active users");
         List<UserResponse> allUsers = new ArrayList<>();
         for (String shardKey : shardingProperties.getShards().keySet()) {
-            ShardContext.setShardKey(shardKey);
-            try {
+            try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
                 userRepository
                         .findAll()
                         .stream()
                         .filter(User::isActive)
                         .map(this::mapUserWithCountry)
                         .forEach(allUsers::add);
-            } finally {
-                ShardContext.clear();
             }
         }
         return allUsers;
     }
 
     @Override
+    @Deprecated
     public PageResponse<UserResponse> getAllUsersPaged(int page, int size) {
         log.info("Fetching users (paged), page [{}], size [{}]", page, size);
 
@@ -502,10 +486,12 @@ public class UserServiceImpl implements UserService {
         List<String> shardKeys = new ArrayList<>(shardingProperties.getShards().keySet());
         Collections.sort(shardKeys);
 
+        // Maintained counters instead of a count() on every shard
+        Map<String, UserCountService.ShardCount> shardCounts = userCountService.getShardCounts();
+
         for (String shardKey : shardKeys) {
-            ShardContext.setShardKey(shardKey);
-            try {
-                long shardCount = userRepository.count();
+            try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+                long shardCount = shardCounts.get(shardKey).total();
 
                 long shardStart = globalTotal;
                 long shardEnd = globalTotal + shardCount;
@@ -562,8 +548,6 @@ public class UserServiceImpl implements UserService {
                 globalTotal += shardCount;
             } catch (Exception e) {
                 log.error("Error processing shard {}", shardKey, e);
-            } finally {
-                ShardContext.clear();
             }
         }
 
@@ -571,9 +555,118 @@ public class UserServiceImpl implements UserService {
         return PageResponse.of(pagedResponses, pageImpl);
     }
 
+    /**
+     * Shards are exported one after another, each through a server-side cursor
+     * in its own read-only transaction. Every entity is detached once mapped so
+     * the persistence context never grows beyond the current row.
+     *
+     * Runs without the class-level transaction: a surrounding transaction
+     * would pin the connection of the first shard and every later shard's
+     * transaction would join it.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long exportActiveUsers(Consumer<UserResponse> consumer) {
+        List<String> shardKeys = new ArrayList<>(shardingProperties.getShards().keySet());
+        Collections.sort(shardKeys);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnly.setReadOnly(true);
+
+        long exported = 0;
+        for (String shardKey : shardKeys) {
+            try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
+                Long shardExported = readOnly.execute(status -> {
+                    long count = 0;
+                    try (Stream<User> users = userRepository.streamActiveUsers()) {
+                        Iterator<User> it = users.iterator();
+                        while (it.hasNext()) {
+                            User user = it.next();
+                            consumer.accept(mapUserWithCountry(user));
+                            entityManager.detach(user);
+                            count++;
+                        }
+                    }
+                    // Nothing of this shard may leak into the next one
+                    entityManager.clear();
+                    return count;
+                });
+                log.info("Exported {} users from shard {}", shardExported, shardKey);
+                exported += shardExported != null ? shardExported : 0;
+            }
+        }
+        return exported;
+    }
+
+    @Override
+    public UserCountResponse getUserCounts() {
+        return userCountService.getUserCounts();
+    }
+
+    /**
+     * Keyset pagination across shards. Every shard returns its next
+     * {@code size + 1} active users after the cursor in parallel; the sorted
+     * per-shard lists are then k-way merged with a heap and the first
+     * {@code size} rows form the page. A leftover row on any shard means there
+     * is a next page. Shards that are unavailable are skipped and the page is
+     * flagged as partial; their rows before the returned cursor are not
+     * revisited.
+     */
+    @Override
+    public CursorPageResponse<UserResponse> getAllUsersByCursor(String cursor, int size) {
+        if (size <= 0) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        log.info("Fetching users (cursor), cursor [{}], size [{}]", cursor, size);
+
+        UserKeysetCursor after = cursor == null || cursor.isBlank() ? null : UserKeysetCursor.decode(cursor);
+        int limit = size + 1;
+
+        ShardFanOut.PartialResult<List<User>> shardPages = shardFanOut.onAllShardsAllowingPartial(
+                shardKey -> after == null
+                        ? userRepository.findActiveFirstPage(limit)
+                        : userRepository.findActivePageAfter(after.createdAt(), after.id(), limit));
+
+        // Heap of per-shard iterators, ordered by each iterator's current head
+        record Head(User user, Iterator<User> rest) {
+        }
+        PriorityQueue<Head> heap = new PriorityQueue<>(
+                Comparator.comparing(Head::user, UserKeysetCursor.ORDER));
+        for (List<User> shardPage : shardPages.results().values()) {
+            Iterator<User> it = shardPage.iterator();
+            if (it.hasNext()) {
+                heap.add(new Head(it.next(), it));
+            }
+        }
+
+        List<User> merged = new ArrayList<>(size);
+        while (merged.size() < size && !heap.isEmpty()) {
+            Head head = heap.poll();
+            merged.add(head.user());
+            if (head.rest().hasNext()) {
+                heap.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+
+        String nextCursor = !heap.isEmpty() && !merged.isEmpty()
+                ? UserKeysetCursor.of(merged.get(merged.size() - 1)).encode()
+                : null;
+        List<UserResponse> content = merged.stream().map(this::mapUserWithCountry).toList();
+        CursorPageResponse<UserResponse> response = CursorPageResponse.of(content, size, nextCursor);
+        if (shardPages.isPartial()) {
+            log.warn("User cursor page is missing shards {}", shardPages.unavailableShards());
+            response.setPartial(true);
+            response.setUnavailableSources(new ArrayList<>(shardPages.unavailableShards()));
+        }
+        return response;
+    }
+
     /**
      * Non-paginated search. Kept for backward compatibility.
      * Now enforces isActive and combines FTS with filters by intersecting IDs.
+     * Without a country every shard is searched in parallel; shards that do not
+     * answer in time are left out.
      */
     @Override
     public List<UserResponse> searchUsers(
@@ -594,119 +687,52 @@ public class UserServiceImpl implements UserService {
                 employmentTypes,
                 username);
 
-        try {
-            if (country != null && !country.isBlank()) {
-                country = country.trim();
-                String shardKey = ShardingProperties.resolveShard(country);
-                ShardContext.setShardKey(shardKey);
-            } else {
-                ShardContext.setShardKey("user_shard_vn");
-            }
-
-            List<String> skillList = (skills != null && !skills.isEmpty())
-                    ? Arrays.stream(skills.split(","))
-                            .map(s -> s.toLowerCase().trim())
-                            .filter(s -> !s.isEmpty())
-                            .toList()
-                    : Collections.emptyList();
-
-            // Parse city (prioritize city over country when both provided)
-            String cityFilter = (city != null && !city.isBlank())
-                    ? city.trim()
-                    : null;
-
-            // Parse country (only used when city not provided)
-            UUID countryFilterId = null;
-            if ((cityFilter == null) && country != null && !country.isBlank()) {
-                countryFilterId = countryRepository
-                        .findByAbbreviationIgnoreCase(country.trim())
-                        .map(Country::getId)
-                        .orElse(null);
+        if (country == null || country.isBlank()) {
+            Specification<User> baseSpec = buildSearchSpecification(
+                    skills, null, city, education, workExperience, employmentTypes);
+            ShardFanOut.PartialResult<List<User>> result = shardFanOut.onAllShardsAllowingPartial(
+                    shardKey -> userRepository.findAll(withUsernameFilter(baseSpec, username), SEARCH_ORDER));
+            if (result.isPartial()) {
+                log.warn("Global user search is missing shards {}", result.unavailableShards());
             }
+            return result.results().values().stream()
+                    .flatMap(List::stream)
+                    .sorted(UserKeysetCursor.ORDER)
+                    .map(this::mapUserWithCountry)
+                    .toList();
+        }
 
-            // Parse education level
-            EducationLevel educationLevel = null;
-            if (education != null && !education.isBlank()) {
-                try {
-                    educationLevel = EducationLevel.valueOf(
-                            education.trim().toUpperCase());
-                } catch (IllegalArgumentException ignored) {
-                    educationLevel = null;
-                }
+        List<String> countryShards = shardMapService.current().readShards(country.trim());
+        if (countryShards.size() > 1) {
+            Specification<User> spec = withUsernameFilter(buildSearchSpecification(
+                    skills, country, city, education, workExperience, employmentTypes), username);
+            ShardFanOut.PartialResult<List<User>> result = shardFanOut.onShardsAllowingPartial(
+                    countryShards, shardKey -> userRepository.findAll(spec, SEARCH_ORDER));
+            if (result.isPartial()) {
+                log.warn("User search for country {} is missing shards {}", country, result.unavailableShards());
             }
+            return result.results().values().stream()
+                    .flatMap(List::stream)
+                    .sorted(UserKeysetCursor.ORDER)
+                    .map(this::mapUserWithCountry)
+                    .toList();
+        }
 
-            // Parse work experience keywords (CSV)
-            List<String> workExpKeywords = (workExperience != null &&
-                    !workExperience.isBlank())
-                            ? Arrays.stream(workExperience.split(","))
-                                    .map(s -> s.toLowerCase().trim())
-                                    .filter(s -> !s.isEmpty())
-                                    .toList()
-                            : Collections.emptyList();
-
-            // Parse employment types (CSV)
-            List<EmploymentType> empTypes = (employmentTypes != null
-                    && !employmentTypes.isBlank())
-                            ? Arrays.stream(employmentTypes.split(","))
-                                    .map(String::trim)
-                                    .filter(s -> !s.isEmpty())
-                                    .map(String::toUpperCase)
-                                    .map(typeStr -> {
-                                        try {
-                                            return EmploymentType.valueOf(
-                                                    typeStr);
-                                        } catch (IllegalArgumentException ex) {
-                                            return null;
-                                        }
-                                    })
-                                    .filter(java.util.Objects::nonNull)
-                                    .toList()
-                            : java.util.Collections.emptyList();
-
-            Specification<User> spec = Specification.where(
-                    UserSpecification.isActive())
-                    .and(UserSpecification.hasSkills(skillList))
-                    // Location: prioritize city over country
-                    .and(UserSpecification.hasCity(cityFilter))
-                    .and(UserSpecification.hasCountry(countryFilterId))
-                    // Education level
-                    .and(UserSpecification.hasEducationLevel(educationLevel))
-                    // Work experience keywords
-                    .and(UserSpecification.hasWorkExperienceKeywords(workExpKeywords))
-                    // Employment types
-                    .and(UserSpecification.hasEmploymentTypes(empTypes));
-
-            if (username != null && !username.isEmpty()) {
-                String un = username.trim();
-
-                // Case-insensitive LIKE across username fields (firstName, lastName)
-                spec = spec.and(UserSpecification.hasUsername(un));
-
-                // Apply FTS when available (AND only when there are matches)
-                List<User> ftsCandidates = userRepository.findByFts(un);
-                if (!ftsCandidates.isEmpty()) {
-                    List<UUID> ftsIds = ftsCandidates
-                            .stream()
-                            .map(User::getId)
-                            .toList();
-                    spec = spec.and(UserSpecification.idIn(ftsIds));
-                }
-
-                // Do not apply country filtering from username text here
-            }
+        try (ShardContext.Scope scope = ShardContext.use(countryShards.get(0))) {
+            Specification<User> spec = withUsernameFilter(buildSearchSpecification(
+                    skills, country, city, education, workExperience, employmentTypes), username);
 
             return userRepository
                     .findAll(spec)
                     .stream()
                     .map(this::mapUserWithCountry)
                     .toList();
-        } finally {
-            ShardContext.clear();
         }
     }
 
     /**
      * Paginated search combining FTS with filters and enforcing isActive.
+     * Without a country every shard is searched; see {@link #searchShardsPaged}.
      */
     public PageResponse<UserResponse> searchUsersPaged(
             String skills,
@@ -730,106 +756,23 @@ public class UserServiceImpl implements UserService {
                 page,
                 size);
 
-        if (country != null && !country.isBlank()) {
-            country = country.trim();
-            String shardKey = ShardingProperties.resolveShard(country);
-            ShardContext.setShardKey(shardKey);
-        } else {
-            ShardContext.setShardKey("user_shard_vn");
+        if (country == null || country.isBlank()) {
+            Specification<User> baseSpec = buildSearchSpecification(
+                    skills, null, city, education, workExperience, employmentTypes);
+            return searchShardsPaged(shardingProperties.getShards().keySet(), baseSpec, username, page, size);
         }
 
-        try {
-            List<String> skillList = (skills != null && !skills.isEmpty())
-                    ? Arrays.stream(skills.split(","))
-                            .map(s -> s.toLowerCase().trim())
-                            .filter(s -> !s.isEmpty())
-                            .toList()
-                    : Collections.emptyList();
-
-            // Parse city (prioritize city over country when both provided)
-            String cityFilter = (city != null && !city.isBlank())
-                    ? city.trim()
-                    : null;
-
-            // Parse country (only used when city not provided)
-            UUID countryFilterId = null;
-            if ((cityFilter == null) && country != null && !country.isBlank()) {
-                countryFilterId = countryRepository
-                        .findByAbbreviationIgnoreCase(country.trim())
-                        .map(Country::getId)
-                        .orElse(null);
-            }
-
-            // Parse education level
-            com.team.ja.common.enumeration.EducationLevel educationLevel = null;
-            if (education != null && !education.isBlank()) {
-                try {
-                    educationLevel = com.team.ja.common.enumeration.EducationLevel.valueOf(
-                            education.trim().toUpperCase());
-                } catch (IllegalArgumentException ignored) {
-                    educationLevel = null;
-                }
-            }
-
-            // Parse work experience keywords (CSV)
-            List<String> workExpKeywords = (workExperience != null &&
-                    !workExperience.isBlank())
-                            ? Arrays.stream(workExperience.split(","))
-                                    .map(s -> s.toLowerCase().trim())
-                                    .filter(s -> !s.isEmpty())
-                                    .toList()
-                            : Collections.emptyList();
-
-            // Parse employment types (CSV)
-            List<com.team.ja.common.enumeration.EmploymentType> empTypes = (employmentTypes != null
-                    && !employmentTypes.isBlank())
-                            ? Arrays.stream(employmentTypes.split(","))
-                                    .map(String::trim)
-                                    .filter(s -> !s.isEmpty())
-                                    .map(String::toUpperCase)
-                                    .map(typeStr -> {
-                                        try {
-                                            return com.team.ja.common.enumeration.EmploymentType.valueOf(
-                                                    typeStr);
-                                        } catch (IllegalArgumentException ex) {
-                                            return null;
-                                        }
-                                    })
-                                    .filter(java.util.Objects::nonNull)
-                                    .toList()
-                            : java.util.Collections.emptyList();
-
-            Specification<User> spec = Specification.where(
-                    UserSpecification.isActive())
-                    .and(UserSpecification.hasSkills(skillList))
-                    // Location: prioritize city over country
-                    .and(UserSpecification.hasCity(cityFilter))
-                    .and(UserSpecification.hasCountry(countryFilterId))
-                    // Education level
-                    .and(UserSpecification.hasEducationLevel(educationLevel))
-                    // Work experience keywords
-                    .and(UserSpecification.hasWorkExperienceKeywords(workExpKeywords))
-                    // Employment types
-                    .and(UserSpecification.hasEmploymentTypes(empTypes));
-
-            if (username != null && !username.isEmpty()) {
-                String un = username.trim();
-
-                // Case-insensitive LIKE across username fields (firstName, lastName)
-                spec = spec.and(UserSpecification.hasUsername(un));
-
-                // Apply FTS when available (AND only when there are matches)
-                List<User> ftsCandidates = userRepository.findByFts(un);
-                if (!ftsCandidates.isEmpty()) {
-                    List<UUID> ftsIds = ftsCandidates
-                            .stream()
-                            .map(User::getId)
-                            .toList();
-                    spec = spec.and(UserSpecification.idIn(ftsIds));
-                }
+        List<String> countryShards = shardMapService.current().readShards(country.trim());
+        if (countryShards.size() > 1) {
+            // Country is being split or spread over sub-shards
+            Specification<User> countrySpec = buildSearchSpecification(
+                    skills, country, city, education, workExperience, employmentTypes);
+            return searchShardsPaged(countryShards, countrySpec, username, page, size);
+        }
 
-                // Do not apply country filtering from username text here
-            }
+        try (ShardContext.Scope scope = ShardContext.use(countryShards.get(0))) {
+            Specification<User> spec = withUsernameFilter(buildSearchSpecification(
+                    skills, country, city, education, workExperience, employmentTypes), username);
 
             Pageable pageable = PageRequest.of(page, size);
             Page<User> result = userRepository.findAll(spec, pageable);
@@ -841,108 +784,244 @@ public class UserServiceImpl implements UserService {
                     .toList();
 
             return PageResponse.of(content, result);
-        } finally {
-            ShardContext.clear();
         }
     }
 
+    /**
+     * Multi-shard search. Every shard runs the query at the same time and returns
+     * its first {@code (page + 1) * size} rows in (createdAt, id) order plus its
+     * match count. The rows are merged into one ordering, the requested page is
+     * cut from it and the total is the sum of the shard counts. Shards that
+     * fail or time out are skipped and the page is flagged as partial.
+     */
+    private PageResponse<UserResponse> searchShardsPaged(
+            Collection<String> shardKeys,
+            Specification<User> baseSpec,
+            String username,
+            int page,
+            int size) {
+        Pageable topN = PageRequest.of(0, (page + 1) * size, SEARCH_ORDER);
+        ShardFanOut.PartialResult<Page<User>> result = shardFanOut.onShardsAllowingPartial(
+                shardKeys, shardKey -> userRepository.findAll(withUsernameFilter(baseSpec, username), topN));
+
+        long total = 0;
+        List<User> candidates = new ArrayList<>();
+        for (Page<User> shardPage : result.results().values()) {
+            total += shardPage.getTotalElements();
+            candidates.addAll(shardPage.getContent());
+        }
+        candidates.sort(UserKeysetCursor.ORDER);
+
+        int from = Math.min(page * size, candidates.size());
+        int to = Math.min(from + size, candidates.size());
+        List<UserResponse> content = candidates.subList(from, to).stream()
+                .map(this::mapUserWithCountry)
+                .toList();
+
+        PageResponse<UserResponse> response = PageResponse.of(content, page, size, total);
+        if (result.isPartial()) {
+            log.warn("User search page {} is missing shards {}", page, result.unavailableShards());
+            response.setPartial(true);
+            response.setUnavailableSources(new ArrayList<>(result.unavailableShards()));
+        }
+        return response;
+    }
+
+    /**
+     * Builds the shard-independent part of the search filter.
+     */
+    private Specification<User> buildSearchSpecification(
+            String skills,
+            String country,
+            String city,
+            String education,
+            String workExperience,
+            String employmentTypes) {
+        List<String> skillList = (skills != null && !skills.isEmpty())
+                ? Arrays.stream(skills.split(","))
+                        .map(s -> s.toLowerCase().trim())
+                        .filter(s -> !s.isEmpty())
+                        .toList()
+                : Collections.emptyList();
+
+        // Parse city (prioritize city over country when both provided)
+        String cityFilter = (city != null && !city.isBlank())
+                ? city.trim()
+                : null;
+
+        // Parse country (only used when city not provided)
+        UUID countryFilterId = null;
+        if ((cityFilter == null) && country != null && !country.isBlank()) {
+            countryFilterId = countryRegistry
+                    .findByAbbreviation(country)
+                    .map(CountryRegistry.CountryEntry::id)
+                    .orElse(null);
+        }
+
+        // Parse education level
+        EducationLevel educationLevel = null;
+        if (education != null && !education.isBlank()) {
+            try {
+                educationLevel = EducationLevel.valueOf(
+                        education.trim().toUpperCase());
+            } catch (IllegalArgumentException ignored) {
+                educationLevel = null;
+            }
+        }
+
+        // Parse work experience keywords (CSV)
+        List<String> workExpKeywords = (workExperience != null &&
+                !workExperience.isBlank())
+                        ? Arrays.stream(workExperience.split(","))
+                                .map(s -> s.toLowerCase().trim())
+                                .filter(s -> !s.isEmpty())
+                                .toList()
+                        : Collections.emptyList();
+
+        // Parse employment types (CSV)
+        List<EmploymentType> empTypes = (employmentTypes != null
+                && !employmentTypes.isBlank())
+                        ? Arrays.stream(employmentTypes.split(","))
+                                .map(String::trim)
+                                .filter(s -> !s.isEmpty())
+                                .map(String::toUpperCase)
+                                .map(typeStr -> {
+                                    try {
+                                        return EmploymentType.valueOf(
+                                                typeStr);
+                                    } catch (IllegalArgumentException ex) {
+                                        return null;
+                                    }
+                                })
+                                .filter(Objects::nonNull)
+                                .toList()
+                        : Collections.emptyList();
+
+        return Specification.where(
+                UserSpecification.isActive())
+                .and(UserSpecification.hasSkills(skillList))
+                // Location: prioritize city over country
+                .and(UserSpecification.hasCity(cityFilter))
+                .and(UserSpecification.hasCountry(countryFilterId))
+                // Education level
+                .and(UserSpecification.hasEducationLevel(educationLevel))
+                // Work experience keywords
+                .and(UserSpecification.hasWorkExperienceKeywords(workExpKeywords))
+                // Employment types
+                .and(UserSpecification.hasEmploymentTypes(empTypes));
+    }
+
+    /**
+     * Adds the username filter. The FTS candidates come from the current
+     * shard, so this must run with the target ShardContext set.
+     */
+    private Specification<User> withUsernameFilter(Specification<User> spec, String username) {
+        if (username == null || username.isEmpty()) {
+            return spec;
+        }
+        String un = username.trim();
+
+        // Case-insensitive LIKE across username fields (firstName, lastName)
+        spec = spec.and(UserSpecification.hasUsername(un));
+
+        // Apply FTS when available (AND only when there are matches)
+        List<User> ftsCandidates = userRepository.findByFts(un);
+        if (!ftsCandidates.isEmpty()) {
+            List<UUID> ftsIds = ftsCandidates
+                    .stream()
+                    .map(User::getId)
+                    .toList();
+            spec = spec.and(UserSpecification.idIn(ftsIds));
+        }
+
+        // Do not apply country filtering from username text here
+        return spec;
+    }
+
     @Override
     @Transactional
+    @ShardedBy("userId")
     public void deactivateUser(UUID userId) {
         log.info("=== START deactivateUser - UserID: {}", userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        log.info("Found shard key for user {}: {}", userId, shardKey);
-        ShardContext.setShardKey(shardKey);
-        log.info("Shard context set to: {}", shardKey);
-
+        String shardKey = ShardContext.requireShardKey();
         try {
+            log.info("Shard context set to: {}", shardKey);
             User user = userRepository
                     .findById(userId)
                     .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
+            if (user.isActive()) {
+                userCountService.recordDeactivated(shardKey);
+            }
             user.deactivate();
             userRepository.save(user);
             log.info("Deactivated user with ID: {}", userId);
         } finally {
-            log.info("Clearing shard context");
-            ShardContext.clear();
             log.info("=== END deactivateUser");
         }
     }
 
     @Override
     @Transactional
+    @ShardedBy("userId")
     public UserResponse reactivateUser(UUID userId) {
         log.info("Reactivating user with ID: {}", userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
-        try {
-            User user = userRepository
-                    .findById(userId)
-                    .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
-
-            if (user.isActive()) {
-                log.warn("User {} is already active", userId);
-                return mapUserWithCountry(user);
-            }
-
-            user.activate();
-            User savedUser = userRepository.save(user);
+        String shardKey = ShardContext.requireShardKey();
+        User user = userRepository
+                .findById(userId)
+                .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
 
-            log.info("Reactivated user with ID: {}", userId);
-            return mapUserWithCountry(savedUser);
-        } finally {
-            ShardContext.clear();
+        if (user.isActive()) {
+            log.warn("User {} is already active", userId);
+            return mapUserWithCountry(user);
         }
 
+        user.activate();
+        User savedUser = userRepository.save(user);
+        userCountService.recordReactivated(shardKey);
+
+        log.info("Reactivated user with ID: {}", userId);
+        return mapUserWithCountry(savedUser);
     }
 
     @Override
     public boolean existsByEmail(String email) {
 
         String shardKey = shardLookupService.findShardByUserEmail(email);
-        ShardContext.setShardKey(shardKey);
-
-        try {
+        if (shardKey == null) {
+            return false;
+        }
+        try (ShardContext.Scope scope = ShardContext.use(shardKey)) {
             log.info("email: '{}' exist in db", email);
             return userRepository.existsByEmail(email);
-        } finally {
-            ShardContext.clear();
         }
     }
 
     @Override
     @Transactional
+    @ShardedBy("userId")
     public void changePassword(UUID userId, ChangePasswordRequest request) {
         log.info("Changing password for user: {}", userId);
 
         // Get user to retrieve email
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
-        try {
-            User user = userRepository
-                    .findById(userId)
-                    .filter(User::isActive)
-                    .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
+        User user = userRepository
+                .findById(userId)
+                .filter(User::isActive)
+                .orElseThrow(() -> new NotFoundException("User", "id", userId.toString()));
 
-            // Call auth-service to change password
-            authServiceClient.changePassword(user.getEmail(), request);
+        // Call auth-service to change password
+        authServiceClient.changePassword(user.getEmail(), request);
 
-            log.info("Password changed successfully for user: {}", userId);
-        } finally {
-            ShardContext.clear();
-        }
+        log.info("Password changed successfully for user: {}", userId);
     }
 
     private UserResponse mapUserWithCountry(User user) {
         UserResponse response = userMapper.toResponse(user);
         if (user.getCountryId() != null) {
-            countryRepository
+            countryRegistry
                     .findById(user.getCountryId())
-                    .map(countryMapper::toResponse)
+                    .map(CountryRegistry.CountryEntry::toResponse)
                     .ifPresent(response::setCountry);
         }
         return response;
@@ -952,9 +1031,9 @@ public class UserServiceImpl implements UserService {
             UserWorkExperience workExp) {
         UserWorkExperienceResponse response = userWorkExperienceMapper.toResponse(workExp);
         if (workExp.getCountryId() != null) {
-            countryRepository
+            countryRegistry
                     .findById(workExp.getCountryId())
-                    .map(countryMapper::toResponse)
+                    .map(CountryRegistry.CountryEntry::toResponse)
                     .ifPresent(response::setCountry);
         }
         return response;
@@ -1,14 +1,12 @@
 package com.team.ja.user.service.impl;
 
 import com.team.ja.common.exception.NotFoundException;
-import com.team.ja.user.config.sharding.ShardContext;
+import com.team.ja.user.config.sharding.ShardedBy;
 import com.team.ja.user.dto.request.CreateUserWorkExperienceRequest;
 import com.team.ja.user.dto.request.UpdateUserWorkExperienceRequest;
 import com.team.ja.user.dto.response.UserWorkExperienceResponse;
-import com.team.ja.user.mapper.CountryMapper;
 import com.team.ja.user.mapper.UserWorkExperienceMapper;
 import com.team.ja.user.model.UserWorkExperience;
-import com.team.ja.user.repository.CountryRepository;
 import com.team.ja.user.repository.UserRepository;
 import com.team.ja.user.repository.UserWorkExperienceRepository;
 import com.team.ja.user.service.UserWorkExperienceService;
@@ -31,26 +29,21 @@ public class UserWorkExperienceServiceImpl implements UserWorkExperienceService
 
     private final UserWorkExperienceRepository workExperienceRepository;
     private final UserRepository userRepository;
-    private final CountryRepository countryRepository;
+    private final CountryRegistry countryRegistry;
     private final UserWorkExperienceMapper workExperienceMapper;
-    private final CountryMapper countryMapper;
-    private final ShardLookupService shardLookupService;
 
     @Override
     @Transactional
+    @ShardedBy("userId")
     public UserWorkExperienceResponse createWorkExperience(UUID userId, CreateUserWorkExperienceRequest request) {
         log.info("Creating work experience for user: {}", userId);
 
         // Verify user exists
         validateUserExists(userId);
 
-        // Save work experience in the correct shard with the user's shard key
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
         // Validate country if provided
         if (request.getCountryId() != null) {
-            countryRepository.findById(request.getCountryId())
+            countryRegistry.findById(request.getCountryId())
                     .orElseThrow(() -> new NotFoundException("Country", "id", request.getCountryId().toString()));
         }
 
@@ -74,13 +67,11 @@ public class UserWorkExperienceServiceImpl implements UserWorkExperienceService
 
     @Override
     @Transactional
+    @ShardedBy("userId")
     public UserWorkExperienceResponse updateWorkExperience(UUID userId, UUID workExpId,
             UpdateUserWorkExperienceRequest request) {
         log.info("Updating work experience {} for user {}", workExpId, userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
         UserWorkExperience workExp = workExperienceRepository.findByIdAndUserIdAndIsActiveTrue(workExpId, userId)
                 .orElseThrow(() -> new NotFoundException("Work Experience", "id", workExpId.toString()));
 
@@ -95,7 +86,7 @@ public class UserWorkExperienceServiceImpl implements UserWorkExperienceService
             workExp.setEmploymentType(request.getEmploymentType());
         }
         if (request.getCountryId() != null) {
-            countryRepository.findById(request.getCountryId())
+            countryRegistry.findById(request.getCountryId())
                     .orElseThrow(() -> new NotFoundException("Country", "id", request.getCountryId().toString()));
             workExp.setCountryId(request.getCountryId());
         }
@@ -119,12 +110,10 @@ public class UserWorkExperienceServiceImpl implements UserWorkExperienceService
     }
 
     @Override
+    @ShardedBy("userId")
     public List<UserWorkExperienceResponse> getWorkExperienceByUserId(UUID userId) {
         log.info("Fetching work experience for user: {}", userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
         List<UserWorkExperience> workExperiences = workExperienceRepository
                 .findByUserIdAndIsActiveTrueOrderByStartAtDesc(userId);
 
@@ -134,12 +123,10 @@ public class UserWorkExperienceServiceImpl implements UserWorkExperienceService
     }
 
     @Override
+    @ShardedBy("userId")
     public UserWorkExperienceResponse getWorkExperienceById(UUID userId, UUID workExpId) {
         log.info("Fetching work experience {} for user {}", workExpId, userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
         UserWorkExperience workExp = workExperienceRepository.findByIdAndUserIdAndIsActiveTrue(workExpId, userId)
                 .orElseThrow(() -> new NotFoundException("Work Experience", "id", workExpId.toString()));
 
@@ -148,12 +135,10 @@ public class UserWorkExperienceServiceImpl implements UserWorkExperienceService
 
     @Override
     @Transactional
+    @ShardedBy("userId")
     public void deleteWorkExperience(UUID userId, UUID workExpId) {
         log.info("Deleting work experience {} for user {}", workExpId, userId);
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
         UserWorkExperience workExp = workExperienceRepository.findByIdAndUserIdAndIsActiveTrue(workExpId, userId)
                 .orElseThrow(() -> new NotFoundException("Work Experience", "id", workExpId.toString()));
 
@@ -165,9 +150,6 @@ public class UserWorkExperienceServiceImpl implements UserWorkExperienceService
 
     private void validateUserExists(UUID userId) {
 
-        String shardKey = shardLookupService.findShardIdByUserId(userId);
-        ShardContext.setShardKey(shardKey);
-
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("User", "id", userId.toString());
         }
@@ -177,8 +159,8 @@ public class UserWorkExperienceServiceImpl implements UserWorkExperienceService
         UserWorkExperienceResponse response = workExperienceMapper.toResponse(workExp);
 
         if (workExp.getCountryId() != null) {
-            countryRepository.findById(workExp.getCountryId())
-                    .map(countryMapper::toResponse)
+            countryRegistry.findById(workExp.getCountryId())
+                    .map(CountryRegistry.CountryEntry::toResponse)
                     .ifPresent(response::setCountry);
         }
 
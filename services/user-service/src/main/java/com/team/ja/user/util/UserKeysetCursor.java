@@ -0,0 +1,62 @@
+package com.team.ja.user.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+import com.team.ja.common.exception.BadRequestException;
+import com.team.ja.user.model.User;
+
+/**
+ * Position in the global (created_at, id) ordering of users, serialized as an
+ * opaque URL-safe token.
+ *
+ * {@link #ORDER} sorts exactly like PostgreSQL's
+ * {@code ORDER BY created_at, id}: uuid values compare as unsigned bytes, which
+ * differs from {@link UUID#compareTo}.
+ */
+public record UserKeysetCursor(LocalDateTime createdAt, UUID id) {
+
+    public static final Comparator<User> ORDER = Comparator
+            .comparing(User::getCreatedAt)
+            .thenComparing(User::getId, UserKeysetCursor::compareUuid);
+
+    private static final String SEPARATOR = "|";
+
+    public static UserKeysetCursor of(User user) {
+        return new UserKeysetCursor(user.getCreatedAt(), user.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @throws BadRequestException if the token is malformed
+     */
+    public static UserKeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            if (split < 0) {
+                throw new BadRequestException("Invalid cursor", "INVALID_CURSOR");
+            }
+            return new UserKeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, split)),
+                    UUID.fromString(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", "INVALID_CURSOR");
+        }
+    }
+
+    private static int compareUuid(UUID a, UUID b) {
+        int cmp = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
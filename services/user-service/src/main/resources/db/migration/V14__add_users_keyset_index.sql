@@ -0,0 +1,2 @@
+-- Keyset pagination over active users: WHERE (created_at, id) > (?, ?) ORDER BY created_at, id
+CREATE INDEX IF NOT EXISTS idx_users_active_created_at_id ON users(created_at, id) WHERE is_active = TRUE;
@@ -0,0 +1,11 @@
+-- Inserts that already carry fts_document (bulk import, shard moves) skip the per-row trigger;
+-- regular inserts never set the column and still get it computed. Updates always recompute it.
+DROP TRIGGER IF EXISTS trg_users_fts_update ON users;
+
+CREATE TRIGGER trg_users_fts_insert
+BEFORE INSERT ON users
+FOR EACH ROW WHEN (NEW.fts_document IS NULL) EXECUTE FUNCTION update_users_fts_document();
+
+CREATE TRIGGER trg_users_fts_update
+BEFORE UPDATE ON users
+FOR EACH ROW EXECUTE FUNCTION update_users_fts_document();
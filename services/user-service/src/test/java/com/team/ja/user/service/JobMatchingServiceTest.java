@@ -0,0 +1,317 @@
+package com.team.ja.user.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.team.ja.common.event.JobPostingEvent;
+import com.team.ja.common.event.UserSearchProfileUpdateEvent;
+import com.team.ja.user.util.SalaryRangeValidator;
+
+/**
+ * Checks the compiled matcher against the predicate it replaced, kept below
+ * as {@link #legacyIsMatch}.
+ */
+class JobMatchingServiceTest {
+
+    private static final UUID JAVA = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SQL = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID GO = UUID.fromString("ffffffff-0000-0000-0000-000000000001");
+
+    private final JobMatchingService service = new JobMatchingService(2, 4);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    static Stream<Arguments> cases() {
+        return Stream.of(
+                // Country
+                row("profile without country", job(), profile(), true),
+                row("same country, other case", job().countryCode("vn"), profile().countryAbbreviation("VN"), true),
+                row("other country", job().countryCode("US"), profile().countryAbbreviation("VN"), false),
+                row("job without country", job().countryCode(null), profile().countryAbbreviation("VN"), false),
+                row("blank profile country", job().countryCode("US"), profile().countryAbbreviation(""), true),
+
+                // Employment types
+                row("job without types", job().employmentTypes(null), profile(), false),
+                row("job with no types", job().employmentTypes(List.of()), profile(), false),
+                row("default types, full time", job().employmentTypes(List.of("FULL_TIME")),
+                        profile().employmentTypes(List.of()), true),
+                row("default types, contract", job().employmentTypes(List.of("CONTRACT")),
+                        profile().employmentTypes(null), false),
+                row("overlapping types", job().employmentTypes(List.of("CONTRACT", "INTERNSHIP")),
+                        profile().employmentTypes(List.of("INTERNSHIP")), true),
+                row("disjoint types", job().employmentTypes(List.of("CONTRACT")),
+                        profile().employmentTypes(List.of("FULL_TIME")), false),
+                row("same other type", job().employmentTypes(List.of("SEASONAL")),
+                        profile().employmentTypes(List.of("SEASONAL")), true),
+                row("other type against known", job().employmentTypes(List.of("SEASONAL")),
+                        profile().employmentTypes(List.of("FULL_TIME")), false),
+                row("other type, other case", job().employmentTypes(List.of("seasonal")),
+                        profile().employmentTypes(List.of("SEASONAL")), false),
+                row("other type against default", job().employmentTypes(List.of("full_time")),
+                        profile().employmentTypes(null), false),
+                row("null type on both sides", job().employmentTypes(Arrays.asList((String) null)),
+                        profile().employmentTypes(Arrays.asList((String) null)), true),
+
+                // Skills
+                row("profile without skills", job().requiredSkillIds(null), profile().skillIds(null), true),
+                row("job without skills", job().requiredSkillIds(null), profile().skillIds(List.of(JAVA)), false),
+                row("overlapping skills", job().requiredSkillIds(List.of(SQL, GO)),
+                        profile().skillIds(List.of(GO, JAVA)), true),
+                row("disjoint skills", job().requiredSkillIds(List.of(SQL)), profile().skillIds(List.of(JAVA, GO)),
+                        false),
+                row("duplicate skills", job().requiredSkillIds(List.of(SQL, SQL)),
+                        profile().skillIds(List.of(SQL, SQL)), true),
+                row("null skill on both sides", job().requiredSkillIds(Arrays.asList(null, SQL)),
+                        profile().skillIds(Arrays.asList(JAVA, null)), true),
+                row("null skill on the job only", job().requiredSkillIds(Arrays.asList((UUID) null)),
+                        profile().skillIds(List.of(JAVA)), false),
+                row("only a null profile skill", job().requiredSkillIds(List.of(JAVA)),
+                        profile().skillIds(Arrays.asList((UUID) null)), false),
+
+                // Fresher
+                row("fresher profile, fresher job", job().fresher(true), profile().isFresher(true), true),
+                row("fresher profile, other job", job().fresher(false), profile().isFresher(true), false),
+                row("fresher profile, unknown job", job().fresher(null), profile().isFresher(true), false),
+                row("any profile, unknown job", job().fresher(null), profile().isFresher(null), true),
+
+                // Job titles
+                row("profile without titles", job().title(null), profile().jobTitles(null), true),
+                row("contained title", job().title("Senior Java Developer"),
+                        profile().jobTitles(List.of("java developer")), true),
+                row("title not contained", job().title("Java Developer"), profile().jobTitles(List.of("Kotlin")),
+                        false),
+                row("job without title", job().title(null), profile().jobTitles(List.of("java")), false),
+                row("blank job title", job().title(""), profile().jobTitles(List.of("java")), false),
+                row("only blank desired titles", job().title("Java Developer"),
+                        profile().jobTitles(Arrays.asList("", null)), false),
+                row("blank and real desired titles", job().title("Java Developer"),
+                        profile().jobTitles(Arrays.asList("", null, "DEVELOPER")), true),
+                row("whitespace desired title", job().title("Java Developer"), profile().jobTitles(List.of(" ")),
+                        true),
+
+                // Salary
+                row("undeclared job salary", job().salaryMin(null).salaryMax(null), profile().minSalary(big("5000")),
+                        true),
+                row("zero job minimum only", job().salaryMin(BigDecimal.ZERO).salaryMax(null),
+                        profile().minSalary(big("5000")), true),
+                row("negative job minimum only", job().salaryMin(big("-1")).salaryMax(null),
+                        profile().minSalary(big("5000")), true),
+                row("job maximum reaches profile minimum", job().salaryMin(null).salaryMax(big("5000")),
+                        profile().minSalary(big("5000.00")), true),
+                row("job maximum below profile minimum", job().salaryMin(null).salaryMax(big("4999.99")),
+                        profile().minSalary(big("5000")), false),
+                row("job minimum at profile maximum", job().salaryMin(big("8000")).salaryMax(null),
+                        profile().minSalary(big("5000")).maxSalary(big("8000")), true),
+                row("job minimum above profile maximum", job().salaryMin(big("8000.01")).salaryMax(big("9000")),
+                        profile().minSalary(big("5000")).maxSalary(big("8000")), false),
+                row("job range below profile range", job().salaryMin(big("1000")).salaryMax(big("4000")),
+                        profile().minSalary(big("5000")).maxSalary(big("8000")), false),
+                row("job minimum below unbounded profile", job().salaryMin(big("4000")).salaryMax(null),
+                        profile().minSalary(big("5000")), true),
+                row("job range above unbounded profile minimum", job().salaryMin(big("6000")).salaryMax(big("7000")),
+                        profile().minSalary(big("5000")), true),
+                row("job minimum above unbounded profile", job().salaryMin(big("6000")).salaryMax(null),
+                        profile().minSalary(big("5000")), false),
+                row("profile without minimum", job().salaryMin(big("6000")).salaryMax(null), profile().minSalary(null),
+                        false),
+                row("sub-cent amounts", job().salaryMin(null).salaryMax(big("4999.995")),
+                        profile().minSalary(big("4999.991")), true),
+                row("sub-cent amounts below", job().salaryMin(null).salaryMax(big("4999.991")),
+                        profile().minSalary(big("4999.995")), false),
+                row("amounts beyond long", job().salaryMin(big("1e30")).salaryMax(null),
+                        profile().minSalary(big("5000")).maxSalary(big("2e30")), true),
+                row("amounts beyond long below", job().salaryMin(big("3e30")).salaryMax(null),
+                        profile().minSalary(big("5000")).maxSalary(big("2e30")), false));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("cases")
+    void matchesLikeTheLegacyPredicate(String name, JobPostingEvent job, UserSearchProfileUpdateEvent profile,
+            boolean expected) {
+        assertThat(legacyIsMatch(job, profile)).as("legacy").isEqualTo(expected);
+        assertThat(service.isMatch(service.compile(job), service.compile(profile))).as("compiled")
+                .isEqualTo(expected);
+        assertThat(service.isMatch(job, profile)).as("uncompiled").isEqualTo(expected);
+    }
+
+    @Test
+    void matchAllAgreesWithTheLegacyPredicateInParallel() {
+        Random random = new Random(42);
+        List<UserSearchProfileUpdateEvent> profiles = IntStream.range(0, 500)
+                .mapToObj(i -> randomProfile(random))
+                .toList();
+        JobMatchingService.CompiledProfile[] compiled = profiles.stream()
+                .map(service::compile)
+                .toArray(JobMatchingService.CompiledProfile[]::new);
+
+        for (int n = 0; n < 200; n++) {
+            JobPostingEvent job = randomJob(random);
+            int[] expected = IntStream.range(0, profiles.size())
+                    .filter(i -> legacyIsMatch(job, profiles.get(i)))
+                    .toArray();
+            assertThat(service.matchAll(service.compile(job), compiled)).as("job %s", job).isEqualTo(expected);
+        }
+    }
+
+    private static JobPostingEvent randomJob(Random random) {
+        return JobPostingEvent.builder()
+                .jobPostId(UUID.randomUUID())
+                .title(pick(random, null, "", "Java Developer", "Senior SQL Engineer", "go dev"))
+                .countryCode(pick(random, null, "", "VN", "us"))
+                .employmentTypes(pick(random, null, List.of(), List.of("FULL_TIME"), List.of("CONTRACT", "SEASONAL"),
+                        List.of("PART_TIME", "INTERNSHIP")))
+                .requiredSkillIds(pick(random, null, List.of(), List.of(JAVA), List.of(SQL, GO),
+                        Arrays.asList(null, GO)))
+                .salaryMin(pick(random, null, BigDecimal.ZERO, big("1000"), big("5000.5"), big("1e25")))
+                .salaryMax(pick(random, null, big("999.99"), big("5000"), big("9000"), big("1e26")))
+                .fresher(pick(random, null, true, false))
+                .build();
+    }
+
+    private static UserSearchProfileUpdateEvent randomProfile(Random random) {
+        return UserSearchProfileUpdateEvent.builder()
+                .userId(UUID.randomUUID())
+                .countryAbbreviation(pick(random, null, "", "VN", "US"))
+                .employmentTypes(pick(random, null, List.of(), List.of("FULL_TIME"), List.of("CONTRACT"),
+                        List.of("SEASONAL", "INTERNSHIP")))
+                .skillIds(pick(random, null, List.of(), List.of(JAVA), List.of(GO, SQL), Arrays.asList((UUID) null)))
+                .minSalary(pick(random, null, BigDecimal.ZERO, big("1000"), big("5000"), big("1e25")))
+                .maxSalary(pick(random, null, big("1000"), big("8000.5"), big("1e27")))
+                .isFresher(pick(random, null, true, false))
+                .jobTitles(pick(random, null, List.of(), List.of("java"), Arrays.asList("", "ENGINEER"),
+                        List.of("dev", "sql")))
+                .build();
+    }
+
+    @SafeVarargs
+    private static <T> T pick(Random random, T... values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static Arguments row(String name, JobPostingEvent.JobPostingEventBuilder job,
+            UserSearchProfileUpdateEvent.UserSearchProfileUpdateEventBuilder profile, boolean expected) {
+        return Arguments.of(name, job.build(), profile.build(), expected);
+    }
+
+    /**
+     * A job every default profile matches; cases override single fields.
+     */
+    private static JobPostingEvent.JobPostingEventBuilder job() {
+        return JobPostingEvent.builder()
+                .jobPostId(UUID.randomUUID())
+                .title("Java Developer")
+                .countryCode("VN")
+                .employmentTypes(List.of("FULL_TIME"))
+                .requiredSkillIds(List.of(JAVA))
+                .fresher(false);
+    }
+
+    private static UserSearchProfileUpdateEvent.UserSearchProfileUpdateEventBuilder profile() {
+        return UserSearchProfileUpdateEvent.builder()
+                .userId(UUID.randomUUID());
+    }
+
+    private static BigDecimal big(String value) {
+        return new BigDecimal(value);
+    }
+
+    // The matcher before profiles were compiled
+
+    private static boolean legacyIsMatch(JobPostingEvent job, UserSearchProfileUpdateEvent profile) {
+        return legacyCountryMatch(job, profile)
+                && legacyEmploymentTypeMatch(job, profile)
+                && SalaryRangeValidator.isSalaryInRange(job.getSalaryMin(), job.getSalaryMax(),
+                        profile.getMinSalary() != null ? profile.getMinSalary() : BigDecimal.ZERO,
+                        profile.getMaxSalary())
+                && legacySkillMatch(job, profile)
+                && legacyFresherMatch(job, profile)
+                && legacyJobTitleMatch(job, profile);
+    }
+
+    private static boolean legacyCountryMatch(JobPostingEvent job, UserSearchProfileUpdateEvent profile) {
+        if (profile.getCountryAbbreviation() == null || profile.getCountryAbbreviation().isEmpty()) {
+            return true;
+        }
+        if (job.getCountryCode() == null || job.getCountryCode().isEmpty()) {
+            return false;
+        }
+        return profile.getCountryAbbreviation().equalsIgnoreCase(job.getCountryCode());
+    }
+
+    private static boolean legacyEmploymentTypeMatch(JobPostingEvent job, UserSearchProfileUpdateEvent profile) {
+        if (job.getEmploymentTypes() == null || job.getEmploymentTypes().isEmpty()) {
+            return false;
+        }
+        if (profile.getEmploymentTypes() == null || profile.getEmploymentTypes().isEmpty()) {
+            return job.getEmploymentTypes().contains("FULL_TIME") || job.getEmploymentTypes().contains("PART_TIME");
+        }
+        for (String jobType : job.getEmploymentTypes()) {
+            if (profile.getEmploymentTypes().contains(jobType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean legacySkillMatch(JobPostingEvent job, UserSearchProfileUpdateEvent profile) {
+        if (profile.getSkillIds() == null || profile.getSkillIds().isEmpty()) {
+            return true;
+        }
+        if (job.getRequiredSkillIds() == null || job.getRequiredSkillIds().isEmpty()) {
+            return false;
+        }
+        Set<UUID> jobSkills = new HashSet<>(job.getRequiredSkillIds());
+        for (UUID skillId : new HashSet<>(profile.getSkillIds())) {
+            if (jobSkills.contains(skillId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean legacyFresherMatch(JobPostingEvent job, UserSearchProfileUpdateEvent profile) {
+        if (profile.getIsFresher() == null || !profile.getIsFresher()) {
+            return true;
+        }
+        if (job.getFresher() == null) {
+            return false;
+        }
+        return job.getFresher();
+    }
+
+    private static boolean legacyJobTitleMatch(JobPostingEvent job, UserSearchProfileUpdateEvent profile) {
+        if (profile.getJobTitles() == null || profile.getJobTitles().isEmpty()) {
+            return true;
+        }
+        if (job.getTitle() == null || job.getTitle().isEmpty()) {
+            return false;
+        }
+        String jobTitle = job.getTitle().toLowerCase();
+        List<String> desiredTitles = new ArrayList<>(profile.getJobTitles());
+        for (String desiredTitle : desiredTitles) {
+            if (desiredTitle != null && !desiredTitle.isEmpty() && jobTitle.contains(desiredTitle.toLowerCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
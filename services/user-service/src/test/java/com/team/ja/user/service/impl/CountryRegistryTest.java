@@ -0,0 +1,72 @@
+package com.team.ja.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.team.ja.user.model.Country;
+import com.team.ja.user.repository.CountryRepository;
+
+class CountryRegistryTest {
+
+    private final CountryRepository countryRepository = mock(CountryRepository.class);
+
+    private CountryRegistry registry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(countryRepository.findAll()).thenReturn(List.of(
+                country("United States", "US", true),
+                country("United Kingdom", "GB", true),
+                country("South Africa", "ZA", true),
+                country("South Korea", "KR", true),
+                country("Viet Nam", "VN", true),
+                country("Vatican City", "VA", false)));
+        registry = new CountryRegistry(countryRepository, mock(RedisTemplate.class),
+                mock(RedisMessageListenerContainer.class));
+    }
+
+    @Test
+    void matchesNameWordPrefixesAndAbbreviations() {
+        assertThat(names("uni")).containsExactly("United Kingdom", "United States");
+        assertThat(names("Nam")).containsExactly("Viet Nam");
+        assertThat(names("za")).containsExactly("South Africa");
+    }
+
+    @Test
+    void matchesQueriesOfSeveralWords() {
+        assertThat(names("united st")).containsExactly("United States");
+        assertThat(names("South  af")).containsExactly("South Africa");
+        assertThat(names(" Viet Nam ")).containsExactly("Viet Nam");
+        assertThat(names("south kingdom")).isEmpty();
+    }
+
+    @Test
+    void leavesOutInactiveCountries() {
+        assertThat(names("vatican")).isEmpty();
+        assertThat(names("")).hasSize(5);
+        assertThat(names(null)).hasSize(5);
+    }
+
+    private List<String> names(String query) {
+        return registry.search(query).stream().map(CountryRegistry.CountryEntry::name).toList();
+    }
+
+    private static Country country(String name, String abbreviation, boolean active) {
+        return Country.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .abbreviation(abbreviation)
+                .isActive(active)
+                .build();
+    }
+}
@@ -0,0 +1,243 @@
+package com.team.ja.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.team.ja.common.event.JobPostingEvent;
+import com.team.ja.common.event.UserSearchProfileUpdateEvent;
+import com.team.ja.user.config.sharding.ShardFanOut;
+import com.team.ja.user.config.sharding.ShardFanOut.PartialResult;
+import com.team.ja.user.service.JobMatchingService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Checks that the postings never prune a profile the matcher accepts, by
+ * comparing {@link JobMatchIndex#match} with a scan of every profile.
+ */
+class JobMatchIndexTest {
+
+    private static final List<String> SHARDS = List.of("user_shard_a", "user_shard_b");
+    private static final UUID JAVA = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SQL = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID GO = UUID.fromString("ffffffff-0000-0000-0000-000000000001");
+
+    private final JobMatchingService jobMatchingService = new JobMatchingService(2, 16);
+    private final ShardFanOut shardFanOut = mock(ShardFanOut.class);
+    private final Random random = new Random(7);
+
+    private JobMatchIndex index;
+    private Map<String, List<UserSearchProfileUpdateEvent>> profiles;
+    private List<UUID> premiumUsers;
+
+    @BeforeEach
+    void setUp() {
+        profiles = new LinkedHashMap<>();
+        premiumUsers = new ArrayList<>();
+        for (String shardKey : SHARDS) {
+            List<UserSearchProfileUpdateEvent> shardProfiles = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                UserSearchProfileUpdateEvent profile = randomProfile();
+                shardProfiles.add(profile);
+                if (random.nextInt(4) > 0) {
+                    premiumUsers.add(profile.getUserId());
+                }
+            }
+            profiles.put(shardKey, shardProfiles);
+        }
+        index = new JobMatchIndex(jobMatchingService, shardFanOut, mock(JdbcTemplate.class),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void matchesWhatAScanOfAllPremiumProfilesMatches() {
+        stubLoad(Set.of());
+
+        for (int n = 0; n < 300; n++) {
+            JobPostingEvent job = randomJob();
+            assertThat(matchedUsers(job)).as("job %s", job).isEqualTo(scan(job));
+        }
+    }
+
+    @Test
+    void followsProfileAndPremiumUpdates() {
+        stubLoad(Set.of());
+        JobPostingEvent job = randomJob();
+        matchedUsers(job);
+
+        UserSearchProfileUpdateEvent added = matchingProfile(job);
+        index.put(SHARDS.get(0), added);
+        assertThat(matchedUsers(job)).doesNotContain(added.getUserId());
+
+        index.setPremium(added.getUserId(), true);
+        assertThat(matchedUsers(job)).contains(added.getUserId());
+
+        index.remove(added.getUserId());
+        assertThat(matchedUsers(job)).doesNotContain(added.getUserId());
+    }
+
+    @Test
+    void replaysUpdatesMadeWhileRebuilding() {
+        stubLoad(Set.of());
+        JobPostingEvent job = randomJob();
+        matchedUsers(job);
+
+        UserSearchProfileUpdateEvent added = matchingProfile(job);
+        PartialResult<List<UserSearchProfileUpdateEvent>> loaded = new PartialResult<>(profiles, Set.of());
+        PartialResult<List<UUID>> premium = new PartialResult<>(premiumByShard(), Set.of());
+        doAnswer(invocation -> {
+            // Arrives after the shards were read, so the load does not see it
+            index.put(SHARDS.get(1), added);
+            index.setPremium(added.getUserId(), true);
+            return loaded;
+        }).doReturn(premium).when(shardFanOut).onAllShardsAllowingPartial(any());
+        index.rebuild();
+
+        assertThat(matchedUsers(job)).contains(added.getUserId());
+    }
+
+    @Test
+    void keepsTheProfilesOfUnavailableShardsOnRebuild() {
+        stubLoad(Set.of());
+        JobPostingEvent job = anyProfileJob();
+        Set<UUID> before = matchedUsers(job);
+        assertThat(before).isNotEmpty();
+
+        stubLoad(Set.of(SHARDS.get(1)));
+        index.rebuild();
+
+        assertThat(matchedUsers(job)).isEqualTo(before);
+    }
+
+    @Test
+    void buildsFromTheReachableShards() {
+        stubLoad(Set.of(SHARDS.get(1)));
+        JobPostingEvent job = anyProfileJob();
+
+        Set<UUID> shardA = profiles.get(SHARDS.get(0)).stream()
+                .map(UserSearchProfileUpdateEvent::getUserId)
+                .collect(Collectors.toSet());
+        assertThat(matchedUsers(job)).isNotEmpty().allMatch(shardA::contains);
+    }
+
+    private void stubLoad(Set<String> unavailable) {
+        Map<String, List<UserSearchProfileUpdateEvent>> reachable = new LinkedHashMap<>(profiles);
+        Map<String, List<UUID>> premium = premiumByShard();
+        unavailable.forEach(shardKey -> {
+            reachable.remove(shardKey);
+            premium.remove(shardKey);
+        });
+        doReturn(new PartialResult<>(reachable, unavailable), new PartialResult<>(premium, unavailable))
+                .when(shardFanOut).onAllShardsAllowingPartial(any());
+    }
+
+    private Map<String, List<UUID>> premiumByShard() {
+        Map<String, List<UUID>> premium = new LinkedHashMap<>();
+        profiles.forEach((shardKey, shardProfiles) -> premium.put(shardKey, shardProfiles.stream()
+                .map(UserSearchProfileUpdateEvent::getUserId)
+                .filter(premiumUsers::contains)
+                .toList()));
+        return premium;
+    }
+
+    private Set<UUID> matchedUsers(JobPostingEvent job) {
+        return index.match(job).stream()
+                .map(UserSearchProfileUpdateEvent::getUserId)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<UUID> scan(JobPostingEvent job) {
+        return profiles.values().stream()
+                .flatMap(List::stream)
+                .filter(profile -> premiumUsers.contains(profile.getUserId()))
+                .filter(profile -> jobMatchingService.isMatch(job, profile))
+                .map(UserSearchProfileUpdateEvent::getUserId)
+                .collect(Collectors.toSet());
+    }
+
+    private UserSearchProfileUpdateEvent matchingProfile(JobPostingEvent job) {
+        UserSearchProfileUpdateEvent profile = UserSearchProfileUpdateEvent.builder()
+                .userId(UUID.randomUUID())
+                .build();
+        assertThat(jobMatchingService.isMatch(job, profile)).isTrue();
+        return profile;
+    }
+
+    /**
+     * A job that every profile without restrictions matches.
+     */
+    private static JobPostingEvent anyProfileJob() {
+        return JobPostingEvent.builder()
+                .jobPostId(UUID.randomUUID())
+                .title("Java Developer")
+                .countryCode("VN")
+                .employmentTypes(List.of("FULL_TIME"))
+                .requiredSkillIds(List.of(JAVA))
+                .fresher(true)
+                .build();
+    }
+
+    private JobPostingEvent randomJob() {
+        if (random.nextInt(5) == 0) {
+            return anyProfileJob();
+        }
+        return JobPostingEvent.builder()
+                .jobPostId(UUID.randomUUID())
+                .title(pick(null, "", "Java Developer", "Senior SQL Engineer", "go dev", "Data Engineer"))
+                .countryCode(pick(null, "", "VN", "us"))
+                .employmentTypes(pick(List.of(), List.of("FULL_TIME"), List.of("CONTRACT", "SEASONAL"),
+                        List.of("PART_TIME", "INTERNSHIP")))
+                .requiredSkillIds(pick(null, List.of(JAVA), List.of(SQL, GO), Arrays.asList(null, GO)))
+                .salaryMin(pick(null, BigDecimal.ZERO, new BigDecimal("1000"), new BigDecimal("5000.5"),
+                        new BigDecimal("1e25")))
+                .salaryMax(pick(null, new BigDecimal("999.99"), new BigDecimal("5000"), new BigDecimal("9000"),
+                        new BigDecimal("1e26")))
+                .fresher(pick(null, true, false))
+                .build();
+    }
+
+    private UserSearchProfileUpdateEvent randomProfile() {
+        return UserSearchProfileUpdateEvent.builder()
+                .userId(UUID.randomUUID())
+                .countryAbbreviation(pick(null, "", "VN", "US", " vn "))
+                .employmentTypes(pick(null, List.of(), List.of("FULL_TIME"), List.of("CONTRACT"),
+                        List.of("SEASONAL", "INTERNSHIP")))
+                .skillIds(pick(null, List.of(), List.of(JAVA), List.of(GO, SQL), Arrays.asList((UUID) null)))
+                .minSalary(pick(null, BigDecimal.ZERO, new BigDecimal("1000"), new BigDecimal("5000"),
+                        new BigDecimal("-5"), new BigDecimal("1e25")))
+                .maxSalary(pick(null, new BigDecimal("1000"), new BigDecimal("8000.5"), new BigDecimal("1e27")))
+                .isFresher(pick(null, true, false))
+                .jobTitles(pick(null, List.of(), List.of("java"), Arrays.asList("", "ENGINEER"),
+                        List.of("dev", "sql"), List.of("data engineer", "engineer")))
+                .build();
+    }
+
+    @SafeVarargs
+    private <T> T pick(T... values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,101 @@
+package com.team.ja.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class JobTitleAutomatonTest {
+
+    @Test
+    void reportsOverlappingPatterns() {
+        JobTitleAutomaton automaton = JobTitleAutomaton.of(List.of("he", "she", "his", "hers"));
+
+        assertThat(matches(automaton, "ushers")).containsExactly("she", "he", "hers");
+    }
+
+    @Test
+    void followsFailureLinksIntoSharedSuffixes() {
+        JobTitleAutomaton automaton = JobTitleAutomaton.of(
+                List.of("senior java developer", "java developer", "developer", "dev", "java dev lead"));
+
+        assertThat(matches(automaton, "senior java dev lead"))
+                .containsExactlyInAnyOrder("dev", "java dev lead");
+        assertThat(matches(automaton, "junior java developer"))
+                .containsExactlyInAnyOrder("dev", "developer", "java developer");
+        assertThat(matches(automaton, "senior java developer"))
+                .containsExactlyInAnyOrder("dev", "developer", "java developer", "senior java developer");
+    }
+
+    @Test
+    void reportsEveryOccurrence() {
+        JobTitleAutomaton automaton = JobTitleAutomaton.of(List.of("aa", "a"));
+
+        assertThat(matches(automaton, "aaa")).containsExactly("a", "aa", "a", "aa", "a");
+    }
+
+    @Test
+    void matchesCharactersAsGiven() {
+        JobTitleAutomaton automaton = JobTitleAutomaton.of(List.of("java developer"));
+
+        // Callers fold case; the automaton itself does not
+        assertThat(matches(automaton, "Senior JAVA Developer")).isEmpty();
+        assertThat(matches(automaton, "Senior JAVA Developer".toLowerCase())).containsExactly("java developer");
+    }
+
+    @Test
+    void neverReportsEmptyPatterns() {
+        JobTitleAutomaton automaton = JobTitleAutomaton.of(List.of("", "dev", ""));
+
+        assertThat(automaton.size()).isEqualTo(3);
+        assertThat(matches(automaton, "dev")).containsExactly("dev");
+        assertThat(matches(automaton, "")).isEmpty();
+        assertThat(matches(JobTitleAutomaton.of(List.of("")), "anything")).isEmpty();
+        assertThat(matches(JobTitleAutomaton.empty(), "anything")).isEmpty();
+    }
+
+    @Test
+    void agreesWithNaiveSearch() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int i = random.nextInt(20); i >= 0; i--) {
+                String pattern = randomText(random, 4);
+                if (!patterns.contains(pattern)) {
+                    patterns.add(pattern);
+                }
+            }
+            JobTitleAutomaton automaton = JobTitleAutomaton.of(patterns);
+            String text = randomText(random, 40);
+
+            List<String> expected = new ArrayList<>();
+            for (int end = 1; end <= text.length(); end++) {
+                for (String pattern : patterns) {
+                    if (!pattern.isEmpty() && text.startsWith(pattern, end - pattern.length())) {
+                        expected.add(pattern);
+                    }
+                }
+            }
+            assertThat(matches(automaton, text)).as("%s in %s", patterns, text)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    private static List<String> matches(JobTitleAutomaton automaton, String text) {
+        List<String> matches = new ArrayList<>();
+        automaton.forEachMatch(text, id -> matches.add(automaton.pattern(id)));
+        return matches;
+    }
+
+    // Small alphabet, so patterns overlap and share prefixes and suffixes
+    private static String randomText(Random random, int maxLength) {
+        StringBuilder text = new StringBuilder();
+        for (int i = random.nextInt(maxLength + 1); i > 0; i--) {
+            text.append("ab c".charAt(random.nextInt(4)));
+        }
+        return text.toString();
+    }
+}